@@ -0,0 +1,92 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.labs64.netlicensing.demo.benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+
+import com.labs64.netlicensing.demo.ConsoleWriter;
+
+/**
+ * Runs the operations of the single-threaded benchmarks and reports time and allocation per operation. Allocations are
+ * measured with the HotSpot thread allocation counter where available.
+ */
+final class BenchmarkHarness {
+
+    /** Keeps the results alive, so that the operations can't be optimized away */
+    private static volatile Object sink;
+
+    private BenchmarkHarness() {
+        // utility class constructor
+    }
+
+    /**
+     * Measured operation.
+     */
+    interface Operation {
+
+        /**
+         * @return result of the operation, kept alive by the harness
+         */
+        Object run() throws Exception;
+
+    }
+
+    /**
+     * Warms the operation up with a quarter of the iterations, then measures and reports it.
+     *
+     * @param out
+     *            destination of the report
+     * @param label
+     *            label of the report line
+     * @param operation
+     *            operation to measure
+     * @param iterations
+     *            number of measured runs
+     */
+    static void report(final ConsoleWriter out, final String label, final Operation operation, final int iterations)
+            throws Exception {
+        // warm-up, result is discarded
+        measure(operation, Math.max(1, iterations / 4));
+        final long allocatedBefore = getAllocatedBytes();
+        final long elapsedNanos = measure(operation, iterations);
+        final long allocated = getAllocatedBytes() - allocatedBefore;
+        final double microsPerOp = elapsedNanos / (double) TimeUnit.MICROSECONDS.toNanos(1) / iterations;
+        out.writeMessage(String.format("%-34s %12.1f us/op %12s bytes/op", label, microsPerOp,
+                ((allocatedBefore >= 0) && (allocated >= 0)) ? String.valueOf(allocated / iterations) : "n/a"));
+    }
+
+    /**
+     * @return elapsed time in nanoseconds
+     */
+    private static long measure(final Operation operation, final int iterations) throws Exception {
+        final long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            sink = operation.run();
+        }
+        return System.nanoTime() - start;
+    }
+
+    /**
+     * @return bytes allocated by the current thread so far, or a negative value if not supported by the JVM
+     */
+    private static long getAllocatedBytes() {
+        final java.lang.management.ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        if (threadMXBean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) threadMXBean).getThreadAllocatedBytes(
+                    Thread.currentThread().getId());
+        }
+        return -1;
+    }
+
+}
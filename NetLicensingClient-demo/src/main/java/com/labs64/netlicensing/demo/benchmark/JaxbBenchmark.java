@@ -0,0 +1,69 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.labs64.netlicensing.demo.benchmark;
+
+import static com.labs64.netlicensing.demo.benchmark.BenchmarkHarness.report;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.Marshaller;
+import javax.xml.transform.stream.StreamSource;
+
+import com.labs64.netlicensing.demo.ConsoleWriter;
+import com.labs64.netlicensing.demo.benchmark.BenchmarkHarness.Operation;
+import com.labs64.netlicensing.schema.context.Netlicensing;
+import com.labs64.netlicensing.util.JAXBUtils;
+
+/**
+ * Compares the cost of reading and writing a validation response with a JAXB context created per call, as
+ * {@link JAXBUtils} did before, and with the cached context and pooled (un)marshallers of {@link JAXBUtils}.
+ * <p>
+ * Usage: {@code JaxbBenchmark [iterations]}
+ */
+public class JaxbBenchmark {
+
+    private static final int DEFAULT_ITERATIONS = 2000;
+
+    private static final byte[] PAYLOAD = MockNetLicensingServer.VALIDATION_RESPONSE.getBytes(StandardCharsets.UTF_8);
+
+    public static void main(final String[] args) throws Exception {
+        final int iterations = (args.length > 0) ? Integer.parseInt(args[0]) : DEFAULT_ITERATIONS;
+        final ConsoleWriter out = new ConsoleWriter();
+        out.writeMessage(String.format("%d iterations per operation", iterations));
+
+        final Netlicensing netlicensing = JAXBUtils.readObjectFromInputStream(new ByteArrayInputStream(PAYLOAD),
+                Netlicensing.class);
+
+        final Operation readUncached = () -> JAXBContext.newInstance(Netlicensing.class).createUnmarshaller()
+                .unmarshal(new StreamSource(new ByteArrayInputStream(PAYLOAD)), Netlicensing.class).getValue();
+        final Operation readCached = () -> JAXBUtils.readObjectFromInputStream(new ByteArrayInputStream(PAYLOAD),
+                Netlicensing.class);
+        final Operation writeUncached = () -> {
+            final Marshaller marshaller = JAXBContext.newInstance(Netlicensing.class).createMarshaller();
+            marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, true);
+            final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            marshaller.marshal(netlicensing, buffer);
+            return buffer.toString();
+        };
+        final Operation writeCached = () -> JAXBUtils.xmlEntityToString(netlicensing);
+
+        report(out, "read, context per call:", readUncached, iterations);
+        report(out, "read, cached + pooled:", readCached, iterations);
+        report(out, "write, context per call:", writeUncached, iterations);
+        report(out, "write, cached + pooled:", writeCached, iterations);
+    }
+
+}
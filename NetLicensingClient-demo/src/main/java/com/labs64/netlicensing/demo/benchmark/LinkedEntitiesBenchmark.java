@@ -0,0 +1,126 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.labs64.netlicensing.demo.benchmark;
+
+import static com.labs64.netlicensing.demo.benchmark.BenchmarkHarness.report;
+
+import java.util.List;
+
+import com.labs64.netlicensing.demo.ConsoleWriter;
+import com.labs64.netlicensing.domain.Constants;
+import com.labs64.netlicensing.domain.EntityFactory;
+import com.labs64.netlicensing.domain.entity.Product;
+import com.labs64.netlicensing.domain.vo.Page;
+import com.labs64.netlicensing.schema.context.Item;
+import com.labs64.netlicensing.schema.context.Netlicensing;
+import com.labs64.netlicensing.schema.context.Property;
+
+/**
+ * Measures {@link EntityFactory#createPage(Netlicensing, Class)} for a synthetic product page with embedded product
+ * modules, license templates and licensees, which have to be linked to their parents, compared with the same page
+ * without embedded entities.
+ * <p>
+ * Each product has {@value #MODULES_PER_PRODUCT} product modules with {@value #TEMPLATES_PER_MODULE} license
+ * templates each and {@value #LICENSEES_PER_PRODUCT} licensees, i.e. 100 embedded entities, so the default of 100
+ * products gives 10000 embedded entities.
+ * <p>
+ * Usage: {@code LinkedEntitiesBenchmark [products] [iterations]}
+ */
+public class LinkedEntitiesBenchmark {
+
+    private static final int DEFAULT_PRODUCTS = 100;
+
+    private static final int DEFAULT_ITERATIONS = 50;
+
+    private static final int MODULES_PER_PRODUCT = 5;
+
+    private static final int TEMPLATES_PER_MODULE = 4;
+
+    private static final int LICENSEES_PER_PRODUCT = 75;
+
+    public static void main(final String[] args) throws Exception {
+        final int productCount = (args.length > 0) ? Integer.parseInt(args[0]) : DEFAULT_PRODUCTS;
+        final int iterations = (args.length > 1) ? Integer.parseInt(args[1]) : DEFAULT_ITERATIONS;
+
+        final ConsoleWriter out = new ConsoleWriter();
+        final EntityFactory entityFactory = new EntityFactory();
+
+        final Netlicensing productsOnly = createPage(productCount, false);
+        final Netlicensing withLinked = createPage(productCount, true);
+        out.writeMessage(String.format("%d products, %d embedded entities, %d iterations", productCount,
+                withLinked.getItems().getItem().size() - productCount, iterations));
+
+        final Page<Product> page = entityFactory.createPage(withLinked, Product.class);
+        final Product first = page.getContent().get(0);
+        out.writeMessage(String.format("first product: %d product modules, %d licensees, %d license templates",
+                first.getProductModules().size(), first.getLicensees().size(),
+                first.getProductModules().iterator().next().getLicenseTemplates().size()));
+
+        report(out, "products only:", () -> entityFactory.createPage(productsOnly, Product.class), iterations);
+        report(out, "with embedded entities:", () -> entityFactory.createPage(withLinked, Product.class), iterations);
+    }
+
+    private static Netlicensing createPage(final int productCount, final boolean withLinked) {
+        final Netlicensing netlicensing = new Netlicensing();
+        final Netlicensing.Items items = new Netlicensing.Items();
+        items.setPagenumber("0");
+        items.setItemsnumber(String.valueOf(productCount));
+        items.setTotalpages("1");
+        items.setTotalitems(String.valueOf(productCount));
+        items.setHasnext("false");
+        netlicensing.setItems(items);
+
+        final List<Item> page = items.getItem();
+        for (int p = 0; p < productCount; p++) {
+            page.add(item("Product", property(Constants.NUMBER, "P" + p), property(Constants.NAME, "Product " + p),
+                    property(Constants.ACTIVE, "true"), property(Constants.VERSION, "1.0")));
+        }
+        if (withLinked) {
+            // as in service responses, the embedded entities follow the page entities
+            for (int p = 0; p < productCount; p++) {
+                for (int m = 0; m < MODULES_PER_PRODUCT; m++) {
+                    final String moduleNumber = "M" + p + "-" + m;
+                    page.add(item("ProductModule", property(Constants.NUMBER, moduleNumber),
+                            property(Constants.ACTIVE, "true"), property(Constants.NAME, "Module " + moduleNumber),
+                            property(Constants.ProductModule.LICENSING_MODEL, "TryAndBuy"),
+                            property(Constants.Product.PRODUCT_NUMBER, "P" + p)));
+                    for (int t = 0; t < TEMPLATES_PER_MODULE; t++) {
+                        page.add(item("LicenseTemplate", property(Constants.NUMBER, "E" + moduleNumber + "-" + t),
+                                property(Constants.ACTIVE, "true"), property(Constants.NAME, "Template " + t),
+                                property(Constants.LicenseTemplate.LICENSE_TYPE, "FEATURE"),
+                                property(Constants.ProductModule.PRODUCT_MODULE_NUMBER, moduleNumber)));
+                    }
+                }
+                for (int l = 0; l < LICENSEES_PER_PRODUCT; l++) {
+                    page.add(item("Licensee", property(Constants.NUMBER, "I" + p + "-" + l),
+                            property(Constants.ACTIVE, "true"), property(Constants.Product.PRODUCT_NUMBER, "P" + p)));
+                }
+            }
+        }
+        return netlicensing;
+    }
+
+    private static Item item(final String type, final Property... properties) {
+        final Item item = new Item();
+        item.setType(type);
+        for (final Property property : properties) {
+            item.getProperty().add(property);
+        }
+        return item;
+    }
+
+    private static Property property(final String name, final String value) {
+        return new Property(value, name);
+    }
+
+}
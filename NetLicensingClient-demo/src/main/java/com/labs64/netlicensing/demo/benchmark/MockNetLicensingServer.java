@@ -0,0 +1,105 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.labs64.netlicensing.demo.benchmark;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.Charset;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Embedded HTTP server answering NetLicensing API requests with a fixed response after a simulated latency. Used by
+ * the benchmarks so that they don't depend on network conditions or load the real service.
+ */
+public class MockNetLicensingServer implements AutoCloseable {
+
+    public static final String VALIDATION_RESPONSE = "<netlicensing xmlns=\"http://netlicensing.labs64.com/schema/context\">"
+            + "<items><item type=\"ProductModuleValidation\">"
+            + "<property name=\"productModuleNumber\">M001-DEMO</property>"
+            + "<property name=\"licensingModel\">Subscription</property>"
+            + "<property name=\"productModuleName\">Demo module</property>"
+            + "<property name=\"valid\">true</property>"
+            + "<property name=\"expires\">2030-01-01T00:00:00.000Z</property>"
+            + "</item></items></netlicensing>";
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private final HttpServer server;
+
+    private final ExecutorService executor;
+
+    /**
+     * Starts server on a free local port.
+     *
+     * @param latencyMillis
+     *            simulated processing time of each request
+     * @param responseBody
+     *            XML returned for every request
+     * @throws IOException
+     *             if server can't be started
+     */
+    public MockNetLicensingServer(final long latencyMillis, final String responseBody) throws IOException {
+        final byte[] response = responseBody.getBytes(UTF_8);
+        executor = Executors.newCachedThreadPool();
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 4096);
+        server.setExecutor(executor);
+        server.createContext("/", new HttpHandler() {
+
+            @Override
+            public void handle(final HttpExchange exchange) throws IOException {
+                try (final InputStream in = exchange.getRequestBody()) {
+                    final byte[] buffer = new byte[1024];
+                    while (in.read(buffer) >= 0) {
+                        // drain request body, so that the connection can be kept alive
+                    }
+                }
+                if (latencyMillis > 0) {
+                    try {
+                        TimeUnit.MILLISECONDS.sleep(latencyMillis);
+                    } catch (final InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                exchange.getResponseHeaders().set("Content-Type", "application/xml");
+                exchange.sendResponseHeaders(200, response.length);
+                try (final OutputStream out = exchange.getResponseBody()) {
+                    out.write(response);
+                }
+            }
+
+        });
+        server.start();
+    }
+
+    /**
+     * @return base URL to be set in the context
+     */
+    public String getBaseUrl() {
+        return "http://localhost:" + server.getAddress().getPort() + "/core/v2/rest";
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+}
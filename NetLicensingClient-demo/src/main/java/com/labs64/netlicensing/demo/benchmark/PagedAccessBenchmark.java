@@ -0,0 +1,132 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.labs64.netlicensing.demo.benchmark;
+
+import static com.labs64.netlicensing.demo.benchmark.BenchmarkHarness.report;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.Iterator;
+import java.util.List;
+
+import javax.xml.bind.Marshaller;
+
+import com.labs64.netlicensing.demo.ConsoleWriter;
+import com.labs64.netlicensing.domain.Constants;
+import com.labs64.netlicensing.domain.EntityFactory;
+import com.labs64.netlicensing.domain.entity.License;
+import com.labs64.netlicensing.domain.vo.Page;
+import com.labs64.netlicensing.schema.context.Item;
+import com.labs64.netlicensing.schema.context.Netlicensing;
+import com.labs64.netlicensing.schema.context.Property;
+import com.labs64.netlicensing.util.JAXBUtils;
+
+/**
+ * Measures creating a page of licenses and accessing part of it: only the page attributes, the first few entities, or
+ * all entities. The page is created both from an unmarshalled response and from the streamed XML response, with the
+ * entities converted up front and on first access (see
+ * {@link com.labs64.netlicensing.domain.vo.Context#setLazyPageConversion(boolean)}).
+ * <p>
+ * Usage: {@code PagedAccessBenchmark [licenses] [iterations]}
+ */
+public class PagedAccessBenchmark {
+
+    private static final int DEFAULT_LICENSES = 500;
+
+    private static final int DEFAULT_ITERATIONS = 500;
+
+    private static final int FIRST_ENTITIES = 10;
+
+    public static void main(final String[] args) throws Exception {
+        final int licenseCount = (args.length > 0) ? Integer.parseInt(args[0]) : DEFAULT_LICENSES;
+        final int iterations = (args.length > 1) ? Integer.parseInt(args[1]) : DEFAULT_ITERATIONS;
+
+        final ConsoleWriter out = new ConsoleWriter();
+        final EntityFactory entityFactory = new EntityFactory();
+        final Netlicensing netlicensing = createLicensePage(licenseCount);
+        final byte[] xml = toXml(netlicensing);
+
+        out.writeMessage(String.format("page of %d licenses, %d iterations", licenseCount, iterations));
+        for (final boolean lazy : new boolean[] { false, true }) {
+            final String conversion = lazy ? "lazy" : "eager";
+            compare(out, "unmarshalled " + conversion, () -> netlicensing, lazy, entityFactory, iterations);
+            compare(out, "streamed XML " + conversion, () -> entityFactory.read(new ByteArrayInputStream(xml), lazy),
+                    lazy, entityFactory, iterations);
+        }
+    }
+
+    private interface Response {
+
+        Netlicensing get() throws Exception;
+
+    }
+
+    private static void compare(final ConsoleWriter out, final String source, final Response response,
+            final boolean lazy, final EntityFactory entityFactory, final int iterations) throws Exception {
+        report(out, source + ", total items:", () -> entityFactory.createPage(response.get(), License.class, lazy)
+                .getTotalItems(), iterations);
+        report(out, source + ", first " + FIRST_ENTITIES + ":", () -> {
+            final Page<License> page = entityFactory.createPage(response.get(), License.class, lazy);
+            final Iterator<License> licenses = page.iterator();
+            Object last = null;
+            for (int i = 0; (i < FIRST_ENTITIES) && licenses.hasNext(); i++) {
+                last = licenses.next();
+            }
+            return last;
+        }, iterations);
+        report(out, source + ", all:", () -> {
+            Object last = null;
+            for (final License license : entityFactory.createPage(response.get(), License.class, lazy)) {
+                last = license;
+            }
+            return last;
+        }, iterations);
+    }
+
+    private static byte[] toXml(final Netlicensing netlicensing) throws Exception {
+        final Marshaller marshaller = JAXBUtils.getJAXBContext(Netlicensing.class).createMarshaller();
+        marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, false);
+        final ByteArrayOutputStream xml = new ByteArrayOutputStream();
+        marshaller.marshal(netlicensing, xml);
+        return xml.toByteArray();
+    }
+
+    private static Netlicensing createLicensePage(final int licenseCount) {
+        final Netlicensing netlicensing = new Netlicensing();
+        final Netlicensing.Items items = new Netlicensing.Items();
+        items.setPagenumber("0");
+        items.setItemsnumber(String.valueOf(licenseCount));
+        items.setTotalpages("1");
+        items.setTotalitems(String.valueOf(licenseCount));
+        items.setHasnext("false");
+        netlicensing.setItems(items);
+        final List<Item> page = items.getItem();
+        for (int i = 0; i < licenseCount; i++) {
+            final Item item = new Item();
+            item.setType("License");
+            final List<Property> properties = item.getProperty();
+            properties.add(new Property("L" + i, Constants.NUMBER));
+            properties.add(new Property("true", Constants.ACTIVE));
+            properties.add(new Property("License " + i, Constants.NAME));
+            properties.add(new Property("10.00", Constants.PRICE));
+            properties.add(new Property("EUR", Constants.CURRENCY));
+            properties.add(new Property("false", Constants.License.HIDDEN));
+            properties.add(new Property("I" + (i % 10), Constants.Licensee.LICENSEE_NUMBER));
+            properties.add(new Property("E001", Constants.LicenseTemplate.LICENSE_TEMPLATE_NUMBER));
+            properties.add(new Property("custom value " + i, "customProperty"));
+            page.add(item);
+        }
+        return netlicensing;
+    }
+
+}
@@ -0,0 +1,145 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.labs64.netlicensing.demo.benchmark;
+
+import static com.labs64.netlicensing.demo.benchmark.BenchmarkHarness.report;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.labs64.netlicensing.demo.ConsoleWriter;
+import com.labs64.netlicensing.demo.benchmark.BenchmarkHarness.Operation;
+import com.labs64.netlicensing.domain.Constants;
+import com.labs64.netlicensing.domain.entity.License;
+import com.labs64.netlicensing.domain.entity.impl.LicenseImpl;
+import com.labs64.netlicensing.schema.PropertyIndex;
+import com.labs64.netlicensing.schema.SchemaFunction;
+import com.labs64.netlicensing.schema.context.Item;
+import com.labs64.netlicensing.schema.context.Property;
+import com.labs64.netlicensing.schema.converter.ItemToLicenseConverter;
+
+/**
+ * Compares looking up the properties of license items by scanning the property list, as the converters did before,
+ * with the {@link PropertyIndex}, and measures the conversion of a page of licenses and the reserved property checks
+ * made for the custom properties.
+ * <p>
+ * Usage: {@code PropertyLookupBenchmark [items] [customProperties] [iterations]}
+ */
+public class PropertyLookupBenchmark {
+
+    private static final int DEFAULT_ITEMS = 1000;
+
+    private static final int DEFAULT_CUSTOM_PROPERTIES = 20;
+
+    private static final int DEFAULT_ITERATIONS = 200;
+
+    /** Lookups made by the license converter for each item */
+    private static final String[] LICENSE_LOOKUPS = { Constants.ACTIVE, Constants.NUMBER, Constants.NAME,
+            Constants.PRICE, Constants.CURRENCY, Constants.License.HIDDEN,
+            Constants.Licensee.LICENSEE_NUMBER, Constants.LicenseTemplate.LICENSE_TEMPLATE_NUMBER };
+
+    public static void main(final String[] args) throws Exception {
+        final int itemCount = (args.length > 0) ? Integer.parseInt(args[0]) : DEFAULT_ITEMS;
+        final int customProperties = (args.length > 1) ? Integer.parseInt(args[1]) : DEFAULT_CUSTOM_PROPERTIES;
+        final int iterations = (args.length > 2) ? Integer.parseInt(args[2]) : DEFAULT_ITERATIONS;
+
+        final ConsoleWriter out = new ConsoleWriter();
+        out.writeMessage(String.format("%d license items with %d custom properties, %d iterations", itemCount,
+                customProperties, iterations));
+
+        final List<Item> items = createLicenseItems(itemCount, customProperties);
+        final ItemToLicenseConverter converter = new ItemToLicenseConverter();
+
+        final Operation scan = () -> {
+            int found = 0;
+            for (final Item item : items) {
+                for (final String name : LICENSE_LOOKUPS) {
+                    found += (SchemaFunction.propertyByName(item.getProperty(), name).getValue() != null) ? 1 : 0;
+                }
+            }
+            return found;
+        };
+        final Operation index = () -> {
+            int found = 0;
+            for (final Item item : items) {
+                final PropertyIndex properties = new PropertyIndex(item.getProperty());
+                for (final String name : LICENSE_LOOKUPS) {
+                    found += (properties.get(name) != null) ? 1 : 0;
+                }
+            }
+            return found;
+        };
+        final Operation reservedList = () -> {
+            int reserved = 0;
+            for (final Item item : items) {
+                for (final Property property : item.getProperty()) {
+                    reserved += LicenseImpl.getReservedProps().contains(property.getName()) ? 1 : 0;
+                }
+            }
+            return reserved;
+        };
+        final Operation reservedSet = () -> {
+            int reserved = 0;
+            for (final Item item : items) {
+                for (final Property property : item.getProperty()) {
+                    reserved += LicenseImpl.isReservedProp(property.getName()) ? 1 : 0;
+                }
+            }
+            return reserved;
+        };
+        final Operation convert = () -> {
+            final List<License> licenses = new ArrayList<>(items.size());
+            for (final Item item : items) {
+                licenses.add(converter.convert(item));
+            }
+            return licenses;
+        };
+
+        report(out, "lookups, list scan:", scan, iterations);
+        report(out, "lookups, property index:", index, iterations);
+        report(out, "reserved, list per check:", reservedList, iterations);
+        report(out, "reserved, precomputed set:", reservedSet, iterations);
+        report(out, "page conversion:", convert, iterations);
+    }
+
+    private static List<Item> createLicenseItems(final int itemCount, final int customProperties) {
+        final List<Item> items = new ArrayList<>(itemCount);
+        for (int i = 0; i < itemCount; i++) {
+            final Item item = new Item();
+            item.setType("License");
+            final List<Property> properties = item.getProperty();
+            properties.add(property(Constants.NUMBER, "L" + i));
+            properties.add(property(Constants.ACTIVE, "true"));
+            properties.add(property(Constants.NAME, "License " + i));
+            properties.add(property(Constants.Licensee.LICENSEE_NUMBER, "I" + (i % 10)));
+            properties.add(property(Constants.LicenseTemplate.LICENSE_TEMPLATE_NUMBER, "E001"));
+            properties.add(property(Constants.License.HIDDEN, "false"));
+            for (int p = 0; p < customProperties; p++) {
+                properties.add(property("custom" + p, "value" + p));
+            }
+            // as in service responses, price and currency come after the custom properties
+            properties.add(property(Constants.PRICE, "10.00"));
+            properties.add(property(Constants.CURRENCY, "EUR"));
+            items.add(item);
+        }
+        return items;
+    }
+
+    /**
+     * Creates property with a name copy, since names read from responses are never identical to the constants.
+     */
+    private static Property property(final String name, final String value) {
+        return new Property(value, new String(name));
+    }
+
+}
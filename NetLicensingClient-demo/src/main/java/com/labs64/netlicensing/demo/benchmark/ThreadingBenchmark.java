@@ -0,0 +1,129 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.labs64.netlicensing.demo.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import com.labs64.netlicensing.demo.ConsoleWriter;
+import com.labs64.netlicensing.domain.vo.Context;
+import com.labs64.netlicensing.domain.vo.RestProviderType;
+import com.labs64.netlicensing.domain.vo.SecurityMode;
+import com.labs64.netlicensing.domain.vo.ValidationParameters;
+import com.labs64.netlicensing.domain.vo.ValidationResult;
+import com.labs64.netlicensing.service.LicenseeService;
+import com.labs64.netlicensing.service.ServiceExecutor;
+
+/**
+ * Compares throughput of bulk validation on a fixed pool of platform threads and on virtual threads (Java 21 or
+ * later) against an embedded mock server with simulated latency.
+ * <p>
+ * Usage: {@code ThreadingBenchmark [calls] [latencyMillis] [platformThreads] [JERSEY|URL_CONNECTION]}
+ */
+public class ThreadingBenchmark {
+
+    private static final int DEFAULT_CALLS = 2000;
+
+    private static final long DEFAULT_LATENCY_MILLIS = 50;
+
+    private static final int DEFAULT_PLATFORM_THREADS = 64;
+
+    public static void main(final String[] args) throws Exception {
+        final int calls = (args.length > 0) ? Integer.parseInt(args[0]) : DEFAULT_CALLS;
+        final long latencyMillis = (args.length > 1) ? Long.parseLong(args[1]) : DEFAULT_LATENCY_MILLIS;
+        final int platformThreads = (args.length > 2) ? Integer.parseInt(args[2]) : DEFAULT_PLATFORM_THREADS;
+        final RestProviderType providerType = (args.length > 3) ? RestProviderType.valueOf(args[3])
+                : RestProviderType.URL_CONNECTION;
+
+        final ConsoleWriter out = new ConsoleWriter();
+        try (final MockNetLicensingServer server = new MockNetLicensingServer(latencyMillis,
+                MockNetLicensingServer.VALIDATION_RESPONSE)) {
+            final Context context = new Context();
+            context.setBaseUrl(server.getBaseUrl());
+            context.setSecurityMode(SecurityMode.BASIC_AUTHENTICATION);
+            context.setUsername("demo");
+            context.setPassword("demo");
+            context.setRestProviderType(providerType);
+
+            out.writeMessage(String.format("%d validations, %d ms server latency, %s provider", calls, latencyMillis,
+                    providerType));
+
+            final ExecutorService platformExecutor = Executors.newFixedThreadPool(platformThreads);
+            try {
+                // warm-up, result is discarded
+                run(context, platformExecutor, Math.min(calls, 200));
+                report(out, String.format("Platform threads (%d):", platformThreads),
+                        run(context, platformExecutor, calls), calls);
+            } finally {
+                platformExecutor.shutdown();
+            }
+
+            if (ServiceExecutor.isVirtualThreadSupported()) {
+                final ExecutorService virtualExecutor = ServiceExecutor.newVirtualThreadPerTaskExecutor();
+                try {
+                    run(context, virtualExecutor, Math.min(calls, 200));
+                    report(out, "Virtual threads:", run(context, virtualExecutor, calls), calls);
+                } finally {
+                    virtualExecutor.shutdown();
+                }
+            } else {
+                out.writeMessage("Virtual threads: not supported by this Java runtime ("
+                        + System.getProperty("java.version") + ")");
+            }
+        }
+    }
+
+    /**
+     * Validates {@code calls} times concurrently on the given executor.
+     *
+     * @return elapsed time in nanoseconds
+     */
+    private static long run(final Context context, final Executor executor, final int calls) throws Exception {
+        final Context runContext = new Context();
+        runContext.setBaseUrl(context.getBaseUrl());
+        runContext.setSecurityMode(context.getSecurityMode());
+        runContext.setUsername(context.getUsername());
+        runContext.setPassword(context.getPassword());
+        runContext.setRestProviderType(context.getRestProviderType());
+        runContext.setObject(Executor.class, executor);
+
+        final ValidationParameters validationParameters = new ValidationParameters();
+        validationParameters.setProductNumber("P001-DEMO");
+
+        final List<ServiceExecutor.Call<ValidationResult>> validations = new ArrayList<>(calls);
+        for (int i = 0; i < calls; i++) {
+            final String licenseeNumber = "L" + i;
+            validations.add(() -> LicenseeService.validate(runContext, licenseeNumber, validationParameters));
+        }
+
+        final long start = System.nanoTime();
+        for (final CompletableFuture<ValidationResult> future : ServiceExecutor.supplyAllAsync(runContext,
+                validations)) {
+            future.get();
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static void report(final ConsoleWriter out, final String label, final long elapsedNanos,
+            final int calls) {
+        final double seconds = elapsedNanos / (double) TimeUnit.SECONDS.toNanos(1);
+        out.writeMessage(String.format("%-24s %8.1f ms total, %10.1f calls/s", label, seconds * 1000,
+                calls / seconds));
+    }
+
+}
@@ -0,0 +1,168 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.labs64.netlicensing.demo.benchmark;
+
+import static com.labs64.netlicensing.demo.benchmark.BenchmarkHarness.report;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import javax.xml.bind.Marshaller;
+
+import com.labs64.netlicensing.demo.ConsoleWriter;
+import com.labs64.netlicensing.domain.Constants;
+import com.labs64.netlicensing.domain.EntityFactory;
+import com.labs64.netlicensing.domain.entity.License;
+import com.labs64.netlicensing.domain.vo.ValidationResult;
+import com.labs64.netlicensing.schema.context.Item;
+import com.labs64.netlicensing.schema.context.Netlicensing;
+import com.labs64.netlicensing.schema.context.Property;
+import com.labs64.netlicensing.util.JAXBUtils;
+
+/**
+ * Compares the XML and JSON wire formats for a validation response and for a page of licenses: payload size, and time
+ * and allocation of reading the response into entities with JAXB, with the streaming XML reader and with the streaming
+ * JSON reader. Both formats are written without indentation.
+ * <p>
+ * Usage: {@code WireFormatBenchmark [licenses] [iterations]}
+ */
+public class WireFormatBenchmark {
+
+    private static final int DEFAULT_LICENSES = 500;
+
+    private static final int DEFAULT_ITERATIONS = 500;
+
+    public static void main(final String[] args) throws Exception {
+        final int licenseCount = (args.length > 0) ? Integer.parseInt(args[0]) : DEFAULT_LICENSES;
+        final int iterations = (args.length > 1) ? Integer.parseInt(args[1]) : DEFAULT_ITERATIONS;
+
+        final ConsoleWriter out = new ConsoleWriter();
+        final EntityFactory entityFactory = new EntityFactory();
+
+        final Netlicensing validation = JAXBUtils.readObjectFromInputStream(new ByteArrayInputStream(
+                MockNetLicensingServer.VALIDATION_RESPONSE.getBytes(StandardCharsets.UTF_8)), Netlicensing.class);
+        out.writeMessage(String.format("validation response, %d iterations", iterations * 10));
+        compare(out, validation, netlicensing -> entityFactory.create(netlicensing, ValidationResult.class),
+                entityFactory, iterations * 10);
+
+        out.writeMessage(String.format("page of %d licenses, %d iterations", licenseCount, iterations));
+        compare(out, createLicensePage(licenseCount),
+                netlicensing -> entityFactory.createPage(netlicensing, License.class), entityFactory, iterations);
+    }
+
+    private interface Conversion {
+
+        Object convert(Netlicensing netlicensing) throws Exception;
+
+    }
+
+    private static void compare(final ConsoleWriter out, final Netlicensing netlicensing,
+            final Conversion conversion, final EntityFactory entityFactory, final int iterations) throws Exception {
+        final byte[] xml = toXml(netlicensing);
+        final byte[] json = toJson(netlicensing);
+        out.writeMessage(String.format("%-24s %10d bytes", "XML payload:", xml.length));
+        out.writeMessage(String.format("%-24s %10d bytes", "JSON payload:", json.length));
+
+        report(out, "XML, JAXB:", () -> conversion.convert(JAXBUtils.readObjectFromInputStream(
+                new ByteArrayInputStream(xml), Netlicensing.class)), iterations);
+        report(out, "XML, streaming:", () -> conversion.convert(entityFactory.read(new ByteArrayInputStream(xml))),
+                iterations);
+        report(out, "JSON, streaming:", () -> conversion.convert(entityFactory.read(new ByteArrayInputStream(json))),
+                iterations);
+    }
+
+    private static byte[] toXml(final Netlicensing netlicensing) throws Exception {
+        final Marshaller marshaller = JAXBUtils.getJAXBContext(Netlicensing.class).createMarshaller();
+        marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, false);
+        final ByteArrayOutputStream xml = new ByteArrayOutputStream();
+        marshaller.marshal(netlicensing, xml);
+        return xml.toByteArray();
+    }
+
+    /**
+     * Writes the response in the JSON wire format. Covers what the benchmark responses consist of: one page of items
+     * with properties only.
+     */
+    private static byte[] toJson(final Netlicensing netlicensing) {
+        final Netlicensing.Items items = netlicensing.getItems();
+        final StringBuilder json = new StringBuilder("{\"items\":{\"item\":[");
+        for (int i = 0; i < items.getItem().size(); i++) {
+            final Item item = items.getItem().get(i);
+            json.append((i > 0) ? ",{\"type\":" : "{\"type\":");
+            appendString(json, item.getType()).append(",\"property\":[");
+            for (int j = 0; j < item.getProperty().size(); j++) {
+                final Property property = item.getProperty().get(j);
+                json.append((j > 0) ? ",{\"name\":" : "{\"name\":");
+                appendString(json, property.getName()).append(",\"value\":");
+                appendString(json, property.getValue()).append('}');
+            }
+            json.append("]}");
+        }
+        json.append(']');
+        appendMember(json, "pagenumber", items.getPagenumber());
+        appendMember(json, "itemsnumber", items.getItemsnumber());
+        appendMember(json, "totalpages", items.getTotalpages());
+        appendMember(json, "totalitems", items.getTotalitems());
+        appendMember(json, "hasnext", items.getHasnext());
+        return json.append("}}").toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void appendMember(final StringBuilder json, final String name, final String value) {
+        if (value != null) {
+            appendString(json.append(",\"").append(name).append("\":"), value);
+        }
+    }
+
+    private static StringBuilder appendString(final StringBuilder json, final String value) {
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if ((c == '"') || (c == '\\')) {
+                json.append('\\');
+            }
+            json.append(c);
+        }
+        return json.append('"');
+    }
+
+    private static Netlicensing createLicensePage(final int licenseCount) {
+        final Netlicensing netlicensing = new Netlicensing();
+        final Netlicensing.Items items = new Netlicensing.Items();
+        items.setPagenumber("0");
+        items.setItemsnumber(String.valueOf(licenseCount));
+        items.setTotalpages("1");
+        items.setTotalitems(String.valueOf(licenseCount));
+        items.setHasnext("false");
+        netlicensing.setItems(items);
+        final List<Item> page = items.getItem();
+        for (int i = 0; i < licenseCount; i++) {
+            final Item item = new Item();
+            item.setType("License");
+            final List<Property> properties = item.getProperty();
+            properties.add(new Property("L" + i, Constants.NUMBER));
+            properties.add(new Property("true", Constants.ACTIVE));
+            properties.add(new Property("License " + i, Constants.NAME));
+            properties.add(new Property("10.00", Constants.PRICE));
+            properties.add(new Property("EUR", Constants.CURRENCY));
+            properties.add(new Property("false", Constants.License.HIDDEN));
+            properties.add(new Property("I" + (i % 10), Constants.Licensee.LICENSEE_NUMBER));
+            properties.add(new Property("E001", Constants.LicenseTemplate.LICENSE_TEMPLATE_NUMBER));
+            properties.add(new Property("custom value " + i, "customProperty"));
+            page.add(item);
+        }
+        return netlicensing;
+    }
+
+}
@@ -34,10 +34,20 @@ public final class Constants {
     public static final String CURRENCY = "currency";
     public static final String IN_USE = "inUse";
     public static final String FILTER = "filter";
+    public static final String FILTER_PAGE = "page";
     public static final String BASE_URL = "baseUrl";
+    public static final String BASE_URLS = "baseUrls";
     public static final String USERNAME = "username";
     public static final String PASSWORD = "password";
     public static final String SECURITY_MODE = "securityMode";
+    public static final String REST_PROVIDER_TYPE = "restProviderType";
+    public static final String CONNECT_TIMEOUT = "connectTimeout";
+    public static final String READ_TIMEOUT = "readTimeout";
+    public static final String CALL_TIMEOUT = "callTimeout";
+    public static final String DEADLINE = "deadline";
+    public static final String REQUEST_COALESCING = "requestCoalescing";
+    public static final String WIRE_FORMAT = "wireFormat";
+    public static final String LAZY_PAGE_CONVERSION = "lazyPageConversion";
     public static final String PROP_ID = "ID";
 
     public static final class Utility {
@@ -12,12 +12,17 @@
  */
 package com.labs64.netlicensing.domain;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
+import javax.xml.stream.XMLStreamException;
+
 import com.labs64.netlicensing.domain.entity.Country;
 import com.labs64.netlicensing.domain.entity.License;
 import com.labs64.netlicensing.domain.entity.LicenseTemplate;
@@ -27,6 +32,8 @@ import com.labs64.netlicensing.domain.entity.Product;
 import com.labs64.netlicensing.domain.entity.ProductModule;
 import com.labs64.netlicensing.domain.entity.Token;
 import com.labs64.netlicensing.domain.entity.Transaction;
+import com.labs64.netlicensing.domain.vo.Composition;
+import com.labs64.netlicensing.domain.vo.LazyPage;
 import com.labs64.netlicensing.domain.vo.LicenseTypeProperties;
 import com.labs64.netlicensing.domain.vo.LicensingModelProperties;
 import com.labs64.netlicensing.domain.vo.Page;
@@ -35,6 +42,8 @@ import com.labs64.netlicensing.domain.vo.ValidationResult;
 import com.labs64.netlicensing.exception.ConversionException;
 import com.labs64.netlicensing.exception.NetLicensingException;
 import com.labs64.netlicensing.exception.WrongResponseFormatException;
+import com.labs64.netlicensing.schema.NetlicensingJsonReader;
+import com.labs64.netlicensing.schema.NetlicensingStreamReader;
 import com.labs64.netlicensing.schema.context.Item;
 import com.labs64.netlicensing.schema.context.Netlicensing;
 import com.labs64.netlicensing.schema.converter.Converter;
@@ -58,29 +67,48 @@ import com.labs64.netlicensing.util.Visitor;
  */
 public class EntityFactory {
 
-    private static final Map<Class<?>, Class<?>> entityToConverterMap = new HashMap<>();
+    /**
+     * Converters by entity class. Converters are stateless, so they are created once and shared by all factories and
+     * threads; the map is never modified after class initialization.
+     */
+    private static final Map<Class<?>, Converter<Item, ?>> converters;
 
     static {
-        entityToConverterMap.put(License.class, ItemToLicenseConverter.class);
-        entityToConverterMap.put(Licensee.class, ItemToLicenseeConverter.class);
-        entityToConverterMap.put(LicenseTemplate.class, ItemToLicenseTemplateConverter.class);
-        entityToConverterMap.put(PaymentMethod.class, ItemToPaymentMethodConverter.class);
-        entityToConverterMap.put(Product.class, ItemToProductConverter.class);
-        entityToConverterMap.put(ProductModule.class, ItemToProductModuleConverter.class);
-        entityToConverterMap.put(Token.class, ItemToTokenConverter.class);
-        entityToConverterMap.put(Transaction.class, ItemToTransactionConverter.class);
-        entityToConverterMap.put(Country.class, ItemToCountryConverter.class);
-        entityToConverterMap.put(LicensingModelProperties.class, ItemToLicensingModelPropertiesConverter.class);
-        entityToConverterMap.put(LicenseTypeProperties.class, ItemToLicenseTypePropertiesConverter.class);
+        final Map<Class<?>, Converter<Item, ?>> map = new HashMap<>();
+        map.put(License.class, new ItemToLicenseConverter());
+        map.put(Licensee.class, new ItemToLicenseeConverter());
+        map.put(LicenseTemplate.class, new ItemToLicenseTemplateConverter());
+        map.put(PaymentMethod.class, new ItemToPaymentMethodConverter());
+        map.put(Product.class, new ItemToProductConverter());
+        map.put(ProductModule.class, new ItemToProductModuleConverter());
+        map.put(Token.class, new ItemToTokenConverter());
+        map.put(Transaction.class, new ItemToTransactionConverter());
+        map.put(Country.class, new ItemToCountryConverter());
+        map.put(LicensingModelProperties.class, new ItemToLicensingModelPropertiesConverter());
+        map.put(LicenseTypeProperties.class, new ItemToLicenseTypePropertiesConverter());
+        converters = Collections.unmodifiableMap(map);
     }
 
-    private Map<Class<?>, Converter<Item, ?>> convertersCache;
+    private static final ItemsToValidationResultConverter validationConverter = new ItemsToValidationResultConverter();
+
+    private static final String PROPERTIES_SUFFIX = "Properties";
+
+    /**
+     * Entity class by response item type: the simple name of the entity class, or for the "...Properties" value
+     * objects also the name without the suffix, e.g. "LicenseType" for {@link LicenseTypeProperties}.
+     */
+    private static final Map<String, Class<?>> itemTypeToEntityMap;
 
-    private Map<Class<?>, Converter<Item, ?>> getConvertersCache() {
-        if (convertersCache == null) {
-            convertersCache = new HashMap<>();
+    static {
+        final Map<String, Class<?>> itemTypes = new HashMap<>();
+        for (final Class<?> entityClass : converters.keySet()) {
+            final String name = entityClass.getSimpleName();
+            itemTypes.put(name, entityClass);
+            if (name.endsWith(PROPERTIES_SUFFIX)) {
+                itemTypes.put(name.substring(0, name.length() - PROPERTIES_SUFFIX.length()), entityClass);
+            }
         }
-        return convertersCache;
+        itemTypeToEntityMap = Collections.unmodifiableMap(itemTypes);
     }
 
     /**
@@ -96,41 +124,69 @@ public class EntityFactory {
     @SuppressWarnings("unchecked")
     public <T> T create(final Netlicensing netlicensing, final Class<T> entityClass)
             throws NetLicensingException {
+        if (netlicensing instanceof ConvertedResponse) {
+            return create((ConvertedResponse) netlicensing, entityClass);
+        }
         if (entityClass == ValidationResult.class) {
-            return (T) new ItemsToValidationResultConverter().convert(netlicensing);
+            return (T) validationConverter.convert(netlicensing);
         } else {
-            final Item item = findSuitableItemOfType(netlicensing, entityClass);
-            return converterFor(entityClass).convert(item);
+            final Converter<Item, T> converter = converterFor(entityClass);
+            return converter.convert(findSuitableItemOfType(netlicensing, entityClass));
         }
     }
 
+    /**
+     * Links the entities embedded in a page response to their parents. The embedded entities are grouped by the number
+     * of their parent once, so that each parent takes its children with a single lookup. Like the embedded entities,
+     * each group is taken by the first visited parent with a matching number.
+     */
     public class LinkedEntitiesPopulator extends Visitor {
 
-        private final List<Object> linkedEntities;
+        private final Map<String, List<ProductModule>> productModulesByProduct = new HashMap<>();
 
-        public LinkedEntitiesPopulator(final List<Object> linkedEntities) {
-            this.linkedEntities = linkedEntities;
-        }
+        private final Map<String, List<Licensee>> licenseesByProduct = new HashMap<>();
 
-        public void visit(final Product product) throws Exception {
-            final List<ProductModule> linkedProductModules = new ArrayList<>();
-            for (final Iterator<Object> iter = linkedEntities.iterator(); iter.hasNext();) {
-                final Object linkedEntity = iter.next();
-                if (ProductModule.class.isAssignableFrom(linkedEntity.getClass())) {
+        private final Map<String, List<LicenseTemplate>> licenseTemplatesByProductModule = new HashMap<>();
+
+        private final Map<String, List<License>> licensesByLicenseTemplate = new HashMap<>();
+
+        public LinkedEntitiesPopulator(final List<Object> linkedEntities) {
+            for (final Object linkedEntity : linkedEntities) {
+                if (linkedEntity instanceof ProductModule) {
                     final ProductModule linkedProductModule = (ProductModule) linkedEntity;
-                    if (product.getNumber().equals(linkedProductModule.getProduct().getNumber())) {
-                        iter.remove();
-                        linkedProductModules.add(linkedProductModule);
-                        linkedProductModule.setProduct(product);
+                    if (linkedProductModule.getProduct() != null) {
+                        group(productModulesByProduct, linkedProductModule.getProduct().getNumber(),
+                                linkedProductModule);
+                    }
+                } else if (linkedEntity instanceof Licensee) {
+                    final Licensee linkedLicensee = (Licensee) linkedEntity;
+                    if (linkedLicensee.getProduct() != null) {
+                        group(licenseesByProduct, linkedLicensee.getProduct().getNumber(), linkedLicensee);
+                    }
+                } else if (linkedEntity instanceof LicenseTemplate) {
+                    final LicenseTemplate linkedLicenseTemplate = (LicenseTemplate) linkedEntity;
+                    if (linkedLicenseTemplate.getProductModule() != null) {
+                        group(licenseTemplatesByProductModule, linkedLicenseTemplate.getProductModule().getNumber(),
+                                linkedLicenseTemplate);
                     }
-                } else if (Licensee.class.isAssignableFrom(linkedEntity.getClass())) {
-                    final Licensee linkedLecensee = (Licensee) linkedEntity;
-                    if (product.getNumber().equals(linkedLecensee.getProduct().getNumber())) {
-                        iter.remove();
-                        linkedLecensee.setProduct(product);
+                } else if (linkedEntity instanceof License) {
+                    final License linkedLicense = (License) linkedEntity;
+                    if (linkedLicense.getLicenseTemplate() != null) {
+                        group(licensesByLicenseTemplate, linkedLicense.getLicenseTemplate().getNumber(),
+                                linkedLicense);
                     }
                 }
             }
+        }
+
+        public void visit(final Product product) throws Exception {
+            final List<ProductModule> linkedProductModules = take(productModulesByProduct, product.getNumber());
+            for (final ProductModule linkedProductModule : linkedProductModules) {
+                linkedProductModule.setProduct(product);
+            }
+            for (final Licensee linkedLicensee : take(licenseesByProduct, product.getNumber())) {
+                linkedLicensee.setProduct(product);
+            }
             for (final ProductModule linkedProductModule : linkedProductModules) {
                 if (Visitable.class.isAssignableFrom(linkedProductModule.getClass())) {
                     ((Visitable) linkedProductModule).accept(this);
@@ -139,17 +195,10 @@ public class EntityFactory {
         }
 
         public void visit(final ProductModule productModule) throws Exception {
-            final List<LicenseTemplate> linkedLicenseTemplates = new ArrayList<>();
-            for (final Iterator<Object> iter = linkedEntities.iterator(); iter.hasNext();) {
-                final Object linkedEntity = iter.next();
-                if (LicenseTemplate.class.isAssignableFrom(linkedEntity.getClass())) {
-                    final LicenseTemplate linkedLicenseTemplate = (LicenseTemplate) linkedEntity;
-                    if (productModule.getNumber().equals(linkedLicenseTemplate.getProductModule().getNumber())) {
-                        iter.remove();
-                        linkedLicenseTemplates.add(linkedLicenseTemplate);
-                        linkedLicenseTemplate.setProductModule(productModule);
-                    }
-                }
+            final List<LicenseTemplate> linkedLicenseTemplates = take(licenseTemplatesByProductModule,
+                    productModule.getNumber());
+            for (final LicenseTemplate linkedLicenseTemplate : linkedLicenseTemplates) {
+                linkedLicenseTemplate.setProductModule(productModule);
             }
             for (final LicenseTemplate linkedLicenseTemplate : linkedLicenseTemplates) {
                 if (Visitable.class.isAssignableFrom(linkedLicenseTemplate.getClass())) {
@@ -159,17 +208,27 @@ public class EntityFactory {
         }
 
         public void visit(final LicenseTemplate licenseTemplate) throws Exception {
-            for (final Iterator<Object> iter = linkedEntities.iterator(); iter.hasNext();) {
-                final Object linkedEntity = iter.next();
-                if (License.class.isAssignableFrom(linkedEntity.getClass())) {
-                    final License linkedLicense = (License) linkedEntity;
-                    if (licenseTemplate.getNumber().equals(linkedLicense.getLicenseTemplate().getNumber())) {
-                        iter.remove();
-                        linkedLicense.setLicenseTemplate(licenseTemplate);
-                    }
-                }
+            for (final License linkedLicense : take(licensesByLicenseTemplate, licenseTemplate.getNumber())) {
+                linkedLicense.setLicenseTemplate(licenseTemplate);
             }
         }
+
+        private <E> void group(final Map<String, List<E>> groups, final String parentNumber, final E entity) {
+            if (parentNumber == null) {
+                return; // matches no parent
+            }
+            List<E> group = groups.get(parentNumber);
+            if (group == null) {
+                group = new ArrayList<>();
+                groups.put(parentNumber, group);
+            }
+            group.add(entity);
+        }
+
+        private <E> List<E> take(final Map<String, List<E>> groups, final String parentNumber) {
+            final List<E> group = groups.remove(parentNumber);
+            return (group != null) ? group : Collections.<E> emptyList();
+        }
     }
 
     /**
@@ -184,40 +243,206 @@ public class EntityFactory {
      */
     public <T> Page<T> createPage(final Netlicensing netlicensing, final Class<T> entityClass)
             throws NetLicensingException {
+        return createPage(netlicensing, entityClass, false);
+    }
+
+    /**
+     * Creates page of entities of specified class from service response, optionally converting the entities on first
+     * access, see {@link LazyPage}. A conversion error is then reported as {@link IllegalStateException} by the page,
+     * with the {@link ConversionException} as its cause. Pages with linked entities are always converted up front.
+     *
+     * @param netlicensing
+     *            service XML response
+     * @param entityClass
+     *            entity class
+     * @param lazyConversion
+     *            true to convert the entities on first access; for a response read by
+     *            {@link #read(InputStream, boolean)}, the entities are converted as chosen there instead
+     * @return page of entities created from service response
+     * @throws com.labs64.netlicensing.exception.NetLicensingException
+     */
+    public <T> Page<T> createPage(final Netlicensing netlicensing, final Class<T> entityClass,
+            final boolean lazyConversion) throws NetLicensingException {
+        if (netlicensing instanceof ConvertedResponse) {
+            return createPage((ConvertedResponse) netlicensing, entityClass);
+        }
         if (netlicensing.getItems() != null) {
-            final List<T> entities = new ArrayList<>();
+            final List<Item> entityItems = new ArrayList<>();
             final List<Object> linkedEntities = new ArrayList<>();
 
             for (final Item item : netlicensing.getItems().getItem()) {
                 final Class<?> itemEntityClass = getEntityClassByItemType(item);
                 if (entityClass.isAssignableFrom(itemEntityClass)) {
-                    entities.add(converterFor(entityClass).convert(item));
+                    entityItems.add(item);
                 } else {
                     linkedEntities.add(converterFor(itemEntityClass).convert(item));
                 }
             }
 
-            if (!linkedEntities.isEmpty()) {
-                for (final T entity : entities) {
-                    if (Visitable.class.isAssignableFrom(entity.getClass())) {
-                        try {
-                            ((Visitable) entity).accept(new LinkedEntitiesPopulator(linkedEntities));
-                        } catch (final Exception e) {
-                            throw new ConversionException("Error processing linked entities", e);
-                        }
-                    }
-                }
+            return createPage(entityItems, item -> converterFor(entityClass).convert(item), linkedEntities,
+                    netlicensing.getItems(), lazyConversion);
+        } else {
+            throw new WrongResponseFormatException("Service response is not a page response");
+        }
+    }
+
+    /**
+     * Reads service response from the response stream, converting each item as soon as it has been read. Only the
+     * converted entities are kept, so that neither the response body nor the items are held. The returned response
+     * has no items of its own; it is meant to be passed to {@link #create(Netlicensing, Class)} or
+     * {@link #createPage(Netlicensing, Class)}, which return the same results as for the unmarshalled response.
+     * Conversion errors are kept with their item and reported by these methods.
+     * <p>
+     * Both XML and JSON responses are read; a response starting with '{' is read as JSON.
+     *
+     * @param in
+     *            service XML or JSON response
+     * @return service response with the converted entities
+     * @throws IOException
+     *             if the response cannot be read
+     */
+    public Netlicensing read(final InputStream in) throws IOException {
+        return read(in, false);
+    }
+
+    /**
+     * Same as {@link #read(InputStream)}, but optionally keeps the items as read and converts them to their entities
+     * only when requested, so that a page converts only the entities that are accessed, see {@link LazyPage}. Such a
+     * page holds the items with their properties for its lifetime, in addition to the entities converted so far.
+     * Validation items are always converted as soon as they have been read.
+     *
+     * @param in
+     *            service XML or JSON response
+     * @param lazyConversion
+     *            true to convert the items on request
+     * @return service response with the converted entities
+     * @throws IOException
+     *             if the response cannot be read
+     */
+    public Netlicensing read(final InputStream in, final boolean lazyConversion) throws IOException {
+        final ConvertedResponse response = new ConvertedResponse(lazyConversion);
+        final NetlicensingStreamReader.ItemHandler handler = item -> {
+            response.addValidation(item);
+            response.items.add(readItem(item, lazyConversion));
+        };
+        final PushbackInputStream input = new PushbackInputStream(in, 1);
+        int first;
+        do {
+            first = input.read();
+        } while ((first == ' ') || (first == '\n') || (first == '\r') || (first == '\t'));
+        if (first != -1) {
+            input.unread(first);
+        }
+        if (first == '{') {
+            return NetlicensingJsonReader.read(input, response, handler);
+        }
+        try {
+            return NetlicensingStreamReader.read(input, response, handler);
+        } catch (final XMLStreamException e) {
+            throw new IOException("Cannot read service response", e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T create(final ConvertedResponse response, final Class<T> entityClass) throws NetLicensingException {
+        if (entityClass == ValidationResult.class) {
+            return (T) response.getValidationResult();
+        }
+        converterFor(entityClass); // fails for classes without converter, as for unmarshalled responses
+        for (final ReadItem item : response.items) {
+            if (isItemOfType(item.type, entityClass)) {
+                return entityClass.cast(item.getEntity());
             }
+        }
+        throw new WrongResponseFormatException("Service response doesn't contain item of type "
+                + entityClass.getCanonicalName());
+    }
 
-            return PageImpl.createInstance(entities,
-                    netlicensing.getItems().getPagenumber(),
-                    netlicensing.getItems().getItemsnumber(),
-                    netlicensing.getItems().getTotalpages(),
-                    netlicensing.getItems().getTotalitems(),
-                    netlicensing.getItems().getHasnext());
-        } else {
+    private <T> Page<T> createPage(final ConvertedResponse response, final Class<T> entityClass)
+            throws NetLicensingException {
+        if (response.getItems() == null) {
             throw new WrongResponseFormatException("Service response is not a page response");
         }
+        final List<ReadItem> entityItems = new ArrayList<>();
+        final List<Object> linkedEntities = new ArrayList<>();
+        for (final ReadItem item : response.items) {
+            if (entityClass.isAssignableFrom(item.getEntityClass())) {
+                entityItems.add(item);
+            } else {
+                linkedEntities.add(item.getEntity());
+            }
+        }
+        return createPage(entityItems, item -> entityClass.cast(item.convert()), linkedEntities, response.getItems(),
+                response.lazyConversion);
+    }
+
+    /**
+     * Creates page of the entity items. If requested, the items are converted on access, unless the linked entities
+     * need to be populated into them.
+     */
+    private <S, T> Page<T> createPage(final List<S> entityItems, final Converter<S, T> converter,
+            final List<Object> linkedEntities, final Netlicensing.Items items, final boolean lazyConversion)
+            throws NetLicensingException {
+        if (lazyConversion && linkedEntities.isEmpty()) {
+            return LazyPage.createInstance(entityItems, converter,
+                    items.getPagenumber(),
+                    items.getItemsnumber(),
+                    items.getTotalpages(),
+                    items.getTotalitems(),
+                    items.getHasnext());
+        }
+
+        final List<T> entities = new ArrayList<>(entityItems.size());
+        for (final S item : entityItems) {
+            entities.add(converter.convert(item));
+        }
+        final LinkedEntitiesPopulator populator = new LinkedEntitiesPopulator(linkedEntities);
+        for (final T entity : entities) {
+            if (Visitable.class.isAssignableFrom(entity.getClass())) {
+                try {
+                    ((Visitable) entity).accept(populator);
+                } catch (final Exception e) {
+                    throw new ConversionException("Error processing linked entities", e);
+                }
+            }
+        }
+
+        return PageImpl.createInstance(entities,
+                items.getPagenumber(),
+                items.getItemsnumber(),
+                items.getTotalpages(),
+                items.getTotalitems(),
+                items.getHasnext());
+    }
+
+    /**
+     * Resolves the entity class of item read from the response stream, and converts the item unless the conversion is
+     * deferred. Errors are kept with the item and reported when the item is used.
+     */
+    private ReadItem readItem(final Item item, final boolean lazyConversion) {
+        final Class<?> entityClass;
+        try {
+            entityClass = getEntityClassByItemType(item);
+        } catch (final WrongResponseFormatException | RuntimeException e) {
+            return new ReadItem(item.getType(), null, null, null, null, e);
+        }
+        final Converter<Item, ?> converter = converterFor(entityClass);
+        if (lazyConversion) {
+            return new ReadItem(item.getType(), entityClass, item, converter, null, null);
+        }
+        try {
+            return new ReadItem(item.getType(), entityClass, null, null, converter.convert(item), null);
+        } catch (final ConversionException | RuntimeException e) {
+            return new ReadItem(item.getType(), entityClass, null, null, null, e);
+        }
+    }
+
+    /**
+     * Loads the converters of all entity classes ahead of the first conversion. The converters are created when this
+     * class is initialized, so this only makes sure that happens before the first call.
+     */
+    public void initializeConverters() {
+        converters.size();
     }
 
     /**
@@ -229,26 +454,10 @@ public class EntityFactory {
      */
     @SuppressWarnings("unchecked")
     private <T> Converter<Item, T> converterFor(final Class<T> entityClass) {
-        Converter<Item, T> converter = null;
-        try {
-            converter = (Converter<Item, T>) getConvertersCache().get(entityClass);
-        } catch (final ClassCastException e) {
-            throw new RuntimeException("Wrong converter type found for entity class " + entityClass.getCanonicalName());
-        }
+        final Converter<Item, T> converter = (Converter<Item, T>) converters.get(entityClass);
         if (converter == null) {
-            final Class<?> converterClass = entityToConverterMap.get(entityClass);
-            if (converterClass == null) {
-                throw new IllegalArgumentException("No converter is found for entity of class "
-                        + entityClass.getCanonicalName());
-            }
-            try {
-                converter = (Converter<Item, T>) converterClass.newInstance();
-                getConvertersCache().put(entityClass, converter);
-            } catch (final InstantiationException e) {
-                throw new RuntimeException("Can not instantiate converter of class " + converterClass.getCanonicalName());
-            } catch (final IllegalAccessException e) {
-                throw new RuntimeException("Can not instantiate converter of class " + converterClass.getCanonicalName());
-            }
+            throw new IllegalArgumentException("No converter is found for entity of class "
+                    + entityClass.getCanonicalName());
         }
         return converter;
     }
@@ -286,8 +495,11 @@ public class EntityFactory {
      * @return true if item is the XML item of class "type"
      */
     private boolean isItemOfType(final Item item, final Class<?> type) {
-        return type.getSimpleName().equals(item.getType())
-                || type.getSimpleName().equals(item.getType() + "Properties");
+        return isItemOfType(item.getType(), type);
+    }
+
+    private boolean isItemOfType(final String itemType, final Class<?> type) {
+        return itemTypeToEntityMap.get(itemType) == type;
     }
 
     /**
@@ -300,14 +512,122 @@ public class EntityFactory {
      *             if match is not found
      */
     private Class<?> getEntityClassByItemType(final Item item) throws WrongResponseFormatException {
-        final String itemType = item.getType();
-        final String itemTypeProps = itemType.concat("Properties");
-        for (final Class<?> entityClass : entityToConverterMap.keySet()) {
-            if (entityClass.getSimpleName().equals(itemType) || entityClass.getSimpleName().equals(itemTypeProps)) {
-                return entityClass;
+        final Class<?> entityClass = itemTypeToEntityMap.get(item.getType());
+        if (entityClass == null) {
+            throw new WrongResponseFormatException("Service response contains unexpected item type "
+                    + item.getType());
+        }
+        return entityClass;
+    }
+
+    /**
+     * Service response read by {@link EntityFactory#read(InputStream)}, holding the items with their entity classes
+     * instead of the unmarshalled items.
+     */
+    private static final class ConvertedResponse extends Netlicensing {
+
+        private static final long serialVersionUID = 1L;
+
+        private final transient boolean lazyConversion;
+
+        private final transient List<ReadItem> items = new ArrayList<>();
+
+        private final transient ValidationResult validations = new ValidationResult();
+
+        private transient ConversionException validationFailure;
+
+        ConvertedResponse(final boolean lazyConversion) {
+            this.lazyConversion = lazyConversion;
+        }
+
+        void addValidation(final Item item) {
+            if (validationFailure == null) {
+                try {
+                    validationConverter.convert(item, validations);
+                } catch (final ConversionException e) {
+                    validationFailure = e;
+                }
+            }
+        }
+
+        ValidationResult getValidationResult() throws ConversionException {
+            if (validationFailure != null) {
+                throw validationFailure;
+            }
+            // sets the ttl only, since the response has no items
+            final ValidationResult result = validationConverter.convert(this);
+            for (final Map.Entry<String, Composition> validation : validations.getValidations().entrySet()) {
+                result.setProductModuleValidation(validation.getKey(), validation.getValue());
+            }
+            return result;
+        }
+
+    }
+
+    /**
+     * Entity converted from a response item, or the error that occurred while converting it. If the conversion is
+     * deferred, the item is kept with its converter instead, and the entity is converted anew on every request, so the
+     * caller keeps it.
+     */
+    private static final class ReadItem {
+
+        private final String type;
+
+        private final Class<?> entityClass;
+
+        private final Item item;
+
+        private final Converter<Item, ?> converter;
+
+        private final Object entity;
+
+        private final Exception failure;
+
+        ReadItem(final String type, final Class<?> entityClass, final Item item, final Converter<Item, ?> converter,
+                final Object entity, final Exception failure) {
+            this.type = type;
+            this.entityClass = entityClass;
+            this.item = item;
+            this.converter = converter;
+            this.entity = entity;
+            this.failure = failure;
+        }
+
+        Class<?> getEntityClass() throws NetLicensingException {
+            if (entityClass == null) {
+                rethrow(failure);
+            }
+            return entityClass;
+        }
+
+        Object getEntity() throws NetLicensingException {
+            getEntityClass();
+            return convert();
+        }
+
+        /**
+         * @return the entity of an item of a resolved entity class
+         */
+        Object convert() throws ConversionException {
+            if (item != null) {
+                return converter.convert(item);
+            }
+            if (failure instanceof ConversionException) {
+                throw (ConversionException) failure;
             }
+            if (failure != null) {
+                throw (RuntimeException) failure;
+            }
+            return entity;
         }
-        throw new WrongResponseFormatException("Service response contains unexpected item type " + itemType);
+
+        private static void rethrow(final Exception e) throws NetLicensingException {
+            if (e instanceof NetLicensingException) {
+                throw (NetLicensingException) e;
+            }
+            throw (RuntimeException) e;
+        }
+
     }
 
 }
@@ -14,10 +14,13 @@ package com.labs64.netlicensing.domain.entity.impl;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
 
 import javax.ws.rs.core.Form;
 import javax.ws.rs.core.MultivaluedHashMap;
@@ -34,6 +37,8 @@ public abstract class BaseEntityImpl extends Visitable implements BaseEntity {
 
     private static final long serialVersionUID = -3912283193861706866L;
 
+    private static final Set<String> reservedProps = Collections.unmodifiableSet(new HashSet<>(getReservedProps()));
+
     private String number;
 
     private Boolean active;
@@ -56,6 +61,18 @@ public abstract class BaseEntityImpl extends Visitable implements BaseEntity {
         return reserved;
     }
 
+    /**
+     * Checks whether the name is one of the {@link #getReservedProps() reserved property names}. The names are kept in
+     * a set built once per entity class, so the check allocates nothing.
+     *
+     * @param name
+     *            property name
+     * @return true if the property name is reserved
+     */
+    public static boolean isReservedProp(final String name) {
+        return reservedProps.contains(name);
+    }
+
     @Override
     public String getNumber() {
         return number;
@@ -14,8 +14,11 @@ package com.labs64.netlicensing.domain.entity.impl;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import javax.ws.rs.core.MultivaluedMap;
 
@@ -33,6 +36,8 @@ public class LicenseImpl extends BaseEntityImpl implements License {
 
     private static final long serialVersionUID = -1255007603439878867L;
 
+    private static final Set<String> reservedProps = Collections.unmodifiableSet(new HashSet<>(getReservedProps()));
+
     private String name;
 
     private BigDecimal price;
@@ -65,6 +70,13 @@ public class LicenseImpl extends BaseEntityImpl implements License {
         return reserved;
     }
 
+    /**
+     * @see BaseEntityImpl#isReservedProp(String)
+     */
+    public static boolean isReservedProp(final String name) {
+        return reservedProps.contains(name);
+    }
+
     @Override
     public String getName() {
         return name;
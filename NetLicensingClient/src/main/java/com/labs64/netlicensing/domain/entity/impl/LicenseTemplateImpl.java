@@ -15,8 +15,11 @@ package com.labs64.netlicensing.domain.entity.impl;
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import javax.ws.rs.core.MultivaluedMap;
 
@@ -34,6 +37,8 @@ public class LicenseTemplateImpl extends BaseEntityImpl implements LicenseTempla
 
     private static final long serialVersionUID = -6957717868558780419L;
 
+    private static final Set<String> reservedProps = Collections.unmodifiableSet(new HashSet<>(getReservedProps()));
+
     private ProductModule productModule;
 
     private String name;
@@ -72,6 +77,13 @@ public class LicenseTemplateImpl extends BaseEntityImpl implements LicenseTempla
         return reserved;
     }
 
+    /**
+     * @see BaseEntityImpl#isReservedProp(String)
+     */
+    public static boolean isReservedProp(final String name) {
+        return reservedProps.contains(name);
+    }
+
     @Override
     public ProductModule getProductModule() {
         return productModule;
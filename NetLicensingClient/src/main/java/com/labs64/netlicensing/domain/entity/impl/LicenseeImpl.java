@@ -14,8 +14,11 @@ package com.labs64.netlicensing.domain.entity.impl;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import com.labs64.netlicensing.domain.Constants;
 import com.labs64.netlicensing.domain.entity.License;
@@ -29,6 +32,8 @@ public class LicenseeImpl extends BaseEntityImpl implements Licensee {
 
     private static final long serialVersionUID = 2704374141788131247L;
 
+    private static final Set<String> reservedProps = Collections.unmodifiableSet(new HashSet<>(getReservedProps()));
+
     private Product product;
 
     private Collection<License> licenses;
@@ -44,6 +49,13 @@ public class LicenseeImpl extends BaseEntityImpl implements Licensee {
         return reserved;
     }
 
+    /**
+     * @see BaseEntityImpl#isReservedProp(String)
+     */
+    public static boolean isReservedProp(final String name) {
+        return reservedProps.contains(name);
+    }
+
     @Override
     public Product getProduct() {
         return product;
@@ -12,8 +12,11 @@
  */
 package com.labs64.netlicensing.domain.entity.impl;
 
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import com.labs64.netlicensing.domain.entity.PaymentMethod;
 
@@ -24,6 +27,8 @@ public class PaymentMethodImpl extends BaseEntityImpl implements PaymentMethod {
 
     private static final long serialVersionUID = -529417516632266683L;
 
+    private static final Set<String> reservedProps = Collections.unmodifiableSet(new HashSet<>(getReservedProps()));
+
     /**
      * @see BaseEntityImpl#getReservedProps()
      */
@@ -31,6 +36,13 @@ public class PaymentMethodImpl extends BaseEntityImpl implements PaymentMethod {
         return BaseEntityImpl.getReservedProps();
     }
 
+    /**
+     * @see BaseEntityImpl#isReservedProp(String)
+     */
+    public static boolean isReservedProp(final String name) {
+        return reservedProps.contains(name);
+    }
+
     @Override
     public Map<String, String> getPaymentMethodProperties() {
         return getProperties();
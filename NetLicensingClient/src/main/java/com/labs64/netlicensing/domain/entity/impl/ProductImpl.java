@@ -14,8 +14,11 @@ package com.labs64.netlicensing.domain.entity.impl;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import javax.ws.rs.core.MultivaluedMap;
 
@@ -32,6 +35,8 @@ public class ProductImpl extends BaseEntityImpl implements Product {
 
     private static final long serialVersionUID = 7030811820855516068L;
 
+    private static final Set<String> reservedProps = Collections.unmodifiableSet(new HashSet<>(getReservedProps()));
+
     private String name;
 
     private String version;
@@ -65,6 +70,13 @@ public class ProductImpl extends BaseEntityImpl implements Product {
         return reserved;
     }
 
+    /**
+     * @see BaseEntityImpl#isReservedProp(String)
+     */
+    public static boolean isReservedProp(final String name) {
+        return reservedProps.contains(name);
+    }
+
     @Override
     public String getName() {
         return name;
@@ -14,8 +14,11 @@ package com.labs64.netlicensing.domain.entity.impl;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import javax.ws.rs.core.MultivaluedMap;
 
@@ -31,6 +34,8 @@ public class ProductModuleImpl extends BaseEntityImpl implements ProductModule {
 
     private static final long serialVersionUID = 6327895102315403718L;
 
+    private static final Set<String> reservedProps = Collections.unmodifiableSet(new HashSet<>(getReservedProps()));
+
     private Product product;
 
     private String name;
@@ -51,6 +56,13 @@ public class ProductModuleImpl extends BaseEntityImpl implements ProductModule {
         return reserved;
     }
 
+    /**
+     * @see BaseEntityImpl#isReservedProp(String)
+     */
+    public static boolean isReservedProp(final String name) {
+        return reservedProps.contains(name);
+    }
+
     @Override
     public Product getProduct() {
         return product;
@@ -12,9 +12,12 @@
  */
 package com.labs64.netlicensing.domain.entity.impl;
 
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import javax.ws.rs.core.MultivaluedMap;
 
@@ -29,6 +32,8 @@ public class TokenImpl extends BaseEntityImpl implements Token {
 
     private static final long serialVersionUID = 6688976030475491351L;
 
+    private static final Set<String> reservedProps = Collections.unmodifiableSet(new HashSet<>(getReservedProps()));
+
     private String vendorNumber;
 
     private Date expirationTime;
@@ -45,6 +50,13 @@ public class TokenImpl extends BaseEntityImpl implements Token {
         return reserved;
     }
 
+    /**
+     * @see BaseEntityImpl#isReservedProp(String)
+     */
+    public static boolean isReservedProp(final String name) {
+        return reservedProps.contains(name);
+    }
+
     @Override
     public String getVendorNumber() {
         return vendorNumber;
@@ -14,9 +14,12 @@ package com.labs64.netlicensing.domain.entity.impl;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import javax.ws.rs.core.MultivaluedMap;
 
@@ -34,6 +37,8 @@ public class TransactionImpl extends BaseEntityImpl implements Transaction {
 
     private static final long serialVersionUID = 7675242025748195251L;
 
+    private static final Set<String> reservedProps = Collections.unmodifiableSet(new HashSet<>(getReservedProps()));
+
     private TransactionStatus status;
 
     private TransactionSource source;
@@ -66,6 +71,13 @@ public class TransactionImpl extends BaseEntityImpl implements Transaction {
         return reserved;
     }
 
+    /**
+     * @see BaseEntityImpl#isReservedProp(String)
+     */
+    public static boolean isReservedProp(final String name) {
+        return reservedProps.contains(name);
+    }
+
     @Override
     public TransactionStatus getStatus() {
         return status;
@@ -12,6 +12,11 @@
  */
 package com.labs64.netlicensing.domain.vo;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
 import com.labs64.netlicensing.domain.Constants;
 
 /**
@@ -27,7 +32,11 @@ public class Context extends GenericContext<String> {
         super(String.class);
     }
 
+    /**
+     * Sets the base URL of the service; replaces the base URLs set with {@link #setBaseUrls(String...)}, if any.
+     */
     public Context setBaseUrl(final String baseUrl) {
+        getContextMap().remove(Constants.BASE_URLS);
         return (Context) this.setValue(Constants.BASE_URL, baseUrl);
     }
 
@@ -35,6 +44,38 @@ public class Context extends GenericContext<String> {
         return getValue(Constants.BASE_URL);
     }
 
+    /**
+     * Sets several base URLs of equivalent services, e.g. regional gateways and a local caching proxy. Each call is sent
+     * to the healthy base URL with the lowest observed latency and fails over to the next one if the service doesn't
+     * respond or responds with a server error; idempotent calls only. The first base URL also becomes the
+     * {@link #getBaseUrl() base URL}.
+     *
+     * @param baseUrls
+     *            base URLs in order of preference, used until latencies have been observed
+     */
+    public Context setBaseUrls(final String... baseUrls) {
+        if ((baseUrls == null) || (baseUrls.length == 0)) {
+            throw new IllegalArgumentException("At least one base URL must be provided");
+        }
+        setBaseUrl(baseUrls[0]);
+        return (Context) this.setObject(Constants.BASE_URLS,
+                Collections.unmodifiableList(new ArrayList<String>(Arrays.asList(baseUrls))));
+    }
+
+    /**
+     * @return base URLs set with {@link #setBaseUrls(String...)}, or just the base URL if it has been set separately
+     *         afterwards
+     */
+    @SuppressWarnings("unchecked")
+    public List<String> getBaseUrls() {
+        final Object baseUrls = getObject(Constants.BASE_URLS);
+        if (baseUrls instanceof List) {
+            return (List<String>) baseUrls;
+        }
+        final String baseUrl = getBaseUrl();
+        return (baseUrl != null) ? Collections.singletonList(baseUrl) : Collections.<String> emptyList();
+    }
+
     public Context setUsername(final String username) {
         return (Context) this.setValue(Constants.USERNAME, username);
     }
@@ -68,6 +109,119 @@ public class Context extends GenericContext<String> {
         return securityMode != null ? SecurityMode.valueOf(securityMode) : null;
     }
 
+    public Context setRestProviderType(final RestProviderType restProviderType) {
+        return (Context) this.setValue(Constants.REST_PROVIDER_TYPE, restProviderType.toString());
+    }
+
+    public RestProviderType getRestProviderType() {
+        final String restProviderType = getValue(Constants.REST_PROVIDER_TYPE);
+        return restProviderType != null ? RestProviderType.valueOf(restProviderType) : RestProviderType.JERSEY;
+    }
+
+    /**
+     * @param connectTimeout
+     *            connect timeout in milliseconds for calls with this context, overrides the provider configuration
+     */
+    public Context setConnectTimeout(final int connectTimeout) {
+        return (Context) this.setValue(Constants.CONNECT_TIMEOUT, String.valueOf(connectTimeout));
+    }
+
+    public Integer getConnectTimeout() {
+        final String connectTimeout = getValue(Constants.CONNECT_TIMEOUT);
+        return connectTimeout != null ? Integer.valueOf(connectTimeout) : null;
+    }
+
+    /**
+     * @param readTimeout
+     *            read timeout in milliseconds for calls with this context, overrides the provider configuration
+     */
+    public Context setReadTimeout(final int readTimeout) {
+        return (Context) this.setValue(Constants.READ_TIMEOUT, String.valueOf(readTimeout));
+    }
+
+    public Integer getReadTimeout() {
+        final String readTimeout = getValue(Constants.READ_TIMEOUT);
+        return readTimeout != null ? Integer.valueOf(readTimeout) : null;
+    }
+
+    /**
+     * @param callTimeout
+     *            overall time budget in milliseconds of each single call with this context, overrides the provider
+     *            configuration
+     */
+    public Context setCallTimeout(final int callTimeout) {
+        return (Context) this.setValue(Constants.CALL_TIMEOUT, String.valueOf(callTimeout));
+    }
+
+    public Integer getCallTimeout() {
+        final String callTimeout = getValue(Constants.CALL_TIMEOUT);
+        return callTimeout != null ? Integer.valueOf(callTimeout) : null;
+    }
+
+    /**
+     * Sets an absolute deadline shared by all calls made with this context, e.g. by all calls of a bulk operation.
+     * Timeouts of each call are shrunk to the time remaining until the deadline; calls started after the deadline fail
+     * immediately.
+     *
+     * @param deadline
+     *            deadline as milliseconds since the epoch, see {@link System#currentTimeMillis()}
+     */
+    public Context setDeadline(final long deadline) {
+        return (Context) this.setValue(Constants.DEADLINE, String.valueOf(deadline));
+    }
+
+    public Long getDeadline() {
+        final String deadline = getValue(Constants.DEADLINE);
+        return deadline != null ? Long.valueOf(deadline) : null;
+    }
+
+    /**
+     * Enables coalescing of identical concurrent GET and validate calls: while such a call is in flight, identical calls
+     * made with an equivalent context wait for it and share its result instead of calling the service again. Note that
+     * coalesced callers receive the same entity instances.
+     *
+     * @param requestCoalescing
+     *            true to enable coalescing
+     */
+    public Context setRequestCoalescing(final boolean requestCoalescing) {
+        return (Context) this.setValue(Constants.REQUEST_COALESCING, String.valueOf(requestCoalescing));
+    }
+
+    public boolean isRequestCoalescing() {
+        return Boolean.parseBoolean(getValue(Constants.REQUEST_COALESCING));
+    }
+
+    /**
+     * Enables conversion of page entities on first access, see {@link LazyPage}: a page converts only the entities
+     * that are accessed, but holds the response items for its lifetime, and reports a conversion error as
+     * {@link IllegalStateException} on access instead of failing the list call.
+     *
+     * @param lazyPageConversion
+     *            true to convert page entities on first access
+     */
+    public Context setLazyPageConversion(final boolean lazyPageConversion) {
+        return (Context) this.setValue(Constants.LAZY_PAGE_CONVERSION, String.valueOf(lazyPageConversion));
+    }
+
+    public boolean isLazyPageConversion() {
+        return Boolean.parseBoolean(getValue(Constants.LAZY_PAGE_CONVERSION));
+    }
+
+    /**
+     * Selects the format of the service responses. Responses are converted to the same entities in either format.
+     *
+     * @param wireFormat
+     *            format requested from the service, {@link WireFormat#XML} by default
+     */
+    public Context setWireFormat(final WireFormat wireFormat) {
+        return (Context) this.setValue(Constants.WIRE_FORMAT, wireFormat.toString());
+    }
+
+    public WireFormat getWireFormat() {
+        final String wireFormat = getValue(Constants.WIRE_FORMAT);
+        return wireFormat != null ? WireFormat.valueOf(wireFormat) : WireFormat.XML;
+    }
+
     public Context setVendorNumber(final String vendorNumber) {
         return (Context) this.setValue(Constants.Vendor.VENDOR_NUMBER, vendorNumber);
     }
@@ -0,0 +1,243 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.labs64.netlicensing.domain.vo;
+
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import com.labs64.netlicensing.exception.ConversionException;
+import com.labs64.netlicensing.schema.converter.Converter;
+
+/**
+ * {@code Page} that converts its items to entities on first access. The services return such pages only if enabled
+ * with {@link Context#setLazyPageConversion(boolean)}.
+ * <p>
+ * The page wraps the list of source items without copying it, and converts each item only when it is accessed for the
+ * first time; the entity is then kept, so that every access returns the same instance. Reading the page attributes,
+ * e.g. {@link #getTotalItems()}, converts no items at all. Since the conversion is deferred, a conversion error is
+ * reported as {@link IllegalStateException} by the method that accesses the item, with the {@link ConversionException}
+ * as its cause. Callers that need the error as checked exception convert the page up front with
+ * {@link #convertAll(Page)}.
+ * <p>
+ * The source items are kept for the lifetime of the page, also after their conversion.
+ * <p>
+ * The page is serialized as {@link PageImpl} with all items converted.
+ *
+ * @param <S>
+ *            the type of the source items
+ * @param <Entity>
+ *            the type of which the page consists.
+ */
+public class LazyPage<S, Entity> implements Page<Entity>, Serializable {
+
+    private static final long serialVersionUID = -2861730218350377423L;
+
+    private final transient List<S> items;
+    private final transient Converter<S, Entity> converter;
+    private final transient AtomicReferenceArray<Entity> entities;
+    private final transient List<Entity> content = new Content();
+    private final int pageNumber;
+    private final int itemsNumber;
+    private final int totalPages;
+    private final long totalItems;
+    private final boolean hasNext;
+
+    /**
+     * Constructor of {@code LazyPage}.
+     *
+     * @param items
+     *            the source items of this page, must not be {@literal null} and must not be modified afterwards
+     * @param converter
+     *            converts a source item to the entity, must not be {@literal null}
+     * @param pageNumber
+     *            the number of the current page
+     * @param itemsNumber
+     *            the number of elements on the page
+     * @param totalPages
+     *            the number of total pages
+     * @param totalItems
+     *            the total amount of elements
+     * @param hasNext
+     *            is there a next page exists
+     */
+    public LazyPage(final List<S> items, final Converter<S, Entity> converter, final int pageNumber,
+            final int itemsNumber, final int totalPages, final long totalItems, final boolean hasNext) {
+        assert items != null : "Items must not be null!";
+        assert converter != null : "Converter must not be null!";
+
+        this.items = items;
+        this.converter = converter;
+        this.entities = new AtomicReferenceArray<Entity>(items.size());
+
+        this.pageNumber = pageNumber;
+        this.itemsNumber = itemsNumber;
+        this.totalPages = totalPages;
+        this.totalItems = totalItems;
+        this.hasNext = hasNext;
+    }
+
+    /**
+     * Safe create instance of {@code LazyPage}.
+     *
+     * @param items
+     *            the source items of this page, must not be {@literal null} and must not be modified afterwards
+     * @param converter
+     *            converts a source item to the entity, must not be {@literal null}
+     * @param pageNumber
+     *            the number of the current page
+     * @param itemsNumber
+     *            the number of elements on the page
+     * @param totalPages
+     *            the number of total pages
+     * @param totalItems
+     *            the total amount of elements
+     * @param hasNext
+     *            is there a next page exists
+     * @param <S>
+     *            type of source item
+     * @param <E>
+     *            type of page entity
+     */
+    public static <S, E> LazyPage<S, E> createInstance(final List<S> items, final Converter<S, E> converter,
+            final String pageNumber, final String itemsNumber,
+            final String totalPages, final String totalItems, final String hasNext) {
+        try {
+            return new LazyPage<S, E>(items, converter,
+                    Integer.valueOf(pageNumber),
+                    Integer.valueOf(itemsNumber),
+                    Integer.valueOf(totalPages),
+                    Long.valueOf(totalItems),
+                    Boolean.valueOf(hasNext));
+        } catch (Exception e) {
+            return new LazyPage<S, E>(items, converter, 0, 0, 0, 0, false);
+        }
+    }
+
+    /**
+     * Converts all entities of the page that are not converted yet, so that a conversion error is thrown by this method
+     * instead of by a later access to the page content.
+     *
+     * @param page
+     *            the page, pages other than {@code LazyPage} are returned as is
+     * @param <E>
+     *            type of page entity
+     * @return the given page
+     * @throws ConversionException
+     *             if an item of the page cannot be converted
+     */
+    public static <E> Page<E> convertAll(final Page<E> page) throws ConversionException {
+        if (page instanceof LazyPage) {
+            final LazyPage<?, E> lazyPage = (LazyPage<?, E>) page;
+            for (int i = 0; i < lazyPage.items.size(); i++) {
+                lazyPage.convert(i);
+            }
+        }
+        return page;
+    }
+
+    @Override
+    public int getPageNumber() {
+        return pageNumber;
+    }
+
+    @Override
+    public int getItemsNumber() {
+        return itemsNumber;
+    }
+
+    @Override
+    public int getTotalPages() {
+        return totalPages;
+    }
+
+    @Override
+    public long getTotalItems() {
+        return totalItems;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return hasNext;
+    }
+
+    @Override
+    public Iterator<Entity> iterator() {
+        return content.iterator();
+    }
+
+    @Override
+    public List<Entity> getContent() {
+        return content;
+    }
+
+    @Override
+    public boolean hasContent() {
+        return !items.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        String contentType = "UNKNOWN";
+
+        if (hasContent()) {
+            contentType = content.get(0).getClass().getName();
+        }
+
+        return String.format("Page %s of %d containing %s instances", getPageNumber(), getTotalPages(), contentType);
+    }
+
+    private Object writeReplace() {
+        return new PageImpl<Entity>(new ArrayList<Entity>(content), pageNumber, itemsNumber, totalPages, totalItems,
+                hasNext);
+    }
+
+    /**
+     * @return the entity of the item with the given index, converted on first access
+     */
+    private Entity convert(final int index) throws ConversionException {
+        final Entity entity = entities.get(index);
+        if (entity != null) {
+            return entity;
+        }
+        final Entity converted = converter.convert(items.get(index));
+        // keeps the entity converted first, in case another thread converted the item at the same time
+        return entities.compareAndSet(index, null, converted) ? converted : entities.get(index);
+    }
+
+    /**
+     * Read-only view of the page entities, converting the items on access.
+     */
+    private final class Content extends AbstractList<Entity> implements RandomAccess {
+
+        @Override
+        public Entity get(final int index) {
+            try {
+                return convert(index);
+            } catch (final ConversionException e) {
+                throw new IllegalStateException("Cannot convert item " + index + " of the page", e);
+            }
+        }
+
+        @Override
+        public int size() {
+            return items.size();
+        }
+
+    }
+
+}
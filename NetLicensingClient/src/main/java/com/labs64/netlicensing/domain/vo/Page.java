@@ -17,6 +17,12 @@ import java.util.List;
 /**
  * A page is a sub-list of a list of objects. It allows gain information about the position of it in the containing
  * entire list.
+ * <p>
+ * Pages returned by the services hold converted entities, unless lazy conversion is enabled in the context, see
+ * {@link Context#setLazyPageConversion(boolean)}. Such a page converts its entities on first access, see
+ * {@link LazyPage}; an entity that cannot be converted is then reported by {@link #getContent()} accessors and the
+ * iterator as {@link IllegalStateException}, with the {@link com.labs64.netlicensing.exception.ConversionException}
+ * as its cause, and {@link LazyPage#convertAll(Page)} throws it as checked exception instead.
  * 
  * @param <Entity>
  */
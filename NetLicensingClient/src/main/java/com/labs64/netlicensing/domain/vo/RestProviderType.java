@@ -0,0 +1,30 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.labs64.netlicensing.domain.vo;
+
+/**
+ * Enumerates available implementations of the RESTful provider used for the NetLicensing API calls.
+ */
+public enum RestProviderType {
+
+    /**
+     * Jersey client based provider (default).
+     */
+    JERSEY,
+
+    /**
+     * Lightweight provider based on {@link java.net.HttpURLConnection}, without Jersey client runtime.
+     */
+    URL_CONNECTION
+
+}
@@ -0,0 +1,45 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.labs64.netlicensing.domain.vo;
+
+import javax.ws.rs.core.MediaType;
+
+/**
+ * Enumerates the formats of the service responses, see {@link Context#setWireFormat(WireFormat)}.
+ */
+public enum WireFormat {
+
+    /**
+     * XML responses (default).
+     */
+    XML(MediaType.APPLICATION_XML),
+
+    /**
+     * JSON responses, smaller and faster to parse than XML.
+     */
+    JSON(MediaType.APPLICATION_JSON);
+
+    private final String mediaType;
+
+    WireFormat(final String mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    /**
+     * @return media type requested from the service
+     */
+    public String getMediaType() {
+        return mediaType;
+    }
+
+}
@@ -0,0 +1,33 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.labs64.netlicensing.exception;
+
+/**
+ * Thrown without calling the service when the bulkhead has no capacity left for the call, i.e. its queue is full or
+ * the call has waited too long for a free slot.
+ */
+public class BulkheadFullException extends RestException {
+
+    private static final long serialVersionUID = 5106426914170813437L;
+
+    /**
+     * Construct a <code>BulkheadFullException</code> with the specified detail message.
+     * 
+     * @param msg
+     *            the detail message
+     */
+    public BulkheadFullException(final String msg) {
+        super(msg);
+    }
+
+}
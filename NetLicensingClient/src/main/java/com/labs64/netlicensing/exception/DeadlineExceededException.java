@@ -0,0 +1,45 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.labs64.netlicensing.exception;
+
+/**
+ * Thrown when a service call couldn't be completed within its time budget, i.e. the call timeout or the deadline set
+ * in the context.
+ */
+public class DeadlineExceededException extends RestException {
+
+    private static final long serialVersionUID = 6370851474402466193L;
+
+    /**
+     * Construct a <code>DeadlineExceededException</code> with the specified detail message.
+     * 
+     * @param msg
+     *            the detail message
+     */
+    public DeadlineExceededException(final String msg) {
+        super(msg);
+    }
+
+    /**
+     * Construct a <code>DeadlineExceededException</code> with the specified detail message and cause exception.
+     * 
+     * @param msg
+     *            the detail message
+     * @param cause
+     *            the cause exception
+     */
+    public DeadlineExceededException(final String msg, final Throwable cause) {
+        super(msg, cause);
+    }
+
+}
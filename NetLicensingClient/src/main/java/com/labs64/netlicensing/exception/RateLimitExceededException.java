@@ -0,0 +1,44 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.labs64.netlicensing.exception;
+
+/**
+ * Thrown without calling the service when the client-side rate limit for the vendor and endpoint is exhausted.
+ */
+public class RateLimitExceededException extends RestException {
+
+    private static final long serialVersionUID = 2816086253360227394L;
+
+    private final long waitMillis;
+
+    /**
+     * Construct a <code>RateLimitExceededException</code> with the specified detail message.
+     * 
+     * @param msg
+     *            the detail message
+     * @param waitMillis
+     *            time in milliseconds until a permit becomes available
+     */
+    public RateLimitExceededException(final String msg, final long waitMillis) {
+        super(msg);
+        this.waitMillis = waitMillis;
+    }
+
+    /**
+     * @return time in milliseconds until a permit becomes available, at the time the exception was thrown
+     */
+    public long getWaitMillis() {
+        return waitMillis;
+    }
+
+}
@@ -12,40 +12,133 @@
  */
 package com.labs64.netlicensing.provider;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.nio.charset.Charset;
+import java.util.Map;
+
+import javax.xml.bind.DatatypeConverter;
+import javax.xml.bind.JAXBException;
+
+import com.labs64.netlicensing.exception.RestException;
 import com.labs64.netlicensing.provider.auth.Authentication;
 import com.labs64.netlicensing.provider.auth.TokenAuthentication;
 import com.labs64.netlicensing.provider.auth.UsernamePasswordAuthentication;
+import com.labs64.netlicensing.util.JAXBUtils;
 
 /**
  */
 public abstract class AbstractRestProvider implements RestProvider {
 
+    private static final Charset AUTH_CHARSET = Charset.forName("ISO-8859-1");
+
     private Authentication authentication;
 
+    private String authorizationHeader;
+
     private RestProvider.Configuration configuration;
 
+    /**
+     * Performs the request with the timeouts of the provider configuration.
+     */
+    @Override
+    public <REQ, RES> RestResponse<RES> call(final String method, final String urlTemplate, final REQ request,
+            final Class<RES> responseType, final Map<String, Object> queryParams) throws RestException {
+        return call(method, urlTemplate, request, responseType, queryParams, null);
+    }
+
+    @Override
+    public abstract <REQ, RES> RestResponse<RES> call(String method, String urlTemplate, REQ request,
+            Class<RES> responseType, Map<String, Object> queryParams, Timeouts timeouts) throws RestException;
+
+    /**
+     * @param timeouts
+     *            timeouts passed to the call, may be null
+     * @return given timeouts, or the configured ones if none given
+     */
+    protected Timeouts getTimeouts(final Timeouts timeouts) {
+        return (timeouts != null) ? timeouts : Timeouts.of(getConfiguration());
+    }
+
+    /**
+     * Creates the JAXB context and an unmarshaller for the response type.
+     */
+    @Override
+    public void prepareResponseType(final Class<?> responseType) throws RestException {
+        try {
+            JAXBUtils.getJAXBContext(responseType).createUnmarshaller();
+        } catch (final JAXBException e) {
+            throw new RestException("Cannot create JAXB context for " + responseType.getName(), e);
+        }
+    }
+
+    /**
+     * @param in
+     *            response body, may be null
+     * @return stream with the same content, or null if the body is empty; the given stream is closed in that case
+     * @throws IOException
+     */
+    protected static InputStream nonEmpty(final InputStream in) throws IOException {
+        if (in == null) {
+            return null;
+        }
+        final PushbackInputStream pushback = new PushbackInputStream(in, 1);
+        final int first = pushback.read();
+        if (first == -1) {
+            pushback.close();
+            return null;
+        }
+        pushback.unread(first);
+        return pushback;
+    }
+
     @Override
     public RestProvider authenticate(final Authentication authentication) {
         this.authentication = authentication;
+        this.authorizationHeader = basicAuthorizationHeader(authentication);
         return this;
     }
 
     @Override
     public RestProvider authenticate(final String username, final String password) {
-        authentication = new UsernamePasswordAuthentication(username, password);
-        return this;
+        return authenticate(new UsernamePasswordAuthentication(username, password));
     }
 
     @Override
     public RestProvider authenticate(final String token) {
-        authentication = new TokenAuthentication(token);
-        return this;
+        return authenticate(new TokenAuthentication(token));
     }
 
     protected Authentication getAuthentication() {
         return authentication;
     }
 
+    /**
+     * @return value of the HTTP "Authorization" header for the current authentication, or null if the provider is not
+     *         authenticated. The value is computed once per {@link #authenticate(Authentication)} call.
+     */
+    protected String getAuthorizationHeader() {
+        return authorizationHeader;
+    }
+
+    /**
+     * Builds preemptive HTTP basic authorization header value.
+     *
+     * @param auth
+     *            an object providing the authentication info, may be null
+     * @return header value or null if no authentication info provided
+     */
+    private static String basicAuthorizationHeader(final Authentication auth) {
+        if (auth == null) {
+            return null;
+        }
+        final String username = (auth.getUsername() != null) ? auth.getUsername() : "";
+        final String password = (auth.getPassword() != null) ? auth.getPassword() : "";
+        final byte[] credentials = (username + ":" + password).getBytes(AUTH_CHARSET);
+        return "Basic " + DatatypeConverter.printBase64Binary(credentials);
+    }
+
     @Override
     public void configure(final RestProvider.Configuration configuration) {
         this.configuration = configuration;
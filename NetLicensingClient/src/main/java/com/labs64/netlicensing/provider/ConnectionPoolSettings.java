@@ -0,0 +1,108 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.labs64.netlicensing.provider;
+
+import java.io.Serializable;
+
+/**
+ * Settings of the pooled keep-alive HTTP connector.
+ * <p>
+ * Providers configured with equal settings share one connection pool.
+ */
+public final class ConnectionPoolSettings implements Serializable {
+
+    private static final long serialVersionUID = 4671820465201383740L;
+
+    public static final int DEFAULT_MAX_TOTAL = 200;
+    public static final int DEFAULT_MAX_PER_ROUTE = 50;
+    public static final long DEFAULT_TIME_TO_LIVE_MILLIS = 5 * 60 * 1000L;
+    public static final long DEFAULT_IDLE_TIMEOUT_MILLIS = 30 * 1000L;
+
+    private final int maxTotal;
+    private final int maxPerRoute;
+    private final long timeToLiveMillis;
+    private final long idleTimeoutMillis;
+
+    /**
+     * Creates settings with default values.
+     */
+    public ConnectionPoolSettings() {
+        this(DEFAULT_MAX_TOTAL, DEFAULT_MAX_PER_ROUTE, DEFAULT_TIME_TO_LIVE_MILLIS, DEFAULT_IDLE_TIMEOUT_MILLIS);
+    }
+
+    /**
+     * @param maxTotal
+     *            maximum number of connections in the pool
+     * @param maxPerRoute
+     *            maximum number of connections per route (scheme, host and port)
+     * @param timeToLiveMillis
+     *            maximum lifetime of a keep-alive connection in milliseconds, 0 or negative for unlimited
+     * @param idleTimeoutMillis
+     *            connections idle for longer than this are evicted in background, 0 or negative disables eviction
+     */
+    public ConnectionPoolSettings(final int maxTotal, final int maxPerRoute, final long timeToLiveMillis,
+            final long idleTimeoutMillis) {
+        if (maxTotal <= 0 || maxPerRoute <= 0) {
+            throw new IllegalArgumentException("Connection pool limits must be positive");
+        }
+        this.maxTotal = maxTotal;
+        this.maxPerRoute = maxPerRoute;
+        this.timeToLiveMillis = timeToLiveMillis;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+    }
+
+    public int getMaxTotal() {
+        return maxTotal;
+    }
+
+    public int getMaxPerRoute() {
+        return maxPerRoute;
+    }
+
+    public long getTimeToLiveMillis() {
+        return timeToLiveMillis;
+    }
+
+    public long getIdleTimeoutMillis() {
+        return idleTimeoutMillis;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = maxTotal;
+        result = 31 * result + maxPerRoute;
+        result = 31 * result + (int) (timeToLiveMillis ^ (timeToLiveMillis >>> 32));
+        result = 31 * result + (int) (idleTimeoutMillis ^ (idleTimeoutMillis >>> 32));
+        return result;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof ConnectionPoolSettings)) {
+            return false;
+        }
+        final ConnectionPoolSettings other = (ConnectionPoolSettings) obj;
+        return (maxTotal == other.maxTotal) && (maxPerRoute == other.maxPerRoute)
+                && (timeToLiveMillis == other.timeToLiveMillis) && (idleTimeoutMillis == other.idleTimeoutMillis);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ConnectionPoolSettings [maxTotal=%d, maxPerRoute=%d, timeToLive=%dms, idleTimeout=%dms]",
+                maxTotal, maxPerRoute, timeToLiveMillis, idleTimeoutMillis);
+    }
+
+}
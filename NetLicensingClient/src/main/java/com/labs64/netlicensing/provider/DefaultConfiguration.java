@@ -0,0 +1,113 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.labs64.netlicensing.provider;
+
+/**
+ * Default {@link RestProvider.Configuration}. Can be used as is, adjusted through the setters or extended.
+ * <p>
+ * Set the configuration on the context to apply it to all calls made with this context:
+ *
+ * <pre>
+ * context.setObject(RestProvider.Configuration.class, new DefaultConfiguration()
+ *         .setConnectionPoolSettings(new ConnectionPoolSettings()));
+ * </pre>
+ */
+public class DefaultConfiguration implements RestProvider.Configuration {
+
+    private static final String DEFAULT_USER_AGENT = "NetLicensing/Java " + System.getProperty("java.version")
+            + " (http://netlicensing.io)";
+
+    private static final int DEFAULT_CONNECT_TIMEOUT = 10000;
+
+    private static final int DEFAULT_READ_TIMEOUT = 60000;
+
+    private String userAgent = DEFAULT_USER_AGENT;
+
+    private boolean loggingEnabled = true;
+
+    private ConnectionPoolSettings connectionPoolSettings;
+
+    private int connectTimeout = DEFAULT_CONNECT_TIMEOUT;
+
+    private int readTimeout = DEFAULT_READ_TIMEOUT;
+
+    private int callTimeout = Timeouts.INFINITE;
+
+    @Override
+    public String getUserAgent() {
+        return userAgent;
+    }
+
+    public DefaultConfiguration setUserAgent(final String userAgent) {
+        this.userAgent = userAgent;
+        return this;
+    }
+
+    @Override
+    public boolean isLoggingEnabled() {
+        return loggingEnabled;
+    }
+
+    public DefaultConfiguration setLoggingEnabled(final boolean loggingEnabled) {
+        this.loggingEnabled = loggingEnabled;
+        return this;
+    }
+
+    @Override
+    public ConnectionPoolSettings getConnectionPoolSettings() {
+        return connectionPoolSettings;
+    }
+
+    public DefaultConfiguration setConnectionPoolSettings(final ConnectionPoolSettings connectionPoolSettings) {
+        this.connectionPoolSettings = connectionPoolSettings;
+        return this;
+    }
+
+    @Override
+    public int getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    public DefaultConfiguration setConnectTimeout(final int connectTimeout) {
+        this.connectTimeout = checkTimeout(connectTimeout);
+        return this;
+    }
+
+    @Override
+    public int getReadTimeout() {
+        return readTimeout;
+    }
+
+    public DefaultConfiguration setReadTimeout(final int readTimeout) {
+        this.readTimeout = checkTimeout(readTimeout);
+        return this;
+    }
+
+    @Override
+    public int getCallTimeout() {
+        return callTimeout;
+    }
+
+    public DefaultConfiguration setCallTimeout(final int callTimeout) {
+        this.callTimeout = checkTimeout(callTimeout);
+        return this;
+    }
+
+    private static int checkTimeout(final int timeout) {
+        if (timeout < 0) {
+            throw new IllegalArgumentException("Timeout must not be negative");
+        }
+        return timeout;
+    }
+
+}
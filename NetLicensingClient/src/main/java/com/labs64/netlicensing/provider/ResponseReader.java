@@ -0,0 +1,68 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.labs64.netlicensing.provider;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import javax.ws.rs.core.MediaType;
+
+/**
+ * Reads the response entity straight from the response body, e.g. with a streaming parser, instead of letting the
+ * provider buffer and unmarshal it.
+ *
+ * @param <RES>
+ *            type of the response entity
+ */
+public interface ResponseReader<RES> {
+
+    /**
+     * @param in
+     *            response body; the provider closes it after reading
+     * @return the response entity
+     * @throws IOException
+     *             if the body cannot be read or interpreted
+     */
+    RES read(InputStream in) throws IOException;
+
+    /**
+     * @return media type of the response entity requested from the service
+     */
+    default String getMediaType() {
+        return MediaType.APPLICATION_XML;
+    }
+
+    /**
+     * @param mediaType
+     *            media type of the response entity to request from the service
+     * @param reader
+     *            reads the response entity
+     * @return reader requesting the given media type
+     */
+    static <RES> ResponseReader<RES> accepting(final String mediaType, final ResponseReader<RES> reader) {
+        return new ResponseReader<RES>() {
+
+            @Override
+            public RES read(final InputStream in) throws IOException {
+                return reader.read(in);
+            }
+
+            @Override
+            public String getMediaType() {
+                return mediaType;
+            }
+
+        };
+    }
+
+}
@@ -12,6 +12,9 @@
  */
 package com.labs64.netlicensing.provider;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.Map;
 
 import com.labs64.netlicensing.exception.RestException;
@@ -27,6 +30,39 @@ public interface RestProvider {
 
         boolean isLoggingEnabled();
 
+        /**
+         * @return settings of the pooled keep-alive connector, or null to use the default non-pooled connector. The
+         *         default implementation returns null, so that existing configurations keep the non-pooled connector.
+         */
+        default ConnectionPoolSettings getConnectionPoolSettings() {
+            return null;
+        }
+
+        /**
+         * @return timeout for establishing a connection in milliseconds, {@link Timeouts#INFINITE} for no timeout. The
+         *         default implementation returns {@link Timeouts#INFINITE}.
+         */
+        default int getConnectTimeout() {
+            return Timeouts.INFINITE;
+        }
+
+        /**
+         * @return timeout for waiting on response data in milliseconds, {@link Timeouts#INFINITE} for no timeout. The
+         *         default implementation returns {@link Timeouts#INFINITE}.
+         */
+        default int getReadTimeout() {
+            return Timeouts.INFINITE;
+        }
+
+        /**
+         * @return overall time budget of a single service call in milliseconds, {@link Timeouts#INFINITE} for no
+         *         limit. The connect and read timeouts of the call are shrunk to fit into this budget. The default
+         *         implementation returns {@link Timeouts#INFINITE}.
+         */
+        default int getCallTimeout() {
+            return Timeouts.INFINITE;
+        }
+
     }
 
     /**
@@ -53,6 +89,67 @@ public interface RestProvider {
     <REQ, RES> RestResponse<RES> call(String method, String urlTemplate, REQ request, Class<RES> responseType,
             Map<String, Object> queryParams) throws RestException;
 
+    /**
+     * Same as {@link #call(String, String, Object, Class, Map)}, but with timeouts for this request only.
+     * <p>
+     * The default implementation ignores the timeouts; providers supporting per-request timeouts override it.
+     *
+     * @param timeouts
+     *            connect and read timeouts of this request, or null to use the configured ones
+     */
+    default <REQ, RES> RestResponse<RES> call(final String method, final String urlTemplate, final REQ request,
+            final Class<RES> responseType, final Map<String, Object> queryParams, final Timeouts timeouts)
+            throws RestException {
+        return call(method, urlTemplate, request, responseType, queryParams);
+    }
+
+    /**
+     * Same as {@link #call(String, String, Object, Class, Map, Timeouts)}, but the response entity is read by the given
+     * reader straight from the response body. As with the other calls, the entity of an error response is null if it
+     * cannot be interpreted.
+     * <p>
+     * The default implementation reads the body as string first; providers able to pass the response stream override
+     * it.
+     *
+     * @param responseReader
+     *            reads the response entity
+     */
+    default <REQ, RES> RestResponse<RES> call(final String method, final String urlTemplate, final REQ request,
+            final ResponseReader<RES> responseReader, final Map<String, Object> queryParams, final Timeouts timeouts)
+            throws RestException {
+        final RestResponse<String> response = call(method, urlTemplate, request, String.class, queryParams, timeouts);
+        final RestResponse<RES> restResponse = new RestResponse<>();
+        restResponse.setStatusCode(response.getStatusCode());
+        restResponse.setHeaders(response.getHeaders());
+        if ((response.getEntity() != null) && !response.getEntity().isEmpty()) {
+            try {
+                restResponse.setEntity(responseReader.read(new ByteArrayInputStream(response.getEntity().getBytes(
+                        StandardCharsets.UTF_8))));
+            } catch (final IOException | RuntimeException e) {
+                if (response.getStatusCode() < 400) {
+                    throw new RestException("Could not interpret the response body", e);
+                }
+            }
+        }
+        return restResponse;
+    }
+
+    /**
+     * Prepares the provider for calls ahead of the first one, e.g. creates the HTTP client. Otherwise the provider is
+     * prepared on demand by the first call.
+     */
+    default void initialize() throws RestException {
+    }
+
+    /**
+     * Prepares reading of responses of the given type ahead of the first call, e.g. creates the JAXB context.
+     *
+     * @param responseType
+     *            expected response type of later calls
+     */
+    default void prepareResponseType(final Class<?> responseType) throws RestException {
+    }
+
     /**
      * @param username
      *            username used for authentication
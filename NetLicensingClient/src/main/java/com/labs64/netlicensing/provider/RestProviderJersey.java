@@ -12,7 +12,14 @@
  */
 package com.labs64.netlicensing.provider;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 import javax.ws.rs.ProcessingException;
 import javax.ws.rs.client.Client;
@@ -24,12 +31,21 @@ import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.NoContentException;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.ext.ContextResolver;
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
 
+import org.apache.http.impl.client.IdleConnectionEvictor;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+import org.glassfish.jersey.apache.connector.ApacheClientProperties;
+import org.glassfish.jersey.apache.connector.ApacheConnectorProvider;
 import org.glassfish.jersey.client.ClientConfig;
-import org.glassfish.jersey.client.authentication.HttpAuthenticationFeature;
+import org.glassfish.jersey.client.ClientProperties;
+import org.glassfish.jersey.client.JerseyClient;
 
 import com.labs64.netlicensing.exception.RestException;
-import com.labs64.netlicensing.provider.auth.Authentication;
+import com.labs64.netlicensing.util.JAXBUtils;
 
 /**
  * Low level REST client implementation.
@@ -38,25 +54,15 @@ import com.labs64.netlicensing.provider.auth.Authentication;
  */
 public class RestProviderJersey extends AbstractRestProvider {
 
-    private static final MediaType[] DEFAULT_ACCEPT_TYPES = { MediaType.APPLICATION_XML_TYPE };
+    private static final RestProvider.Configuration DEFAULT_CONFIGURATION = new DefaultConfiguration();
 
-    private static Client client;
+    private static final ConcurrentMap<ConnectionPoolSettings, PooledClient> pooledClients = new ConcurrentHashMap<>();
 
-    private final String basePath;
-
-    private class JerseyDefaultConfig implements RestProvider.Configuration {
-
-        @Override
-        public String getUserAgent() {
-            return "NetLicensing/Java " + System.getProperty("java.version") + " (http://netlicensing.io)";
-        }
+    private static final Lock pooledClientsLock = new ReentrantLock();
 
-        @Override
-        public boolean isLoggingEnabled() {
-            return true;
-        }
+    private final String basePath;
 
-    }
+    private volatile WebTarget baseTarget;
 
     /**
      * @param basePath
@@ -64,90 +70,235 @@ public class RestProviderJersey extends AbstractRestProvider {
      */
     public RestProviderJersey(final String basePath) {
         this.basePath = basePath;
-        configure(new JerseyDefaultConfig());
+        configure(DEFAULT_CONFIGURATION);
+    }
+
+    @Override
+    public void configure(final RestProvider.Configuration configuration) {
+        super.configure(configuration);
+        baseTarget = null;
+    }
+
+    /**
+     * Creates the client and bootstraps its runtime.
+     */
+    @Override
+    public void initialize() throws RestException {
+        try {
+            getTarget();
+            final Client client = getClient(getConfiguration());
+            if (client instanceof JerseyClient) {
+                ((JerseyClient) client).preInitialize();
+            }
+        } catch (final RuntimeException e) {
+            throw new RestException("Cannot initialize client", e);
+        }
     }
 
     /*
      * @see com.labs64.netlicensing.provider.RestProvider#call(java.lang.String, java.lang.String, java.lang.Object,
-     * java.lang.Class, java.util.Map)
+     * java.lang.Class, java.util.Map, com.labs64.netlicensing.provider.Timeouts)
      */
     @Override
     public <REQ, RES> RestResponse<RES> call(final String httpMethod, final String urlTemplate, final REQ request,
-            final Class<RES> responseType,
-            final Map<String, Object> queryParams) throws RestException {
+            final Class<RES> responseType, final Map<String, Object> queryParams, final Timeouts timeouts)
+            throws RestException {
         try {
-            WebTarget target = getTarget(this.basePath);
-            addAuthHeaders(target, getAuthentication());
-            target = target.path(urlTemplate);
-            if ((queryParams != null) && (queryParams.size() > 0)) {
-                for (final String paramKey : queryParams.keySet()) {
-                    target = target.queryParam(paramKey, queryParams.get(paramKey));
-                }
+            final Response response = invoke(httpMethod, urlTemplate, request, MediaType.APPLICATION_XML,
+                    queryParams, timeouts);
+            try {
+                final RestResponse<RES> restResponse = new RestResponse<>();
+                restResponse.setStatusCode(response.getStatus());
+                restResponse.setHeaders(response.getHeaders());
+                restResponse.setEntity(readEntity(response, responseType));
+                return restResponse;
+            } finally {
+                // releases the connection back to the pool when pooled connector is used
+                response.close();
             }
+        } catch (final RuntimeException e) {
+            throw new RestException("Exception while calling service", e);
+        }
+    }
 
-            final Response response;
-            final Builder builder = target.request(DEFAULT_ACCEPT_TYPES).header(HttpHeaders.USER_AGENT,
-                    getConfiguration().getUserAgent());
-            if ("POST".equals(httpMethod) || "PUT".equals(httpMethod)) {
-                final Entity<REQ> requestEntity = Entity.entity(request, MediaType.APPLICATION_FORM_URLENCODED_TYPE);
-                response = builder.method(httpMethod, requestEntity);
-            } else {
-                response = builder.method(httpMethod);
+    /**
+     * Passes the response stream to the reader without buffering the response body.
+     */
+    @Override
+    public <REQ, RES> RestResponse<RES> call(final String httpMethod, final String urlTemplate, final REQ request,
+            final ResponseReader<RES> responseReader, final Map<String, Object> queryParams, final Timeouts timeouts)
+            throws RestException {
+        try {
+            final Response response = invoke(httpMethod, urlTemplate, request, responseReader.getMediaType(),
+                    queryParams, timeouts);
+            try {
+                final RestResponse<RES> restResponse = new RestResponse<>();
+                restResponse.setStatusCode(response.getStatus());
+                restResponse.setHeaders(response.getHeaders());
+                restResponse.setEntity(readEntity(response, responseReader));
+                return restResponse;
+            } finally {
+                response.close();
             }
-
-            final RestResponse<RES> restResponse = new RestResponse<>();
-            restResponse.setStatusCode(response.getStatus());
-            restResponse.setHeaders(response.getHeaders());
-            restResponse.setEntity(readEntity(response, responseType));
-            return restResponse;
         } catch (final RuntimeException e) {
             throw new RestException("Exception while calling service", e);
         }
     }
 
+    private <REQ> Response invoke(final String httpMethod, final String urlTemplate, final REQ request,
+            final String acceptType, final Map<String, Object> queryParams, final Timeouts timeouts) {
+        final Timeouts effectiveTimeouts = getTimeouts(timeouts);
+        WebTarget target = getTarget().path(urlTemplate);
+        if ((queryParams != null) && (queryParams.size() > 0)) {
+            for (final String paramKey : queryParams.keySet()) {
+                target = target.queryParam(paramKey, queryParams.get(paramKey));
+            }
+        }
+
+        final Builder builder = target.request(acceptType).header(HttpHeaders.USER_AGENT,
+                getConfiguration().getUserAgent())
+                .property(ClientProperties.CONNECT_TIMEOUT, effectiveTimeouts.getConnectTimeout())
+                .property(ClientProperties.READ_TIMEOUT, effectiveTimeouts.getReadTimeout());
+        if (getAuthorizationHeader() != null) {
+            builder.header(HttpHeaders.AUTHORIZATION, getAuthorizationHeader());
+        }
+        if ("POST".equals(httpMethod) || "PUT".equals(httpMethod)) {
+            final Entity<REQ> requestEntity = Entity.entity(request, MediaType.APPLICATION_FORM_URLENCODED_TYPE);
+            return builder.method(httpMethod, requestEntity);
+        } else {
+            return builder.method(httpMethod);
+        }
+    }
+
+    /**
+     * Returns statistics of the connection pool created for the given settings.
+     *
+     * @param settings
+     *            connection pool settings, as returned by {@link RestProvider.Configuration#getConnectionPoolSettings()}
+     * @return pool statistics, or null if no provider has used a pool with these settings yet
+     */
+    public static ConnectionPoolStats getConnectionPoolStats(final ConnectionPoolSettings settings) {
+        final PooledClient pooledClient = (settings != null) ? pooledClients.get(settings) : null;
+        if (pooledClient == null) {
+            return null;
+        }
+        final PoolStats stats = pooledClient.connectionManager.getTotalStats();
+        return new ConnectionPoolStats(stats.getLeased(), stats.getAvailable(), stats.getPending(), stats.getMax());
+    }
+
     /**
      * Get static instance of RESTful client
      *
      * @return RESTful client
      */
     private static Client getClient(final RestProvider.Configuration configuration) {
-        // initialize client only once since it's expensive operation
-        if (client == null) {
-            synchronized (RestProviderJersey.class) {
-                if (client == null) {
-                    client = ClientBuilder.newClient(new ClientConfig());
-                    if (configuration.isLoggingEnabled()) {
-                        //TODO: enable logging for jersey 2.26
-                        //client.register(new LoggingFilter());
-                    }
+        final ConnectionPoolSettings poolSettings = configuration.getConnectionPoolSettings();
+        if (poolSettings != null) {
+            return getPooledClient(poolSettings).client;
+        }
+        if (configuration.isLoggingEnabled()) {
+            //TODO: enable logging for jersey 2.26
+            //client.register(new LoggingFilter());
+        }
+        return ClientHolder.CLIENT;
+    }
+
+    /**
+     * Get static instance of RESTful client backed by the pooled keep-alive connector. One client and one connection
+     * pool is created for each distinct {@link ConnectionPoolSettings}.
+     *
+     * @param settings
+     *            connection pool settings
+     * @return pooled RESTful client
+     */
+    private static PooledClient getPooledClient(final ConnectionPoolSettings settings) {
+        PooledClient pooledClient = pooledClients.get(settings);
+        if (pooledClient == null) {
+            // explicit lock rather than monitor, so that virtual threads waiting here do not pin their carrier
+            pooledClientsLock.lock();
+            try {
+                pooledClient = pooledClients.get(settings);
+                if (pooledClient == null) {
+                    pooledClient = new PooledClient(settings);
+                    pooledClients.put(settings, pooledClient);
                 }
+            } finally {
+                pooledClientsLock.unlock();
             }
         }
-        return client;
+        return pooledClient;
     }
 
     /**
-     * Get the RESTful client target
+     * Get the RESTful client target for the base provider path. The target is created once per provider instance and
+     * is never modified afterwards, so all requests share the same client runtime.
      *
-     * @param basePath
-     *            base provider path
      * @return RESTful client target
      */
-    private WebTarget getTarget(final String basePath) {
-        return getClient(getConfiguration()).target(basePath);
+    private WebTarget getTarget() {
+        WebTarget target = baseTarget;
+        if (target == null) {
+            target = getClient(getConfiguration()).target(basePath);
+            baseTarget = target;
+        }
+        return target;
     }
 
     /**
-     * @param target
-     *            target object, to which the authentication headers will be added
-     * @param auth
-     *            an object providing the authentication info
+     * Holder of the shared default RESTful client; it is created on first use only, since it's expensive operation.
      */
-    private void addAuthHeaders(final WebTarget target, final Authentication auth) {
-        if (auth != null) {
-            // see also https://jersey.java.net/documentation/latest/client.html, chapter "Securing a Client"
-            target.register(HttpAuthenticationFeature.basic(auth.getUsername(), auth.getPassword()));
+    private static final class ClientHolder {
+
+        private static final Client CLIENT = ClientBuilder.newClient(new ClientConfig(new JAXBContextResolver()));
+
+    }
+
+    /**
+     * Lets the JAXB message body readers of the clients use the JAXB contexts shared by all providers, so they can be
+     * created ahead of the first call, see {@link #prepareResponseType(Class)}.
+     */
+    private static final class JAXBContextResolver implements ContextResolver<JAXBContext> {
+
+        @Override
+        public JAXBContext getContext(final Class<?> type) {
+            try {
+                return JAXBUtils.getJAXBContext(type);
+            } catch (final JAXBException | RuntimeException e) {
+                return null; // not a JAXB type, the reader falls back to its own context
+            }
         }
+
+    }
+
+    /**
+     * RESTful client using Apache HTTP client connector with pooled keep-alive connections.
+     */
+    private static final class PooledClient {
+
+        private final Client client;
+
+        private final PoolingHttpClientConnectionManager connectionManager;
+
+        PooledClient(final ConnectionPoolSettings settings) {
+            final long timeToLive = settings.getTimeToLiveMillis();
+            connectionManager = new PoolingHttpClientConnectionManager(timeToLive > 0 ? timeToLive : -1,
+                    TimeUnit.MILLISECONDS);
+            connectionManager.setMaxTotal(settings.getMaxTotal());
+            connectionManager.setDefaultMaxPerRoute(settings.getMaxPerRoute());
+
+            if (settings.getIdleTimeoutMillis() > 0) {
+                final long idleTimeout = settings.getIdleTimeoutMillis();
+                new IdleConnectionEvictor(connectionManager, idleTimeout, TimeUnit.MILLISECONDS, idleTimeout,
+                        TimeUnit.MILLISECONDS).start();
+            }
+
+            final ClientConfig clientConfig = new ClientConfig(new JAXBContextResolver());
+            clientConfig.connectorProvider(new ApacheConnectorProvider());
+            clientConfig.property(ApacheClientProperties.CONNECTION_MANAGER, connectionManager);
+            clientConfig.property(ApacheClientProperties.CONNECTION_MANAGER_SHARED, true);
+            client = ClientBuilder.newClient(clientConfig);
+        }
+
     }
 
     /**
@@ -180,4 +331,31 @@ public class RestProviderJersey extends AbstractRestProvider {
         }
     }
 
+    /**
+     * Reads entity from response with the given reader. Returns null when the response has no content.
+     *
+     * @param response
+     *            service response
+     * @param responseReader
+     *            reads the response entity
+     * @return the response entity
+     * @throws RestException
+     */
+    private <RES> RES readEntity(final Response response, final ResponseReader<RES> responseReader)
+            throws RestException {
+        if ((response.getStatus() == Response.Status.NO_CONTENT.getStatusCode()) || !response.hasEntity()) {
+            return null;
+        }
+        try (final InputStream in = nonEmpty(response.readEntity(InputStream.class))) {
+            return (in != null) ? responseReader.read(in) : null;
+        } catch (final IOException | RuntimeException e) {
+            if ((response.getStatusInfo().getFamily() == Response.Status.Family.CLIENT_ERROR)
+                    || (response.getStatusInfo().getFamily() == Response.Status.Family.SERVER_ERROR)) {
+                return null; // Ignore content interpretation errors if status is an error already
+            }
+            throw new RestException("Could not interpret the response body of type '" + response.getMediaType()
+                    + "'", e);
+        }
+    }
+
 }
@@ -0,0 +1,298 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.labs64.netlicensing.provider;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.nio.charset.Charset;
+import java.util.List;
+import java.util.Map;
+
+import javax.ws.rs.core.Form;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedHashMap;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.xml.bind.JAXBException;
+import javax.xml.transform.stream.StreamSource;
+
+import com.labs64.netlicensing.exception.RestException;
+import com.labs64.netlicensing.util.JAXBUtils;
+
+/**
+ * Low level REST client implementation based on {@link HttpURLConnection}.
+ * <p>
+ * Unlike {@link RestProviderJersey} this provider doesn't need the Jersey client runtime, so it has no startup cost
+ * beyond JAXB context creation. Connections are kept alive and reused by the JDK HTTP client.
+ */
+public class RestProviderUrlConnection extends AbstractRestProvider {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private static final RestProvider.Configuration DEFAULT_CONFIGURATION = new DefaultConfiguration();
+
+    private final String basePath;
+
+    /**
+     * @param basePath
+     *            base provider path
+     */
+    public RestProviderUrlConnection(final String basePath) {
+        this.basePath = basePath.endsWith("/") ? basePath.substring(0, basePath.length() - 1) : basePath;
+        configure(DEFAULT_CONFIGURATION);
+    }
+
+    /*
+     * @see com.labs64.netlicensing.provider.RestProvider#call(java.lang.String, java.lang.String, java.lang.Object,
+     * java.lang.Class, java.util.Map, com.labs64.netlicensing.provider.Timeouts)
+     */
+    @Override
+    public <REQ, RES> RestResponse<RES> call(final String httpMethod, final String urlTemplate, final REQ request,
+            final Class<RES> responseType, final Map<String, Object> queryParams, final Timeouts timeouts)
+            throws RestException {
+        HttpURLConnection connection = null;
+        try {
+            connection = send(httpMethod, urlTemplate, request, MediaType.APPLICATION_XML, queryParams, timeouts);
+            final int statusCode = connection.getResponseCode();
+            final RestResponse<RES> restResponse = new RestResponse<>();
+            restResponse.setStatusCode(statusCode);
+            restResponse.setHeaders(readHeaders(connection));
+            restResponse.setEntity(readEntity(connection, statusCode, responseType));
+            return restResponse;
+        } catch (final IOException | RuntimeException e) {
+            if (connection != null) {
+                connection.disconnect();
+            }
+            throw new RestException("Exception while calling service", e);
+        }
+    }
+
+    /**
+     * Passes the response stream to the reader without buffering the response body.
+     */
+    @Override
+    public <REQ, RES> RestResponse<RES> call(final String httpMethod, final String urlTemplate, final REQ request,
+            final ResponseReader<RES> responseReader, final Map<String, Object> queryParams, final Timeouts timeouts)
+            throws RestException {
+        HttpURLConnection connection = null;
+        try {
+            connection = send(httpMethod, urlTemplate, request, responseReader.getMediaType(), queryParams,
+                    timeouts);
+            final int statusCode = connection.getResponseCode();
+            final RestResponse<RES> restResponse = new RestResponse<>();
+            restResponse.setStatusCode(statusCode);
+            restResponse.setHeaders(readHeaders(connection));
+            restResponse.setEntity(readEntity(connection, statusCode, responseReader));
+            return restResponse;
+        } catch (final IOException | RuntimeException e) {
+            if (connection != null) {
+                connection.disconnect();
+            }
+            throw new RestException("Exception while calling service", e);
+        }
+    }
+
+    /**
+     * Opens the connection and sends the request.
+     */
+    private <REQ> HttpURLConnection send(final String httpMethod, final String urlTemplate, final REQ request,
+            final String acceptType, final Map<String, Object> queryParams, final Timeouts timeouts)
+            throws IOException {
+        final Timeouts effectiveTimeouts = getTimeouts(timeouts);
+        final HttpURLConnection connection = (HttpURLConnection) buildUrl(urlTemplate, queryParams).openConnection();
+        connection.setConnectTimeout(effectiveTimeouts.getConnectTimeout());
+        connection.setReadTimeout(effectiveTimeouts.getReadTimeout());
+        connection.setRequestMethod(httpMethod);
+        connection.setUseCaches(false);
+        connection.setInstanceFollowRedirects(false);
+        connection.setRequestProperty(HttpHeaders.ACCEPT, acceptType);
+        connection.setRequestProperty(HttpHeaders.USER_AGENT, getConfiguration().getUserAgent());
+        if (getAuthorizationHeader() != null) {
+            connection.setRequestProperty(HttpHeaders.AUTHORIZATION, getAuthorizationHeader());
+        }
+        if ("POST".equals(httpMethod) || "PUT".equals(httpMethod)) {
+            final byte[] body = encodeRequest(request);
+            connection.setDoOutput(true);
+            connection.setRequestProperty(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_FORM_URLENCODED);
+            connection.setFixedLengthStreamingMode(body.length);
+            try (final OutputStream out = connection.getOutputStream()) {
+                out.write(body);
+            }
+        }
+        return connection;
+    }
+
+    /**
+     * Builds request URL from base path, URL template and query parameters.
+     */
+    private URL buildUrl(final String urlTemplate, final Map<String, Object> queryParams) throws IOException {
+        final StringBuilder url = new StringBuilder(basePath);
+        if (!urlTemplate.startsWith("/")) {
+            url.append('/');
+        }
+        appendEncodedPath(url, urlTemplate);
+        if ((queryParams != null) && (queryParams.size() > 0)) {
+            char separator = '?';
+            for (final Map.Entry<String, Object> param : queryParams.entrySet()) {
+                url.append(separator).append(URLEncoder.encode(param.getKey(), "UTF-8")).append('=');
+                if (param.getValue() != null) {
+                    url.append(URLEncoder.encode(param.getValue().toString(), "UTF-8"));
+                }
+                separator = '&';
+            }
+        }
+        return new URL(url.toString());
+    }
+
+    /**
+     * Appends path to the URL, percent-encoding the characters not allowed in a path. Path separators and already
+     * encoded octets are kept as is.
+     */
+    private static void appendEncodedPath(final StringBuilder url, final String path) {
+        for (final byte b : path.getBytes(UTF_8)) {
+            final int c = b & 0xFF;
+            if (((c >= 'a') && (c <= 'z')) || ((c >= 'A') && (c <= 'Z')) || ((c >= '0') && (c <= '9'))
+                    || ("-._~!$&'()*+,;=:@/%".indexOf(c) >= 0)) {
+                url.append((char) c);
+            } else {
+                url.append('%').append(Character.toUpperCase(Character.forDigit(c >> 4, 16)))
+                        .append(Character.toUpperCase(Character.forDigit(c & 0xF, 16)));
+            }
+        }
+    }
+
+    /**
+     * Encodes request entity as "application/x-www-form-urlencoded" body.
+     */
+    private static byte[] encodeRequest(final Object request) throws UnsupportedEncodingException {
+        if (request == null) {
+            return new byte[0];
+        }
+        if (!(request instanceof Form)) {
+            return request.toString().getBytes(UTF_8);
+        }
+        final StringBuilder body = new StringBuilder();
+        for (final Map.Entry<String, List<String>> param : ((Form) request).asMap().entrySet()) {
+            for (final String value : param.getValue()) {
+                if (body.length() > 0) {
+                    body.append('&');
+                }
+                body.append(URLEncoder.encode(param.getKey(), "UTF-8"));
+                if (value != null) {
+                    body.append('=').append(URLEncoder.encode(value, "UTF-8"));
+                }
+            }
+        }
+        return body.toString().getBytes(UTF_8);
+    }
+
+    private static MultivaluedMap<String, Object> readHeaders(final HttpURLConnection connection) {
+        final MultivaluedMap<String, Object> headers = new MultivaluedHashMap<>();
+        for (final Map.Entry<String, List<String>> header : connection.getHeaderFields().entrySet()) {
+            // status line is returned with null key
+            if (header.getKey() != null) {
+                for (final String value : header.getValue()) {
+                    headers.add(header.getKey(), value);
+                }
+            }
+        }
+        return headers;
+    }
+
+    /**
+     * Reads entity of given type from response. Returns null when the response has a zero-length content.
+     *
+     * @param connection
+     *            service connection
+     * @param statusCode
+     *            response status code
+     * @param responseType
+     *            expected response type
+     * @return the response entity
+     * @throws IOException
+     * @throws RestException
+     */
+    private <RES> RES readEntity(final HttpURLConnection connection, final int statusCode,
+            final Class<RES> responseType) throws IOException, RestException {
+        final boolean isError = statusCode >= 400;
+        final byte[] body;
+        try (final InputStream in = isError ? connection.getErrorStream() : connection.getInputStream()) {
+            body = (in != null) ? readFully(in) : new byte[0];
+        }
+        if ((statusCode == HttpURLConnection.HTTP_NO_CONTENT) || (body.length == 0) || (responseType == null)) {
+            return null;
+        }
+        if (responseType == String.class) {
+            return responseType.cast(new String(body, UTF_8));
+        }
+        try {
+            return JAXBUtils.unmarshal(new StreamSource(new ByteArrayInputStream(body)), responseType);
+        } catch (final JAXBException | RuntimeException e) {
+            if (isError) {
+                return null; // Ignore content interpretation errors if status is an error already
+            }
+            throw new RestException("Could not interpret the response body '" + new String(body, UTF_8)
+                    + "' of type '" + connection.getContentType() + "'", e);
+        }
+    }
+
+    /**
+     * Reads entity from response with the given reader. Returns null when the response has a zero-length content.
+     *
+     * @param connection
+     *            service connection
+     * @param statusCode
+     *            response status code
+     * @param responseReader
+     *            reads the response entity
+     * @return the response entity
+     * @throws IOException
+     * @throws RestException
+     */
+    private <RES> RES readEntity(final HttpURLConnection connection, final int statusCode,
+            final ResponseReader<RES> responseReader) throws IOException, RestException {
+        final boolean isError = statusCode >= 400;
+        try (final InputStream in = nonEmpty(isError ? connection.getErrorStream() : connection.getInputStream())) {
+            if ((in == null) || (statusCode == HttpURLConnection.HTTP_NO_CONTENT)) {
+                return null;
+            }
+            try {
+                return responseReader.read(in);
+            } catch (final IOException | RuntimeException e) {
+                if (isError) {
+                    return null; // Ignore content interpretation errors if status is an error already
+                }
+                throw new RestException("Could not interpret the response body of type '"
+                        + connection.getContentType() + "'", e);
+            }
+        }
+    }
+
+    private static byte[] readFully(final InputStream in) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final byte[] buffer = new byte[8192];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+        }
+        return out.toByteArray();
+    }
+
+}
@@ -12,6 +12,9 @@
  */
 package com.labs64.netlicensing.provider;
 
+import java.util.List;
+import java.util.Map;
+
 import javax.ws.rs.core.MultivaluedHashMap;
 import javax.ws.rs.core.MultivaluedMap;
 
@@ -46,6 +49,25 @@ public class RestResponse<T> {
         this.headers.putAll(headers);
     }
 
+    /**
+     * @param name
+     *            header name, compared case-insensitively
+     * @return first value of the header, or null if there is no such header
+     */
+    public String getHeader(final String name) {
+        if (this.headers == null) {
+            return null;
+        }
+        for (final Map.Entry<String, List<Object>> header : this.headers.entrySet()) {
+            if (name.equalsIgnoreCase(header.getKey()) && (header.getValue() != null)
+                    && !header.getValue().isEmpty()) {
+                final Object value = header.getValue().get(0);
+                return (value != null) ? value.toString() : null;
+            }
+        }
+        return null;
+    }
+
     public T getEntity() {
         return this.entity;
     }
@@ -0,0 +1,81 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.labs64.netlicensing.provider;
+
+/**
+ * Connect and read timeouts applied to a single request. All values are in milliseconds, {@link #INFINITE} means no
+ * timeout. Instances are immutable.
+ */
+public final class Timeouts {
+
+    public static final int INFINITE = 0;
+
+    private final int connectTimeout;
+
+    private final int readTimeout;
+
+    /**
+     * @param connectTimeout
+     *            timeout for establishing the connection, in milliseconds
+     * @param readTimeout
+     *            timeout for waiting on response data, in milliseconds
+     */
+    public Timeouts(final int connectTimeout, final int readTimeout) {
+        if ((connectTimeout < 0) || (readTimeout < 0)) {
+            throw new IllegalArgumentException("Timeouts must not be negative");
+        }
+        this.connectTimeout = connectTimeout;
+        this.readTimeout = readTimeout;
+    }
+
+    /**
+     * @param configuration
+     *            provider configuration
+     * @return timeouts configured for the provider
+     */
+    public static Timeouts of(final RestProvider.Configuration configuration) {
+        return new Timeouts(configuration.getConnectTimeout(), configuration.getReadTimeout());
+    }
+
+    public int getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    public int getReadTimeout() {
+        return readTimeout;
+    }
+
+    /**
+     * Shrinks the timeouts, so that none of them exceeds the remaining time budget of the call.
+     *
+     * @param remainingMillis
+     *            time left until the call deadline, in milliseconds
+     * @return timeouts not exceeding the remaining time
+     */
+    public Timeouts limitTo(final long remainingMillis) {
+        final int limit = (int) Math.max(1L, Math.min(Integer.MAX_VALUE, remainingMillis));
+        final int connect = limit(connectTimeout, limit);
+        final int read = limit(readTimeout, limit);
+        return ((connect == connectTimeout) && (read == readTimeout)) ? this : new Timeouts(connect, read);
+    }
+
+    private static int limit(final int timeout, final int limit) {
+        return ((timeout == INFINITE) || (timeout > limit)) ? limit : timeout;
+    }
+
+    @Override
+    public String toString() {
+        return "Timeouts [connectTimeout=" + connectTimeout + ", readTimeout=" + readTimeout + "]";
+    }
+
+}
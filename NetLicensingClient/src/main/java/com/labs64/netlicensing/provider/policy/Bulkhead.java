@@ -0,0 +1,200 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.labs64.netlicensing.provider.policy;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.labs64.netlicensing.domain.Constants;
+
+/**
+ * Bulkhead for one service base URL: bounds the number of calls in flight, in total and per {@link Lane}, and queues
+ * calls exceeding the bounds. Each lane has its own limit and queue, so bulk management calls can't occupy all slots.
+ * When a slot becomes free, queued validations are admitted before queued management calls.
+ */
+public class Bulkhead {
+
+    /**
+     * Kind of traffic, each with its own in-flight limit and queue.
+     */
+    public enum Lane {
+
+        /** License validations, usually on behalf of waiting end users. */
+        VALIDATION,
+
+        /** All other calls, e.g. creating, updating or listing entities. */
+        MANAGEMENT;
+
+        /**
+         * @param urlTemplate
+         *            the REST URL template of the call
+         * @return lane of the call
+         */
+        public static Lane of(final String urlTemplate) {
+            return urlTemplate.endsWith("/" + Constants.Licensee.ENDPOINT_PATH_VALIDATE) ? VALIDATION : MANAGEMENT;
+        }
+
+    }
+
+    private final int maxConcurrentCalls;
+
+    private final int[] laneLimits = new int[Lane.values().length];
+
+    private final int[] queueLimits = new int[Lane.values().length];
+
+    private final LatencyHistogram[] waitTimes = new LatencyHistogram[Lane.values().length];
+
+    private final Lock lock = new ReentrantLock();
+
+    private final Condition[] slotAvailable = new Condition[Lane.values().length];
+
+    // guarded by lock
+
+    private int inFlight;
+
+    private final int[] laneInFlight = new int[Lane.values().length];
+
+    private final int[] laneQueued = new int[Lane.values().length];
+
+    Bulkhead(final BulkheadPolicy policy) {
+        maxConcurrentCalls = policy.getMaxConcurrentCalls();
+        for (final Lane lane : Lane.values()) {
+            laneLimits[lane.ordinal()] = policy.getMaxConcurrentCalls(lane);
+            queueLimits[lane.ordinal()] = policy.getMaxQueuedCalls(lane);
+            waitTimes[lane.ordinal()] = new LatencyHistogram();
+            slotAvailable[lane.ordinal()] = lock.newCondition();
+        }
+    }
+
+    /**
+     * Enters the bulkhead, waiting in the queue of the lane if no slot is free. Each successful call has to be followed
+     * by {@link #release(Lane)}.
+     *
+     * @param lane
+     *            lane of the call
+     * @param timeout
+     *            maximum time to wait
+     * @param unit
+     *            unit of the timeout
+     * @return true if entered, false if the queue is full or no slot became free within the timeout
+     * @throws InterruptedException
+     *             if interrupted while waiting
+     */
+    public boolean acquire(final Lane lane, final long timeout, final TimeUnit unit) throws InterruptedException {
+        final int index = lane.ordinal();
+        lock.lock();
+        try {
+            if (canEnter(lane)) {
+                enter(lane);
+                waitTimes[index].record(0, TimeUnit.NANOSECONDS);
+                return true;
+            }
+            if (laneQueued[index] >= queueLimits[index]) {
+                return false;
+            }
+            final long start = System.nanoTime();
+            long remaining = unit.toNanos(timeout);
+            laneQueued[index]++;
+            try {
+                while (!canEnter(lane)) {
+                    if (remaining <= 0) {
+                        return false;
+                    }
+                    remaining = slotAvailable[index].awaitNanos(remaining);
+                }
+            } finally {
+                laneQueued[index]--;
+                // pass on a signal this waiter might have consumed without using it
+                signalNext();
+            }
+            enter(lane);
+            waitTimes[index].record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Leaves the bulkhead, admitting the next queued call.
+     *
+     * @param lane
+     *            lane the call entered with
+     */
+    public void release(final Lane lane) {
+        lock.lock();
+        try {
+            inFlight--;
+            laneInFlight[lane.ordinal()]--;
+            signalNext();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return number of calls of the lane currently in flight
+     */
+    public int getInFlight(final Lane lane) {
+        lock.lock();
+        try {
+            return laneInFlight[lane.ordinal()];
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return number of calls of the lane currently waiting for a slot
+     */
+    public int getQueueDepth(final Lane lane) {
+        lock.lock();
+        try {
+            return laneQueued[lane.ordinal()];
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return time calls of the lane waited for a slot, including calls admitted without waiting
+     */
+    public LatencyHistogram getWaitTimes(final Lane lane) {
+        return waitTimes[lane.ordinal()];
+    }
+
+    private boolean canEnter(final Lane lane) {
+        if ((inFlight >= maxConcurrentCalls) || (laneInFlight[lane.ordinal()] >= laneLimits[lane.ordinal()])) {
+            return false;
+        }
+        // management calls don't take a slot a queued validation could use
+        return (lane == Lane.VALIDATION) || (laneQueued[Lane.VALIDATION.ordinal()] == 0) || !canEnter(Lane.VALIDATION);
+    }
+
+    private void enter(final Lane lane) {
+        inFlight++;
+        laneInFlight[lane.ordinal()]++;
+    }
+
+    private void signalNext() {
+        for (final Lane lane : Lane.values()) {
+            if ((laneQueued[lane.ordinal()] > 0) && canEnter(lane)) {
+                slotAvailable[lane.ordinal()].signal();
+                return;
+            }
+        }
+    }
+
+}
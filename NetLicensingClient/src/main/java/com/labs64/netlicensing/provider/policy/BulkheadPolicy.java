@@ -0,0 +1,133 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.labs64.netlicensing.provider.policy;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Bulkhead settings, and the bulkheads created with these settings, one per service base URL.
+ * <p>
+ * Bulkheads are disabled unless a policy is set on the context:
+ *
+ * <pre>
+ * context.setObject(BulkheadPolicy.class,
+ *         new BulkheadPolicy().setMaxConcurrentCalls(32).setMaxConcurrentCalls(Bulkhead.Lane.MANAGEMENT, 8));
+ * </pre>
+ *
+ * The policy instance, and so the state of its bulkheads, can be shared by several contexts. It should not be modified
+ * after it has been put in use.
+ */
+public class BulkheadPolicy {
+
+    private static final int DEFAULT_MAX_CONCURRENT_CALLS = 32;
+
+    private static final int DEFAULT_MAX_CONCURRENT_MANAGEMENT_CALLS = 16;
+
+    private static final int DEFAULT_MAX_QUEUED_CALLS = 256;
+
+    private static final long DEFAULT_MAX_WAIT_MILLIS = 10000;
+
+    private int maxConcurrentCalls = DEFAULT_MAX_CONCURRENT_CALLS;
+
+    private final int[] laneMaxConcurrentCalls = new int[Bulkhead.Lane.values().length];
+
+    private final int[] laneMaxQueuedCalls = new int[Bulkhead.Lane.values().length];
+
+    private long maxWaitMillis = DEFAULT_MAX_WAIT_MILLIS;
+
+    private final ConcurrentMap<String, Bulkhead> bulkheads = new ConcurrentHashMap<>();
+
+    public BulkheadPolicy() {
+        laneMaxConcurrentCalls[Bulkhead.Lane.VALIDATION.ordinal()] = DEFAULT_MAX_CONCURRENT_CALLS;
+        laneMaxConcurrentCalls[Bulkhead.Lane.MANAGEMENT.ordinal()] = DEFAULT_MAX_CONCURRENT_MANAGEMENT_CALLS;
+        laneMaxQueuedCalls[Bulkhead.Lane.VALIDATION.ordinal()] = DEFAULT_MAX_QUEUED_CALLS;
+        laneMaxQueuedCalls[Bulkhead.Lane.MANAGEMENT.ordinal()] = DEFAULT_MAX_QUEUED_CALLS;
+    }
+
+    /**
+     * @return maximum number of calls in flight, all lanes together
+     */
+    public int getMaxConcurrentCalls() {
+        return maxConcurrentCalls;
+    }
+
+    public BulkheadPolicy setMaxConcurrentCalls(final int maxConcurrentCalls) {
+        if (maxConcurrentCalls < 1) {
+            throw new IllegalArgumentException("Maximum number of concurrent calls must be positive");
+        }
+        this.maxConcurrentCalls = maxConcurrentCalls;
+        return this;
+    }
+
+    /**
+     * @return maximum number of calls of the lane in flight
+     */
+    public int getMaxConcurrentCalls(final Bulkhead.Lane lane) {
+        return laneMaxConcurrentCalls[lane.ordinal()];
+    }
+
+    public BulkheadPolicy setMaxConcurrentCalls(final Bulkhead.Lane lane, final int maxConcurrentCalls) {
+        if (maxConcurrentCalls < 1) {
+            throw new IllegalArgumentException("Maximum number of concurrent calls must be positive");
+        }
+        laneMaxConcurrentCalls[lane.ordinal()] = maxConcurrentCalls;
+        return this;
+    }
+
+    /**
+     * @return maximum number of calls of the lane waiting for a slot; further calls are rejected
+     */
+    public int getMaxQueuedCalls(final Bulkhead.Lane lane) {
+        return laneMaxQueuedCalls[lane.ordinal()];
+    }
+
+    public BulkheadPolicy setMaxQueuedCalls(final Bulkhead.Lane lane, final int maxQueuedCalls) {
+        if (maxQueuedCalls < 0) {
+            throw new IllegalArgumentException("Maximum number of queued calls must not be negative");
+        }
+        laneMaxQueuedCalls[lane.ordinal()] = maxQueuedCalls;
+        return this;
+    }
+
+    /**
+     * @return longest time a call waits for a slot; the call deadline may shorten it
+     */
+    public long getMaxWaitMillis() {
+        return maxWaitMillis;
+    }
+
+    public BulkheadPolicy setMaxWaitMillis(final long maxWaitMillis) {
+        this.maxWaitMillis = Math.max(0, maxWaitMillis);
+        return this;
+    }
+
+    /**
+     * @param baseUrl
+     *            service base URL
+     * @return bulkhead guarding the service, created on first use
+     */
+    public Bulkhead getBulkhead(final String baseUrl) {
+        final String key = (baseUrl != null) ? baseUrl : "";
+        Bulkhead bulkhead = bulkheads.get(key);
+        if (bulkhead == null) {
+            bulkhead = new Bulkhead(this);
+            final Bulkhead existing = bulkheads.putIfAbsent(key, bulkhead);
+            if (existing != null) {
+                bulkhead = existing;
+            }
+        }
+        return bulkhead;
+    }
+
+}
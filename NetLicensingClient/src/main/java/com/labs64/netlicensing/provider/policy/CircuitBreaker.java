@@ -0,0 +1,191 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.labs64.netlicensing.provider.policy;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Circuit breaker for one service base URL.
+ * <ul>
+ * <li>{@link State#CLOSED}: calls are permitted, their outcomes are recorded in a sliding window of the most recent
+ * calls. When the failure rate in the window reaches the threshold, the circuit breaker opens.</li>
+ * <li>{@link State#OPEN}: calls are rejected without contacting the service. After the open duration has elapsed, the
+ * circuit breaker becomes half-open.</li>
+ * <li>{@link State#HALF_OPEN}: a limited number of trial calls is permitted. If all of them succeed the circuit breaker
+ * closes, on the first failure it opens again.</li>
+ * </ul>
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final double failureRateThreshold;
+
+    private final int minimumNumberOfCalls;
+
+    private final long openDurationNanos;
+
+    private final int permittedCallsInHalfOpenState;
+
+    private final Lock lock = new ReentrantLock();
+
+    // guarded by lock
+
+    private final boolean[] failures;
+
+    private int windowIndex;
+
+    private int recordedCalls;
+
+    private int recordedFailures;
+
+    private State state = State.CLOSED;
+
+    private long openedAt;
+
+    private int halfOpenPermitted;
+
+    private int halfOpenSucceeded;
+
+    CircuitBreaker(final CircuitBreakerPolicy policy) {
+        this.failureRateThreshold = policy.getFailureRateThreshold();
+        this.minimumNumberOfCalls = Math.min(policy.getMinimumNumberOfCalls(), policy.getSlidingWindowSize());
+        this.openDurationNanos = TimeUnit.MILLISECONDS.toNanos(policy.getOpenDurationMillis());
+        this.permittedCallsInHalfOpenState = policy.getPermittedCallsInHalfOpenState();
+        this.failures = new boolean[policy.getSlidingWindowSize()];
+    }
+
+    /**
+     * Must be called before each call; the call may only be made if permitted.
+     *
+     * @return true if the call is permitted, false if it has to be rejected
+     */
+    public boolean tryAcquirePermission() {
+        lock.lock();
+        try {
+            if ((state == State.OPEN) && (System.nanoTime() - openedAt >= openDurationNanos)) {
+                state = State.HALF_OPEN;
+                halfOpenPermitted = 0;
+                halfOpenSucceeded = 0;
+            }
+            switch (state) {
+            case CLOSED:
+                return true;
+            case HALF_OPEN:
+                if (halfOpenPermitted < permittedCallsInHalfOpenState) {
+                    halfOpenPermitted++;
+                    return true;
+                }
+                return false;
+            default:
+                return false;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Records a successful call.
+     */
+    public void onSuccess() {
+        lock.lock();
+        try {
+            if (state == State.HALF_OPEN) {
+                if (++halfOpenSucceeded >= permittedCallsInHalfOpenState) {
+                    close();
+                }
+            } else if (state == State.CLOSED) {
+                record(false);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Records a failed call.
+     */
+    public void onFailure() {
+        lock.lock();
+        try {
+            if (state == State.HALF_OPEN) {
+                open();
+            } else if (state == State.CLOSED) {
+                record(true);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Opens the circuit breaker regardless of the recorded calls, e.g. on maintenance of the service.
+     */
+    public void forceOpen() {
+        lock.lock();
+        try {
+            open();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public State getState() {
+        lock.lock();
+        try {
+            return state;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Records outcome in the sliding window and opens the circuit breaker if the failure rate reached the threshold.
+     */
+    private void record(final boolean failure) {
+        if (recordedCalls == failures.length) {
+            if (failures[windowIndex]) {
+                recordedFailures--;
+            }
+        } else {
+            recordedCalls++;
+        }
+        failures[windowIndex] = failure;
+        if (failure) {
+            recordedFailures++;
+        }
+        windowIndex = (windowIndex + 1) % failures.length;
+        if ((recordedCalls >= minimumNumberOfCalls) && (recordedFailures > 0)
+                && (recordedFailures >= failureRateThreshold * recordedCalls)) {
+            open();
+        }
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAt = System.nanoTime();
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        windowIndex = 0;
+        recordedCalls = 0;
+        recordedFailures = 0;
+    }
+
+}
@@ -0,0 +1,144 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.labs64.netlicensing.provider.policy;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Circuit breaker settings, and the circuit breakers created with these settings, one per service base URL.
+ * <p>
+ * Circuit breakers are disabled unless a policy is set on the context:
+ *
+ * <pre>
+ * context.setObject(CircuitBreakerPolicy.class, new CircuitBreakerPolicy().setOpenDurationMillis(10000));
+ * </pre>
+ *
+ * The policy instance, and so the state of its circuit breakers, can be shared by several contexts. It should not be
+ * modified after it has been put in use.
+ */
+public class CircuitBreakerPolicy {
+
+    private static final double DEFAULT_FAILURE_RATE_THRESHOLD = 0.5;
+
+    private static final int DEFAULT_SLIDING_WINDOW_SIZE = 20;
+
+    private static final int DEFAULT_MINIMUM_NUMBER_OF_CALLS = 10;
+
+    private static final long DEFAULT_OPEN_DURATION_MILLIS = 30000;
+
+    private static final int DEFAULT_PERMITTED_CALLS_IN_HALF_OPEN_STATE = 3;
+
+    private double failureRateThreshold = DEFAULT_FAILURE_RATE_THRESHOLD;
+
+    private int slidingWindowSize = DEFAULT_SLIDING_WINDOW_SIZE;
+
+    private int minimumNumberOfCalls = DEFAULT_MINIMUM_NUMBER_OF_CALLS;
+
+    private long openDurationMillis = DEFAULT_OPEN_DURATION_MILLIS;
+
+    private int permittedCallsInHalfOpenState = DEFAULT_PERMITTED_CALLS_IN_HALF_OPEN_STATE;
+
+    private final ConcurrentMap<String, CircuitBreaker> circuitBreakers = new ConcurrentHashMap<>();
+
+    /**
+     * @return failure rate within the sliding window, from 0 to 1, at which the circuit breaker opens
+     */
+    public double getFailureRateThreshold() {
+        return failureRateThreshold;
+    }
+
+    public CircuitBreakerPolicy setFailureRateThreshold(final double failureRateThreshold) {
+        if ((failureRateThreshold <= 0) || (failureRateThreshold > 1)) {
+            throw new IllegalArgumentException("Failure rate threshold must be greater than 0 and at most 1");
+        }
+        this.failureRateThreshold = failureRateThreshold;
+        return this;
+    }
+
+    /**
+     * @return number of the most recent calls the failure rate is calculated from
+     */
+    public int getSlidingWindowSize() {
+        return slidingWindowSize;
+    }
+
+    public CircuitBreakerPolicy setSlidingWindowSize(final int slidingWindowSize) {
+        if (slidingWindowSize < 1) {
+            throw new IllegalArgumentException("Sliding window size must be positive");
+        }
+        this.slidingWindowSize = slidingWindowSize;
+        return this;
+    }
+
+    /**
+     * @return number of calls to be recorded before the failure rate is evaluated
+     */
+    public int getMinimumNumberOfCalls() {
+        return minimumNumberOfCalls;
+    }
+
+    public CircuitBreakerPolicy setMinimumNumberOfCalls(final int minimumNumberOfCalls) {
+        if (minimumNumberOfCalls < 1) {
+            throw new IllegalArgumentException("Minimum number of calls must be positive");
+        }
+        this.minimumNumberOfCalls = minimumNumberOfCalls;
+        return this;
+    }
+
+    /**
+     * @return time the circuit breaker stays open before trial calls are permitted
+     */
+    public long getOpenDurationMillis() {
+        return openDurationMillis;
+    }
+
+    public CircuitBreakerPolicy setOpenDurationMillis(final long openDurationMillis) {
+        this.openDurationMillis = Math.max(0, openDurationMillis);
+        return this;
+    }
+
+    /**
+     * @return number of trial calls in half-open state; the circuit breaker closes when all of them succeed
+     */
+    public int getPermittedCallsInHalfOpenState() {
+        return permittedCallsInHalfOpenState;
+    }
+
+    public CircuitBreakerPolicy setPermittedCallsInHalfOpenState(final int permittedCallsInHalfOpenState) {
+        if (permittedCallsInHalfOpenState < 1) {
+            throw new IllegalArgumentException("At least one call must be permitted in half-open state");
+        }
+        this.permittedCallsInHalfOpenState = permittedCallsInHalfOpenState;
+        return this;
+    }
+
+    /**
+     * @param baseUrl
+     *            service base URL
+     * @return circuit breaker guarding the service, created on first use
+     */
+    public CircuitBreaker getCircuitBreaker(final String baseUrl) {
+        final String key = (baseUrl != null) ? baseUrl : "";
+        CircuitBreaker circuitBreaker = circuitBreakers.get(key);
+        if (circuitBreaker == null) {
+            circuitBreaker = new CircuitBreaker(this);
+            final CircuitBreaker existing = circuitBreakers.putIfAbsent(key, circuitBreaker);
+            if (existing != null) {
+                circuitBreaker = existing;
+            }
+        }
+        return circuitBreaker;
+    }
+
+}
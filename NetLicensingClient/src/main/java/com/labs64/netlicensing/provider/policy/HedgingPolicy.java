@@ -0,0 +1,146 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.labs64.netlicensing.provider.policy;
+
+/**
+ * Hedging settings for {@link com.labs64.netlicensing.service.LicenseeService#validate}: if no response arrives
+ * within the hedge delay, a second identical request is sent and whichever answers first is used.
+ * <p>
+ * The hedge delay is the configured percentile of the first-response latencies recorded in
+ * {@link #getLatencyHistogram()}, or {@link #getDefaultDelayMillis()} until enough latencies have been recorded.
+ * Hedged requests are subject to the {@link RetryBudget} of the policy, which limits the extra load to a fraction of
+ * the calls.
+ * <p>
+ * Hedging is disabled unless a policy is set on the context:
+ *
+ * <pre>
+ * context.setObject(HedgingPolicy.class, new HedgingPolicy().setPercentile(0.9));
+ * </pre>
+ */
+public class HedgingPolicy {
+
+    private static final double DEFAULT_PERCENTILE = 0.95;
+
+    private static final long DEFAULT_DELAY_MILLIS = 100;
+
+    private static final long DEFAULT_MIN_DELAY_MILLIS = 5;
+
+    private static final long DEFAULT_MAX_DELAY_MILLIS = 5000;
+
+    private static final int DEFAULT_MIN_SAMPLES = 50;
+
+    private double percentile = DEFAULT_PERCENTILE;
+
+    private long defaultDelayMillis = DEFAULT_DELAY_MILLIS;
+
+    private long minDelayMillis = DEFAULT_MIN_DELAY_MILLIS;
+
+    private long maxDelayMillis = DEFAULT_MAX_DELAY_MILLIS;
+
+    private int minSamples = DEFAULT_MIN_SAMPLES;
+
+    private RetryBudget budget = new RetryBudget(0.05, 1);
+
+    private final LatencyHistogram latencyHistogram = new LatencyHistogram();
+
+    /**
+     * @return latency percentile, from 0 to 1, after which the hedged request is sent
+     */
+    public double getPercentile() {
+        return percentile;
+    }
+
+    public HedgingPolicy setPercentile(final double percentile) {
+        if ((percentile <= 0) || (percentile >= 1)) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 1");
+        }
+        this.percentile = percentile;
+        return this;
+    }
+
+    /**
+     * @return hedge delay used until {@link #getMinSamples()} latencies have been recorded
+     */
+    public long getDefaultDelayMillis() {
+        return defaultDelayMillis;
+    }
+
+    public HedgingPolicy setDefaultDelayMillis(final long defaultDelayMillis) {
+        this.defaultDelayMillis = Math.max(0, defaultDelayMillis);
+        return this;
+    }
+
+    public long getMinDelayMillis() {
+        return minDelayMillis;
+    }
+
+    public HedgingPolicy setMinDelayMillis(final long minDelayMillis) {
+        this.minDelayMillis = Math.max(0, minDelayMillis);
+        return this;
+    }
+
+    public long getMaxDelayMillis() {
+        return maxDelayMillis;
+    }
+
+    public HedgingPolicy setMaxDelayMillis(final long maxDelayMillis) {
+        this.maxDelayMillis = Math.max(0, maxDelayMillis);
+        return this;
+    }
+
+    /**
+     * @return number of latencies to be recorded before the hedge delay is derived from them
+     */
+    public int getMinSamples() {
+        return minSamples;
+    }
+
+    public HedgingPolicy setMinSamples(final int minSamples) {
+        this.minSamples = Math.max(0, minSamples);
+        return this;
+    }
+
+    public RetryBudget getBudget() {
+        return budget;
+    }
+
+    public HedgingPolicy setBudget(final RetryBudget budget) {
+        if (budget == null) {
+            throw new IllegalArgumentException("Hedging budget must be provided");
+        }
+        this.budget = budget;
+        return this;
+    }
+
+    /**
+     * @return latencies of the first response of each hedged call
+     */
+    public LatencyHistogram getLatencyHistogram() {
+        return latencyHistogram;
+    }
+
+    /**
+     * @return current hedge delay in milliseconds
+     */
+    public long getHedgeDelayMillis() {
+        long delay = defaultDelayMillis;
+        if (latencyHistogram.getCount() >= minSamples) {
+            final double percentileMillis = latencyHistogram.getPercentileMillis(percentile);
+            if (percentileMillis >= 0) {
+                delay = (long) Math.ceil(percentileMillis);
+            }
+        }
+        return Math.min(maxDelayMillis, Math.max(minDelayMillis, delay));
+    }
+
+}
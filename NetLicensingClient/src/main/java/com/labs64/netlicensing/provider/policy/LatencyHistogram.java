@@ -0,0 +1,130 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.labs64.netlicensing.provider.policy;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram with exponentially growing buckets, from 100 microseconds up to two minutes with about
+ * 25% relative resolution. Latencies above the largest bucket are counted in the last bucket.
+ */
+public class LatencyHistogram {
+
+    private static final long[] UPPER_BOUNDS_MICROS = createUpperBounds();
+
+    private final AtomicLongArray counts = new AtomicLongArray(UPPER_BOUNDS_MICROS.length);
+
+    private final LongAdder count = new LongAdder();
+
+    private static long[] createUpperBounds() {
+        final long max = TimeUnit.MINUTES.toMicros(2);
+        int size = 0;
+        for (double bound = 100; bound < max; bound *= 1.25) {
+            size++;
+        }
+        final long[] bounds = new long[size + 1];
+        double bound = 100;
+        for (int i = 0; i < size; i++) {
+            bounds[i] = (long) bound;
+            bound *= 1.25;
+        }
+        bounds[size] = max;
+        return bounds;
+    }
+
+    /**
+     * @param latency
+     *            observed latency
+     * @param unit
+     *            unit of the latency
+     */
+    public void record(final long latency, final TimeUnit unit) {
+        final long micros = unit.toMicros(latency);
+        int index = 0;
+        int high = UPPER_BOUNDS_MICROS.length - 1;
+        // binary search of the first bucket with upper bound >= micros
+        while (index < high) {
+            final int mid = (index + high) >>> 1;
+            if (UPPER_BOUNDS_MICROS[mid] < micros) {
+                index = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        counts.incrementAndGet(index);
+        count.increment();
+    }
+
+    /**
+     * @return number of recorded latencies
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * @param percentile
+     *            percentile from 0 to 1, i.e. 0.99 for p99
+     * @return upper bound of the bucket containing the percentile in milliseconds, or -1 if nothing recorded yet
+     */
+    public double getPercentileMillis(final double percentile) {
+        final long[] snapshot = getCounts();
+        long total = 0;
+        for (final long bucketCount : snapshot) {
+            total += bucketCount;
+        }
+        if (total == 0) {
+            return -1;
+        }
+        final long rank = Math.max(1, (long) Math.ceil(percentile * total));
+        long cumulative = 0;
+        for (int i = 0; i < snapshot.length; i++) {
+            cumulative += snapshot[i];
+            if (cumulative >= rank) {
+                return UPPER_BOUNDS_MICROS[i] / 1000.0;
+            }
+        }
+        return UPPER_BOUNDS_MICROS[UPPER_BOUNDS_MICROS.length - 1] / 1000.0;
+    }
+
+    /**
+     * @return upper bounds of the buckets in microseconds, for export together with {@link #getCounts()}
+     */
+    public long[] getUpperBoundsMicros() {
+        return UPPER_BOUNDS_MICROS.clone();
+    }
+
+    /**
+     * @return snapshot of the number of latencies recorded per bucket
+     */
+    public long[] getCounts() {
+        final long[] snapshot = new long[counts.length()];
+        for (int i = 0; i < snapshot.length; i++) {
+            snapshot[i] = counts.get(i);
+        }
+        return snapshot;
+    }
+
+    /**
+     * Drops all recorded latencies.
+     */
+    public void reset() {
+        for (int i = 0; i < counts.length(); i++) {
+            counts.set(i, 0);
+        }
+        count.reset();
+    }
+
+}
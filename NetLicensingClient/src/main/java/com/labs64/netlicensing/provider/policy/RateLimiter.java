@@ -0,0 +1,193 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.labs64.netlicensing.provider.policy;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Token bucket rate limiter for one vendor and endpoint.
+ * <p>
+ * The bucket holds up to one second worth of permits and is refilled continuously at the current rate. The rate adapts
+ * to the service: each throttled response ({@code 429 Too Many Requests}) halves it and pauses the bucket for the
+ * requested {@code Retry-After} time, each other response increases it again by a twentieth of the configured rate.
+ */
+public class RateLimiter {
+
+    private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final double maxRate;
+
+    private final double minRate;
+
+    private final Lock lock = new ReentrantLock();
+
+    // guarded by lock
+
+    private double rate;
+
+    private double tokens;
+
+    private long lastRefill;
+
+    private long pausedUntil;
+
+    /**
+     * @param permitsPerSecond
+     *            configured rate
+     */
+    public RateLimiter(final double permitsPerSecond) {
+        if (permitsPerSecond <= 0) {
+            throw new IllegalArgumentException("Rate must be positive");
+        }
+        this.maxRate = permitsPerSecond;
+        this.minRate = Math.min(permitsPerSecond, Math.max(permitsPerSecond / 64, 0.1));
+        this.rate = permitsPerSecond;
+        this.tokens = getCapacity();
+        this.lastRefill = System.nanoTime();
+        this.pausedUntil = lastRefill;
+    }
+
+    /**
+     * Takes a permit if one is available right now.
+     *
+     * @return true if a permit has been taken
+     */
+    public boolean tryAcquire() {
+        return reserve(0) == 0;
+    }
+
+    /**
+     * Takes a permit, waiting for it if necessary.
+     *
+     * @param timeout
+     *            maximum time to wait
+     * @param unit
+     *            unit of the timeout
+     * @return true if a permit has been taken, false if it wouldn't become available within the timeout
+     * @throws InterruptedException
+     *             if interrupted while waiting
+     */
+    public boolean acquire(final long timeout, final TimeUnit unit) throws InterruptedException {
+        final long waitNanos = reserve(unit.toNanos(timeout));
+        if (waitNanos < 0) {
+            return false;
+        }
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+        return true;
+    }
+
+    /**
+     * @return time in milliseconds until a permit becomes available, 0 if one is available right now
+     */
+    public long getWaitMillis() {
+        lock.lock();
+        try {
+            final long now = System.nanoTime();
+            refill(now);
+            return TimeUnit.NANOSECONDS.toMillis(Math.max(Math.max(0, pausedUntil - now), tokenWaitNanos(1)));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return current rate in permits per second
+     */
+    public double getRate() {
+        lock.lock();
+        try {
+            return rate;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Adapts to a throttled response.
+     *
+     * @param retryAfterMillis
+     *            time the service asked to wait, or a negative value if not given
+     */
+    public void onThrottled(final long retryAfterMillis) {
+        lock.lock();
+        try {
+            final long now = System.nanoTime();
+            refill(now);
+            rate = Math.max(minRate, rate / 2);
+            tokens = Math.min(tokens, 0);
+            if (retryAfterMillis > 0) {
+                pausedUntil = Math.max(pausedUntil, now + TimeUnit.MILLISECONDS.toNanos(retryAfterMillis));
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Adapts to a response that has not been throttled.
+     */
+    public void onAccepted() {
+        lock.lock();
+        try {
+            if (rate < maxRate) {
+                refill(System.nanoTime());
+                rate = Math.min(maxRate, rate + (maxRate / 20));
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Reserves a permit, unless it wouldn't become available within the given time.
+     *
+     * @return nanoseconds to wait before the reserved permit may be used, or -1 if no permit has been reserved
+     */
+    private long reserve(final long maxWaitNanos) {
+        lock.lock();
+        try {
+            final long now = System.nanoTime();
+            refill(now);
+            final long waitNanos = Math.max(Math.max(0, pausedUntil - now), tokenWaitNanos(1));
+            if (waitNanos > maxWaitNanos) {
+                return -1;
+            }
+            // tokens may become negative; later callers wait until the debt is paid off
+            tokens -= 1;
+            return waitNanos;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private long tokenWaitNanos(final double permits) {
+        final double missing = permits - tokens;
+        return (missing <= 0) ? 0 : (long) Math.ceil(missing / rate * NANOS_PER_SECOND);
+    }
+
+    private void refill(final long now) {
+        if (now > lastRefill) {
+            tokens = Math.min(getCapacity(), tokens + ((now - lastRefill) / NANOS_PER_SECOND) * rate);
+            lastRefill = now;
+        }
+    }
+
+    private double getCapacity() {
+        return Math.max(1, rate);
+    }
+
+}
@@ -0,0 +1,195 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.labs64.netlicensing.provider.policy;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.labs64.netlicensing.domain.Constants;
+
+/**
+ * Client-side rate limits, and the {@link RateLimiter}s created with them, one per vendor and endpoint.
+ * <p>
+ * The endpoint of a call is {@link Constants.Licensee#ENDPOINT_PATH_VALIDATE} for validations and the first segment
+ * of the URL path otherwise, e.g. {@code "licensee"} or {@code "product"}. Each endpoint may have its own rate; the
+ * default rate applies to all others. Since limiters are per vendor, a bulk job of one vendor can't exhaust the rate of
+ * others, and a separate validate rate keeps interactive validations going during bulk management calls.
+ * <p>
+ * Rate limiting is disabled unless a policy is set on the context:
+ *
+ * <pre>
+ * context.setObject(RateLimiterPolicy.class, new RateLimiterPolicy().setPermitsPerSecond(20)
+ *         .setPermitsPerSecond(Constants.Licensee.ENDPOINT_PATH_VALIDATE, 50));
+ * </pre>
+ *
+ * The policy instance, and so the state of its limiters, can be shared by several contexts. It should not be modified
+ * after it has been put in use.
+ */
+public class RateLimiterPolicy {
+
+    /**
+     * Behavior when no permit is available.
+     */
+    public enum Mode {
+
+        /** The calling thread waits for a permit, up to the max wait time and the call deadline. */
+        BLOCKING,
+
+        /** The call fails immediately with {@link com.labs64.netlicensing.exception.RateLimitExceededException}. */
+        TRY_ACQUIRE,
+
+        /**
+         * Asynchronous calls (see {@code Async**Service}) are postponed until a permit is available without occupying
+         * a thread; synchronous calls fail immediately as with {@link #TRY_ACQUIRE}.
+         */
+        ASYNC
+
+    }
+
+    private static final double DEFAULT_PERMITS_PER_SECOND = 10;
+
+    private static final long DEFAULT_MAX_WAIT_MILLIS = 30000;
+
+    private double permitsPerSecond = DEFAULT_PERMITS_PER_SECOND;
+
+    private final Map<String, Double> endpointPermitsPerSecond = new ConcurrentHashMap<>();
+
+    private Mode mode = Mode.BLOCKING;
+
+    private long maxWaitMillis = DEFAULT_MAX_WAIT_MILLIS;
+
+    private final ConcurrentMap<LimiterKey, RateLimiter> rateLimiters = new ConcurrentHashMap<>();
+
+    public double getPermitsPerSecond() {
+        return permitsPerSecond;
+    }
+
+    /**
+     * @param permitsPerSecond
+     *            default rate per vendor and endpoint
+     */
+    public RateLimiterPolicy setPermitsPerSecond(final double permitsPerSecond) {
+        if (permitsPerSecond <= 0) {
+            throw new IllegalArgumentException("Rate must be positive");
+        }
+        this.permitsPerSecond = permitsPerSecond;
+        return this;
+    }
+
+    /**
+     * @param endpoint
+     *            endpoint, i.e. {@link Constants.Licensee#ENDPOINT_PATH_VALIDATE} or
+     *            {@link Constants.Product#ENDPOINT_PATH}
+     * @return rate per vendor for the endpoint
+     */
+    public double getPermitsPerSecond(final String endpoint) {
+        final Double endpointRate = endpointPermitsPerSecond.get(endpoint);
+        return (endpointRate != null) ? endpointRate : permitsPerSecond;
+    }
+
+    /**
+     * @param endpoint
+     *            endpoint, i.e. {@link Constants.Licensee#ENDPOINT_PATH_VALIDATE} or
+     *            {@link Constants.Product#ENDPOINT_PATH}
+     * @param permitsPerSecond
+     *            rate per vendor for the endpoint
+     */
+    public RateLimiterPolicy setPermitsPerSecond(final String endpoint, final double permitsPerSecond) {
+        if (permitsPerSecond <= 0) {
+            throw new IllegalArgumentException("Rate must be positive");
+        }
+        endpointPermitsPerSecond.put(endpoint, permitsPerSecond);
+        return this;
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public RateLimiterPolicy setMode(final Mode mode) {
+        if (mode == null) {
+            throw new IllegalArgumentException("Mode must be provided");
+        }
+        this.mode = mode;
+        return this;
+    }
+
+    /**
+     * @return longest time a call waits for a permit in {@link Mode#BLOCKING} mode
+     */
+    public long getMaxWaitMillis() {
+        return maxWaitMillis;
+    }
+
+    public RateLimiterPolicy setMaxWaitMillis(final long maxWaitMillis) {
+        this.maxWaitMillis = Math.max(0, maxWaitMillis);
+        return this;
+    }
+
+    /**
+     * @param vendorNumber
+     *            vendor number, may be null
+     * @param endpoint
+     *            endpoint, see {@link #getEndpoint(String)}
+     * @return rate limiter for the vendor and endpoint, created on first use
+     */
+    public RateLimiter getRateLimiter(final String vendorNumber, final String endpoint) {
+        final LimiterKey key = new LimiterKey(vendorNumber, endpoint);
+        RateLimiter rateLimiter = rateLimiters.get(key);
+        if (rateLimiter == null) {
+            rateLimiter = new RateLimiter(getPermitsPerSecond(endpoint));
+            final RateLimiter existing = rateLimiters.putIfAbsent(key, rateLimiter);
+            if (existing != null) {
+                rateLimiter = existing;
+            }
+        }
+        return rateLimiter;
+    }
+
+    /**
+     * @param urlTemplate
+     *            the REST URL template of the call
+     * @return endpoint the call is rate limited for
+     */
+    public static String getEndpoint(final String urlTemplate) {
+        if (urlTemplate.endsWith("/" + Constants.Licensee.ENDPOINT_PATH_VALIDATE)) {
+            return Constants.Licensee.ENDPOINT_PATH_VALIDATE;
+        }
+        final int start = urlTemplate.startsWith("/") ? 1 : 0;
+        final int end = urlTemplate.indexOf('/', start);
+        return (end < 0) ? urlTemplate.substring(start) : urlTemplate.substring(start, end);
+    }
+
+    private static final class LimiterKey {
+
+        private final String[] values;
+
+        LimiterKey(final String vendorNumber, final String endpoint) {
+            values = new String[] { vendorNumber, endpoint };
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(values);
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            return (obj instanceof LimiterKey) && Arrays.equals(values, ((LimiterKey) obj).values);
+        }
+
+    }
+
+}
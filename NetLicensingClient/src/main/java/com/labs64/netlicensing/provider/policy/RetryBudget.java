@@ -0,0 +1,109 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.labs64.netlicensing.provider.policy;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limits retries to a fraction of the calls, so that retries can't multiply the load on the service during an outage.
+ * <p>
+ * Every call deposits {@code retryRatio} tokens, every retry withdraws one token. Independently of the deposits,
+ * {@code minRetriesPerSecond} retries are always allowed, so that clients with low traffic can still retry.
+ * <p>
+ * The same accounting limits hedged requests, see {@link HedgingPolicy}.
+ */
+public class RetryBudget {
+
+    private static final long TOKEN = 1000L;
+
+    private static final int WINDOW_SHIFT = 20;
+
+    private static final long USED_MASK = (1L << WINDOW_SHIFT) - 1;
+
+    private final long depositPerCall;
+
+    private final long maxBalance;
+
+    private final int minRetriesPerSecond;
+
+    private final AtomicLong balance = new AtomicLong();
+
+    /** Current second in the upper bits, retries taken from the per-second reserve in the lower bits. */
+    private final AtomicLong reserve = new AtomicLong();
+
+    /**
+     * @param retryRatio
+     *            retries allowed per call, i.e. 0.2 allows one retry per five calls
+     * @param minRetriesPerSecond
+     *            retries allowed per second regardless of the ratio
+     */
+    public RetryBudget(final double retryRatio, final int minRetriesPerSecond) {
+        if ((retryRatio < 0) || (minRetriesPerSecond < 0) || (minRetriesPerSecond > USED_MASK)) {
+            throw new IllegalArgumentException("Invalid retry budget");
+        }
+        this.depositPerCall = Math.round(retryRatio * TOKEN);
+        // unused deposits don't accumulate beyond roughly ten seconds worth of minimum retries
+        this.maxBalance = Math.max(10L, 10L * minRetriesPerSecond) * TOKEN;
+        this.minRetriesPerSecond = minRetriesPerSecond;
+    }
+
+    /**
+     * Records a call that may be retried later.
+     */
+    public void onCall() {
+        if (depositPerCall > 0) {
+            long current;
+            do {
+                current = balance.get();
+                if (current >= maxBalance) {
+                    return;
+                }
+            } while (!balance.compareAndSet(current, Math.min(maxBalance, current + depositPerCall)));
+        }
+    }
+
+    /**
+     * @return true if a retry is allowed and has been accounted, false if the budget is exhausted
+     */
+    public boolean tryAcquireRetry() {
+        long current;
+        do {
+            current = balance.get();
+            if (current < TOKEN) {
+                return tryAcquireReserve();
+            }
+        } while (!balance.compareAndSet(current, current - TOKEN));
+        return true;
+    }
+
+    private boolean tryAcquireReserve() {
+        if (minRetriesPerSecond == 0) {
+            return false;
+        }
+        // wall clock seconds are never negative, unlike the ones of System.nanoTime(), so they survive the shifts below
+        final long second = TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis());
+        long current;
+        long next;
+        do {
+            current = reserve.get();
+            final long used = ((current >>> WINDOW_SHIFT) == second) ? (current & USED_MASK) : 0;
+            if (used >= minRetriesPerSecond) {
+                return false;
+            }
+            next = (second << WINDOW_SHIFT) | (used + 1);
+        } while (!reserve.compareAndSet(current, next));
+        return true;
+    }
+
+}
@@ -0,0 +1,197 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.labs64.netlicensing.provider.policy;
+
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Retry policy for idempotent NetLicensing API calls, i.e. GET, DELETE and validate.
+ * <p>
+ * Calls failing with a transport error or with one of the retryable HTTP status codes are retried after an
+ * exponentially growing delay with full jitter. A {@code Retry-After} header returned by the service overrides the
+ * computed delay, if it doesn't exceed {@link #getMaxRetryAfterMillis()}. All retries are subject to the
+ * {@link RetryBudget} of the policy.
+ * <p>
+ * Retries are disabled unless a policy is set on the context:
+ *
+ * <pre>
+ * context.setObject(RetryPolicy.class, new RetryPolicy().setMaxAttempts(4));
+ * </pre>
+ *
+ * The policy instance, and so its budget, can be shared by several contexts. It should not be modified after it has
+ * been put in use.
+ */
+public class RetryPolicy {
+
+    private static final int DEFAULT_MAX_ATTEMPTS = 3;
+
+    private static final long DEFAULT_BASE_DELAY_MILLIS = 100;
+
+    private static final long DEFAULT_MAX_DELAY_MILLIS = 5000;
+
+    private static final long DEFAULT_MAX_RETRY_AFTER_MILLIS = 30000;
+
+    private static final Set<Integer> DEFAULT_RETRYABLE_STATUS_CODES = Collections
+            .unmodifiableSet(new HashSet<>(Arrays.asList(429, 502, 503, 504)));
+
+    private int maxAttempts = DEFAULT_MAX_ATTEMPTS;
+
+    private long baseDelayMillis = DEFAULT_BASE_DELAY_MILLIS;
+
+    private long maxDelayMillis = DEFAULT_MAX_DELAY_MILLIS;
+
+    private long maxRetryAfterMillis = DEFAULT_MAX_RETRY_AFTER_MILLIS;
+
+    private Set<Integer> retryableStatusCodes = DEFAULT_RETRYABLE_STATUS_CODES;
+
+    private RetryBudget budget = new RetryBudget(0.2, 10);
+
+    /**
+     * @return maximum number of attempts per call, including the first one
+     */
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    public RetryPolicy setMaxAttempts(final int maxAttempts) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("At least one attempt must be allowed");
+        }
+        this.maxAttempts = maxAttempts;
+        return this;
+    }
+
+    /**
+     * @return upper bound of the delay before the first retry, doubled for each further retry
+     */
+    public long getBaseDelayMillis() {
+        return baseDelayMillis;
+    }
+
+    public RetryPolicy setBaseDelayMillis(final long baseDelayMillis) {
+        this.baseDelayMillis = Math.max(0, baseDelayMillis);
+        return this;
+    }
+
+    /**
+     * @return upper bound of the computed delay between retries
+     */
+    public long getMaxDelayMillis() {
+        return maxDelayMillis;
+    }
+
+    public RetryPolicy setMaxDelayMillis(final long maxDelayMillis) {
+        this.maxDelayMillis = Math.max(0, maxDelayMillis);
+        return this;
+    }
+
+    /**
+     * @return longest {@code Retry-After} delay the client is willing to wait; the call fails if the service asks for
+     *         a longer one
+     */
+    public long getMaxRetryAfterMillis() {
+        return maxRetryAfterMillis;
+    }
+
+    public RetryPolicy setMaxRetryAfterMillis(final long maxRetryAfterMillis) {
+        this.maxRetryAfterMillis = Math.max(0, maxRetryAfterMillis);
+        return this;
+    }
+
+    public Set<Integer> getRetryableStatusCodes() {
+        return retryableStatusCodes;
+    }
+
+    public RetryPolicy setRetryableStatusCodes(final Set<Integer> retryableStatusCodes) {
+        this.retryableStatusCodes = Collections.unmodifiableSet(new HashSet<>(retryableStatusCodes));
+        return this;
+    }
+
+    public RetryBudget getBudget() {
+        return budget;
+    }
+
+    public RetryPolicy setBudget(final RetryBudget budget) {
+        if (budget == null) {
+            throw new IllegalArgumentException("Retry budget must be provided");
+        }
+        this.budget = budget;
+        return this;
+    }
+
+    /**
+     * @param statusCode
+     *            HTTP status code of the response
+     * @return true if a response with this status code should be retried
+     */
+    public boolean isRetryableStatus(final int statusCode) {
+        return retryableStatusCodes.contains(statusCode);
+    }
+
+    /**
+     * Computes the delay before the given retry.
+     *
+     * @param retry
+     *            number of the retry, starting with 1
+     * @param retryAfterMillis
+     *            delay requested by the service, or a negative value if none
+     * @return delay in milliseconds, or a negative value if the call should not be retried
+     */
+    public long getDelayMillis(final int retry, final long retryAfterMillis) {
+        if (retryAfterMillis > maxRetryAfterMillis) {
+            return -1;
+        }
+        final int shift = Math.min(Math.max(retry - 1, 0), 30);
+        final long backoff = Math.min(maxDelayMillis, baseDelayMillis << shift);
+        // "full jitter": uniformly distributed between zero and the exponential backoff
+        final long delay = (backoff > 0) ? ThreadLocalRandom.current().nextLong(backoff + 1) : 0;
+        return Math.max(delay, retryAfterMillis);
+    }
+
+    /**
+     * Parses value of the {@code Retry-After} header, given either as delay in seconds or as HTTP date.
+     *
+     * @param value
+     *            header value, may be null
+     * @return delay in milliseconds, or -1 if value is missing or malformed
+     */
+    public static long parseRetryAfter(final String value) {
+        if (StringUtils.isBlank(value)) {
+            return -1;
+        }
+        final String trimmed = value.trim();
+        if (StringUtils.isNumeric(trimmed)) {
+            try {
+                return Long.parseLong(trimmed) * 1000L;
+            } catch (final NumberFormatException e) {
+                return -1;
+            }
+        }
+        try {
+            final ZonedDateTime date = ZonedDateTime.parse(trimmed, DateTimeFormatter.RFC_1123_DATE_TIME);
+            return Math.max(0, date.toInstant().toEpochMilli() - System.currentTimeMillis());
+        } catch (final DateTimeParseException e) {
+            return -1;
+        }
+    }
+
+}
@@ -0,0 +1,4 @@
+/**
+ * Resilience policies applied to NetLicensing API calls, e.g. retries, circuit breakers, hedging, rate limits and bulkheads.
+ */
+package com.labs64.netlicensing.provider.policy;
@@ -0,0 +1,415 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.labs64.netlicensing.schema;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+/**
+ * Pull tokenizer for UTF-8 encoded JSON documents, reading straight from a byte stream with a fixed-size buffer.
+ * <p>
+ * Names and scalar values are returned as text; numbers are not interpreted, so that they can be passed on with the
+ * precision of the document. The structure of the document is checked as the tokens are read.
+ */
+final class JsonTokenizer {
+
+    enum Token {
+        BEGIN_OBJECT, END_OBJECT, BEGIN_ARRAY, END_ARRAY, NAME, STRING, NUMBER, BOOLEAN, NULL, END_DOCUMENT
+    }
+
+    private static final int EMPTY_DOCUMENT = 0;
+
+    private static final int NONEMPTY_DOCUMENT = 1;
+
+    private static final int EMPTY_OBJECT = 2;
+
+    private static final int DANGLING_NAME = 3;
+
+    private static final int NONEMPTY_OBJECT = 4;
+
+    private static final int EMPTY_ARRAY = 5;
+
+    private static final int NONEMPTY_ARRAY = 6;
+
+    private final InputStream in;
+
+    private final byte[] buffer = new byte[4096];
+
+    private int position;
+
+    private int limit;
+
+    private long consumed;
+
+    private int[] scopes = new int[16];
+
+    private int depth = 1;
+
+    /** Characters of the string or number being read */
+    private char[] text = new char[64];
+
+    private int textLength;
+
+    /** Member names read so far, by hash */
+    private final String[] names = new String[64];
+
+    private String value;
+
+    JsonTokenizer(final InputStream in) {
+        this.in = in;
+        scopes[0] = EMPTY_DOCUMENT;
+    }
+
+    /**
+     * @return the next token
+     * @throws IOException
+     *             if the document can't be read or is not well-formed
+     */
+    Token next() throws IOException {
+        value = null;
+        final int scope = scopes[depth - 1];
+        int c;
+        switch (scope) {
+        case EMPTY_DOCUMENT:
+            scopes[depth - 1] = NONEMPTY_DOCUMENT;
+            return readValue(nextNonWhitespace());
+        case NONEMPTY_DOCUMENT:
+            c = nextNonWhitespace();
+            if (c != -1) {
+                throw syntaxError("Unexpected content after the end of the document");
+            }
+            return Token.END_DOCUMENT;
+        case EMPTY_OBJECT:
+        case NONEMPTY_OBJECT:
+            c = nextNonWhitespace();
+            if (c == '}') {
+                depth--;
+                return Token.END_OBJECT;
+            }
+            if (scope == NONEMPTY_OBJECT) {
+                if (c != ',') {
+                    throw syntaxError("Expected ',' or '}'");
+                }
+                c = nextNonWhitespace();
+            }
+            if (c != '"') {
+                throw syntaxError("Expected name");
+            }
+            readText();
+            value = toName();
+            if (nextNonWhitespace() != ':') {
+                throw syntaxError("Expected ':'");
+            }
+            scopes[depth - 1] = DANGLING_NAME;
+            return Token.NAME;
+        case DANGLING_NAME:
+            scopes[depth - 1] = NONEMPTY_OBJECT;
+            return readValue(nextNonWhitespace());
+        case EMPTY_ARRAY:
+        case NONEMPTY_ARRAY:
+            c = nextNonWhitespace();
+            if (c == ']') {
+                depth--;
+                return Token.END_ARRAY;
+            }
+            if (scope == NONEMPTY_ARRAY) {
+                if (c != ',') {
+                    throw syntaxError("Expected ',' or ']'");
+                }
+                c = nextNonWhitespace();
+            }
+            scopes[depth - 1] = NONEMPTY_ARRAY;
+            return readValue(c);
+        default:
+            throw new IllegalStateException("Unknown scope " + scope);
+        }
+    }
+
+    /**
+     * @return name or scalar value of the last token, null for other tokens
+     */
+    String getText() {
+        return value;
+    }
+
+    /**
+     * @return true if the innermost open container is an array
+     */
+    boolean isInArray() {
+        final int scope = scopes[depth - 1];
+        return (scope == EMPTY_ARRAY) || (scope == NONEMPTY_ARRAY);
+    }
+
+    /**
+     * Skips the value following the last {@link Token#NAME}, including nested objects and arrays.
+     */
+    void skipValue() throws IOException {
+        int nesting = 0;
+        do {
+            switch (next()) {
+            case BEGIN_OBJECT:
+            case BEGIN_ARRAY:
+                nesting++;
+                break;
+            case END_OBJECT:
+            case END_ARRAY:
+                nesting--;
+                break;
+            case END_DOCUMENT:
+                throw syntaxError("Unexpected end of the document");
+            default:
+                // names and scalar values
+            }
+        } while (nesting > 0);
+    }
+
+    /**
+     * @return description of the current position, for error messages
+     */
+    String getLocation() {
+        return "byte " + (consumed + position);
+    }
+
+    private Token readValue(final int c) throws IOException {
+        switch (c) {
+        case '{':
+            push(EMPTY_OBJECT);
+            return Token.BEGIN_OBJECT;
+        case '[':
+            push(EMPTY_ARRAY);
+            return Token.BEGIN_ARRAY;
+        case '"':
+            readText();
+            value = new String(text, 0, textLength);
+            return Token.STRING;
+        case 't':
+            readLiteral("rue");
+            value = "true";
+            return Token.BOOLEAN;
+        case 'f':
+            readLiteral("alse");
+            value = "false";
+            return Token.BOOLEAN;
+        case 'n':
+            readLiteral("ull");
+            return Token.NULL;
+        case -1:
+            throw syntaxError("Unexpected end of the document");
+        default:
+            if ((c == '-') || ((c >= '0') && (c <= '9'))) {
+                value = readNumber((char) c);
+                return Token.NUMBER;
+            }
+            throw syntaxError("Unexpected character '" + (char) c + "'");
+        }
+    }
+
+    private void push(final int scope) {
+        if (depth == scopes.length) {
+            scopes = Arrays.copyOf(scopes, depth * 2);
+        }
+        scopes[depth++] = scope;
+    }
+
+    /**
+     * Reads the characters of a string into {@link #text}.
+     */
+    private void readText() throws IOException {
+        textLength = 0;
+        while (true) {
+            // plain ASCII runs are copied without further checks
+            while (position < limit) {
+                final byte b = buffer[position];
+                if ((b < 0x20) || (b == '"') || (b == '\\')) {
+                    break;
+                }
+                appendText((char) b);
+                position++;
+            }
+            final int c = read();
+            if (c == '"') {
+                return;
+            } else if (c == '\\') {
+                appendText(readEscape());
+            } else if (c >= 0x80) {
+                readMultiByte(c);
+            } else if (c >= 0x20) {
+                // first character after the buffer has been refilled
+                appendText((char) c);
+            } else if (c == -1) {
+                throw syntaxError("Unterminated string");
+            } else {
+                throw syntaxError("Unescaped control character in string");
+            }
+        }
+    }
+
+    /**
+     * @return the member name just read; the same few names are repeated throughout a document, so they are kept and
+     *         reused instead of creating a string for each occurrence
+     */
+    private String toName() {
+        int hash = 0;
+        for (int i = 0; i < textLength; i++) {
+            hash = (31 * hash) + text[i];
+        }
+        final int slot = (hash ^ (hash >>> 16)) & (names.length - 1);
+        final String cached = names[slot];
+        if ((cached != null) && (cached.length() == textLength)) {
+            int i = 0;
+            while ((i < textLength) && (cached.charAt(i) == text[i])) {
+                i++;
+            }
+            if (i == textLength) {
+                return cached;
+            }
+        }
+        final String name = new String(text, 0, textLength);
+        names[slot] = name;
+        return name;
+    }
+
+    /**
+     * Decodes the rest of a UTF-8 sequence starting with the given byte.
+     */
+    private void readMultiByte(final int first) throws IOException {
+        final int continuations;
+        int code;
+        if ((first & 0xE0) == 0xC0) {
+            continuations = 1;
+            code = first & 0x1F;
+        } else if ((first & 0xF0) == 0xE0) {
+            continuations = 2;
+            code = first & 0x0F;
+        } else if ((first & 0xF8) == 0xF0) {
+            continuations = 3;
+            code = first & 0x07;
+        } else {
+            throw syntaxError("Invalid UTF-8 sequence");
+        }
+        for (int i = 0; i < continuations; i++) {
+            final int next = read();
+            if ((next & 0xC0) != 0x80) {
+                throw syntaxError("Invalid UTF-8 sequence");
+            }
+            code = (code << 6) | (next & 0x3F);
+        }
+        if (Character.isBmpCodePoint(code)) {
+            appendText((char) code);
+        } else if (Character.isValidCodePoint(code)) {
+            appendText(Character.highSurrogate(code));
+            appendText(Character.lowSurrogate(code));
+        } else {
+            throw syntaxError("Invalid UTF-8 sequence");
+        }
+    }
+
+    private void appendText(final char c) {
+        if (textLength == text.length) {
+            text = Arrays.copyOf(text, textLength * 2);
+        }
+        text[textLength++] = c;
+    }
+
+    private char readEscape() throws IOException {
+        final int c = read();
+        switch (c) {
+        case '"':
+        case '\\':
+        case '/':
+            return (char) c;
+        case 'b':
+            return '\b';
+        case 'f':
+            return '\f';
+        case 'n':
+            return '\n';
+        case 'r':
+            return '\r';
+        case 't':
+            return '\t';
+        case 'u':
+            int code = 0;
+            for (int i = 0; i < 4; i++) {
+                final int digit = Character.digit(read(), 16);
+                if (digit < 0) {
+                    throw syntaxError("Invalid unicode escape");
+                }
+                code = (code << 4) | digit;
+            }
+            return (char) code;
+        default:
+            throw syntaxError("Invalid escape sequence");
+        }
+    }
+
+    private String readNumber(final char first) throws IOException {
+        textLength = 0;
+        appendText(first);
+        while (true) {
+            if ((position == limit) && !fill()) {
+                break;
+            }
+            final byte c = buffer[position];
+            if (((c >= '0') && (c <= '9')) || (c == '.') || (c == 'e') || (c == 'E') || (c == '+') || (c == '-')) {
+                appendText((char) c);
+                position++;
+            } else {
+                break;
+            }
+        }
+        return new String(text, 0, textLength);
+    }
+
+    private void readLiteral(final String rest) throws IOException {
+        for (int i = 0; i < rest.length(); i++) {
+            if (read() != rest.charAt(i)) {
+                throw syntaxError("Invalid literal");
+            }
+        }
+    }
+
+    private int nextNonWhitespace() throws IOException {
+        while (true) {
+            final int c = read();
+            if ((c != ' ') && (c != '\n') && (c != '\r') && (c != '\t')) {
+                return c;
+            }
+        }
+    }
+
+    private int read() throws IOException {
+        if ((position == limit) && !fill()) {
+            return -1;
+        }
+        return buffer[position++] & 0xFF;
+    }
+
+    private boolean fill() throws IOException {
+        consumed += limit;
+        position = 0;
+        limit = 0;
+        final int read = in.read(buffer, 0, buffer.length);
+        if (read <= 0) {
+            return false;
+        }
+        limit = read;
+        return true;
+    }
+
+    private IOException syntaxError(final String message) {
+        return new IOException(message + " at " + getLocation());
+    }
+
+}
@@ -0,0 +1,297 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.labs64.netlicensing.schema;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import com.labs64.netlicensing.schema.JsonTokenizer.Token;
+import com.labs64.netlicensing.schema.NetlicensingStreamReader.ItemHandler;
+import com.labs64.netlicensing.schema.context.Info;
+import com.labs64.netlicensing.schema.context.Item;
+import com.labs64.netlicensing.schema.context.List;
+import com.labs64.netlicensing.schema.context.Netlicensing;
+import com.labs64.netlicensing.schema.context.Property;
+
+/**
+ * Reads {@link Netlicensing} responses in the JSON format of the service straight from the response stream.
+ * <p>
+ * The JSON format mirrors the XML schema: elements and attributes become members of the same name, repeated elements
+ * become arrays, and element text becomes the "value" member, e.g.
+ *
+ * <pre>
+ * {"items":{"item":[{"type":"Product","property":[{"name":"number","value":"P001"}],"list":[]}],"pagenumber":"0"}}
+ * </pre>
+ *
+ * As with {@link NetlicensingStreamReader}, each item is passed to the {@link ItemHandler} as soon as it has been read
+ * and the item list of the target is left empty. Signatures and unknown members are skipped; a single object is
+ * accepted in place of an array with one element.
+ */
+public final class NetlicensingJsonReader {
+
+    private NetlicensingJsonReader() {
+        // utility class constructor
+    }
+
+    /**
+     * Reads the response.
+     *
+     * @param in
+     *            UTF-8 encoded response body, not closed by this method
+     * @param target
+     *            object receiving the id, ttl, infos and page attributes of the response
+     * @param handler
+     *            receives the items of the response
+     * @return the target
+     * @throws IOException
+     *             if the response body can't be read or is not a well-formed response
+     */
+    public static <T extends Netlicensing> T read(final InputStream in, final T target, final ItemHandler handler)
+            throws IOException {
+        final JsonTokenizer tokenizer = new JsonTokenizer(in);
+        try {
+            expect(tokenizer, tokenizer.next(), Token.BEGIN_OBJECT);
+            while (tokenizer.next() == Token.NAME) {
+                switch (tokenizer.getText()) {
+                case "id":
+                    target.setId(readScalar(tokenizer));
+                    break;
+                case "ttl":
+                    final String ttl = readScalar(tokenizer);
+                    if (ttl != null) {
+                        target.setTtl(NetlicensingStreamReader.DATATYPE_FACTORY.newXMLGregorianCalendar(ttl.trim()));
+                    }
+                    break;
+                case "infos":
+                    readInfos(tokenizer, target);
+                    break;
+                case "items":
+                    readItems(tokenizer, target, handler);
+                    break;
+                default:
+                    tokenizer.skipValue();
+                }
+            }
+            expect(tokenizer, tokenizer.next(), Token.END_DOCUMENT);
+            return target;
+        } catch (final IllegalArgumentException e) {
+            throw new IOException("Invalid response content at " + tokenizer.getLocation() + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static void readInfos(final JsonTokenizer tokenizer, final Netlicensing target) throws IOException {
+        final Netlicensing.Infos infos = new Netlicensing.Infos();
+        if (beginObject(tokenizer)) {
+            while (tokenizer.next() == Token.NAME) {
+                if ("info".equals(tokenizer.getText())) {
+                    for (Token token = beginElements(tokenizer); token == Token.BEGIN_OBJECT; token = nextElement(
+                            tokenizer)) {
+                        infos.getInfo().add(readInfo(tokenizer));
+                    }
+                } else {
+                    tokenizer.skipValue();
+                }
+            }
+        }
+        target.setInfos(infos);
+    }
+
+    private static Info readInfo(final JsonTokenizer tokenizer) throws IOException {
+        final Info info = new Info();
+        while (tokenizer.next() == Token.NAME) {
+            switch (tokenizer.getText()) {
+            case "id":
+                info.setId(readScalar(tokenizer));
+                break;
+            case "type":
+                info.setType(NetlicensingStreamReader.parseInfoType(readScalar(tokenizer)));
+                break;
+            case "value":
+                info.setValue(readScalar(tokenizer));
+                break;
+            default:
+                tokenizer.skipValue();
+            }
+        }
+        return info;
+    }
+
+    private static void readItems(final JsonTokenizer tokenizer, final Netlicensing target,
+            final ItemHandler handler) throws IOException {
+        if (!beginObject(tokenizer)) {
+            return;
+        }
+        final Netlicensing.Items items = new Netlicensing.Items();
+        target.setItems(items);
+        while (tokenizer.next() == Token.NAME) {
+            switch (tokenizer.getText()) {
+            case "item":
+                for (Token token = beginElements(tokenizer); token == Token.BEGIN_OBJECT; token = nextElement(
+                        tokenizer)) {
+                    handler.handle(readItem(tokenizer));
+                }
+                break;
+            case "pagenumber":
+                items.setPagenumber(readScalar(tokenizer));
+                break;
+            case "itemsnumber":
+                items.setItemsnumber(readScalar(tokenizer));
+                break;
+            case "totalpages":
+                items.setTotalpages(readScalar(tokenizer));
+                break;
+            case "totalitems":
+                items.setTotalitems(readScalar(tokenizer));
+                break;
+            case "hasnext":
+                items.setHasnext(readScalar(tokenizer));
+                break;
+            default:
+                tokenizer.skipValue();
+            }
+        }
+    }
+
+    private static Item readItem(final JsonTokenizer tokenizer) throws IOException {
+        final Item item = new Item();
+        while (tokenizer.next() == Token.NAME) {
+            if ("type".equals(tokenizer.getText())) {
+                item.setType(readScalar(tokenizer));
+            } else if (!readContent(tokenizer, item.getProperty(), item.getList())) {
+                tokenizer.skipValue();
+            }
+        }
+        return item;
+    }
+
+    private static List readList(final JsonTokenizer tokenizer) throws IOException {
+        final List list = new List();
+        while (tokenizer.next() == Token.NAME) {
+            if ("name".equals(tokenizer.getText())) {
+                list.setName(readScalar(tokenizer));
+            } else if (!readContent(tokenizer, list.getProperty(), list.getList())) {
+                tokenizer.skipValue();
+            }
+        }
+        return list;
+    }
+
+    /**
+     * Reads the properties or lists of an item or list, if the current name is one of them.
+     *
+     * @return false if the current name is neither "property" nor "list"
+     */
+    private static boolean readContent(final JsonTokenizer tokenizer, final java.util.List<Property> properties,
+            final java.util.List<List> lists) throws IOException {
+        if ("property".equals(tokenizer.getText())) {
+            for (Token token = beginElements(tokenizer); token == Token.BEGIN_OBJECT; token = nextElement(tokenizer)) {
+                properties.add(readProperty(tokenizer));
+            }
+            return true;
+        }
+        if ("list".equals(tokenizer.getText())) {
+            for (Token token = beginElements(tokenizer); token == Token.BEGIN_OBJECT; token = nextElement(tokenizer)) {
+                lists.add(readList(tokenizer));
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private static Property readProperty(final JsonTokenizer tokenizer) throws IOException {
+        final Property property = new Property();
+        while (tokenizer.next() == Token.NAME) {
+            switch (tokenizer.getText()) {
+            case "name":
+                property.setName(readScalar(tokenizer));
+                break;
+            case "value":
+                property.setValue(readScalar(tokenizer));
+                break;
+            default:
+                tokenizer.skipValue();
+            }
+        }
+        return property;
+    }
+
+    /**
+     * Starts reading the elements of a repeated member: an array of objects, a single object, or null.
+     *
+     * @return {@link Token#BEGIN_OBJECT} if positioned on the first element, something else if there are none
+     */
+    private static Token beginElements(final JsonTokenizer tokenizer) throws IOException {
+        switch (tokenizer.next()) {
+        case BEGIN_ARRAY:
+            return nextArrayElement(tokenizer);
+        case BEGIN_OBJECT:
+            // single element, ends the elements after it
+            return Token.BEGIN_OBJECT;
+        case NULL:
+            return Token.NULL;
+        default:
+            throw new IOException("Expected array or object at " + tokenizer.getLocation());
+        }
+    }
+
+    /**
+     * Moves to the next element of a repeated member, after the previous element has been read.
+     */
+    private static Token nextElement(final JsonTokenizer tokenizer) throws IOException {
+        return tokenizer.isInArray() ? nextArrayElement(tokenizer) : Token.END_OBJECT;
+    }
+
+    private static Token nextArrayElement(final JsonTokenizer tokenizer) throws IOException {
+        final Token token = tokenizer.next();
+        if ((token != Token.BEGIN_OBJECT) && (token != Token.END_ARRAY)) {
+            throw new IOException("Expected object at " + tokenizer.getLocation());
+        }
+        return token;
+    }
+
+    /**
+     * @return true if positioned in an object, false if the value is null
+     */
+    private static boolean beginObject(final JsonTokenizer tokenizer) throws IOException {
+        final Token token = tokenizer.next();
+        if (token == Token.NULL) {
+            return false;
+        }
+        expect(tokenizer, token, Token.BEGIN_OBJECT);
+        return true;
+    }
+
+    /**
+     * Reads scalar value as text; numbers and booleans are read as written.
+     */
+    private static String readScalar(final JsonTokenizer tokenizer) throws IOException {
+        switch (tokenizer.next()) {
+        case STRING:
+        case NUMBER:
+        case BOOLEAN:
+            return tokenizer.getText();
+        case NULL:
+            return null;
+        default:
+            throw new IOException("Expected scalar value at " + tokenizer.getLocation());
+        }
+    }
+
+    private static void expect(final JsonTokenizer tokenizer, final Token token, final Token expected)
+            throws IOException {
+        if (token != expected) {
+            throw new IOException("Expected " + expected + " but found " + token + " at " + tokenizer.getLocation());
+        }
+    }
+
+}
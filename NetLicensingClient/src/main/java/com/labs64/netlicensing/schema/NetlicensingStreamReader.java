@@ -0,0 +1,235 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.labs64.netlicensing.schema;
+
+import java.io.InputStream;
+
+import javax.xml.datatype.DatatypeConfigurationException;
+import javax.xml.datatype.DatatypeFactory;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import com.labs64.netlicensing.schema.context.Info;
+import com.labs64.netlicensing.schema.context.InfoEnum;
+import com.labs64.netlicensing.schema.context.Item;
+import com.labs64.netlicensing.schema.context.List;
+import com.labs64.netlicensing.schema.context.Netlicensing;
+import com.labs64.netlicensing.schema.context.Property;
+
+/**
+ * Reads {@link Netlicensing} responses with a StAX parser straight from the response stream.
+ * <p>
+ * Unlike JAXB unmarshalling, the items of the response are not collected: each item is passed to the
+ * {@link ItemHandler} as soon as it has been read, so that only one item is held in memory at a time. The id, ttl and
+ * infos of the response and the page attributes of its items are read into the given {@link Netlicensing} object,
+ * whose item list is left empty. Signatures and unknown elements are skipped.
+ */
+public final class NetlicensingStreamReader {
+
+    private static final String NAMESPACE = "http://netlicensing.labs64.com/schema/context";
+
+    private static final XMLInputFactory INPUT_FACTORY = createInputFactory();
+
+    static final DatatypeFactory DATATYPE_FACTORY = createDatatypeFactory();
+
+    /**
+     * Receives the items of the response in document order.
+     */
+    public interface ItemHandler {
+
+        /**
+         * @param item
+         *            item just read, not referenced by the reader afterwards
+         */
+        void handle(Item item);
+
+    }
+
+    private NetlicensingStreamReader() {
+        // utility class constructor
+    }
+
+    /**
+     * Reads the response.
+     *
+     * @param in
+     *            response body, not closed by this method
+     * @param target
+     *            object receiving the id, ttl, infos and page attributes of the response
+     * @param handler
+     *            receives the items of the response
+     * @return the target
+     * @throws XMLStreamException
+     *             if the response body is not well-formed
+     */
+    public static <T extends Netlicensing> T read(final InputStream in, final T target, final ItemHandler handler)
+            throws XMLStreamException {
+        final XMLStreamReader reader = INPUT_FACTORY.createXMLStreamReader(in);
+        try {
+            do {
+                if (!reader.hasNext()) {
+                    throw new XMLStreamException("Response has no root element");
+                }
+            } while (reader.next() != XMLStreamConstants.START_ELEMENT);
+            target.setId(reader.getAttributeValue(null, "id"));
+            final String ttl = reader.getAttributeValue(null, "ttl");
+            if (ttl != null) {
+                target.setTtl(DATATYPE_FACTORY.newXMLGregorianCalendar(ttl.trim()));
+            }
+            while (nextChildElement(reader)) {
+                if (isElement(reader, "infos")) {
+                    readInfos(reader, target);
+                } else if (isElement(reader, "items")) {
+                    readItems(reader, target, handler);
+                } else {
+                    skipElement(reader);
+                }
+            }
+            return target;
+        } catch (final IllegalArgumentException e) {
+            throw new XMLStreamException("Invalid response content: " + e.getMessage(), reader.getLocation(), e);
+        } finally {
+            reader.close();
+        }
+    }
+
+    private static void readInfos(final XMLStreamReader reader, final Netlicensing target)
+            throws XMLStreamException {
+        final Netlicensing.Infos infos = new Netlicensing.Infos();
+        while (nextChildElement(reader)) {
+            if (isElement(reader, "info")) {
+                final Info info = new Info();
+                info.setId(reader.getAttributeValue(null, "id"));
+                info.setType(parseInfoType(reader.getAttributeValue(null, "type")));
+                info.setValue(reader.getElementText());
+                infos.getInfo().add(info);
+            } else {
+                skipElement(reader);
+            }
+        }
+        target.setInfos(infos);
+    }
+
+    private static void readItems(final XMLStreamReader reader, final Netlicensing target, final ItemHandler handler)
+            throws XMLStreamException {
+        final Netlicensing.Items items = new Netlicensing.Items();
+        items.setPagenumber(reader.getAttributeValue(null, "pagenumber"));
+        items.setItemsnumber(reader.getAttributeValue(null, "itemsnumber"));
+        items.setTotalpages(reader.getAttributeValue(null, "totalpages"));
+        items.setTotalitems(reader.getAttributeValue(null, "totalitems"));
+        items.setHasnext(reader.getAttributeValue(null, "hasnext"));
+        target.setItems(items);
+        while (nextChildElement(reader)) {
+            if (isElement(reader, "item")) {
+                final Item item = new Item();
+                item.setType(reader.getAttributeValue(null, "type"));
+                readContent(reader, item.getProperty(), item.getList());
+                handler.handle(item);
+            } else {
+                skipElement(reader);
+            }
+        }
+    }
+
+    /**
+     * Reads the properties and lists of an item or list.
+     */
+    private static void readContent(final XMLStreamReader reader, final java.util.List<Property> properties,
+            final java.util.List<List> lists) throws XMLStreamException {
+        while (nextChildElement(reader)) {
+            if (isElement(reader, "property")) {
+                final Property property = new Property();
+                property.setName(reader.getAttributeValue(null, "name"));
+                property.setValue(reader.getElementText());
+                properties.add(property);
+            } else if (isElement(reader, "list")) {
+                final List list = new List();
+                list.setName(reader.getAttributeValue(null, "name"));
+                readContent(reader, list.getProperty(), list.getList());
+                lists.add(list);
+            } else {
+                skipElement(reader);
+            }
+        }
+    }
+
+    /**
+     * Unknown info types are read as null, as JAXB does.
+     */
+    static InfoEnum parseInfoType(final String value) {
+        if (value != null) {
+            final String type = value.trim();
+            for (final InfoEnum infoEnum : InfoEnum.values()) {
+                if (infoEnum.value().equals(type)) {
+                    return infoEnum;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Moves to the next child element of the current element.
+     *
+     * @return true if positioned on the start of a child element, false if the end of the current element is reached
+     */
+    private static boolean nextChildElement(final XMLStreamReader reader) throws XMLStreamException {
+        while (reader.hasNext()) {
+            switch (reader.next()) {
+            case XMLStreamConstants.START_ELEMENT:
+                return true;
+            case XMLStreamConstants.END_ELEMENT:
+                return false;
+            default:
+                // text, comments and processing instructions between elements are ignored
+            }
+        }
+        return false;
+    }
+
+    private static void skipElement(final XMLStreamReader reader) throws XMLStreamException {
+        int depth = 1;
+        while ((depth > 0) && reader.hasNext()) {
+            final int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+
+    private static boolean isElement(final XMLStreamReader reader, final String localName) {
+        return localName.equals(reader.getLocalName()) && NAMESPACE.equals(reader.getNamespaceURI());
+    }
+
+    private static XMLInputFactory createInputFactory() {
+        final XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.IS_COALESCING, Boolean.TRUE);
+        factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, Boolean.TRUE);
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+        return factory;
+    }
+
+    private static DatatypeFactory createDatatypeFactory() {
+        try {
+            return DatatypeFactory.newInstance();
+        } catch (final DatatypeConfigurationException e) {
+            throw new IllegalStateException("Cannot create datatype factory", e);
+        }
+    }
+
+}
@@ -0,0 +1,157 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.labs64.netlicensing.schema;
+
+import java.util.List;
+
+import com.labs64.netlicensing.schema.context.Property;
+
+/**
+ * Case-insensitive index of the properties of an item, built once per item so that converters looking up many
+ * properties don't scan the property list for each of them.
+ * <p>
+ * Lookups match {@link SchemaFunction#propertyByName(List, String, String)}: names are compared with
+ * {@link String#equalsIgnoreCase(String)} and the first of several properties with the same name wins. The index is an
+ * open addressing table of the properties themselves, so building it allocates a single array. Short property lists,
+ * as of items without custom properties, are scanned instead: building the table costs more than it saves there.
+ */
+public final class PropertyIndex {
+
+    /** Smallest property list that is indexed, shorter lists are scanned */
+    static final int MIN_INDEXED_PROPERTIES = 12;
+
+    private final List<Property> properties;
+
+    private final Property[] table;
+
+    private final int mask;
+
+    /**
+     * @param properties
+     *            properties to index; the list must not be changed while the index is used
+     */
+    public PropertyIndex(final List<Property> properties) {
+        this.properties = properties;
+        if (properties.size() < MIN_INDEXED_PROPERTIES) {
+            table = null;
+            mask = 0;
+            return;
+        }
+        int capacity = 4;
+        while (capacity < (properties.size() * 2)) {
+            capacity <<= 1;
+        }
+        table = new Property[capacity];
+        mask = capacity - 1;
+        for (final Property property : properties) {
+            if (property.getName() != null) {
+                final int slot = slotOf(property.getName());
+                if (table[slot] == null) {
+                    table[slot] = property;
+                }
+            }
+        }
+    }
+
+    /**
+     * @param name
+     *            property name, not case-sensitive
+     * @return property value, or null if no property with the given name is present
+     */
+    public String get(final String name) {
+        return get(name, null);
+    }
+
+    /**
+     * @param name
+     *            property name, not case-sensitive
+     * @param defaultValue
+     *            value returned if no property with the given name is present
+     * @return property value, or the default value if no property with the given name is present
+     */
+    public String get(final String name, final String defaultValue) {
+        final Property property = find(name);
+        return (property != null) ? property.getValue() : defaultValue;
+    }
+
+    /**
+     * @param name
+     *            property name, not case-sensitive
+     * @return true if a property with the given name is present
+     */
+    public boolean contains(final String name) {
+        return find(name) != null;
+    }
+
+    /**
+     * @return the first property with the given name, or null if not present
+     */
+    private Property find(final String name) {
+        return (table != null) ? table[slotOf(name)] : scan(name);
+    }
+
+    /**
+     * @return the first property with the given name in the list, or null if not present
+     */
+    private Property scan(final String name) {
+        for (final Property property : properties) {
+            if (name.equalsIgnoreCase(property.getName())) {
+                return property;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return slot of the property with the given name, or the empty slot where it would be inserted
+     */
+    private int slotOf(final String name) {
+        int slot = hashIgnoreCase(name) & mask;
+        while ((table[slot] != null) && !name.equalsIgnoreCase(table[slot].getName())) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Hash code consistent with {@link String#equalsIgnoreCase(String)}. Only the length and a few characters are
+     * hashed, which is enough to tell property names apart, so hashing costs the same for names of any length and
+     * doesn't allocate a lower-case copy.
+     */
+    private static int hashIgnoreCase(final String name) {
+        final int length = name.length();
+        int hash = length;
+        if (length > 0) {
+            hash = (31 * hash) + fold(name.charAt(0));
+            hash = (31 * hash) + fold(name.charAt(length >> 1));
+            hash = (31 * hash) + fold(name.charAt(length - 1));
+            if (length > 1) {
+                hash = (31 * hash) + fold(name.charAt(length - 2));
+            }
+        }
+        // spread the higher bits, since only the lower bits select the slot
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * @return the character as compared by {@link String#equalsIgnoreCase(String)}
+     */
+    private static int fold(final char c) {
+        if (c < 0x80) {
+            // same as below for ASCII, but much cheaper
+            return ((c >= 'A') && (c <= 'Z')) ? (c + ('a' - 'A')) : c;
+        }
+        return Character.toLowerCase(Character.toUpperCase(c));
+    }
+
+}
@@ -12,15 +12,12 @@
  */
 package com.labs64.netlicensing.schema.converter;
 
-import java.util.List;
-
 import com.labs64.netlicensing.domain.Constants;
 import com.labs64.netlicensing.domain.entity.BaseEntity;
 import com.labs64.netlicensing.domain.vo.Money;
 import com.labs64.netlicensing.exception.ConversionException;
-import com.labs64.netlicensing.schema.SchemaFunction;
+import com.labs64.netlicensing.schema.PropertyIndex;
 import com.labs64.netlicensing.schema.context.Item;
-import com.labs64.netlicensing.schema.context.Property;
 
 /**
  * Convert {@link Item} entity into {@link BaseEntity} object.
@@ -31,6 +28,20 @@ abstract class ItemToEntityBaseConverter<T extends BaseEntity> implements Conver
 
     @Override
     public T convert(final Item source) throws ConversionException {
+        return convert(source, new PropertyIndex(source.getProperty()));
+    }
+
+    /**
+     * Converts the item, looking up its properties in the index built once per item.
+     *
+     * @param source
+     *            item to convert
+     * @param properties
+     *            index of the item properties
+     * @return the converted entity
+     * @throws ConversionException
+     */
+    protected T convert(final Item source, final PropertyIndex properties) throws ConversionException {
         final T target = newTarget();
 
         final String entityClass = target.getClass().getInterfaces()[0].getSimpleName();
@@ -39,10 +50,8 @@ abstract class ItemToEntityBaseConverter<T extends BaseEntity> implements Conver
             throw new ConversionException(String.format("Wrong item type '%s', expected '%s'", sourceType, entityClass));
         }
 
-        target.setActive(Boolean.parseBoolean(
-                SchemaFunction.propertyByName(source.getProperty(), Constants.ACTIVE, Boolean.FALSE.toString())
-                        .getValue()));
-        target.setNumber(SchemaFunction.propertyByName(source.getProperty(), Constants.NUMBER).getValue());
+        target.setActive(Boolean.parseBoolean(properties.get(Constants.ACTIVE, Boolean.FALSE.toString())));
+        target.setNumber(properties.get(Constants.NUMBER));
 
         return target;
     }
@@ -51,14 +60,14 @@ abstract class ItemToEntityBaseConverter<T extends BaseEntity> implements Conver
      * Converts price with currency from NetLicensing XML representation to the internal Money value.
      * 
      * @param source
-     *            - collection of properties from NetLicensing XML
+     *            - index of properties from NetLicensing XML
      * @param priceProperty
      *            - the property name holding price value, currency always assumed in Constants.CURRENCY
      * @return converted money object
      */
-    static Money convertPrice(final List<Property> source, final String priceProperty) {
-        final String rawPrice = SchemaFunction.propertyByName(source, priceProperty).getValue();
-        final String rawCurrency = SchemaFunction.propertyByName(source, Constants.CURRENCY).getValue();
+    static Money convertPrice(final PropertyIndex source, final String priceProperty) {
+        final String rawPrice = source.get(priceProperty);
+        final String rawCurrency = source.get(Constants.CURRENCY);
         return Money.convertPrice(rawPrice, rawCurrency);
     }
 
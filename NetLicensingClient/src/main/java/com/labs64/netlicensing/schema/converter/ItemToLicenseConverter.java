@@ -21,7 +21,7 @@ import com.labs64.netlicensing.domain.entity.impl.LicenseTemplateImpl;
 import com.labs64.netlicensing.domain.entity.impl.LicenseeImpl;
 import com.labs64.netlicensing.domain.vo.Currency;
 import com.labs64.netlicensing.exception.ConversionException;
-import com.labs64.netlicensing.schema.SchemaFunction;
+import com.labs64.netlicensing.schema.PropertyIndex;
 import com.labs64.netlicensing.schema.context.Item;
 import com.labs64.netlicensing.schema.context.Property;
 
@@ -31,24 +31,23 @@ import com.labs64.netlicensing.schema.context.Property;
 public class ItemToLicenseConverter extends ItemToEntityBaseConverter<License> {
 
     @Override
-    public License convert(final Item source) throws ConversionException {
-        final License target = super.convert(source);
+    protected License convert(final Item source, final PropertyIndex properties) throws ConversionException {
+        final License target = super.convert(source, properties);
 
-        target.setName(SchemaFunction.propertyByName(source.getProperty(), Constants.NAME).getValue());
-        if (SchemaFunction.propertyByName(source.getProperty(), Constants.PRICE).getValue() != null) {
-            target.setPrice(DatatypeConverter.parseDecimal(SchemaFunction.propertyByName(source.getProperty(),
-                    Constants.PRICE).getValue()));
+        target.setName(properties.get(Constants.NAME));
+        final String price = properties.get(Constants.PRICE);
+        if (price != null) {
+            target.setPrice(DatatypeConverter.parseDecimal(price));
         }
-        if (SchemaFunction.propertyByName(source.getProperty(), Constants.CURRENCY).getValue() != null) {
-            target.setCurrency(Currency.valueOf(SchemaFunction.propertyByName(source.getProperty(), Constants.CURRENCY)
-                    .getValue()));
+        final String currency = properties.get(Constants.CURRENCY);
+        if (currency != null) {
+            target.setCurrency(Currency.valueOf(currency));
         }
-        target.setHidden(Boolean.parseBoolean(SchemaFunction.propertyByName(source.getProperty(),
-                Constants.License.HIDDEN, Boolean.FALSE.toString()).getValue()));
+        target.setHidden(Boolean.parseBoolean(properties.get(Constants.License.HIDDEN, Boolean.FALSE.toString())));
 
         // Custom properties
         for (final Property property : source.getProperty()) {
-            if (!LicenseImpl.getReservedProps().contains(property.getName())) {
+            if (!LicenseImpl.isReservedProp(property.getName())) {
                 target.getProperties().put(property.getName(), property.getValue());
             }
         }
@@ -56,15 +55,12 @@ public class ItemToLicenseConverter extends ItemToEntityBaseConverter<License> {
         target.setLicensee(new LicenseeImpl());
         target.getLicensee()
         .setNumber(
-                SchemaFunction.propertyByName(source.getProperty(), Constants.Licensee.LICENSEE_NUMBER)
-                .getValue());
+                properties.get(Constants.Licensee.LICENSEE_NUMBER));
 
         target.setLicenseTemplate(new LicenseTemplateImpl());
         target.getLicenseTemplate()
         .setNumber(
-                SchemaFunction.propertyByName(source.getProperty(),
-                        Constants.LicenseTemplate.LICENSE_TEMPLATE_NUMBER)
-                .getValue());
+                properties.get(Constants.LicenseTemplate.LICENSE_TEMPLATE_NUMBER));
 
         return target;
     }
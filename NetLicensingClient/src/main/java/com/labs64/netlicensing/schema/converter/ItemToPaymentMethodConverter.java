@@ -15,6 +15,7 @@ package com.labs64.netlicensing.schema.converter;
 import com.labs64.netlicensing.domain.entity.PaymentMethod;
 import com.labs64.netlicensing.domain.entity.impl.PaymentMethodImpl;
 import com.labs64.netlicensing.exception.ConversionException;
+import com.labs64.netlicensing.schema.PropertyIndex;
 import com.labs64.netlicensing.schema.context.Item;
 import com.labs64.netlicensing.schema.context.Property;
 
@@ -24,12 +25,12 @@ import com.labs64.netlicensing.schema.context.Property;
 public class ItemToPaymentMethodConverter extends ItemToEntityBaseConverter<PaymentMethod> {
 
     @Override
-    public PaymentMethod convert(final Item source) throws ConversionException {
-        final PaymentMethod target = super.convert(source);
+    protected PaymentMethod convert(final Item source, final PropertyIndex properties) throws ConversionException {
+        final PaymentMethod target = super.convert(source, properties);
 
         // Custom properties
         for (final Property property : source.getProperty()) {
-            if (!PaymentMethodImpl.getReservedProps().contains(property.getName())) {
+            if (!PaymentMethodImpl.isReservedProp(property.getName())) {
                 target.getProperties().put(property.getName(), property.getValue());
             }
         }
@@ -22,7 +22,7 @@ import com.labs64.netlicensing.domain.entity.impl.ProductDiscountImpl;
 import com.labs64.netlicensing.domain.entity.impl.ProductImpl;
 import com.labs64.netlicensing.domain.vo.Money;
 import com.labs64.netlicensing.exception.ConversionException;
-import com.labs64.netlicensing.schema.SchemaFunction;
+import com.labs64.netlicensing.schema.PropertyIndex;
 import com.labs64.netlicensing.schema.context.Item;
 import com.labs64.netlicensing.schema.context.Property;
 
@@ -32,30 +32,28 @@ import com.labs64.netlicensing.schema.context.Property;
 public class ItemToProductConverter extends ItemToEntityBaseConverter<Product> {
 
     @Override
-    public Product convert(final Item source) throws ConversionException {
-        final Product target = super.convert(source);
+    protected Product convert(final Item source, final PropertyIndex properties) throws ConversionException {
+        final Product target = super.convert(source, properties);
 
-        target.setName(SchemaFunction.propertyByName(source.getProperty(), Constants.NAME).getValue());
-        target.setVersion(SchemaFunction.propertyByName(source.getProperty(), Constants.VERSION).getValue());
-        target.setLicenseeAutoCreate(Boolean.parseBoolean(SchemaFunction.propertyByName(source.getProperty(),
-                Constants.Product.LICENSEE_AUTO_CREATE, Boolean.FALSE.toString()).getValue()));
-        target.setDescription(SchemaFunction.propertyByName(source.getProperty(), Constants.Product.DESCRIPTION)
-                .getValue());
-        target.setLicensingInfo(SchemaFunction.propertyByName(source.getProperty(), Constants.Product.LICENSING_INFO)
-                .getValue());
+        target.setName(properties.get(Constants.NAME));
+        target.setVersion(properties.get(Constants.VERSION));
+        target.setLicenseeAutoCreate(Boolean.parseBoolean(properties.get(Constants.Product.LICENSEE_AUTO_CREATE,
+                Boolean.FALSE.toString())));
+        target.setDescription(properties.get(Constants.Product.DESCRIPTION));
+        target.setLicensingInfo(properties.get(Constants.Product.LICENSING_INFO));
 
         for (final com.labs64.netlicensing.schema.context.List list : source.getList()) {
             if (Constants.DISCOUNT.equals(list.getName())) {
                 final ProductDiscountImpl productDiscount = new ProductDiscountImpl();
-                final Money price = convertPrice(list.getProperty(), Constants.Product.Discount.TOTAL_PRICE);
+                final PropertyIndex discountProperties = new PropertyIndex(list.getProperty());
+                final Money price = convertPrice(discountProperties, Constants.Product.Discount.TOTAL_PRICE);
                 productDiscount.setTotalPrice(price.getAmount());
                 productDiscount.setCurrency(price.getCurrencyCode());
-                if (SchemaFunction.propertyByName(list.getProperty(), Constants.Product.Discount.AMOUNT_FIX).getValue() != null) {
-                    final Money amountFix = convertPrice(list.getProperty(), Constants.Product.Discount.AMOUNT_FIX);
+                if (discountProperties.get(Constants.Product.Discount.AMOUNT_FIX) != null) {
+                    final Money amountFix = convertPrice(discountProperties, Constants.Product.Discount.AMOUNT_FIX);
                     productDiscount.setAmountFix(amountFix.getAmount());
                 }
-                final String amountPercent = SchemaFunction.propertyByName(list.getProperty(),
-                        Constants.Product.Discount.AMOUNT_PERCENT).getValue();
+                final String amountPercent = discountProperties.get(Constants.Product.Discount.AMOUNT_PERCENT);
                 if (amountPercent != null) {
                     try {
                         productDiscount.setAmountPercent(DatatypeConverter.parseDecimal(amountPercent));
@@ -71,7 +69,7 @@ public class ItemToProductConverter extends ItemToEntityBaseConverter<Product> {
 
         // Custom properties
         for (final Property property : source.getProperty()) {
-            if (!ProductImpl.getReservedProps().contains(property.getName())) {
+            if (!ProductImpl.isReservedProp(property.getName())) {
                 target.addProperty(property.getName(), property.getValue());
             }
         }
@@ -17,7 +17,7 @@ import com.labs64.netlicensing.domain.entity.ProductModule;
 import com.labs64.netlicensing.domain.entity.impl.ProductImpl;
 import com.labs64.netlicensing.domain.entity.impl.ProductModuleImpl;
 import com.labs64.netlicensing.exception.ConversionException;
-import com.labs64.netlicensing.schema.SchemaFunction;
+import com.labs64.netlicensing.schema.PropertyIndex;
 import com.labs64.netlicensing.schema.context.Item;
 import com.labs64.netlicensing.schema.context.Property;
 
@@ -27,20 +27,19 @@ import com.labs64.netlicensing.schema.context.Property;
 public class ItemToProductModuleConverter extends ItemToEntityBaseConverter<ProductModule> {
 
     @Override
-    public ProductModule convert(final Item source) throws ConversionException {
-        final ProductModule target = super.convert(source);
+    protected ProductModule convert(final Item source, final PropertyIndex properties) throws ConversionException {
+        final ProductModule target = super.convert(source, properties);
 
-        target.setName(SchemaFunction.propertyByName(source.getProperty(), Constants.NAME).getValue());
-        target.setLicensingModel(SchemaFunction.propertyByName(source.getProperty(),
-                Constants.ProductModule.LICENSING_MODEL).getValue());
+        target.setName(properties.get(Constants.NAME));
+        target.setLicensingModel(properties.get(Constants.ProductModule.LICENSING_MODEL));
 
         target.setProduct(new ProductImpl());
         target.getProduct().setNumber(
-                SchemaFunction.propertyByName(source.getProperty(), Constants.Product.PRODUCT_NUMBER).getValue());
+                properties.get(Constants.Product.PRODUCT_NUMBER));
 
         // Custom properties
         for (final Property property : source.getProperty()) {
-            if (!ProductModuleImpl.getReservedProps().contains(property.getName())) {
+            if (!ProductModuleImpl.isReservedProp(property.getName())) {
                 target.getProperties().put(property.getName(), property.getValue());
             }
         }
@@ -27,6 +27,7 @@ import com.labs64.netlicensing.domain.vo.Currency;
 import com.labs64.netlicensing.domain.vo.TransactionSource;
 import com.labs64.netlicensing.domain.vo.TransactionStatus;
 import com.labs64.netlicensing.exception.ConversionException;
+import com.labs64.netlicensing.schema.PropertyIndex;
 import com.labs64.netlicensing.schema.SchemaFunction;
 import com.labs64.netlicensing.schema.context.Item;
 import com.labs64.netlicensing.schema.context.Property;
@@ -38,39 +39,35 @@ import com.labs64.netlicensing.util.DateUtils;
 public class ItemToTransactionConverter extends ItemToEntityBaseConverter<Transaction> {
 
     @Override
-    public Transaction convert(final Item source) throws ConversionException {
-        final Transaction target = super.convert(source);
+    protected Transaction convert(final Item source, final PropertyIndex properties) throws ConversionException {
+        final Transaction target = super.convert(source, properties);
 
-        target.setStatus(TransactionStatus.valueOf(SchemaFunction.propertyByName(source.getProperty(),
-                Constants.Transaction.STATUS)
-                .getValue()));
-        target.setSource(TransactionSource.valueOf(SchemaFunction.propertyByName(source.getProperty(),
-                Constants.Transaction.SOURCE)
-                .getValue()));
-        if (SchemaFunction.propertyByName(source.getProperty(), Constants.Transaction.GRAND_TOTAL).getValue() != null) {
-            target.setGrandTotal(DatatypeConverter.parseDecimal(SchemaFunction.propertyByName(source.getProperty(),
-                    Constants.Transaction.GRAND_TOTAL).getValue()));
+        target.setStatus(TransactionStatus.valueOf(properties.get(Constants.Transaction.STATUS)));
+        target.setSource(TransactionSource.valueOf(properties.get(Constants.Transaction.SOURCE)));
+        final String grandTotal = properties.get(Constants.Transaction.GRAND_TOTAL);
+        if (grandTotal != null) {
+            target.setGrandTotal(DatatypeConverter.parseDecimal(grandTotal));
         }
-        if (SchemaFunction.propertyByName(source.getProperty(), Constants.DISCOUNT).getValue() != null) {
-            target.setDiscount(DatatypeConverter.parseDecimal(SchemaFunction.propertyByName(source.getProperty(),
-                    Constants.DISCOUNT).getValue()));
+        final String discount = properties.get(Constants.DISCOUNT);
+        if (discount != null) {
+            target.setDiscount(DatatypeConverter.parseDecimal(discount));
         }
-        if (SchemaFunction.propertyByName(source.getProperty(), Constants.CURRENCY).getValue() != null) {
-            target.setCurrency(Currency.valueOf(SchemaFunction.propertyByName(source.getProperty(),
-                    Constants.CURRENCY).getValue()));
+        final String currency = properties.get(Constants.CURRENCY);
+        if (currency != null) {
+            target.setCurrency(Currency.valueOf(currency));
         }
-        if (SchemaFunction.propertyByName(source.getProperty(), Constants.Transaction.DATE_CREATED).getValue() != null) {
-            target.setDateCreated(DateUtils.parseDate(SchemaFunction.propertyByName(
-                    source.getProperty(), Constants.Transaction.DATE_CREATED).getValue()).getTime());
+        final String dateCreated = properties.get(Constants.Transaction.DATE_CREATED);
+        if (dateCreated != null) {
+            target.setDateCreated(DateUtils.parseDate(dateCreated).getTime());
         }
-        if (SchemaFunction.propertyByName(source.getProperty(), Constants.Transaction.DATE_CLOSED).getValue() != null) {
-            target.setDateClosed(DateUtils.parseDate(SchemaFunction.propertyByName(
-                    source.getProperty(), Constants.Transaction.DATE_CLOSED).getValue()).getTime());
+        final String dateClosed = properties.get(Constants.Transaction.DATE_CLOSED);
+        if (dateClosed != null) {
+            target.setDateClosed(DateUtils.parseDate(dateClosed).getTime());
         }
 
         // Custom properties
         for (final Property property : source.getProperty()) {
-            if (!TransactionImpl.getReservedProps().contains(property.getName())) {
+            if (!TransactionImpl.isReservedProp(property.getName())) {
                 target.getProperties().put(property.getName(), property.getValue());
             }
         }
@@ -32,37 +32,51 @@ public class ItemsToValidationResultConverter implements Converter<Netlicensing,
         }
 
         for (final Item item : source.getItems().getItem()) {
-            if (!Constants.ValidationResult.VALIDATION_RESULT_TYPE.equals(item.getType())) {
-                continue;
-            }
+            convert(item, target);
+        }
+        return target;
+    }
 
-            final Composition composition = new Composition();
+    /**
+     * Adds the product module validation of a single item to the validation result; items of other types are ignored.
+     * Used when the items are converted one by one as they are read.
+     *
+     * @param item
+     *            response item
+     * @param target
+     *            validation result
+     * @throws ConversionException
+     */
+    public void convert(final Item item, final ValidationResult target) throws ConversionException {
+        if (!Constants.ValidationResult.VALIDATION_RESULT_TYPE.equals(item.getType())) {
+            return;
+        }
 
-            // convert properties
-            String productModuleNumber = null;
-            for (final Property property : item.getProperty()) {
-                if (Constants.ProductModule.PRODUCT_MODULE_NUMBER.equals(property.getName())) {
-                    productModuleNumber = property.getValue();
-                } else {
-                    composition.put(property.getName(), property.getValue());
-                }
-            }
+        final Composition composition = new Composition();
 
-            // convert lists
-            if (item.getList() != null) {
-                for (final List list : item.getList()) {
-                    composition.put(list.getName(), convertFromList(list));
-                }
+        // convert properties
+        String productModuleNumber = null;
+        for (final Property property : item.getProperty()) {
+            if (Constants.ProductModule.PRODUCT_MODULE_NUMBER.equals(property.getName())) {
+                productModuleNumber = property.getValue();
+            } else {
+                composition.put(property.getName(), property.getValue());
             }
+        }
 
-            if (productModuleNumber == null) {
-                throw new ConversionException(String.format("Validation item does not contain property '%s'",
-                        Constants.ProductModule.PRODUCT_MODULE_NUMBER));
+        // convert lists
+        if (item.getList() != null) {
+            for (final List list : item.getList()) {
+                composition.put(list.getName(), convertFromList(list));
             }
+        }
 
-            target.setProductModuleValidation(productModuleNumber, composition);
+        if (productModuleNumber == null) {
+            throw new ConversionException(String.format("Validation item does not contain property '%s'",
+                    Constants.ProductModule.PRODUCT_MODULE_NUMBER));
         }
-        return target;
+
+        target.setProductModuleValidation(productModuleNumber, composition);
     }
 
     /**
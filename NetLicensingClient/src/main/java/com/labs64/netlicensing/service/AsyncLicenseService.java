@@ -0,0 +1,93 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.labs64.netlicensing.service;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.reactivestreams.Publisher;
+
+import com.labs64.netlicensing.domain.entity.License;
+import com.labs64.netlicensing.domain.vo.Context;
+import com.labs64.netlicensing.domain.vo.Page;
+
+/**
+ * Asynchronous variant of {@link LicenseService}.
+ * <p>
+ * Every call is executed by {@link ServiceExecutor} on the executor configured in the context and returns a
+ * {@link CompletableFuture}, which is completed with the call result or exceptionally with the
+ * {@link com.labs64.netlicensing.exception.NetLicensingException} thrown by the call.
+ */
+public final class AsyncLicenseService {
+
+    private AsyncLicenseService() {
+    }
+
+    /**
+     * Asynchronous variant of {@link LicenseService#create(Context, String, String, String, License)}.
+     */
+    public static CompletableFuture<License> create(final Context context, final String licenseeNumber,
+            final String licenseTemplateNumber, final String transactionNumber, final License license) {
+        return ServiceExecutor.supplyAsync(context,
+                () -> LicenseService.create(context, licenseeNumber, licenseTemplateNumber, transactionNumber, license));
+    }
+
+    /**
+     * Asynchronous variant of {@link LicenseService#get(Context, String)}.
+     */
+    public static CompletableFuture<License> get(final Context context, final String number) {
+        return ServiceExecutor.supplyAsync(context, () -> LicenseService.get(context, number));
+    }
+
+    /**
+     * Asynchronous variant of {@link LicenseService#list(Context, String)}.
+     */
+    public static CompletableFuture<Page<License>> list(final Context context, final String filter) {
+        return ServiceExecutor.supplyAsync(context, () -> LicenseService.list(context, filter));
+    }
+
+    /**
+     * Publishes the items of all pages of {@link LicenseService#list(Context, String)}. The next page is fetched only when
+     * downstream demand requires it, see {@link PagePublisher}.
+     *
+     * @param context
+     *            determines the vendor on whose behalf the calls are performed
+     * @param filter
+     *            reserved for the future use, must be omitted / set to NULL
+     * @return publisher of all license items
+     */
+    public static Publisher<License> listAll(final Context context, final String filter) {
+        return new PagePublisher<>(context,
+                pageNumber -> LicenseService.list(context, PagePublisher.pageFilter(filter, pageNumber)));
+    }
+
+    /**
+     * Asynchronous variant of {@link LicenseService#update(Context, String, String, License)}.
+     */
+    public static CompletableFuture<License> update(final Context context, final String number,
+            final String transactionNumber, final License license) {
+        return ServiceExecutor.supplyAsync(context,
+                () -> LicenseService.update(context, number, transactionNumber, license));
+    }
+
+    /**
+     * Asynchronous variant of {@link LicenseService#delete(Context, String, boolean)}.
+     */
+    public static CompletableFuture<Void> delete(final Context context, final String number,
+            final boolean forceCascade) {
+        return ServiceExecutor.supplyAsync(context, () -> {
+            LicenseService.delete(context, number, forceCascade);
+            return null;
+        });
+    }
+
+}
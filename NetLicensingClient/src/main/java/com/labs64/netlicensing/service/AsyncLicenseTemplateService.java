@@ -0,0 +1,76 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.labs64.netlicensing.service;
+
+import java.util.concurrent.CompletableFuture;
+
+import com.labs64.netlicensing.domain.entity.LicenseTemplate;
+import com.labs64.netlicensing.domain.vo.Context;
+import com.labs64.netlicensing.domain.vo.Page;
+
+/**
+ * Asynchronous variant of {@link LicenseTemplateService}.
+ * <p>
+ * Every call is executed by {@link ServiceExecutor} on the executor configured in the context and returns a
+ * {@link CompletableFuture}, which is completed with the call result or exceptionally with the
+ * {@link com.labs64.netlicensing.exception.NetLicensingException} thrown by the call.
+ */
+public final class AsyncLicenseTemplateService {
+
+    private AsyncLicenseTemplateService() {
+    }
+
+    /**
+     * Asynchronous variant of {@link LicenseTemplateService#create(Context, String, LicenseTemplate)}.
+     */
+    public static CompletableFuture<LicenseTemplate> create(final Context context, final String productModuleNumber,
+            final LicenseTemplate licenseTemplate) {
+        return ServiceExecutor.supplyAsync(context,
+                () -> LicenseTemplateService.create(context, productModuleNumber, licenseTemplate));
+    }
+
+    /**
+     * Asynchronous variant of {@link LicenseTemplateService#get(Context, String)}.
+     */
+    public static CompletableFuture<LicenseTemplate> get(final Context context, final String number) {
+        return ServiceExecutor.supplyAsync(context, () -> LicenseTemplateService.get(context, number));
+    }
+
+    /**
+     * Asynchronous variant of {@link LicenseTemplateService#list(Context, String)}.
+     */
+    public static CompletableFuture<Page<LicenseTemplate>> list(final Context context, final String filter) {
+        return ServiceExecutor.supplyAsync(context, () -> LicenseTemplateService.list(context, filter));
+    }
+
+    /**
+     * Asynchronous variant of {@link LicenseTemplateService#update(Context, String, LicenseTemplate)}.
+     */
+    public static CompletableFuture<LicenseTemplate> update(final Context context, final String number,
+            final LicenseTemplate licenseTemplate) {
+        return ServiceExecutor.supplyAsync(context,
+                () -> LicenseTemplateService.update(context, number, licenseTemplate));
+    }
+
+    /**
+     * Asynchronous variant of {@link LicenseTemplateService#delete(Context, String, boolean)}.
+     */
+    public static CompletableFuture<Void> delete(final Context context, final String number,
+            final boolean forceCascade) {
+        return ServiceExecutor.supplyAsync(context, () -> {
+            LicenseTemplateService.delete(context, number, forceCascade);
+            return null;
+        });
+    }
+
+}
@@ -0,0 +1,114 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.labs64.netlicensing.service;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.reactivestreams.Publisher;
+
+import com.labs64.netlicensing.domain.entity.Licensee;
+import com.labs64.netlicensing.domain.vo.Context;
+import com.labs64.netlicensing.domain.vo.MetaInfo;
+import com.labs64.netlicensing.domain.vo.Page;
+import com.labs64.netlicensing.domain.vo.ValidationParameters;
+import com.labs64.netlicensing.domain.vo.ValidationResult;
+
+/**
+ * Asynchronous variant of {@link LicenseeService}.
+ * <p>
+ * Every call is executed by {@link ServiceExecutor} on the executor configured in the context and returns a
+ * {@link CompletableFuture}, which is completed with the call result or exceptionally with the
+ * {@link com.labs64.netlicensing.exception.NetLicensingException} thrown by the call.
+ */
+public final class AsyncLicenseeService {
+
+    private AsyncLicenseeService() {
+    }
+
+    /**
+     * Asynchronous variant of {@link LicenseeService#create(Context, String, Licensee)}.
+     */
+    public static CompletableFuture<Licensee> create(final Context context, final String productNumber,
+            final Licensee licensee) {
+        return ServiceExecutor.supplyAsync(context, () -> LicenseeService.create(context, productNumber, licensee));
+    }
+
+    /**
+     * Asynchronous variant of {@link LicenseeService#get(Context, String)}.
+     */
+    public static CompletableFuture<Licensee> get(final Context context, final String number) {
+        return ServiceExecutor.supplyAsync(context, () -> LicenseeService.get(context, number));
+    }
+
+    /**
+     * Asynchronous variant of {@link LicenseeService#list(Context, String)}.
+     */
+    public static CompletableFuture<Page<Licensee>> list(final Context context, final String filter) {
+        return ServiceExecutor.supplyAsync(context, () -> LicenseeService.list(context, filter));
+    }
+
+    /**
+     * Publishes the items of all pages of {@link LicenseeService#list(Context, String)}. The next page is fetched only when
+     * downstream demand requires it, see {@link PagePublisher}.
+     *
+     * @param context
+     *            determines the vendor on whose behalf the calls are performed
+     * @param filter
+     *            reserved for the future use, must be omitted / set to NULL
+     * @return publisher of all licensee items
+     */
+    public static Publisher<Licensee> listAll(final Context context, final String filter) {
+        return new PagePublisher<>(context,
+                pageNumber -> LicenseeService.list(context, PagePublisher.pageFilter(filter, pageNumber)));
+    }
+
+    /**
+     * Asynchronous variant of {@link LicenseeService#update(Context, String, Licensee)}.
+     */
+    public static CompletableFuture<Licensee> update(final Context context, final String number,
+            final Licensee licensee) {
+        return ServiceExecutor.supplyAsync(context, () -> LicenseeService.update(context, number, licensee));
+    }
+
+    /**
+     * Asynchronous variant of {@link LicenseeService#delete(Context, String, boolean)}.
+     */
+    public static CompletableFuture<Void> delete(final Context context, final String number,
+            final boolean forceCascade) {
+        return ServiceExecutor.supplyAsync(context, () -> {
+            LicenseeService.delete(context, number, forceCascade);
+            return null;
+        });
+    }
+
+    /**
+     * Asynchronous variant of {@link LicenseeService#validate(Context, String, ValidationParameters, MetaInfo...)}.
+     */
+    public static CompletableFuture<ValidationResult> validate(final Context context, final String number,
+            final ValidationParameters validationParameters, final MetaInfo... meta) {
+        return ServiceExecutor.supplyAsync(context,
+                () -> LicenseeService.validate(context, number, validationParameters, meta));
+    }
+
+    /**
+     * Asynchronous variant of {@link LicenseeService#transfer(Context, String, String)}.
+     */
+    public static CompletableFuture<Void> transfer(final Context context, final String number,
+            final String sourceLicenseeNumber) {
+        return ServiceExecutor.supplyAsync(context, () -> {
+            LicenseeService.transfer(context, number, sourceLicenseeNumber);
+            return null;
+        });
+    }
+
+}
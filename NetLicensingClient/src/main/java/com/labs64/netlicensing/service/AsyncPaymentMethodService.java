@@ -0,0 +1,55 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.labs64.netlicensing.service;
+
+import java.util.concurrent.CompletableFuture;
+
+import com.labs64.netlicensing.domain.entity.PaymentMethod;
+import com.labs64.netlicensing.domain.vo.Context;
+import com.labs64.netlicensing.domain.vo.Page;
+
+/**
+ * Asynchronous variant of {@link PaymentMethodService}.
+ * <p>
+ * Every call is executed by {@link ServiceExecutor} on the executor configured in the context and returns a
+ * {@link CompletableFuture}, which is completed with the call result or exceptionally with the
+ * {@link com.labs64.netlicensing.exception.NetLicensingException} thrown by the call.
+ */
+public final class AsyncPaymentMethodService {
+
+    private AsyncPaymentMethodService() {
+    }
+
+    /**
+     * Asynchronous variant of {@link PaymentMethodService#get(Context, String)}.
+     */
+    public static CompletableFuture<PaymentMethod> get(final Context context, final String number) {
+        return ServiceExecutor.supplyAsync(context, () -> PaymentMethodService.get(context, number));
+    }
+
+    /**
+     * Asynchronous variant of {@link PaymentMethodService#list(Context, String)}.
+     */
+    public static CompletableFuture<Page<PaymentMethod>> list(final Context context, final String filter) {
+        return ServiceExecutor.supplyAsync(context, () -> PaymentMethodService.list(context, filter));
+    }
+
+    /**
+     * Asynchronous variant of {@link PaymentMethodService#update(Context, String, PaymentMethod)}.
+     */
+    public static CompletableFuture<PaymentMethod> update(final Context context, final String number,
+            final PaymentMethod paymentMethod) {
+        return ServiceExecutor.supplyAsync(context, () -> PaymentMethodService.update(context, number, paymentMethod));
+    }
+
+}
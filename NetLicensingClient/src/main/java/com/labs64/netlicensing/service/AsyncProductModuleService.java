@@ -0,0 +1,75 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.labs64.netlicensing.service;
+
+import java.util.concurrent.CompletableFuture;
+
+import com.labs64.netlicensing.domain.entity.ProductModule;
+import com.labs64.netlicensing.domain.vo.Context;
+import com.labs64.netlicensing.domain.vo.Page;
+
+/**
+ * Asynchronous variant of {@link ProductModuleService}.
+ * <p>
+ * Every call is executed by {@link ServiceExecutor} on the executor configured in the context and returns a
+ * {@link CompletableFuture}, which is completed with the call result or exceptionally with the
+ * {@link com.labs64.netlicensing.exception.NetLicensingException} thrown by the call.
+ */
+public final class AsyncProductModuleService {
+
+    private AsyncProductModuleService() {
+    }
+
+    /**
+     * Asynchronous variant of {@link ProductModuleService#create(Context, String, ProductModule)}.
+     */
+    public static CompletableFuture<ProductModule> create(final Context context, final String productNumber,
+            final ProductModule productModule) {
+        return ServiceExecutor.supplyAsync(context,
+                () -> ProductModuleService.create(context, productNumber, productModule));
+    }
+
+    /**
+     * Asynchronous variant of {@link ProductModuleService#get(Context, String)}.
+     */
+    public static CompletableFuture<ProductModule> get(final Context context, final String number) {
+        return ServiceExecutor.supplyAsync(context, () -> ProductModuleService.get(context, number));
+    }
+
+    /**
+     * Asynchronous variant of {@link ProductModuleService#list(Context, String)}.
+     */
+    public static CompletableFuture<Page<ProductModule>> list(final Context context, final String filter) {
+        return ServiceExecutor.supplyAsync(context, () -> ProductModuleService.list(context, filter));
+    }
+
+    /**
+     * Asynchronous variant of {@link ProductModuleService#update(Context, String, ProductModule)}.
+     */
+    public static CompletableFuture<ProductModule> update(final Context context, final String number,
+            final ProductModule productModule) {
+        return ServiceExecutor.supplyAsync(context, () -> ProductModuleService.update(context, number, productModule));
+    }
+
+    /**
+     * Asynchronous variant of {@link ProductModuleService#delete(Context, String, boolean)}.
+     */
+    public static CompletableFuture<Void> delete(final Context context, final String number,
+            final boolean forceCascade) {
+        return ServiceExecutor.supplyAsync(context, () -> {
+            ProductModuleService.delete(context, number, forceCascade);
+            return null;
+        });
+    }
+
+}
@@ -0,0 +1,72 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.labs64.netlicensing.service;
+
+import java.util.concurrent.CompletableFuture;
+
+import com.labs64.netlicensing.domain.entity.Product;
+import com.labs64.netlicensing.domain.vo.Context;
+import com.labs64.netlicensing.domain.vo.Page;
+
+/**
+ * Asynchronous variant of {@link ProductService}.
+ * <p>
+ * Every call is executed by {@link ServiceExecutor} on the executor configured in the context and returns a
+ * {@link CompletableFuture}, which is completed with the call result or exceptionally with the
+ * {@link com.labs64.netlicensing.exception.NetLicensingException} thrown by the call.
+ */
+public final class AsyncProductService {
+
+    private AsyncProductService() {
+    }
+
+    /**
+     * Asynchronous variant of {@link ProductService#create(Context, Product)}.
+     */
+    public static CompletableFuture<Product> create(final Context context, final Product product) {
+        return ServiceExecutor.supplyAsync(context, () -> ProductService.create(context, product));
+    }
+
+    /**
+     * Asynchronous variant of {@link ProductService#get(Context, String)}.
+     */
+    public static CompletableFuture<Product> get(final Context context, final String number) {
+        return ServiceExecutor.supplyAsync(context, () -> ProductService.get(context, number));
+    }
+
+    /**
+     * Asynchronous variant of {@link ProductService#list(Context, String)}.
+     */
+    public static CompletableFuture<Page<Product>> list(final Context context, final String filter) {
+        return ServiceExecutor.supplyAsync(context, () -> ProductService.list(context, filter));
+    }
+
+    /**
+     * Asynchronous variant of {@link ProductService#update(Context, String, Product)}.
+     */
+    public static CompletableFuture<Product> update(final Context context, final String number, final Product product) {
+        return ServiceExecutor.supplyAsync(context, () -> ProductService.update(context, number, product));
+    }
+
+    /**
+     * Asynchronous variant of {@link ProductService#delete(Context, String, boolean)}.
+     */
+    public static CompletableFuture<Void> delete(final Context context, final String number,
+            final boolean forceCascade) {
+        return ServiceExecutor.supplyAsync(context, () -> {
+            ProductService.delete(context, number, forceCascade);
+            return null;
+        });
+    }
+
+}
@@ -0,0 +1,81 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.labs64.netlicensing.service;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.reactivestreams.Publisher;
+
+import com.labs64.netlicensing.domain.entity.Token;
+import com.labs64.netlicensing.domain.vo.Context;
+import com.labs64.netlicensing.domain.vo.Page;
+
+/**
+ * Asynchronous variant of {@link TokenService}.
+ * <p>
+ * Every call is executed by {@link ServiceExecutor} on the executor configured in the context and returns a
+ * {@link CompletableFuture}, which is completed with the call result or exceptionally with the
+ * {@link com.labs64.netlicensing.exception.NetLicensingException} thrown by the call.
+ */
+public final class AsyncTokenService {
+
+    private AsyncTokenService() {
+    }
+
+    /**
+     * Asynchronous variant of {@link TokenService#get(Context, String)}.
+     */
+    public static CompletableFuture<Token> get(final Context context, final String number) {
+        return ServiceExecutor.supplyAsync(context, () -> TokenService.get(context, number));
+    }
+
+    /**
+     * Asynchronous variant of {@link TokenService#list(Context, String)}.
+     */
+    public static CompletableFuture<Page<Token>> list(final Context context, final String filter) {
+        return ServiceExecutor.supplyAsync(context, () -> TokenService.list(context, filter));
+    }
+
+    /**
+     * Publishes the items of all pages of {@link TokenService#list(Context, String)}. The next page is fetched only when
+     * downstream demand requires it, see {@link PagePublisher}.
+     *
+     * @param context
+     *            determines the vendor on whose behalf the calls are performed
+     * @param filter
+     *            additional criteria to filter type of tokens to return, if NULL return tokens of all types
+     * @return publisher of all token items
+     */
+    public static Publisher<Token> listAll(final Context context, final String filter) {
+        return new PagePublisher<>(context,
+                pageNumber -> TokenService.list(context, PagePublisher.pageFilter(filter, pageNumber)));
+    }
+
+    /**
+     * Asynchronous variant of {@link TokenService#create(Context, Token)}.
+     */
+    public static CompletableFuture<Token> create(final Context context, final Token token) {
+        return ServiceExecutor.supplyAsync(context, () -> TokenService.create(context, token));
+    }
+
+    /**
+     * Asynchronous variant of {@link TokenService#delete(Context, String)}.
+     */
+    public static CompletableFuture<Void> delete(final Context context, final String number) {
+        return ServiceExecutor.supplyAsync(context, () -> {
+            TokenService.delete(context, number);
+            return null;
+        });
+    }
+
+}
@@ -0,0 +1,79 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.labs64.netlicensing.service;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.reactivestreams.Publisher;
+
+import com.labs64.netlicensing.domain.entity.Transaction;
+import com.labs64.netlicensing.domain.vo.Context;
+import com.labs64.netlicensing.domain.vo.Page;
+
+/**
+ * Asynchronous variant of {@link TransactionService}.
+ * <p>
+ * Every call is executed by {@link ServiceExecutor} on the executor configured in the context and returns a
+ * {@link CompletableFuture}, which is completed with the call result or exceptionally with the
+ * {@link com.labs64.netlicensing.exception.NetLicensingException} thrown by the call.
+ */
+public final class AsyncTransactionService {
+
+    private AsyncTransactionService() {
+    }
+
+    /**
+     * Asynchronous variant of {@link TransactionService#create(Context, Transaction)}.
+     */
+    public static CompletableFuture<Transaction> create(final Context context, final Transaction transaction) {
+        return ServiceExecutor.supplyAsync(context, () -> TransactionService.create(context, transaction));
+    }
+
+    /**
+     * Asynchronous variant of {@link TransactionService#get(Context, String)}.
+     */
+    public static CompletableFuture<Transaction> get(final Context context, final String number) {
+        return ServiceExecutor.supplyAsync(context, () -> TransactionService.get(context, number));
+    }
+
+    /**
+     * Asynchronous variant of {@link TransactionService#list(Context, String)}.
+     */
+    public static CompletableFuture<Page<Transaction>> list(final Context context, final String filter) {
+        return ServiceExecutor.supplyAsync(context, () -> TransactionService.list(context, filter));
+    }
+
+    /**
+     * Publishes the items of all pages of {@link TransactionService#list(Context, String)}. The next page is fetched only when
+     * downstream demand requires it, see {@link PagePublisher}.
+     *
+     * @param context
+     *            determines the vendor on whose behalf the calls are performed
+     * @param filter
+     *            reserved for the future use, must be omitted / set to NULL
+     * @return publisher of all transaction items
+     */
+    public static Publisher<Transaction> listAll(final Context context, final String filter) {
+        return new PagePublisher<>(context,
+                pageNumber -> TransactionService.list(context, PagePublisher.pageFilter(filter, pageNumber)));
+    }
+
+    /**
+     * Asynchronous variant of {@link TransactionService#update(Context, String, Transaction)}.
+     */
+    public static CompletableFuture<Transaction> update(final Context context, final String number,
+            final Transaction transaction) {
+        return ServiceExecutor.supplyAsync(context, () -> TransactionService.update(context, number, transaction));
+    }
+
+}
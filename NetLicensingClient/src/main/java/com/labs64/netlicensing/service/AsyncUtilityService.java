@@ -0,0 +1,54 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.labs64.netlicensing.service;
+
+import java.util.concurrent.CompletableFuture;
+
+import com.labs64.netlicensing.domain.entity.Country;
+import com.labs64.netlicensing.domain.vo.Context;
+import com.labs64.netlicensing.domain.vo.Page;
+
+/**
+ * Asynchronous variant of {@link UtilityService}.
+ * <p>
+ * Every call is executed by {@link ServiceExecutor} on the executor configured in the context and returns a
+ * {@link CompletableFuture}, which is completed with the call result or exceptionally with the
+ * {@link com.labs64.netlicensing.exception.NetLicensingException} thrown by the call.
+ */
+public final class AsyncUtilityService {
+
+    private AsyncUtilityService() {
+    }
+
+    /**
+     * Asynchronous variant of {@link UtilityService#listLicenseTypes(Context)}.
+     */
+    public static CompletableFuture<Page<String>> listLicenseTypes(final Context context) {
+        return ServiceExecutor.supplyAsync(context, () -> UtilityService.listLicenseTypes(context));
+    }
+
+    /**
+     * Asynchronous variant of {@link UtilityService#listLicensingModels(Context)}.
+     */
+    public static CompletableFuture<Page<String>> listLicensingModels(final Context context) {
+        return ServiceExecutor.supplyAsync(context, () -> UtilityService.listLicensingModels(context));
+    }
+
+    /**
+     * Asynchronous variant of {@link UtilityService#listCountries(Context, String)}.
+     */
+    public static CompletableFuture<Page<Country>> listCountries(final Context context, final String filter) {
+        return ServiceExecutor.supplyAsync(context, () -> UtilityService.listCountries(context, filter));
+    }
+
+}
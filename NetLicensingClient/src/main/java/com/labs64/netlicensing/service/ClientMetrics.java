@@ -0,0 +1,280 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.labs64.netlicensing.service;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import com.labs64.netlicensing.domain.vo.Context;
+
+/**
+ * Counters of the NetLicensing API calls made by the client.
+ * <p>
+ * Calls are counted in the metrics set on the context, so that they can be collected e.g. per vendor:
+ *
+ * <pre>
+ * context.setObject(ClientMetrics.class, metrics);
+ * </pre>
+ *
+ * Calls with a context without own metrics are counted in the shared default metrics, see {@link #getDefault()}.
+ */
+public class ClientMetrics {
+
+    private static final ClientMetrics DEFAULT = new ClientMetrics();
+
+    private final LongAdder calls = new LongAdder();
+
+    private final LongAdder attempts = new LongAdder();
+
+    private final LongAdder failures = new LongAdder();
+
+    private final LongAdder retries = new LongAdder();
+
+    private final LongAdder retriesRejected = new LongAdder();
+
+    private final LongAdder circuitBreakerRejections = new LongAdder();
+
+    private final LongAdder validationFallbacks = new LongAdder();
+
+    private final LongAdder hedgedRequests = new LongAdder();
+
+    private final LongAdder hedgesWon = new LongAdder();
+
+    private final LongAdder coalescedCalls = new LongAdder();
+
+    private final LongAdder rateLimitWaits = new LongAdder();
+
+    private final LongAdder rateLimitRejections = new LongAdder();
+
+    private final LongAdder throttledResponses = new LongAdder();
+
+    private final LongAdder bulkheadRejections = new LongAdder();
+
+    private final LongAdder failovers = new LongAdder();
+
+    /**
+     * @return metrics of calls made with contexts without own metrics
+     */
+    public static ClientMetrics getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * @param context
+     *            context for the NetLicensing API call
+     * @return metrics set on the context, or the default metrics
+     */
+    public static ClientMetrics getMetrics(final Context context) {
+        final Object metrics = (context != null) ? context.getObject(ClientMetrics.class) : null;
+        return (metrics instanceof ClientMetrics) ? (ClientMetrics) metrics : DEFAULT;
+    }
+
+    /**
+     * @return number of service calls
+     */
+    public long getCalls() {
+        return calls.sum();
+    }
+
+    /**
+     * @return number of HTTP requests sent, including retries
+     */
+    public long getAttempts() {
+        return attempts.sum();
+    }
+
+    /**
+     * @return number of service calls that failed with an exception or an error response
+     */
+    public long getFailures() {
+        return failures.sum();
+    }
+
+    /**
+     * @return number of retried requests
+     */
+    public long getRetries() {
+        return retries.sum();
+    }
+
+    /**
+     * @return number of retries that were not made because the retry budget was exhausted
+     */
+    public long getRetriesRejected() {
+        return retriesRejected.sum();
+    }
+
+    /**
+     * @return number of requests rejected without calling the service because the circuit breaker was open
+     */
+    public long getCircuitBreakerRejections() {
+        return circuitBreakerRejections.sum();
+    }
+
+    /**
+     * @return number of validations answered from the {@link ValidationResultCache} while the circuit breaker was open
+     */
+    public long getValidationFallbacks() {
+        return validationFallbacks.sum();
+    }
+
+    /**
+     * @return number of hedged requests sent, see {@link com.labs64.netlicensing.provider.policy.HedgingPolicy}
+     */
+    public long getHedgedRequests() {
+        return hedgedRequests.sum();
+    }
+
+    /**
+     * @return number of hedged requests answered before the original request
+     */
+    public long getHedgesWon() {
+        return hedgesWon.sum();
+    }
+
+    /**
+     * @return number of calls that joined an identical call in flight instead of calling the service
+     */
+    public long getCoalescedCalls() {
+        return coalescedCalls.sum();
+    }
+
+    /**
+     * @return number of requests that waited for a permit of the client-side rate limiter
+     */
+    public long getRateLimitWaits() {
+        return rateLimitWaits.sum();
+    }
+
+    /**
+     * @return number of requests rejected without calling the service because the client-side rate limit was exhausted
+     */
+    public long getRateLimitRejections() {
+        return rateLimitRejections.sum();
+    }
+
+    /**
+     * @return number of responses with status {@code 429 Too Many Requests} received while rate limiting
+     */
+    public long getThrottledResponses() {
+        return throttledResponses.sum();
+    }
+
+    /**
+     * @return number of requests rejected without calling the service because the bulkhead was full, see
+     *         {@link com.labs64.netlicensing.provider.policy.Bulkhead} for queue depths and wait times
+     */
+    public long getBulkheadRejections() {
+        return bulkheadRejections.sum();
+    }
+
+    /**
+     * @return number of requests sent to another base URL after the preferred one failed, see
+     *         {@link com.labs64.netlicensing.domain.vo.Context#setBaseUrls(String...)}
+     */
+    public long getFailovers() {
+        return failovers.sum();
+    }
+
+    /**
+     * Resets all counters.
+     */
+    public void reset() {
+        calls.reset();
+        attempts.reset();
+        failures.reset();
+        retries.reset();
+        retriesRejected.reset();
+        circuitBreakerRejections.reset();
+        validationFallbacks.reset();
+        hedgedRequests.reset();
+        hedgesWon.reset();
+        coalescedCalls.reset();
+        rateLimitWaits.reset();
+        rateLimitRejections.reset();
+        throttledResponses.reset();
+        bulkheadRejections.reset();
+        failovers.reset();
+    }
+
+    void recordCall() {
+        calls.increment();
+    }
+
+    void recordAttempt() {
+        attempts.increment();
+    }
+
+    void recordFailure() {
+        failures.increment();
+    }
+
+    void recordRetry() {
+        retries.increment();
+    }
+
+    void recordRetryRejected() {
+        retriesRejected.increment();
+    }
+
+    void recordCircuitBreakerRejection() {
+        circuitBreakerRejections.increment();
+    }
+
+    void recordValidationFallback() {
+        validationFallbacks.increment();
+    }
+
+    void recordHedgedRequest() {
+        hedgedRequests.increment();
+    }
+
+    void recordHedgeWon() {
+        hedgesWon.increment();
+    }
+
+    void recordCoalescedCall() {
+        coalescedCalls.increment();
+    }
+
+    void recordRateLimitWait() {
+        rateLimitWaits.increment();
+    }
+
+    void recordRateLimitRejection() {
+        rateLimitRejections.increment();
+    }
+
+    void recordThrottledResponse() {
+        throttledResponses.increment();
+    }
+
+    void recordBulkheadRejection() {
+        bulkheadRejections.increment();
+    }
+
+    void recordFailover() {
+        failovers.increment();
+    }
+
+    @Override
+    public String toString() {
+        return "ClientMetrics [calls=" + getCalls() + ", attempts=" + getAttempts() + ", failures=" + getFailures()
+                + ", retries=" + getRetries() + ", retriesRejected=" + getRetriesRejected() + ", circuitBreakerRejections="
+                + getCircuitBreakerRejections() + ", validationFallbacks=" + getValidationFallbacks() + ", hedgedRequests="
+                + getHedgedRequests() + ", hedgesWon=" + getHedgesWon() + ", coalescedCalls=" + getCoalescedCalls()
+                + ", rateLimitWaits=" + getRateLimitWaits() + ", rateLimitRejections=" + getRateLimitRejections()
+                + ", throttledResponses=" + getThrottledResponses() + ", bulkheadRejections=" + getBulkheadRejections()
+                + ", failovers=" + getFailovers() + "]";
+    }
+
+}
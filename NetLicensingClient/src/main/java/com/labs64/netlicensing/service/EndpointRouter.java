@@ -0,0 +1,184 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.labs64.netlicensing.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.labs64.netlicensing.domain.vo.Context;
+
+/**
+ * Routes calls of contexts with several {@link Context#getBaseUrls() base URLs} to the best endpoint.
+ * <p>
+ * For each base URL an exponentially weighted moving average (EWMA) of the latency of successful calls and of the error
+ * rate is tracked. Healthy endpoints are ordered by expected time per successful call, i.e. latency divided by success
+ * rate; endpoints without observed latency come first, so each endpoint gets probed. An endpoint is unhealthy after a
+ * failure until a success or until the probe interval has elapsed; unhealthy endpoints come last, in configured order.
+ */
+final class EndpointRouter {
+
+    /** Upper bound for the number of tracked endpoints, see {@link RestProviderRegistry} */
+    private static final int MAX_ENDPOINTS = 1024;
+
+    /** Weight of the newest sample */
+    private static final double ALPHA = 0.3;
+
+    private static final long PROBE_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+    private final ConcurrentMap<String, EndpointStats> endpoints = new ConcurrentHashMap<>();
+
+    /**
+     * @param baseUrls
+     *            base URLs in configured order
+     * @return base URLs in routing order, best first
+     */
+    List<String> route(final List<String> baseUrls) {
+        if (baseUrls.size() < 2) {
+            return baseUrls;
+        }
+        final long now = System.nanoTime();
+        final Map<String, Double> scores = new HashMap<>();
+        for (final String baseUrl : baseUrls) {
+            scores.put(baseUrl, getStats(baseUrl).getScore(now));
+        }
+        final List<String> routed = new ArrayList<>(baseUrls);
+        // stable sort, ties keep configured order
+        Collections.sort(routed, Comparator.comparing(scores::get));
+        return routed;
+    }
+
+    /**
+     * Records the outcome of a call.
+     *
+     * @param baseUrl
+     *            base URL the call has been sent to
+     * @param failed
+     *            true if the service didn't respond or responded with a server error
+     * @param latencyNanos
+     *            duration of the call
+     */
+    void record(final String baseUrl, final boolean failed, final long latencyNanos) {
+        final EndpointStats stats = getStats(baseUrl);
+        if (failed) {
+            stats.onFailure();
+        } else {
+            stats.onSuccess(latencyNanos);
+        }
+    }
+
+    EndpointStats getStats(final String baseUrl) {
+        EndpointStats stats = endpoints.get(baseUrl);
+        if (stats == null) {
+            if (endpoints.size() >= MAX_ENDPOINTS) {
+                endpoints.clear();
+            }
+            stats = new EndpointStats();
+            final EndpointStats existing = endpoints.putIfAbsent(baseUrl, stats);
+            if (existing != null) {
+                stats = existing;
+            }
+        }
+        return stats;
+    }
+
+    /**
+     * Latency and error rate of one endpoint.
+     */
+    static final class EndpointStats {
+
+        private final Lock lock = new ReentrantLock();
+
+        // guarded by lock
+
+        private double latencyMillis = Double.NaN;
+
+        private double errorRate;
+
+        private boolean failing;
+
+        private long lastFailure;
+
+        /**
+         * @return EWMA of the latency of successful calls in milliseconds, NaN if none has been observed
+         */
+        double getLatencyMillis() {
+            lock.lock();
+            try {
+                return latencyMillis;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * @return EWMA of the error rate, from 0 to 1
+         */
+        double getErrorRate() {
+            lock.lock();
+            try {
+                return errorRate;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void onSuccess(final long latencyNanos) {
+            final double millis = latencyNanos / 1e6;
+            lock.lock();
+            try {
+                latencyMillis = Double.isNaN(latencyMillis) ? millis : (ALPHA * millis) + ((1 - ALPHA) * latencyMillis);
+                errorRate = (1 - ALPHA) * errorRate;
+                failing = false;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void onFailure() {
+            lock.lock();
+            try {
+                errorRate = ALPHA + ((1 - ALPHA) * errorRate);
+                failing = true;
+                lastFailure = System.nanoTime();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private double getScore(final long now) {
+            lock.lock();
+            try {
+                if (failing && (now - lastFailure < PROBE_INTERVAL_NANOS)) {
+                    return Double.POSITIVE_INFINITY;
+                }
+                if (Double.isNaN(latencyMillis)) {
+                    return 0;
+                }
+                return latencyMillis / Math.max(0.05, 1 - errorRate);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+    }
+
+}
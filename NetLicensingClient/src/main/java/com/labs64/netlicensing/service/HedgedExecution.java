@@ -0,0 +1,189 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.labs64.netlicensing.service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.labs64.netlicensing.domain.vo.Context;
+import com.labs64.netlicensing.exception.DeadlineExceededException;
+import com.labs64.netlicensing.exception.NetLicensingException;
+import com.labs64.netlicensing.exception.RestException;
+import com.labs64.netlicensing.provider.policy.HedgingPolicy;
+
+/**
+ * Executes a call according to a {@link HedgingPolicy}; the calling thread waits for the first successful response,
+ * up to the deadline of the call.
+ * <p>
+ * The requests run on an executor of their own, which starts a thread for each request instead of queueing it. They
+ * must not run on the executor of the context: the calling thread may itself be a worker of that executor, e.g. for
+ * {@link AsyncLicenseeService#validate}, and would then wait for requests queued behind it.
+ */
+final class HedgedExecution {
+
+    /**
+     * Lazily created executor of the hedged requests, see "initialization-on-demand holder" idiom. Idle threads are
+     * discarded after a minute.
+     */
+    private static final class ExecutorHolder {
+
+        private static final Executor EXECUTOR = Executors.newCachedThreadPool(
+                new ServiceExecutor.DaemonThreadFactory("netlicensing-hedge-"));
+
+    }
+
+    private HedgedExecution() {
+    }
+
+    /**
+     * @param context
+     *            context for the NetLicensing API call
+     * @param policy
+     *            hedging policy
+     * @param call
+     *            the service call
+     * @param hedgeCall
+     *            the hedged service call, executed if the first one doesn't answer within the hedge delay
+     * @return result of the first successful execution
+     * @throws NetLicensingException
+     *             exception of the last failed execution, if none succeeded
+     * @throws DeadlineExceededException
+     *             if no execution succeeded within the deadline of the call
+     */
+    static <T> T execute(final Context context, final HedgingPolicy policy, final ServiceExecutor.Call<T> call,
+            final ServiceExecutor.Call<T> hedgeCall) throws NetLicensingException {
+        final ClientMetrics metrics = ClientMetrics.getMetrics(context);
+        final long deadline = NetLicensingService.getInstance().getCallDeadline(context);
+        policy.getBudget().onCall();
+
+        final long start = System.nanoTime();
+        final CompletableFuture<T> primary = send(call);
+        final long hedgeAt = System.currentTimeMillis() + policy.getHedgeDelayMillis();
+        if (hedgeAt < deadline) {
+            try {
+                final T result = primary.get(Math.max(0, hedgeAt - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+                recordLatency(policy, start);
+                return result;
+            } catch (final TimeoutException e) {
+                // no response within the hedge delay
+            } catch (final ExecutionException e) {
+                throw unwrap(e);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RestException("Interrupted while waiting for response", e);
+            }
+        }
+
+        final CompletableFuture<T> first;
+        final CompletableFuture<T> hedge;
+        if ((hedgeAt < deadline) && policy.getBudget().tryAcquireRetry()) {
+            metrics.recordHedgedRequest();
+            hedge = send(hedgeCall);
+            hedge.thenRun(() -> {
+                if (!primary.isDone()) {
+                    metrics.recordHedgeWon();
+                }
+            });
+            first = firstSuccessful(primary, hedge);
+        } else {
+            hedge = null;
+            first = primary;
+        }
+        try {
+            final T result = (deadline == NetLicensingService.NO_DEADLINE) ? first.get()
+                    : first.get(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+            recordLatency(policy, start);
+            return result;
+        } catch (final TimeoutException e) {
+            throw new DeadlineExceededException("Deadline exceeded while waiting for response");
+        } catch (final ExecutionException e) {
+            throw unwrap(e);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RestException("Interrupted while waiting for response", e);
+        } finally {
+            // the loser is not waited for
+            primary.cancel(false);
+            if (hedge != null) {
+                hedge.cancel(false);
+            }
+        }
+    }
+
+    /**
+     * Sends the request on the executor of the hedged requests.
+     */
+    private static <T> CompletableFuture<T> send(final ServiceExecutor.Call<T> call) {
+        final CompletableFuture<T> future = new CompletableFuture<>();
+        try {
+            ExecutorHolder.EXECUTOR.execute(() -> {
+                try {
+                    future.complete(call.call());
+                } catch (final NetLicensingException | RuntimeException | Error e) {
+                    future.completeExceptionally(e);
+                }
+            });
+        } catch (final RuntimeException e) {
+            // i.e. RejectedExecutionException
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    /**
+     * @return future completed with the first successful result, or with the failure of the one completed last
+     */
+    private static <T> CompletableFuture<T> firstSuccessful(final CompletableFuture<T> one,
+            final CompletableFuture<T> other) {
+        final CompletableFuture<T> first = new CompletableFuture<>();
+        final AtomicInteger failures = new AtomicInteger();
+        completeOnSuccess(one, first, failures);
+        completeOnSuccess(other, first, failures);
+        return first;
+    }
+
+    private static <T> void completeOnSuccess(final CompletableFuture<T> future, final CompletableFuture<T> first,
+            final AtomicInteger failures) {
+        future.whenComplete((result, failure) -> {
+            if (failure == null) {
+                first.complete(result);
+            } else if (failures.incrementAndGet() == 2) {
+                first.completeExceptionally(failure);
+            }
+        });
+    }
+
+    private static void recordLatency(final HedgingPolicy policy, final long start) {
+        policy.getLatencyHistogram().record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    private static NetLicensingException unwrap(final ExecutionException e) {
+        final Throwable cause = e.getCause();
+        if (cause instanceof NetLicensingException) {
+            return (NetLicensingException) cause;
+        }
+        if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+        }
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        return new RestException("Exception while calling service", cause);
+    }
+
+}
@@ -13,6 +13,7 @@
 package com.labs64.netlicensing.service;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 
@@ -27,7 +28,9 @@ import com.labs64.netlicensing.domain.vo.MetaInfo;
 import com.labs64.netlicensing.domain.vo.Page;
 import com.labs64.netlicensing.domain.vo.ValidationParameters;
 import com.labs64.netlicensing.domain.vo.ValidationResult;
+import com.labs64.netlicensing.exception.CircuitBreakerOpenException;
 import com.labs64.netlicensing.exception.NetLicensingException;
+import com.labs64.netlicensing.provider.policy.HedgingPolicy;
 import com.labs64.netlicensing.util.CheckUtils;
 
 /**
@@ -225,9 +228,48 @@ public class LicenseeService {
                 ++pmIndex;
             }
         }
-        return NetLicensingService.getInstance().post(context,
-                Constants.Licensee.ENDPOINT_PATH + "/" + number + "/" + Constants.Licensee.ENDPOINT_PATH_VALIDATE, form,
-                ValidationResult.class, meta);
+
+        final ValidationResultCache cache = ValidationResultCache.getCache(context);
+        final String cacheKey = (cache != null) ? ValidationResultCache.key(context, number, form) : null;
+        final ValidationResult validationResult;
+        try {
+            final String urlTemplate = Constants.Licensee.ENDPOINT_PATH + "/" + number + "/"
+                    + Constants.Licensee.ENDPOINT_PATH_VALIDATE;
+            final Object hedgingPolicy = context.getObject(HedgingPolicy.class);
+            if (hedgingPolicy instanceof HedgingPolicy) {
+                // each request gets own copy of the form, since vendor number may be added to it;
+                // the hedged request must not join the original one if request coalescing is enabled
+                validationResult = HedgedExecution.execute(context, (HedgingPolicy) hedgingPolicy,
+                        () -> NetLicensingService.getInstance().post(context, urlTemplate, copyOf(form),
+                                ValidationResult.class, meta),
+                        () -> NetLicensingService.getInstance().postWithoutCoalescing(context, urlTemplate,
+                                copyOf(form), ValidationResult.class, meta));
+            } else {
+                validationResult = NetLicensingService.getInstance().post(context, urlTemplate, form,
+                        ValidationResult.class, meta);
+            }
+        } catch (final CircuitBreakerOpenException e) {
+            final ValidationResult cachedResult = (cache != null) ? cache.get(cacheKey) : null;
+            if (cachedResult == null) {
+                throw e;
+            }
+            ClientMetrics.getMetrics(context).recordValidationFallback();
+            return cachedResult;
+        }
+        if ((cache != null) && (validationResult != null)) {
+            cache.put(cacheKey, validationResult);
+        }
+        return validationResult;
+    }
+
+    private static Form copyOf(final Form form) {
+        final Form copy = new Form();
+        for (final Entry<String, List<String>> param : form.asMap().entrySet()) {
+            for (final String value : param.getValue()) {
+                copy.param(param.getKey(), value);
+            }
+        }
+        return copy;
     }
 
     /**
@@ -12,11 +12,19 @@
  */
 package com.labs64.netlicensing.service;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 
 import javax.ws.rs.HttpMethod;
 import javax.ws.rs.core.Form;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.Response;
 
 import org.apache.commons.lang3.StringUtils;
@@ -24,14 +32,28 @@ import org.apache.commons.lang3.StringUtils;
 import com.labs64.netlicensing.domain.Constants;
 import com.labs64.netlicensing.domain.EntityFactory;
 import com.labs64.netlicensing.domain.vo.Context;
+import com.labs64.netlicensing.domain.vo.LicenseTypeProperties;
 import com.labs64.netlicensing.domain.vo.MetaInfo;
 import com.labs64.netlicensing.domain.vo.Page;
+import com.labs64.netlicensing.domain.vo.WireFormat;
+import com.labs64.netlicensing.exception.BulkheadFullException;
+import com.labs64.netlicensing.exception.CircuitBreakerOpenException;
+import com.labs64.netlicensing.exception.DeadlineExceededException;
 import com.labs64.netlicensing.exception.NetLicensingException;
+import com.labs64.netlicensing.exception.RateLimitExceededException;
 import com.labs64.netlicensing.exception.RestException;
 import com.labs64.netlicensing.exception.ServiceException;
+import com.labs64.netlicensing.provider.ResponseReader;
 import com.labs64.netlicensing.provider.RestProvider;
-import com.labs64.netlicensing.provider.RestProviderJersey;
 import com.labs64.netlicensing.provider.RestResponse;
+import com.labs64.netlicensing.provider.Timeouts;
+import com.labs64.netlicensing.provider.policy.Bulkhead;
+import com.labs64.netlicensing.provider.policy.BulkheadPolicy;
+import com.labs64.netlicensing.provider.policy.CircuitBreaker;
+import com.labs64.netlicensing.provider.policy.CircuitBreakerPolicy;
+import com.labs64.netlicensing.provider.policy.RateLimiter;
+import com.labs64.netlicensing.provider.policy.RateLimiterPolicy;
+import com.labs64.netlicensing.provider.policy.RetryPolicy;
 import com.labs64.netlicensing.schema.SchemaFunction;
 import com.labs64.netlicensing.schema.context.Netlicensing;
 import com.labs64.netlicensing.util.CheckUtils;
@@ -41,10 +63,26 @@ import com.labs64.netlicensing.util.CheckUtils;
  */
 public class NetLicensingService {
 
-    private static NetLicensingService instance;
+    static final long NO_DEADLINE = Long.MAX_VALUE;
 
     private final EntityFactory entityFactory = new EntityFactory();
 
+    private final ResponseReader<Netlicensing> xmlReader = entityFactory::read;
+
+    private final ResponseReader<Netlicensing> jsonReader = ResponseReader.accepting(WireFormat.JSON.getMediaType(),
+            entityFactory::read);
+
+    private final ResponseReader<Netlicensing> lazyXmlReader = in -> entityFactory.read(in, true);
+
+    private final ResponseReader<Netlicensing> lazyJsonReader = ResponseReader.accepting(
+            WireFormat.JSON.getMediaType(), in -> entityFactory.read(in, true));
+
+    private final RestProviderRegistry restProviders = new RestProviderRegistry();
+
+    private final EndpointRouter endpointRouter = new EndpointRouter();
+
+    private final SingleFlight singleFlight = new SingleFlight();
+
     /**
      * Private constructor
      */
@@ -55,14 +93,74 @@ public class NetLicensingService {
      * @return instance of NetLicensingService class
      */
     static NetLicensingService getInstance() {
-        if (instance == null) {
-            synchronized (NetLicensingService.class) {
-                if (instance == null) {
-                    instance = new NetLicensingService();
+        return InstanceHolder.INSTANCE;
+    }
+
+    EndpointRouter getEndpointRouter() {
+        return endpointRouter;
+    }
+
+    /**
+     * Prepares calls with the given context ahead of the first one, so that it doesn't pay for one-time initialization:
+     * creates and bootstraps the RESTful providers of all base URLs, the JAXB context and the entity converters, then
+     * runs cheap probe calls listing the license types. Concurrent probe calls open as many connections, which stay
+     * open for later calls if the provider keeps connections alive.
+     *
+     * @param context
+     *            context for the NetLicensing API calls to prepare
+     * @param connections
+     *            number of concurrent probe calls, 0 for none
+     * @return durations of the warm-up phases
+     * @throws NetLicensingException
+     *             if the providers can't be prepared or a probe call fails
+     */
+    public WarmUpReport warmUp(final Context context, final int connections) throws NetLicensingException {
+        CheckUtils.paramNotNull(context, "context");
+        final WarmUpReport report = new WarmUpReport();
+
+        long start = System.nanoTime();
+        final List<RestProvider> providers = new ArrayList<>();
+        for (final String baseUrl : context.getBaseUrls()) {
+            final RestProvider provider = restProviders.getProvider(context, baseUrl);
+            provider.initialize();
+            providers.add(provider);
+        }
+        report.record(WarmUpReport.Phase.PROVIDER, System.nanoTime() - start);
+
+        start = System.nanoTime();
+        for (final RestProvider provider : providers) {
+            provider.prepareResponseType(Netlicensing.class);
+        }
+        report.record(WarmUpReport.Phase.JAXB, System.nanoTime() - start);
+
+        start = System.nanoTime();
+        entityFactory.initializeConverters();
+        report.record(WarmUpReport.Phase.CONVERTERS, System.nanoTime() - start);
+
+        start = System.nanoTime();
+        final String probeUrl = Constants.Utility.ENDPOINT_PATH + "/" + Constants.Utility.ENDPOINT_PATH_LICENSE_TYPES;
+        final List<ServiceExecutor.Call<Page<LicenseTypeProperties>>> probes = new ArrayList<>();
+        for (int i = 0; i < connections; i++) {
+            // not coalesced, each probe needs its own connection
+            probes.add(() -> entityFactory.createPage(request(context, HttpMethod.GET, probeUrl, null, null,
+                    responseReader(context)), LicenseTypeProperties.class));
+        }
+        for (final CompletableFuture<Page<LicenseTypeProperties>> probe : ServiceExecutor.supplyAllAsync(context,
+                probes)) {
+            try {
+                probe.get();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RestException("Interrupted while waiting for probe call", e);
+            } catch (final ExecutionException e) {
+                if (e.getCause() instanceof NetLicensingException) {
+                    throw (NetLicensingException) e.getCause();
                 }
+                throw new RestException("Probe call failed", e.getCause());
             }
         }
-        return instance;
+        report.record(WarmUpReport.Phase.PROBE, System.nanoTime() - start);
+        return report;
     }
 
     /**
@@ -82,13 +180,14 @@ public class NetLicensingService {
      */
     <RES> RES get(final Context context, final String urlTemplate, final Map<String, Object> queryParams,
             final Class<RES> resultType, final MetaInfo... meta) throws NetLicensingException {
-        final Netlicensing netlicensing = request(context, HttpMethod.GET, urlTemplate, null, queryParams);
-        if ((meta != null) && (meta.length > 0) && (meta[0] != null)) {
-            if (netlicensing.getId() != null) {
-                meta[0].setValue(Constants.PROP_ID, netlicensing.getId());
-            }
-        }
-        return entityFactory.create(netlicensing, resultType);
+        final Converted<RES> converted = coalesce(context, HttpMethod.GET, urlTemplate, null, queryParams, resultType,
+                () -> {
+                    final Netlicensing netlicensing = request(context, HttpMethod.GET, urlTemplate, null,
+                            queryParams, responseReader(context));
+                    return new Converted<>(netlicensing, entityFactory.create(netlicensing, resultType));
+                });
+        setMetaId(meta, converted);
+        return converted.entity;
     }
 
     /**
@@ -108,8 +207,11 @@ public class NetLicensingService {
      */
     <RES> Page<RES> list(final Context context, final String urlTemplate, final Map<String, Object> queryParams,
             final Class<RES> resultType) throws NetLicensingException {
-        final Netlicensing netlicensing = request(context, HttpMethod.GET, urlTemplate, null, queryParams);
-        return entityFactory.createPage(netlicensing, resultType);
+        return coalesce(context, HttpMethod.GET, urlTemplate, null, queryParams, resultType, () -> {
+            final Netlicensing netlicensing = request(context, HttpMethod.GET, urlTemplate, null, queryParams,
+                    responseReader(context));
+            return entityFactory.createPage(netlicensing, resultType, context.isLazyPageConversion());
+        });
     }
 
     /**
@@ -130,18 +232,32 @@ public class NetLicensingService {
     <RES> RES post(final Context context, final String urlTemplate, final Form request, final Class<RES> resultType,
             final MetaInfo... meta)
                     throws NetLicensingException {
-        final Netlicensing netlicensing = request(context, HttpMethod.POST, urlTemplate, request, null);
+        final Converted<RES> converted = coalesce(context, HttpMethod.POST, urlTemplate, request, null, resultType,
+                () -> convertPostResponse(context, urlTemplate, request, resultType));
+        setMetaId(meta, converted);
+        return converted.entity;
+    }
+
+    /**
+     * Same as {@link #post(Context, String, Form, Class, MetaInfo...)}, but never joins an identical call in flight,
+     * e.g. for hedged requests.
+     */
+    <RES> RES postWithoutCoalescing(final Context context, final String urlTemplate, final Form request,
+            final Class<RES> resultType, final MetaInfo... meta) throws NetLicensingException {
+        final Converted<RES> converted = convertPostResponse(context, urlTemplate, request, resultType);
+        setMetaId(meta, converted);
+        return converted.entity;
+    }
+
+    private <RES> Converted<RES> convertPostResponse(final Context context, final String urlTemplate,
+            final Form request, final Class<RES> resultType) throws NetLicensingException {
+        final Netlicensing netlicensing = request(context, HttpMethod.POST, urlTemplate, request, null,
+                responseReader(context));
         // if response has no content
         if (netlicensing == null) {
-            return null;
-        } else {
-            if ((meta != null) && (meta.length > 0) && (meta[0] != null)) {
-                if (netlicensing.getId() != null) {
-                    meta[0].setValue(Constants.PROP_ID, netlicensing.getId());
-                }
-            }
-            return entityFactory.create(netlicensing, resultType);
+            return new Converted<>(null, null);
         }
+        return new Converted<>(netlicensing, entityFactory.create(netlicensing, resultType));
     }
 
     /**
@@ -157,7 +273,7 @@ public class NetLicensingService {
      */
     void delete(final Context context, final String urlTemplate, final Map<String, Object> queryParams)
             throws NetLicensingException {
-        request(context, HttpMethod.DELETE, urlTemplate, null, queryParams);
+        request(context, HttpMethod.DELETE, urlTemplate, null, queryParams, responseReader(context));
     }
 
     /**
@@ -180,6 +296,30 @@ public class NetLicensingService {
     public Netlicensing request(final Context context, final String method, final String urlTemplate,
             final Form request,
             final Map<String, Object> queryParams) throws NetLicensingException {
+        return request(context, method, urlTemplate, request, queryParams, null);
+    }
+
+    /**
+     * @return reader requesting the {@link Context#getWireFormat() wire format} of the context; both read either format
+     */
+    private ResponseReader<Netlicensing> responseReader(final Context context) {
+        final boolean json = (context != null) && (context.getWireFormat() == WireFormat.JSON);
+        if ((context != null) && context.isLazyPageConversion()) {
+            return json ? lazyJsonReader : lazyXmlReader;
+        }
+        return json ? jsonReader : xmlReader;
+    }
+
+    /**
+     * Same as {@link #request(Context, String, String, Form, Map)}, but the response is read by the given reader
+     * straight from the response stream.
+     *
+     * @param responseReader
+     *            reads the response, or null to unmarshal it with JAXB
+     */
+    private Netlicensing request(final Context context, final String method, final String urlTemplate,
+            final Form request, final Map<String, Object> queryParams,
+            final ResponseReader<Netlicensing> responseReader) throws NetLicensingException {
         CheckUtils.paramNotNull(context, "context");
 
         Form combinedRequest = request;
@@ -198,11 +338,16 @@ public class NetLicensingService {
             }
         }
 
-        final RestProviderJersey restProvider = new RestProviderJersey(context.getBaseUrl());
-        configure(restProvider, context);
-
-        final RestResponse<Netlicensing> response = restProvider.call(method, urlTemplate, combinedRequest, Netlicensing.class,
-                combinedQueryParams);
+        final ClientMetrics metrics = ClientMetrics.getMetrics(context);
+        metrics.recordCall();
+        final RestResponse<Netlicensing> response;
+        try {
+            response = execute(context, method, urlTemplate, combinedRequest, combinedQueryParams, responseReader,
+                    metrics);
+        } catch (final RestException e) {
+            metrics.recordFailure();
+            throw e;
+        }
 
         final Response.Status status = Response.Status.fromStatusCode(response.getStatusCode());
         if (!isErrorStatus(status)) {
@@ -216,6 +361,7 @@ public class NetLicensingService {
                         status.getStatusCode(), status.getReasonPhrase()));
             }
         } else {
+            metrics.recordFailure();
             if (SchemaFunction.hasErrorInfos(response.getEntity())) {
                 throw new ServiceException(status, response.getHeaders(), response.getEntity());
             } else {
@@ -226,36 +372,349 @@ public class NetLicensingService {
     }
 
     /**
-     * Passes the authentication data specified in the context of the call to the RESTful provider.
+     * Executes the call, or joins an identical call in flight if request coalescing is enabled in the context and the
+     * call is idempotent. Coalesced callers share the converted result.
+     */
+    private <T> T coalesce(final Context context, final String method, final String urlTemplate, final Form request,
+            final Map<String, Object> queryParams, final Class<?> resultType, final ServiceExecutor.Call<T> call)
+            throws NetLicensingException {
+        CheckUtils.paramNotNull(context, "context");
+        if (!context.isRequestCoalescing() || !isIdempotent(method, urlTemplate)) {
+            return call.call();
+        }
+        final long deadline = getCallDeadline(context);
+        return singleFlight.execute(new FlightKey(context, method, urlTemplate, request, queryParams, resultType),
+                deadline, call, ClientMetrics.getMetrics(context));
+    }
+
+    private static void setMetaId(final MetaInfo[] meta, final Converted<?> converted) {
+        if ((meta != null) && (meta.length > 0) && (meta[0] != null) && (converted.id != null)) {
+            meta[0].setValue(Constants.PROP_ID, converted.id);
+        }
+    }
+
+    /**
+     * Sends the request with the effective configuration and deadline of the context.
      *
-     * @param restProvider
-     *            RESTful provider to be authenticated
-     * @param context
-     *            additional context
+     * @return the last response received
+     * @throws RestException
+     *             if the call failed without response, the deadline was exceeded or the call has been rejected by one
+     *             of the policies of the context
+     */
+    private RestResponse<Netlicensing> execute(final Context context, final String method, final String urlTemplate,
+            final Form request, final Map<String, Object> queryParams,
+            final ResponseReader<Netlicensing> responseReader, final ClientMetrics metrics) throws RestException {
+        final RestProvider.Configuration configuration = RestProviderRegistry.getEffectiveConfiguration(context);
+        final long deadline = getCallDeadline(context, configuration);
+        return executeAttempts(context, method, urlTemplate, request, queryParams, responseReader, configuration,
+                deadline, metrics);
+    }
+
+    /**
+     * Waits for a slot in the bulkhead, up to the max wait time and the deadline.
+     *
+     * @throws BulkheadFullException
+     *             if the queue of the lane is full or no slot became free in time
+     */
+    private static void enterBulkhead(final BulkheadPolicy policy, final Bulkhead bulkhead, final Bulkhead.Lane lane,
+            final long deadline, final ClientMetrics metrics) throws RestException {
+        long maxWait = policy.getMaxWaitMillis();
+        if (deadline != NO_DEADLINE) {
+            maxWait = Math.min(maxWait, deadline - System.currentTimeMillis());
+        }
+        try {
+            if (bulkhead.acquire(lane, maxWait, TimeUnit.MILLISECONDS)) {
+                return;
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RestException("Interrupted while waiting for bulkhead", e);
+        }
+        metrics.recordBulkheadRejection();
+        throw new BulkheadFullException("Bulkhead is full for " + lane + " calls");
+    }
+
+    /**
+     * Sends the request, retrying it according to the {@link RetryPolicy} of the context if the call is idempotent.
+     * Each attempt has to be permitted by the rate limiter of the {@link RateLimiterPolicy} of the context. Within an
+     * attempt, the base URLs of the context are tried in routing order, skipping those whose circuit breaker of the
+     * {@link CircuitBreakerPolicy} of the context is open; idempotent calls fail over to the next base URL if the
+     * service doesn't respond or responds with a server error. Each request is sent within the bulkhead of the
+     * {@link BulkheadPolicy} of the context for its base URL, if any.
+     *
+     * @return the last response received
      * @throws RestException
+     *             if the last attempt failed without response, the deadline was exceeded, the rate limit is exhausted or
+     *             the circuit breakers of all base URLs are open
      */
-    private void configure(final RestProvider restProvider, final Context context) throws RestException {
-        if (context.getSecurityMode() == null) {
-            throw new RestException("Security mode must be specified");
-        }
-        switch (context.getSecurityMode()) {
-        case BASIC_AUTHENTICATION:
-            restProvider.authenticate(context.getUsername(), context.getPassword());
-            break;
-        case APIKEY_IDENTIFICATION:
-            restProvider.authenticate(context.getApiKey());
-            break;
-        default:
-            throw new RestException("Unknown security mode");
-        }
-        if (context.containsKey(RestProvider.Configuration.class)) {
-            final Object config = context.getObject(RestProvider.Configuration.class);
-            if (config instanceof RestProvider.Configuration) {
-                restProvider.configure((RestProvider.Configuration) config);
+    private RestResponse<Netlicensing> executeAttempts(final Context context, final String method,
+            final String urlTemplate, final Form request, final Map<String, Object> queryParams,
+            final ResponseReader<Netlicensing> responseReader, final RestProvider.Configuration configuration,
+            final long deadline, final ClientMetrics metrics) throws RestException {
+        final boolean idempotent = isIdempotent(method, urlTemplate);
+        final RetryPolicy retryPolicy = idempotent ? getRetryPolicy(context) : null;
+        if (retryPolicy != null) {
+            retryPolicy.getBudget().onCall();
+        }
+
+        final RateLimiterPolicy rateLimiterPolicy = getRateLimiterPolicy(context);
+        final RateLimiter rateLimiter = (rateLimiterPolicy != null)
+                ? rateLimiterPolicy.getRateLimiter(context.getVendorNumber(), RateLimiterPolicy.getEndpoint(urlTemplate))
+                : null;
+        final List<String> baseUrls = context.getBaseUrls();
+        if (baseUrls.isEmpty()) {
+            throw new RestException("Base URL must be specified");
+        }
+        final BulkheadPolicy bulkheadPolicy = getBulkheadPolicy(context);
+        final Bulkhead.Lane lane = Bulkhead.Lane.of(urlTemplate);
+
+        for (int attempt = 1;; attempt++) {
+            if (rateLimiter != null) {
+                acquirePermit(rateLimiterPolicy, rateLimiter, deadline, metrics);
+            }
+            RestResponse<Netlicensing> response = null;
+            RestException failure = null;
+            boolean sent = false;
+            for (final String baseUrl : endpointRouter.route(baseUrls)) {
+                final Bulkhead bulkhead = (bulkheadPolicy != null) ? bulkheadPolicy.getBulkhead(baseUrl) : null;
+                if (bulkhead != null) {
+                    enterBulkhead(bulkheadPolicy, bulkhead, lane, deadline, metrics);
+                }
+                try {
+                    // resolved ahead of the permit, so that a permit is only taken for a request that is sent
+                    final Timeouts timeouts = getCallTimeouts(context, configuration, deadline);
+                    final RestProvider restProvider = restProviders.getProvider(context, baseUrl);
+                    final CircuitBreaker circuitBreaker = getCircuitBreaker(context, baseUrl);
+                    if ((circuitBreaker != null) && !circuitBreaker.tryAcquirePermission()) {
+                        metrics.recordCircuitBreakerRejection();
+                        continue;
+                    }
+                    if (sent) {
+                        metrics.recordFailover();
+                    }
+                    sent = true;
+                    response = null;
+                    failure = null;
+                    metrics.recordAttempt();
+                    final long start = System.nanoTime();
+                    boolean failed = true;
+                    try {
+                        try {
+                            response = (responseReader != null)
+                                    ? restProvider.call(method, urlTemplate, request, responseReader, queryParams,
+                                            timeouts)
+                                    : restProvider.call(method, urlTemplate, request, Netlicensing.class, queryParams,
+                                            timeouts);
+                        } catch (final RestException e) {
+                            failure = e;
+                        }
+                        // client errors (4xx) say nothing about the health of the service
+                        failed = (failure != null) || (response.getStatusCode() >= 500);
+                    } finally {
+                        // settles the permit also if the call ended with an unexpected exception
+                        endpointRouter.record(baseUrl, failed, System.nanoTime() - start);
+                        if (circuitBreaker != null) {
+                            if (failed) {
+                                circuitBreaker.onFailure();
+                            } else {
+                                circuitBreaker.onSuccess();
+                            }
+                        }
+                    }
+                    if (!failed || !idempotent) {
+                        break;
+                    }
+                } finally {
+                    if (bulkhead != null) {
+                        bulkhead.release(lane);
+                    }
+                }
+            }
+            if (!sent) {
+                throw new CircuitBreakerOpenException("Circuit breaker is open for " + StringUtils.join(baseUrls, ", "));
+            }
+            if ((rateLimiter != null) && (response != null)) {
+                if (response.getStatusCode() == 429) {
+                    metrics.recordThrottledResponse();
+                    rateLimiter.onThrottled(RetryPolicy.parseRetryAfter(response.getHeader(HttpHeaders.RETRY_AFTER)));
+                } else {
+                    rateLimiter.onAccepted();
+                }
+            }
+            if ((failure != null) && (deadline != NO_DEADLINE) && (System.currentTimeMillis() >= deadline)) {
+                throw new DeadlineExceededException("Deadline exceeded while calling service", failure);
+            }
+
+            if (!shouldRetry(retryPolicy, attempt, response, failure, deadline, metrics)) {
+                if (failure != null) {
+                    throw failure;
+                }
+                return response;
             }
         }
     }
 
+    /**
+     * Takes a permit from the rate limiter, waiting for it up to the max wait time and the deadline in
+     * {@link RateLimiterPolicy.Mode#BLOCKING} mode.
+     *
+     * @throws RateLimitExceededException
+     *             if no permit is available in time
+     */
+    private static void acquirePermit(final RateLimiterPolicy policy, final RateLimiter rateLimiter,
+            final long deadline, final ClientMetrics metrics) throws RestException {
+        if (rateLimiter.tryAcquire()) {
+            return;
+        }
+        if (policy.getMode() == RateLimiterPolicy.Mode.BLOCKING) {
+            long maxWait = policy.getMaxWaitMillis();
+            if (deadline != NO_DEADLINE) {
+                maxWait = Math.min(maxWait, deadline - System.currentTimeMillis());
+            }
+            metrics.recordRateLimitWait();
+            try {
+                if ((maxWait > 0) && rateLimiter.acquire(maxWait, TimeUnit.MILLISECONDS)) {
+                    return;
+                }
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RestException("Interrupted while waiting for rate limit", e);
+            }
+        }
+        metrics.recordRateLimitRejection();
+        throw new RateLimitExceededException("Client-side rate limit exceeded", rateLimiter.getWaitMillis());
+    }
+
+    /**
+     * Decides whether the failed attempt is retried. If so, waits for the backoff delay before returning.
+     *
+     * @return true if the call should be retried
+     */
+    private static boolean shouldRetry(final RetryPolicy retryPolicy, final int attempt,
+            final RestResponse<Netlicensing> response, final RestException failure, final long deadline,
+            final ClientMetrics metrics) throws RestException {
+        if ((retryPolicy == null) || (attempt >= retryPolicy.getMaxAttempts())) {
+            return false;
+        }
+        if ((failure == null) && !retryPolicy.isRetryableStatus(response.getStatusCode())) {
+            return false;
+        }
+        final long retryAfter = (response != null)
+                ? RetryPolicy.parseRetryAfter(response.getHeader(HttpHeaders.RETRY_AFTER))
+                : -1;
+        final long delay = retryPolicy.getDelayMillis(attempt, retryAfter);
+        if ((delay < 0) || ((deadline != NO_DEADLINE) && (System.currentTimeMillis() + delay >= deadline))) {
+            return false;
+        }
+        if (!retryPolicy.getBudget().tryAcquireRetry()) {
+            metrics.recordRetryRejected();
+            return false;
+        }
+        metrics.recordRetry();
+        sleep(delay);
+        return true;
+    }
+
+    /**
+     * GET and DELETE are idempotent by definition; validate is a POST without side effects on the licensing data.
+     */
+    private static boolean isIdempotent(final String method, final String urlTemplate) {
+        return HttpMethod.GET.equals(method) || HttpMethod.DELETE.equals(method)
+                || (HttpMethod.POST.equals(method)
+                        && urlTemplate.endsWith("/" + Constants.Licensee.ENDPOINT_PATH_VALIDATE));
+    }
+
+    /**
+     * @return circuit breaker for the base URL, or null if the context has no circuit breaker policy
+     */
+    private static CircuitBreaker getCircuitBreaker(final Context context, final String baseUrl) {
+        final Object policy = context.getObject(CircuitBreakerPolicy.class);
+        return (policy instanceof CircuitBreakerPolicy)
+                ? ((CircuitBreakerPolicy) policy).getCircuitBreaker(baseUrl)
+                : null;
+    }
+
+    private static BulkheadPolicy getBulkheadPolicy(final Context context) {
+        final Object policy = context.getObject(BulkheadPolicy.class);
+        return (policy instanceof BulkheadPolicy) ? (BulkheadPolicy) policy : null;
+    }
+
+    private static RateLimiterPolicy getRateLimiterPolicy(final Context context) {
+        final Object policy = context.getObject(RateLimiterPolicy.class);
+        return (policy instanceof RateLimiterPolicy) ? (RateLimiterPolicy) policy : null;
+    }
+
+    private static RetryPolicy getRetryPolicy(final Context context) {
+        final Object retryPolicy = context.getObject(RetryPolicy.class);
+        return (retryPolicy instanceof RetryPolicy) ? (RetryPolicy) retryPolicy : null;
+    }
+
+    private static void sleep(final long millis) throws RestException {
+        try {
+            Thread.sleep(millis);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RestException("Interrupted while waiting to retry", e);
+        }
+    }
+
+    /**
+     * Determines the point in time the call has to be completed by, with the effective configuration of the context.
+     *
+     * @return deadline as milliseconds since the epoch, or {@link #NO_DEADLINE}
+     */
+    long getCallDeadline(final Context context) {
+        return getCallDeadline(context, RestProviderRegistry.getEffectiveConfiguration(context));
+    }
+
+    /**
+     * Determines the point in time the call has to be completed by, from the deadline and the call timeout set in the
+     * context or in the provider configuration. The earlier one wins.
+     *
+     * @return deadline as milliseconds since the epoch, or {@link #NO_DEADLINE}
+     */
+    private long getCallDeadline(final Context context, final RestProvider.Configuration configuration) {
+        long deadline = NO_DEADLINE;
+        final Integer contextCallTimeout = context.getCallTimeout();
+        final int callTimeout = (contextCallTimeout != null) ? contextCallTimeout : configuration.getCallTimeout();
+        if (callTimeout != Timeouts.INFINITE) {
+            deadline = System.currentTimeMillis() + callTimeout;
+        }
+        final Long contextDeadline = context.getDeadline();
+        if (contextDeadline != null) {
+            deadline = Math.min(deadline, contextDeadline);
+        }
+        return deadline;
+    }
+
+    /**
+     * Determines connect and read timeouts of the call: the context overrides the provider configuration, and both are
+     * shrunk to the time remaining until the deadline.
+     *
+     * @return timeouts of the call, or null if the configured timeouts of the provider apply unchanged
+     * @throws DeadlineExceededException
+     *             if the deadline has already passed
+     */
+    private Timeouts getCallTimeouts(final Context context, final RestProvider.Configuration configuration,
+            final long deadline) throws DeadlineExceededException {
+        final Integer connectTimeout = context.getConnectTimeout();
+        final Integer readTimeout = context.getReadTimeout();
+        if ((connectTimeout == null) && (readTimeout == null) && (deadline == NO_DEADLINE)) {
+            return null;
+        }
+        final Timeouts timeouts = new Timeouts(
+                (connectTimeout != null) ? connectTimeout : configuration.getConnectTimeout(),
+                (readTimeout != null) ? readTimeout : configuration.getReadTimeout());
+        if (deadline == NO_DEADLINE) {
+            return timeouts;
+        }
+        final long remaining = deadline - System.currentTimeMillis();
+        if (remaining <= 0) {
+            throw new DeadlineExceededException("Deadline exceeded before calling service");
+        }
+        return timeouts.limitTo(remaining);
+    }
+
     /**
      * @param status
      *            info about status
@@ -266,4 +725,77 @@ public class NetLicensingService {
                 || (status.getFamily() == Response.Status.Family.SERVER_ERROR);
     }
 
+    /**
+     * Converted response entity together with the response ID, shared by coalesced calls.
+     */
+    private static final class Converted<RES> {
+
+        private final String id;
+
+        private final RES entity;
+
+        Converted(final Netlicensing netlicensing, final RES entity) {
+            this.id = (netlicensing != null) ? netlicensing.getId() : null;
+            this.entity = entity;
+        }
+
+    }
+
+    /**
+     * Identifies a call by everything that determines its result: the target service and vendor, the credentials, the
+     * request and the result type.
+     */
+    private static final class FlightKey {
+
+        private final Object[] values;
+
+        private final int hash;
+
+        FlightKey(final Context context, final String method, final String urlTemplate, final Form request,
+                final Map<String, Object> queryParams, final Class<?> resultType) {
+            values = new Object[] {
+                    context.getBaseUrls(),
+                    context.getRestProviderType(),
+                    context.getSecurityMode(),
+                    context.getUsername(),
+                    context.getPassword(),
+                    context.getApiKey(),
+                    context.getVendorNumber(),
+                    context.isLazyPageConversion(),
+                    method,
+                    urlTemplate,
+                    (request != null) ? new TreeMap<>(request.asMap()) : null,
+                    (queryParams != null) ? new TreeMap<>(queryParams) : null,
+                    resultType };
+            hash = Arrays.hashCode(values);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof FlightKey)) {
+                return false;
+            }
+            final FlightKey other = (FlightKey) obj;
+            return (hash == other.hash) && Arrays.equals(values, other.values);
+        }
+
+    }
+
+    /**
+     * Lazily initialized singleton; class initialization guarantees safe publication without locking on the call path.
+     */
+    private static final class InstanceHolder {
+
+        private static final NetLicensingService INSTANCE = new NetLicensingService();
+
+    }
+
 }
@@ -0,0 +1,218 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.labs64.netlicensing.service;
+
+import java.util.Iterator;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.lang3.StringUtils;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import com.labs64.netlicensing.domain.Constants;
+import com.labs64.netlicensing.domain.vo.Context;
+import com.labs64.netlicensing.domain.vo.Page;
+import com.labs64.netlicensing.exception.NetLicensingException;
+
+/**
+ * Reactive Streams {@link Publisher} emitting the items of all pages of a list endpoint.
+ * <p>
+ * Pages are fetched one at a time and only when downstream demand can't be satisfied from the current page, so at
+ * most one page is held in memory regardless of the total number of items. Each subscription walks the list from the
+ * first page. Pages are fetched and signals are emitted on the executor of the context, see {@link ServiceExecutor}.
+ *
+ * @param <T>
+ *            type of the list items
+ */
+public final class PagePublisher<T> implements Publisher<T> {
+
+    /**
+     * Loads one page of the list.
+     *
+     * @param <T>
+     *            type of the list items
+     */
+    public interface PageLoader<T> {
+
+        Page<T> load(int pageNumber) throws NetLicensingException;
+
+    }
+
+    private final Executor executor;
+
+    private final PageLoader<T> loader;
+
+    /**
+     * @param context
+     *            context for the NetLicensing API calls, determines the executor
+     * @param loader
+     *            loads the pages
+     */
+    public PagePublisher(final Context context, final PageLoader<T> loader) {
+        this.executor = ServiceExecutor.getExecutor(context);
+        this.loader = loader;
+    }
+
+    @Override
+    public void subscribe(final Subscriber<? super T> subscriber) {
+        if (subscriber == null) {
+            throw new NullPointerException("Subscriber must be provided");
+        }
+        subscriber.onSubscribe(new PageSubscription(subscriber));
+    }
+
+    /**
+     * Adds the page number to the list filter.
+     *
+     * @param filter
+     *            filter of the list call, may be empty
+     * @param pageNumber
+     *            number of the requested page
+     * @return filter selecting the given page
+     */
+    static String pageFilter(final String filter, final int pageNumber) {
+        final String page = Constants.FILTER_PAGE + "=" + pageNumber;
+        return StringUtils.isBlank(filter) ? page : filter + ";" + page;
+    }
+
+    /**
+     * Subscription state. All signals to the subscriber are emitted from {@link #drain()}, which is executed by at most
+     * one thread at a time.
+     */
+    private final class PageSubscription implements Subscription {
+
+        private final Subscriber<? super T> subscriber;
+
+        private final AtomicLong requested = new AtomicLong();
+
+        private final AtomicInteger pendingDrains = new AtomicInteger();
+
+        private volatile boolean cancelled;
+
+        private volatile Throwable error;
+
+        // accessed by the draining thread only
+
+        private Iterator<T> current;
+
+        private int nextPageNumber;
+
+        private boolean lastPageLoaded;
+
+        private boolean done;
+
+        PageSubscription(final Subscriber<? super T> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(final long n) {
+            if (n <= 0) {
+                error = new IllegalArgumentException("Requested number of items must be positive, got " + n);
+            } else {
+                long current;
+                long next;
+                do {
+                    current = requested.get();
+                    next = current + n;
+                    if (next < 0) {
+                        next = Long.MAX_VALUE;
+                    }
+                } while (!requested.compareAndSet(current, next));
+            }
+            scheduleDrain();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+
+        private void scheduleDrain() {
+            if (pendingDrains.getAndIncrement() == 0) {
+                try {
+                    executor.execute(this::drain);
+                } catch (final RuntimeException e) {
+                    // i.e. RejectedExecutionException; nothing is draining, so signal right here
+                    cancelled = true;
+                    subscriber.onError(e);
+                }
+            }
+        }
+
+        private void drain() {
+            int missed = 1;
+            do {
+                emit();
+                missed = pendingDrains.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private void emit() {
+            while (!cancelled && !done) {
+                if (error != null) {
+                    terminate(error);
+                    return;
+                }
+                if (requested.get() == 0) {
+                    return;
+                }
+                if ((current != null) && current.hasNext()) {
+                    try {
+                        // a lazily converted page reports conversion errors on access
+                        final T item = current.next();
+                        if (requested.get() != Long.MAX_VALUE) {
+                            requested.decrementAndGet();
+                        }
+                        subscriber.onNext(item);
+                    } catch (final RuntimeException e) {
+                        current = null;
+                        terminate(e);
+                        return;
+                    }
+                } else if (lastPageLoaded) {
+                    current = null;
+                    terminate(null);
+                } else {
+                    current = null; // release the consumed page before loading the next one
+                    final Page<T> page;
+                    try {
+                        page = loader.load(nextPageNumber++);
+                    } catch (final NetLicensingException | RuntimeException e) {
+                        terminate(e);
+                        return;
+                    }
+                    lastPageLoaded = (page == null) || !page.hasNext();
+                    current = (page == null) ? null : page.iterator();
+                }
+            }
+        }
+
+        private void terminate(final Throwable cause) {
+            done = true;
+            if (cancelled) {
+                return;
+            }
+            if (cause != null) {
+                subscriber.onError(cause);
+            } else {
+                subscriber.onComplete();
+            }
+        }
+
+    }
+
+}
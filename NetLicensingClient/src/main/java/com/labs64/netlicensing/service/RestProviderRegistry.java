@@ -0,0 +1,193 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.labs64.netlicensing.service;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.labs64.netlicensing.domain.vo.Context;
+import com.labs64.netlicensing.domain.vo.RestProviderType;
+import com.labs64.netlicensing.domain.vo.SecurityMode;
+import com.labs64.netlicensing.exception.RestException;
+import com.labs64.netlicensing.provider.DefaultConfiguration;
+import com.labs64.netlicensing.provider.RestProvider;
+import com.labs64.netlicensing.provider.RestProviderJersey;
+import com.labs64.netlicensing.provider.RestProviderUrlConnection;
+
+/**
+ * Holds configured RESTful providers, one per distinct combination of base URL, provider type, credentials and
+ * provider configuration found in the calling {@link Context}.
+ * <p>
+ * Providers are created, authenticated and configured once and then shared by all calls with an equivalent context,
+ * so per-call cost is limited to a key lookup.
+ */
+final class RestProviderRegistry {
+
+    /**
+     * Upper bound for the number of cached providers. When reached, the registry is cleared and re-populated on demand,
+     * which protects against unbounded growth if credentials vary per call.
+     */
+    private static final int MAX_PROVIDERS = 1024;
+
+    private static final RestProvider.Configuration DEFAULT_CONFIGURATION = new DefaultConfiguration();
+
+    private final ConcurrentMap<ProviderKey, RestProvider> providers = new ConcurrentHashMap<>();
+
+    /**
+     * Returns provider configured for the given context, creating it on first use.
+     *
+     * @param context
+     *            context for the NetLicensing API call
+     * @return authenticated and configured RESTful provider
+     * @throws RestException
+     *             if context contains no or unknown security mode
+     */
+    RestProvider getProvider(final Context context) throws RestException {
+        return getProvider(context, context.getBaseUrl());
+    }
+
+    /**
+     * Returns provider configured for the given context and one of its base URLs, creating it on first use.
+     *
+     * @param context
+     *            context for the NetLicensing API call
+     * @param baseUrl
+     *            one of the {@link Context#getBaseUrls() base URLs} of the context
+     * @return authenticated and configured RESTful provider
+     * @throws RestException
+     *             if context contains no or unknown security mode
+     */
+    RestProvider getProvider(final Context context, final String baseUrl) throws RestException {
+        final ProviderKey key = new ProviderKey(context, baseUrl);
+        RestProvider provider = providers.get(key);
+        if (provider == null) {
+            provider = createProvider(context, baseUrl);
+            if (providers.size() >= MAX_PROVIDERS) {
+                providers.clear();
+            }
+            final RestProvider existing = providers.putIfAbsent(key, provider);
+            if (existing != null) {
+                provider = existing;
+            }
+        }
+        return provider;
+    }
+
+    /**
+     * Drops all cached providers.
+     */
+    void clear() {
+        providers.clear();
+    }
+
+    /**
+     * Creates RESTful provider and passes the authentication data and configuration specified in the context to it.
+     *
+     * @param context
+     *            context for the NetLicensing API call
+     * @param baseUrl
+     *            base URL of the service
+     * @return configured RESTful provider
+     * @throws RestException
+     */
+    private RestProvider createProvider(final Context context, final String baseUrl) throws RestException {
+        if (context.getSecurityMode() == null) {
+            throw new RestException("Security mode must be specified");
+        }
+        final RestProvider restProvider = newProvider(context.getRestProviderType(), baseUrl);
+        switch (context.getSecurityMode()) {
+        case BASIC_AUTHENTICATION:
+            restProvider.authenticate(context.getUsername(), context.getPassword());
+            break;
+        case APIKEY_IDENTIFICATION:
+            restProvider.authenticate(context.getApiKey());
+            break;
+        default:
+            throw new RestException("Unknown security mode");
+        }
+        final RestProvider.Configuration configuration = getConfiguration(context);
+        if (configuration != null) {
+            restProvider.configure(configuration);
+        }
+        return restProvider;
+    }
+
+    private static RestProvider newProvider(final RestProviderType type, final String baseUrl) throws RestException {
+        switch (type) {
+        case JERSEY:
+            return new RestProviderJersey(baseUrl);
+        case URL_CONNECTION:
+            return new RestProviderUrlConnection(baseUrl);
+        default:
+            throw new RestException("Unknown REST provider type");
+        }
+    }
+
+    /**
+     * @param context
+     *            context for the NetLicensing API call
+     * @return provider configuration set in the context, or the default configuration
+     */
+    static RestProvider.Configuration getEffectiveConfiguration(final Context context) {
+        final RestProvider.Configuration configuration = getConfiguration(context);
+        return (configuration != null) ? configuration : DEFAULT_CONFIGURATION;
+    }
+
+    private static RestProvider.Configuration getConfiguration(final Context context) {
+        final Object config = context.getObject(RestProvider.Configuration.class);
+        return (config instanceof RestProvider.Configuration) ? (RestProvider.Configuration) config : null;
+    }
+
+    /**
+     * Identifies a provider by everything taken from the context when the provider is set up.
+     */
+    private static final class ProviderKey {
+
+        private final Object[] values;
+
+        private final int hash;
+
+        ProviderKey(final Context context, final String baseUrl) {
+            final SecurityMode securityMode = context.getSecurityMode();
+            values = new Object[] {
+                    baseUrl,
+                    context.getRestProviderType(),
+                    securityMode,
+                    (securityMode == SecurityMode.APIKEY_IDENTIFICATION) ? null : context.getUsername(),
+                    (securityMode == SecurityMode.APIKEY_IDENTIFICATION) ? null : context.getPassword(),
+                    (securityMode == SecurityMode.BASIC_AUTHENTICATION) ? null : context.getApiKey(),
+                    getConfiguration(context) };
+            hash = Arrays.hashCode(values);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof ProviderKey)) {
+                return false;
+            }
+            final ProviderKey other = (ProviderKey) obj;
+            return (hash == other.hash) && Arrays.equals(values, other.values);
+        }
+
+    }
+
+}
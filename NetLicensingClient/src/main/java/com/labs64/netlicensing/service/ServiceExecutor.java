@@ -0,0 +1,268 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.labs64.netlicensing.service;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.labs64.netlicensing.domain.vo.Context;
+import com.labs64.netlicensing.exception.NetLicensingException;
+import com.labs64.netlicensing.exception.RateLimitExceededException;
+import com.labs64.netlicensing.provider.policy.RateLimiterPolicy;
+
+/**
+ * Executes NetLicensing service calls asynchronously, used by the Async**Service classes.
+ * <p>
+ * The executor is taken from the context, if one is set there under the {@link Executor} key:
+ *
+ * <pre>
+ * context.setObject(Executor.class, executor);
+ * </pre>
+ *
+ * Otherwise calls run on a shared default executor with a bounded number of daemon threads.
+ * <p>
+ * For bulk operations with many concurrent blocking calls on Java 21 or later, an executor starting one virtual thread
+ * per call can be used instead:
+ *
+ * <pre>
+ * try (ExecutorService executor = ServiceExecutor.newVirtualThreadPerTaskExecutor()) {
+ *     context.setObject(Executor.class, executor);
+ *     List&lt;CompletableFuture&lt;ValidationResult&gt;&gt; results = ServiceExecutor.supplyAllAsync(context, calls);
+ *     ...
+ * }
+ * </pre>
+ */
+public final class ServiceExecutor {
+
+    /**
+     * Service call to be executed asynchronously.
+     *
+     * @param <T>
+     *            type of the call result
+     */
+    public interface Call<T> {
+
+        T call() throws NetLicensingException;
+
+    }
+
+    private ServiceExecutor() {
+    }
+
+    /**
+     * Lazily created default executor, see "initialization-on-demand holder" idiom.
+     */
+    private static final class DefaultExecutorHolder {
+
+        private static final int THREADS = Math.max(16, 4 * Runtime.getRuntime().availableProcessors());
+
+        private static final ThreadPoolExecutor EXECUTOR = new ThreadPoolExecutor(THREADS, THREADS, 60L,
+                TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), new DaemonThreadFactory("netlicensing-async-"));
+
+        static {
+            EXECUTOR.allowCoreThreadTimeOut(true);
+        }
+
+    }
+
+    /**
+     * Lazily created scheduler postponing calls until a rate limiter permit is available.
+     */
+    private static final class SchedulerHolder {
+
+        private static final ScheduledThreadPoolExecutor SCHEDULER = new ScheduledThreadPoolExecutor(1,
+                new DaemonThreadFactory("netlicensing-scheduler-"));
+
+        static {
+            SCHEDULER.setRemoveOnCancelPolicy(true);
+        }
+
+    }
+
+    /**
+     * @return shared executor used when the context doesn't provide one
+     */
+    public static Executor getDefaultExecutor() {
+        return DefaultExecutorHolder.EXECUTOR;
+    }
+
+    /**
+     * @param context
+     *            context for the NetLicensing API call, may be null
+     * @return executor set in the context, or the default executor
+     */
+    public static Executor getExecutor(final Context context) {
+        if (context != null) {
+            final Object executor = context.getObject(Executor.class);
+            if (executor instanceof Executor) {
+                return (Executor) executor;
+            }
+        }
+        return getDefaultExecutor();
+    }
+
+    /**
+     * @return true if the running JVM supports virtual threads (Java 21 or later)
+     */
+    public static boolean isVirtualThreadSupported() {
+        return VirtualThreadHolder.FACTORY_METHOD != null;
+    }
+
+    /**
+     * Creates an executor that starts a new virtual thread for each call. Blocking I/O of a virtual thread doesn't
+     * occupy a platform thread, so large numbers of concurrent service calls don't need a large thread pool.
+     * <p>
+     * The caller owns the returned executor and is responsible for shutting it down.
+     *
+     * @return new virtual thread per task executor
+     * @throws UnsupportedOperationException
+     *             if the running JVM doesn't support virtual threads
+     */
+    public static ExecutorService newVirtualThreadPerTaskExecutor() {
+        if (VirtualThreadHolder.FACTORY_METHOD == null) {
+            throw new UnsupportedOperationException("Virtual threads are not supported by this Java runtime");
+        }
+        try {
+            return (ExecutorService) VirtualThreadHolder.FACTORY_METHOD.invoke(null);
+        } catch (final IllegalAccessException | InvocationTargetException e) {
+            throw new UnsupportedOperationException("Unable to create virtual thread executor", e);
+        }
+    }
+
+    /**
+     * Executes the call asynchronously on the executor of the given context.
+     * <p>
+     * If the context has a {@link RateLimiterPolicy} in {@link RateLimiterPolicy.Mode#ASYNC} mode, a call rejected by
+     * the rate limiter is executed again once a permit is expected to be available, without occupying a thread while
+     * waiting. A deadline set in the context still applies.
+     *
+     * @param context
+     *            context for the NetLicensing API call
+     * @param call
+     *            the service call
+     * @param <T>
+     *            type of the call result
+     * @return future completed with the call result, or exceptionally with the exception thrown by the call
+     */
+    public static <T> CompletableFuture<T> supplyAsync(final Context context, final Call<T> call) {
+        final CompletableFuture<T> future = new CompletableFuture<>();
+        submit(context, call, future);
+        return future;
+    }
+
+    private static <T> void submit(final Context context, final Call<T> call, final CompletableFuture<T> future) {
+        try {
+            getExecutor(context).execute(() -> {
+                if (future.isDone()) {
+                    return; // cancelled while queued
+                }
+                try {
+                    future.complete(call.call());
+                } catch (final RateLimitExceededException e) {
+                    if (isAsyncRateLimiting(context)) {
+                        SchedulerHolder.SCHEDULER.schedule(() -> submit(context, call, future),
+                                Math.max(1, e.getWaitMillis()), TimeUnit.MILLISECONDS);
+                    } else {
+                        future.completeExceptionally(e);
+                    }
+                } catch (final NetLicensingException | RuntimeException e) {
+                    future.completeExceptionally(e);
+                }
+            });
+        } catch (final RuntimeException e) {
+            // i.e. RejectedExecutionException
+            future.completeExceptionally(e);
+        }
+    }
+
+    private static boolean isAsyncRateLimiting(final Context context) {
+        final Object policy = (context != null) ? context.getObject(RateLimiterPolicy.class) : null;
+        return (policy instanceof RateLimiterPolicy)
+                && (((RateLimiterPolicy) policy).getMode() == RateLimiterPolicy.Mode.ASYNC);
+    }
+
+    /**
+     * Executes all calls asynchronously on the executor of the given context. Each call is submitted independently, so
+     * a failed call doesn't affect the others.
+     *
+     * @param context
+     *            context for the NetLicensing API call
+     * @param calls
+     *            the service calls
+     * @param <T>
+     *            type of the call results
+     * @return futures of the call results, in iteration order of the calls
+     */
+    public static <T> List<CompletableFuture<T>> supplyAllAsync(final Context context,
+            final Collection<? extends Call<T>> calls) {
+        final List<CompletableFuture<T>> futures = new ArrayList<>(calls.size());
+        for (final Call<T> call : calls) {
+            futures.add(supplyAsync(context, call));
+        }
+        return futures;
+    }
+
+    /**
+     * Looks up {@code Executors.newVirtualThreadPerTaskExecutor()} once; the library is compiled for older Java
+     * versions, so the method is not referenced directly.
+     */
+    private static final class VirtualThreadHolder {
+
+        private static final Method FACTORY_METHOD = findFactoryMethod();
+
+        private static Method findFactoryMethod() {
+            try {
+                return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            } catch (final NoSuchMethodException e) {
+                return null;
+            }
+        }
+
+    }
+
+    /**
+     * Creates named daemon threads, so pending asynchronous calls don't prevent JVM shutdown.
+     */
+    static final class DaemonThreadFactory implements ThreadFactory {
+
+        private final String namePrefix;
+
+        private final AtomicInteger counter = new AtomicInteger();
+
+        DaemonThreadFactory(final String namePrefix) {
+            this.namePrefix = namePrefix;
+        }
+
+        @Override
+        public Thread newThread(final Runnable runnable) {
+            final Thread thread = new Thread(runnable, namePrefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+
+    }
+
+}
@@ -0,0 +1,97 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.labs64.netlicensing.service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import com.labs64.netlicensing.exception.DeadlineExceededException;
+import com.labs64.netlicensing.exception.NetLicensingException;
+import com.labs64.netlicensing.exception.RestException;
+
+/**
+ * Coalesces identical concurrent calls: while a call for a key is in flight, further calls for the same key wait for
+ * its outcome instead of calling the service again. Nothing is cached once the call completed.
+ */
+final class SingleFlight {
+
+    private final ConcurrentMap<Object, CompletableFuture<Object>> flights = new ConcurrentHashMap<>();
+
+    /**
+     * @param key
+     *            identifies the call; equal keys must denote calls with equal results
+     * @param deadline
+     *            time in milliseconds since the epoch after which a waiting caller gives up, or
+     *            {@link Long#MAX_VALUE}
+     * @param call
+     *            the call, executed by the first caller for the key
+     * @param metrics
+     *            metrics counting coalesced calls
+     * @return result of the call, possibly shared with other callers
+     * @throws NetLicensingException
+     *             exception thrown by the call
+     */
+    @SuppressWarnings("unchecked")
+    <T> T execute(final Object key, final long deadline, final ServiceExecutor.Call<T> call,
+            final ClientMetrics metrics) throws NetLicensingException {
+        final CompletableFuture<Object> flight = new CompletableFuture<>();
+        final CompletableFuture<Object> existing = flights.putIfAbsent(key, flight);
+        if (existing != null) {
+            metrics.recordCoalescedCall();
+            return (T) await(existing, deadline);
+        }
+        try {
+            final T result = call.call();
+            flight.complete(result);
+            return result;
+        } catch (final NetLicensingException | RuntimeException | Error e) {
+            // callers waiting for the flight must be released whatever the call throws
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            flights.remove(key, flight);
+        }
+    }
+
+    private static Object await(final CompletableFuture<Object> flight, final long deadline)
+            throws NetLicensingException {
+        try {
+            if (deadline == Long.MAX_VALUE) {
+                return flight.get();
+            }
+            return flight.get(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+        } catch (final ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof NetLicensingException) {
+                throw (NetLicensingException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new RestException("Exception while calling service", cause);
+        } catch (final TimeoutException e) {
+            throw new DeadlineExceededException("Deadline exceeded while waiting for identical call in flight");
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RestException("Interrupted while waiting for identical call in flight", e);
+        }
+    }
+
+}
@@ -23,6 +23,7 @@ import org.apache.commons.lang3.StringUtils;
 import com.labs64.netlicensing.domain.Constants;
 import com.labs64.netlicensing.domain.entity.Country;
 import com.labs64.netlicensing.domain.vo.Context;
+import com.labs64.netlicensing.domain.vo.LazyPage;
 import com.labs64.netlicensing.domain.vo.LicenseTypeProperties;
 import com.labs64.netlicensing.domain.vo.LicensingModelProperties;
 import com.labs64.netlicensing.domain.vo.Page;
@@ -34,6 +35,20 @@ import com.labs64.netlicensing.exception.NetLicensingException;
  */
 public class UtilityService {
 
+    /**
+     * Prepares calls with the given context ahead of the first one, e.g. after deployment, and checks that the service
+     * is reachable with a probe call. See {@link NetLicensingService#warmUp(Context, int)}.
+     *
+     * @param context
+     *            context for the NetLicensing API calls to prepare
+     * @return durations of the warm-up phases
+     * @throws com.labs64.netlicensing.exception.NetLicensingException
+     *             if the providers can't be prepared or the probe call fails
+     */
+    public static WarmUpReport warmUp(final Context context) throws NetLicensingException {
+        return NetLicensingService.getInstance().warmUp(context, 1);
+    }
+
     /**
      * Returns all license types.
      *
@@ -45,8 +60,9 @@ public class UtilityService {
      *             will be transformed to the corresponding service response messages.
      */
     public static Page<String> listLicenseTypes(final Context context) throws NetLicensingException {
-        final Page<LicenseTypeProperties> licenseTypes = NetLicensingService.getInstance().list(context,
-                Constants.Utility.ENDPOINT_PATH + "/licenseTypes", null, LicenseTypeProperties.class);
+        // converted up front, so that conversion errors are thrown by this method
+        final Page<LicenseTypeProperties> licenseTypes = LazyPage.convertAll(NetLicensingService.getInstance()
+                .list(context, Constants.Utility.ENDPOINT_PATH + "/licenseTypes", null, LicenseTypeProperties.class));
         return new PageImpl<String>(
                 (List<String>) CollectionUtils.collect(licenseTypes.getContent(),
                         new Transformer<LicenseTypeProperties, String>() {
@@ -75,8 +91,10 @@ public class UtilityService {
      */
     public static Page<String> listLicensingModels(final Context context) throws NetLicensingException {
 
-        final Page<LicensingModelProperties> licensingModels = NetLicensingService.getInstance().list(context,
-                Constants.Utility.ENDPOINT_PATH + "/licensingModels", null, LicensingModelProperties.class);
+        // converted up front, so that conversion errors are thrown by this method
+        final Page<LicensingModelProperties> licensingModels = LazyPage.convertAll(NetLicensingService.getInstance()
+                .list(context, Constants.Utility.ENDPOINT_PATH + "/licensingModels", null,
+                        LicensingModelProperties.class));
         return new PageImpl<String>(
                 (List<String>) CollectionUtils.collect(licensingModels.getContent(),
                         new Transformer<LicensingModelProperties, String>() {
@@ -0,0 +1,183 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.labs64.netlicensing.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Calendar;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.core.Form;
+import javax.xml.bind.DatatypeConverter;
+
+import com.labs64.netlicensing.domain.Constants;
+import com.labs64.netlicensing.domain.vo.Context;
+import com.labs64.netlicensing.domain.vo.ValidationResult;
+
+/**
+ * Keeps the last successful validation result per licensee and validation parameters, to be returned instead of
+ * failing while the circuit breaker for the service is open (see
+ * {@link com.labs64.netlicensing.provider.policy.CircuitBreakerPolicy}).
+ * <p>
+ * Cached results are only returned until their {@link ValidationResult#getTtl() TTL} expires; results without TTL are
+ * returned up to the max age after they have been cached. Results are cached per credentials, so that a caller is never
+ * answered with the result of a validation made with other credentials. The cache is enabled by setting it on the
+ * context:
+ *
+ * <pre>
+ * context.setObject(ValidationResultCache.class, new ValidationResultCache());
+ * </pre>
+ */
+public class ValidationResultCache {
+
+    private static final int DEFAULT_MAX_ENTRIES = 10000;
+
+    private static final long DEFAULT_MAX_AGE_MILLIS = TimeUnit.MINUTES.toMillis(
+            Constants.ValidationResult.DEFAULT_TTL_MINUTES);
+
+    private final int maxEntries;
+
+    private final long maxAgeMillis;
+
+    private final ConcurrentMap<String, Entry> results = new ConcurrentHashMap<>();
+
+    public ValidationResultCache() {
+        this(DEFAULT_MAX_ENTRIES);
+    }
+
+    /**
+     * @param maxEntries
+     *            maximum number of cached results; the cache is cleared when reached
+     */
+    public ValidationResultCache(final int maxEntries) {
+        this(maxEntries, DEFAULT_MAX_AGE_MILLIS);
+    }
+
+    /**
+     * @param maxEntries
+     *            maximum number of cached results; the cache is cleared when reached
+     * @param maxAgeMillis
+     *            time in milliseconds a result without TTL is returned after it has been cached
+     */
+    public ValidationResultCache(final int maxEntries, final long maxAgeMillis) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("Cache must allow at least one entry");
+        }
+        if (maxAgeMillis < 0) {
+            throw new IllegalArgumentException("Max age must not be negative");
+        }
+        this.maxEntries = maxEntries;
+        this.maxAgeMillis = maxAgeMillis;
+    }
+
+    /**
+     * @return number of cached results, including expired ones not evicted yet
+     */
+    public int size() {
+        return results.size();
+    }
+
+    /**
+     * Drops all cached results.
+     */
+    public void clear() {
+        results.clear();
+    }
+
+    ValidationResult get(final String key) {
+        final Entry entry = results.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expires <= System.currentTimeMillis()) {
+            results.remove(key, entry);
+            return null;
+        }
+        return entry.result;
+    }
+
+    void put(final String key, final ValidationResult result) {
+        if (results.size() >= maxEntries) {
+            results.clear();
+        }
+        final Calendar ttl = result.getTtl();
+        final long expires = (ttl != null)
+                ? ttl.getTimeInMillis()
+                : System.currentTimeMillis() + maxAgeMillis;
+        results.put(key, new Entry(result, expires));
+    }
+
+    /**
+     * @param context
+     *            context for the NetLicensing API call
+     * @return cache set on the context, or null if there is none
+     */
+    static ValidationResultCache getCache(final Context context) {
+        final Object cache = context.getObject(ValidationResultCache.class);
+        return (cache instanceof ValidationResultCache) ? (ValidationResultCache) cache : null;
+    }
+
+    /**
+     * Builds key identifying the validation by service, credentials, vendor, licensee and validation parameters. The
+     * password is only kept as hash.
+     */
+    static String key(final Context context, final String licenseeNumber, final Form form) {
+        final StringBuilder key = new StringBuilder();
+        key.append(context.getBaseUrl()).append('\n')
+                .append(context.getSecurityMode()).append('\n')
+                .append(context.getUsername()).append('\n')
+                .append(hash(context.getPassword())).append('\n')
+                .append(context.getApiKey()).append('\n')
+                .append(context.getVendorNumber()).append('\n')
+                .append(licenseeNumber);
+        for (final Map.Entry<String, List<String>> param : new TreeMap<>(form.asMap()).entrySet()) {
+            key.append('\n').append(param.getKey()).append('=').append(param.getValue());
+        }
+        return key.toString();
+    }
+
+    private static String hash(final String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return DatatypeConverter.printHexBinary(MessageDigest.getInstance("SHA-256").digest(
+                    value.getBytes(StandardCharsets.UTF_8)));
+        } catch (final NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported", e);
+        }
+    }
+
+    /**
+     * Cached result with the time in milliseconds it expires.
+     */
+    private static final class Entry {
+
+        private final ValidationResult result;
+
+        private final long expires;
+
+        Entry(final ValidationResult result, final long expires) {
+            this.result = result;
+            this.expires = expires;
+        }
+
+    }
+
+}
@@ -0,0 +1,82 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.labs64.netlicensing.service;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Durations of the phases of {@link NetLicensingService#warmUp(com.labs64.netlicensing.domain.vo.Context, int)}.
+ */
+public final class WarmUpReport {
+
+    /**
+     * Warm-up phases, in execution order.
+     */
+    public enum Phase {
+
+        /** Creation, authentication and configuration of the RESTful providers, incl. HTTP client bootstrap */
+        PROVIDER,
+
+        /** Creation of the JAXB context for service responses */
+        JAXB,
+
+        /** Creation of the converters from service responses to entities */
+        CONVERTERS,
+
+        /** Probe calls, incl. DNS lookup and connection establishment */
+        PROBE
+
+    }
+
+    private final Map<Phase, Long> durationNanos = new EnumMap<>(Phase.class);
+
+    WarmUpReport() {
+    }
+
+    void record(final Phase phase, final long nanos) {
+        durationNanos.put(phase, nanos);
+    }
+
+    /**
+     * @param phase
+     *            warm-up phase
+     * @return duration of the phase in milliseconds, 0 if not executed
+     */
+    public long getDurationMillis(final Phase phase) {
+        final Long nanos = durationNanos.get(phase);
+        return (nanos != null) ? TimeUnit.NANOSECONDS.toMillis(nanos) : 0;
+    }
+
+    /**
+     * @return duration of all phases in milliseconds
+     */
+    public long getTotalMillis() {
+        long total = 0;
+        for (final Long nanos : durationNanos.values()) {
+            total += nanos;
+        }
+        return TimeUnit.NANOSECONDS.toMillis(total);
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder("WarmUpReport [");
+        for (final Phase phase : Phase.values()) {
+            builder.append(phase).append('=').append(getDurationMillis(phase)).append("ms, ");
+        }
+        return builder.append("total=").append(getTotalMillis()).append("ms]").toString();
+    }
+
+}
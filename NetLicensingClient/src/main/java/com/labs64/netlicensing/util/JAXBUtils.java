@@ -15,18 +15,33 @@ package com.labs64.netlicensing.util;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.InputStream;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.xml.bind.JAXBContext;
-import javax.xml.bind.JAXBElement;
 import javax.xml.bind.JAXBException;
 import javax.xml.bind.Marshaller;
 import javax.xml.bind.Unmarshaller;
+import javax.xml.transform.Source;
 import javax.xml.transform.stream.StreamSource;
 
 /**
+ * JAXB helpers. The JAXB context is created once per class, since it's expensive operation; marshallers and
+ * unmarshallers are not thread-safe, so idle ones are pooled per class and reused by the following calls.
  */
 public final class JAXBUtils {
 
+    /** Upper bound of idle marshallers and unmarshallers kept per class */
+    private static final int MAX_POOLED = 2 * Runtime.getRuntime().availableProcessors();
+
+    private static final ConcurrentMap<Class<?>, JAXBContext> jaxbContexts = new ConcurrentHashMap<>();
+
+    private static final ConcurrentMap<Class<?>, Pool<Unmarshaller>> unmarshallers = new ConcurrentHashMap<>();
+
+    private static final ConcurrentMap<Class<?>, Pool<Marshaller>> marshallers = new ConcurrentHashMap<>();
+
     public static <T> T readObject(final String resource, final Class<T> expectedType) {
         return readObjectFromInputStream(JAXBUtils.class.getClassLoader().getResourceAsStream(resource), expectedType);
     }
@@ -37,26 +52,115 @@ public final class JAXBUtils {
 
     public static <T> T readObjectFromInputStream(final InputStream inputStream, final Class<T> expectedType) {
         try {
-            JAXBContext jaxbContext = JAXBContext.newInstance(expectedType);
-            Unmarshaller unmarshaller = jaxbContext.createUnmarshaller();
-            JAXBElement<T> element = unmarshaller.unmarshal(new StreamSource(inputStream), expectedType);
-            return element.getValue();
+            return unmarshal(new StreamSource(inputStream), expectedType);
         } catch (final JAXBException e) {
             throw new RuntimeException("Cannot process resource!", e);
         }
     }
 
     public static <T> String xmlEntityToString(final T entity) {
+        final Class<?> type = entity.getClass();
         try {
-            JAXBContext jaxbContext = JAXBContext.newInstance(entity.getClass());
-            Marshaller marshaller = jaxbContext.createMarshaller();
-            marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, true);
-            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            Marshaller marshaller = getPool(marshallers, type).poll();
+            if (marshaller == null) {
+                marshaller = getJAXBContext(type).createMarshaller();
+                marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, true);
+            }
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
             marshaller.marshal(entity, out);
+            getPool(marshallers, type).offer(marshaller);
             return out.toString();
         } catch (final JAXBException e) {
             throw new RuntimeException("Cannot convert object to string !", e);
         }
     }
 
+    /**
+     * Unmarshals the source with a pooled unmarshaller.
+     *
+     * @param source
+     *            XML source
+     * @param expectedType
+     *            type of the root element
+     * @return the unmarshalled object
+     * @throws JAXBException
+     *             if the source cannot be unmarshalled
+     */
+    public static <T> T unmarshal(final Source source, final Class<T> expectedType) throws JAXBException {
+        Unmarshaller unmarshaller = getPool(unmarshallers, expectedType).poll();
+        if (unmarshaller == null) {
+            unmarshaller = getJAXBContext(expectedType).createUnmarshaller();
+        }
+        final T value = unmarshaller.unmarshal(source, expectedType).getValue();
+        // unmarshallers that failed are dropped, they may be left in an inconsistent state
+        getPool(unmarshallers, expectedType).offer(unmarshaller);
+        return value;
+    }
+
+    /**
+     * Get JAXB context for the type. The context is created once per type and shared by all callers.
+     *
+     * @param type
+     *            JAXB annotated class
+     * @return JAXB context
+     * @throws JAXBException
+     *             if the context cannot be created
+     */
+    public static JAXBContext getJAXBContext(final Class<?> type) throws JAXBException {
+        JAXBContext jaxbContext = jaxbContexts.get(type);
+        if (jaxbContext == null) {
+            jaxbContext = JAXBContext.newInstance(type);
+            final JAXBContext existing = jaxbContexts.putIfAbsent(type, jaxbContext);
+            if (existing != null) {
+                jaxbContext = existing;
+            }
+        }
+        return jaxbContext;
+    }
+
+    private static <T> Pool<T> getPool(final ConcurrentMap<Class<?>, Pool<T>> pools, final Class<?> type) {
+        Pool<T> pool = pools.get(type);
+        if (pool == null) {
+            pool = new Pool<>();
+            final Pool<T> existing = pools.putIfAbsent(type, pool);
+            if (existing != null) {
+                pool = existing;
+            }
+        }
+        return pool;
+    }
+
+    /**
+     * Bounded lock-free pool of idle instances.
+     */
+    private static final class Pool<T> {
+
+        private final ConcurrentLinkedQueue<T> idle = new ConcurrentLinkedQueue<>();
+
+        private final AtomicInteger size = new AtomicInteger();
+
+        /**
+         * @return idle instance, or null if there is none
+         */
+        T poll() {
+            final T instance = idle.poll();
+            if (instance != null) {
+                size.decrementAndGet();
+            }
+            return instance;
+        }
+
+        /**
+         * Returns instance to the pool, or drops it if the pool is full.
+         */
+        void offer(final T instance) {
+            if (size.incrementAndGet() <= MAX_POOLED) {
+                idle.offer(instance);
+            } else {
+                size.decrementAndGet();
+            }
+        }
+
+    }
+
 }
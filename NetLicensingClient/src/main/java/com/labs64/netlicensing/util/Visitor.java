@@ -1,13 +1,46 @@
 package com.labs64.netlicensing.util;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 
 // Inspired by: http://www.javaworld.com/article/2077602/learn-java/java-tip-98--reflect-on-the-visitor-design-pattern.html
 public class Visitor {
 
+    private static final MethodType DISPATCH_TYPE = MethodType.methodType(void.class, Visitor.class, Object.class);
+
+    /**
+     * Dispatch handles by visitor class and then by target class. Methods are resolved once per pair of classes, later
+     * visits only look up the handle.
+     */
+    private static final ClassValue<ClassValue<MethodHandle>> dispatch = new ClassValue<ClassValue<MethodHandle>>() {
+
+        @Override
+        protected ClassValue<MethodHandle> computeValue(final Class<?> visitorClass) {
+            return new ClassValue<MethodHandle>() {
+
+                @Override
+                protected MethodHandle computeValue(final Class<?> targetClass) {
+                    return toHandle(findMethod(visitorClass, targetClass));
+                }
+
+            };
+        }
+
+    };
+
     public void visit(final Object object) throws Exception {
-        final Method method = getMethod(object.getClass());
-        method.invoke(this, object);
+        final MethodHandle handle = dispatch.get(getClass()).get(object.getClass());
+        try {
+            handle.invokeExact(this, object);
+        } catch (final Exception | Error e) {
+            throw e;
+        } catch (final Throwable e) {
+            throw new InvocationTargetException(e);
+        }
     }
 
     public void visitDefault(final Object object) {
@@ -15,21 +48,62 @@ public class Visitor {
     }
 
     protected Method getMethod(final Class<?> targetClass) throws NoSuchMethodException {
+        return findMethod(getClass(), targetClass);
+    }
+
+    /**
+     * Finds the "visit" method for the most specific superclass of the target class, or else for one of the interfaces
+     * it implements directly, falling back to "visitDefault".
+     */
+    private static Method findMethod(final Class<?> visitorClass, final Class<?> targetClass) {
+        final Method[] methods = visitorClass.getMethods();
         Class<?> superClass = targetClass;
         while (superClass != Object.class) {
-            try {
-                return getClass().getMethod("visit", superClass);
-            } catch (final NoSuchMethodException e) {
-                superClass = superClass.getSuperclass();
+            final Method method = findVisit(methods, superClass);
+            if (method != null) {
+                return method;
+            }
+            superClass = superClass.getSuperclass();
+        }
+        for (final Class<?> iface : targetClass.getInterfaces()) {
+            final Method method = findVisit(methods, iface);
+            if (method != null) {
+                return method;
+            }
+        }
+        for (final Method method : methods) {
+            if (method.getName().equals("visitDefault") && isVisitSignature(method, Object.class)) {
+                return method;
             }
         }
-        final Class<?>[] ifaces = targetClass.getInterfaces();
-        for (final Class<?> iface : ifaces) {
-            try {
-                return getClass().getMethod("visit", iface);
-            } catch (final NoSuchMethodException e) {
+        throw new IllegalStateException("No visitDefault method found in " + visitorClass.getName());
+    }
+
+    private static Method findVisit(final Method[] methods, final Class<?> parameterType) {
+        for (final Method method : methods) {
+            if (method.getName().equals("visit") && isVisitSignature(method, parameterType)) {
+                return method;
             }
         }
-        return getClass().getMethod("visitDefault", Object.class);
+        return null;
+    }
+
+    private static boolean isVisitSignature(final Method method, final Class<?> parameterType) {
+        return !Modifier.isStatic(method.getModifiers()) && (method.getParameterTypes().length == 1)
+                && (method.getParameterTypes()[0] == parameterType);
+    }
+
+    private static MethodHandle toHandle(final Method method) {
+        try {
+            // public methods of non-public visitors, e.g. nested classes, aren't accessible otherwise
+            method.setAccessible(true);
+        } catch (final SecurityException e) {
+            // unreflect fails below if the method is really inaccessible
+        }
+        try {
+            return MethodHandles.lookup().unreflect(method).asType(DISPATCH_TYPE);
+        } catch (final IllegalAccessException e) {
+            throw new IllegalStateException("Cannot access " + method, e);
+        }
     }
 }
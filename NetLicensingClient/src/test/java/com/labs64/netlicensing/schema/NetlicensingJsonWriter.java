@@ -0,0 +1,209 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.labs64.netlicensing.schema;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+import com.labs64.netlicensing.schema.context.Info;
+import com.labs64.netlicensing.schema.context.Item;
+import com.labs64.netlicensing.schema.context.List;
+import com.labs64.netlicensing.schema.context.Netlicensing;
+import com.labs64.netlicensing.schema.context.Property;
+
+/**
+ * Writes {@link Netlicensing} objects in the JSON format read by {@link NetlicensingJsonReader}, for the service mocks
+ * of the tests. Members with null values are left out, except for property values. Signatures are not written.
+ */
+public final class NetlicensingJsonWriter {
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private NetlicensingJsonWriter() {
+        // utility class constructor
+    }
+
+    /**
+     * Writes the object UTF-8 encoded.
+     *
+     * @param netlicensing
+     *            object to write
+     * @param out
+     *            output stream, flushed but not closed by this method
+     * @throws IOException
+     */
+    public static void write(final Netlicensing netlicensing, final OutputStream out) throws IOException {
+        final Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        write(netlicensing, writer);
+        writer.flush();
+    }
+
+    /**
+     * @param netlicensing
+     *            object to write
+     * @param writer
+     *            destination, not flushed by this method
+     * @throws IOException
+     */
+    public static void write(final Netlicensing netlicensing, final Writer writer) throws IOException {
+        final Members members = new Members(writer);
+        if (netlicensing.getInfos() != null) {
+            members.name("infos").append("{\"info\":[");
+            boolean first = true;
+            for (final Info info : netlicensing.getInfos().getInfo()) {
+                first = separate(writer, first);
+                final Members infoMembers = new Members(writer);
+                infoMembers.string("id", info.getId());
+                infoMembers.string("type", (info.getType() != null) ? info.getType().value() : null);
+                infoMembers.string("value", info.getValue());
+                infoMembers.end();
+            }
+            writer.append("]}");
+        }
+        if (netlicensing.getItems() != null) {
+            final Netlicensing.Items items = netlicensing.getItems();
+            members.name("items");
+            final Members itemsMembers = new Members(writer);
+            itemsMembers.name("item").append('[');
+            boolean first = true;
+            for (final Item item : items.getItem()) {
+                first = separate(writer, first);
+                final Members itemMembers = new Members(writer);
+                itemMembers.string("type", item.getType());
+                writeContent(writer, itemMembers, item.getProperty(), item.getList());
+                itemMembers.end();
+            }
+            writer.append(']');
+            itemsMembers.string("pagenumber", items.getPagenumber());
+            itemsMembers.string("itemsnumber", items.getItemsnumber());
+            itemsMembers.string("totalpages", items.getTotalpages());
+            itemsMembers.string("totalitems", items.getTotalitems());
+            itemsMembers.string("hasnext", items.getHasnext());
+            itemsMembers.end();
+        }
+        members.string("id", netlicensing.getId());
+        members.string("ttl", (netlicensing.getTtl() != null) ? netlicensing.getTtl().toXMLFormat() : null);
+        members.end();
+    }
+
+    private static void writeContent(final Writer writer, final Members members,
+            final java.util.List<Property> properties, final java.util.List<List> lists) throws IOException {
+        if (!properties.isEmpty()) {
+            members.name("property").append('[');
+            boolean first = true;
+            for (final Property property : properties) {
+                first = separate(writer, first);
+                writer.append("{\"name\":");
+                writeString(writer, property.getName());
+                writer.append(",\"value\":");
+                writeString(writer, property.getValue());
+                writer.append('}');
+            }
+            writer.append(']');
+        }
+        if (!lists.isEmpty()) {
+            members.name("list").append('[');
+            boolean first = true;
+            for (final List list : lists) {
+                first = separate(writer, first);
+                final Members listMembers = new Members(writer);
+                listMembers.string("name", list.getName());
+                writeContent(writer, listMembers, list.getProperty(), list.getList());
+                listMembers.end();
+            }
+            writer.append(']');
+        }
+    }
+
+    private static boolean separate(final Writer writer, final boolean first) throws IOException {
+        if (!first) {
+            writer.append(',');
+        }
+        return false;
+    }
+
+    private static void writeString(final Writer writer, final String value) throws IOException {
+        if (value == null) {
+            writer.append("null");
+            return;
+        }
+        writer.append('"');
+        int start = 0;
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if ((c == '"') || (c == '\\') || (c < 0x20)) {
+                writer.write(value, start, i - start);
+                start = i + 1;
+                switch (c) {
+                case '"':
+                    writer.append("\\\"");
+                    break;
+                case '\\':
+                    writer.append("\\\\");
+                    break;
+                case '\n':
+                    writer.append("\\n");
+                    break;
+                case '\r':
+                    writer.append("\\r");
+                    break;
+                case '\t':
+                    writer.append("\\t");
+                    break;
+                default:
+                    writer.append("\\u00").append(HEX_DIGITS[c >> 4]).append(HEX_DIGITS[c & 0xF]);
+                }
+            }
+        }
+        writer.write(value, start, value.length() - start);
+        writer.append('"');
+    }
+
+    /**
+     * Writes the members of an object, opening it with the first member.
+     */
+    private static final class Members {
+
+        private final Writer writer;
+
+        private boolean open;
+
+        Members(final Writer writer) {
+            this.writer = writer;
+        }
+
+        Writer name(final String name) throws IOException {
+            writer.append(open ? ',' : '{');
+            open = true;
+            writeString(writer, name);
+            return writer.append(':');
+        }
+
+        void string(final String name, final String value) throws IOException {
+            if (value != null) {
+                name(name);
+                writeString(writer, value);
+            }
+        }
+
+        void end() throws IOException {
+            writer.append(open ? "}" : "{}");
+        }
+
+    }
+
+}
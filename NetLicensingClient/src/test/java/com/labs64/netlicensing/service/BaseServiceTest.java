@@ -12,10 +12,15 @@
  */
 package com.labs64.netlicensing.service;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
 import java.math.BigDecimal;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.ws.rs.Consumes;
 import javax.ws.rs.DELETE;
@@ -23,12 +28,14 @@ import javax.ws.rs.GET;
 import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
+import javax.ws.rs.Produces;
 import javax.ws.rs.core.Application;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.MultivaluedMap;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.UriInfo;
+import javax.ws.rs.ext.MessageBodyWriter;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.text.WordUtils;
@@ -37,7 +44,9 @@ import org.glassfish.jersey.test.JerseyTest;
 import org.glassfish.jersey.test.TestProperties;
 
 import com.labs64.netlicensing.domain.Constants;
+import com.labs64.netlicensing.domain.vo.RestProviderType;
 import com.labs64.netlicensing.domain.vo.SecurityMode;
+import com.labs64.netlicensing.schema.NetlicensingJsonWriter;
 import com.labs64.netlicensing.schema.SchemaFunction;
 import com.labs64.netlicensing.schema.context.InfoEnum;
 import com.labs64.netlicensing.schema.context.Item;
@@ -62,18 +71,23 @@ abstract class BaseServiceTest extends JerseyTest {
 
     static final String TEST_CASE_BASE = "mock/";
 
+    /** System property selecting the RESTful provider the tests are run against, see {@link RestProviderType} */
+    static final String REST_PROVIDER_TYPE_PROPERTY = "netlicensing.test.restProviderType";
+
     static com.labs64.netlicensing.domain.vo.Context createContext() {
         return new com.labs64.netlicensing.domain.vo.Context()
                 .setBaseUrl(BASE_URL)
                 .setSecurityMode(SecurityMode.BASIC_AUTHENTICATION)
                 .setUsername(USER)
-                .setPassword(PASS);
+                .setPassword(PASS)
+                .setRestProviderType(RestProviderType.valueOf(
+                        System.getProperty(REST_PROVIDER_TYPE_PROPERTY, RestProviderType.JERSEY.name())));
     }
 
     @Override
     protected final Application configure() {
         enable(TestProperties.LOG_TRAFFIC);
-        return new ResourceConfig(getResourceClass());
+        return new ResourceConfig(getResourceClass()).register(JsonMessageBodyWriter.class);
     }
 
     /**
@@ -299,4 +313,37 @@ abstract class BaseServiceTest extends JerseyTest {
 
     }
 
+    // *** JSON representation of the NLIC responses ***
+
+    /**
+     * Writes the mock responses as JSON, if requested by the client.
+     */
+    @Produces(MediaType.APPLICATION_JSON)
+    public static class JsonMessageBodyWriter implements MessageBodyWriter<Netlicensing> {
+
+        /** Number of responses written as JSON */
+        static final AtomicInteger responses = new AtomicInteger();
+
+        @Override
+        public boolean isWriteable(final Class<?> type, final Type genericType, final Annotation[] annotations,
+                final MediaType mediaType) {
+            return Netlicensing.class.isAssignableFrom(type);
+        }
+
+        @Override
+        public long getSize(final Netlicensing netlicensing, final Class<?> type, final Type genericType,
+                final Annotation[] annotations, final MediaType mediaType) {
+            return -1;
+        }
+
+        @Override
+        public void writeTo(final Netlicensing netlicensing, final Class<?> type, final Type genericType,
+                final Annotation[] annotations, final MediaType mediaType,
+                final MultivaluedMap<String, Object> httpHeaders, final OutputStream entityStream) throws IOException {
+            responses.incrementAndGet();
+            NetlicensingJsonWriter.write(netlicensing, entityStream);
+        }
+
+    }
+
 }
@@ -18,9 +18,17 @@ import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 import java.math.BigDecimal;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 
 import javax.ws.rs.Path;
 import javax.ws.rs.core.MultivaluedMap;
@@ -31,17 +39,31 @@ import org.junit.BeforeClass;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
 
 import com.labs64.netlicensing.domain.Constants;
 import com.labs64.netlicensing.domain.entity.License;
 import com.labs64.netlicensing.domain.entity.impl.LicenseImpl;
+import com.labs64.netlicensing.domain.entity.impl.LicenseTemplateImpl;
+import com.labs64.netlicensing.domain.entity.impl.LicenseeImpl;
+import com.labs64.netlicensing.domain.entity.impl.PaymentMethodImpl;
+import com.labs64.netlicensing.domain.entity.impl.ProductImpl;
+import com.labs64.netlicensing.domain.entity.impl.ProductModuleImpl;
+import com.labs64.netlicensing.domain.entity.impl.TokenImpl;
+import com.labs64.netlicensing.domain.entity.impl.TransactionImpl;
 import com.labs64.netlicensing.domain.vo.Context;
 import com.labs64.netlicensing.domain.vo.Currency;
+import com.labs64.netlicensing.domain.vo.LazyPage;
 import com.labs64.netlicensing.domain.vo.Page;
+import com.labs64.netlicensing.exception.ConversionException;
 import com.labs64.netlicensing.exception.ServiceException;
 import com.labs64.netlicensing.schema.SchemaFunction;
+import com.labs64.netlicensing.schema.context.Item;
 import com.labs64.netlicensing.schema.context.Netlicensing;
 import com.labs64.netlicensing.schema.context.Property;
+import com.labs64.netlicensing.schema.converter.ItemToLicenseConverter;
 import com.labs64.netlicensing.util.JAXBUtils;
 
 /**
@@ -146,6 +168,112 @@ public class LicenseServiceTest extends BaseServiceTest {
         assertEquals("LT002-TEST", licenses.getContent().get(2).getLicenseTemplate().getNumber());
     }
 
+    @Test
+    public void testReservedPropsLookup() throws Exception {
+        final Netlicensing netlicensing = JAXBUtils.readObject(TEST_CASE_BASE + "netlicensing-license-list.xml",
+                Netlicensing.class);
+        final Set<String> names = new HashSet<>(Arrays.asList("customProperty", "", null));
+        for (final Item item : netlicensing.getItems().getItem()) {
+            for (final Property property : item.getProperty()) {
+                names.add(property.getName());
+            }
+        }
+        // the reserved properties of each entity are reserved or custom for the others
+        names.addAll(LicenseImpl.getReservedProps());
+        names.addAll(LicenseeImpl.getReservedProps());
+        names.addAll(LicenseTemplateImpl.getReservedProps());
+        names.addAll(PaymentMethodImpl.getReservedProps());
+        names.addAll(ProductImpl.getReservedProps());
+        names.addAll(ProductModuleImpl.getReservedProps());
+        names.addAll(TokenImpl.getReservedProps());
+        names.addAll(TransactionImpl.getReservedProps());
+
+        for (final String name : names) {
+            assertEquals(name, LicenseImpl.getReservedProps().contains(name), LicenseImpl.isReservedProp(name));
+            assertEquals(name, LicenseeImpl.getReservedProps().contains(name), LicenseeImpl.isReservedProp(name));
+            assertEquals(name, LicenseTemplateImpl.getReservedProps().contains(name),
+                    LicenseTemplateImpl.isReservedProp(name));
+            assertEquals(name, PaymentMethodImpl.getReservedProps().contains(name),
+                    PaymentMethodImpl.isReservedProp(name));
+            assertEquals(name, ProductImpl.getReservedProps().contains(name), ProductImpl.isReservedProp(name));
+            assertEquals(name, ProductModuleImpl.getReservedProps().contains(name),
+                    ProductModuleImpl.isReservedProp(name));
+            assertEquals(name, TokenImpl.getReservedProps().contains(name), TokenImpl.isReservedProp(name));
+            assertEquals(name, TransactionImpl.getReservedProps().contains(name), TransactionImpl.isReservedProp(name));
+        }
+    }
+
+    @Test
+    public void testConvertWithManyProperties() throws Exception {
+        final Netlicensing netlicensing = JAXBUtils.readObject(TEST_CASE_BASE + "netlicensing-license-list.xml",
+                Netlicensing.class);
+        final Item item = netlicensing.getItems().getItem().get(0);
+        final ItemToLicenseConverter converter = new ItemToLicenseConverter();
+        // few properties are scanned, many are indexed
+        final License scanned = converter.convert(item);
+        for (int i = 0; i < 20; i++) {
+            item.getProperty().add(new Property("value" + i, "custom" + i));
+        }
+        item.getProperty().add(new Property("Other name", "NAME"));
+        final License indexed = converter.convert(item);
+
+        for (final License license : Arrays.asList(scanned, indexed)) {
+            assertEquals("LC001-TEST", license.getNumber());
+            assertEquals(true, license.getActive());
+            assertEquals("TimeVolume license", license.getName());
+            assertEquals(new BigDecimal("10.00"), license.getPrice());
+            assertEquals(Currency.EUR, license.getCurrency());
+            assertEquals(false, license.getHidden());
+            assertEquals("L001-TEST", license.getLicensee().getNumber());
+            assertEquals("LT001-TEST", license.getLicenseTemplate().getNumber());
+        }
+        assertEquals("value19", indexed.getProperties().get("custom19"));
+    }
+
+    @Test
+    public void testListAll() throws Exception {
+        LicenseServiceResource.requestedPages.clear();
+        final Publisher<License> publisher = AsyncLicenseService.listAll(context, null);
+        final PageSubscriber<License> subscriber = new PageSubscriber<>();
+        publisher.subscribe(subscriber);
+
+        subscriber.subscription.request(1);
+        assertEquals("LC001-TEST", subscriber.items.poll(10, TimeUnit.SECONDS).getNumber());
+        // the rest of the first page satisfies demand without fetching further pages
+        subscriber.subscription.request(2);
+        assertEquals("Test License 2", subscriber.items.poll(10, TimeUnit.SECONDS).getName());
+        assertNotNull(subscriber.items.poll(10, TimeUnit.SECONDS));
+        assertEquals(Arrays.asList("page=0"), LicenseServiceResource.requestedPages);
+
+        subscriber.subscription.request(Long.MAX_VALUE);
+        assertTrue(subscriber.completed.await(10, TimeUnit.SECONDS));
+        assertNull(subscriber.error);
+        assertEquals(6, subscriber.items.size());
+        assertEquals(Arrays.asList("page=0", "page=1", "page=2"), LicenseServiceResource.requestedPages);
+    }
+
+    @Test
+    public void testListAllConversionError() throws Exception {
+        final Publisher<License> publisher = new PagePublisher<>(context, pageNumber -> LazyPage.createInstance(
+                Arrays.asList("LC001-TEST", "LC002-TEST"), number -> {
+                    if ("LC002-TEST".equals(number)) {
+                        throw new ConversionException("Cannot convert " + number);
+                    }
+                    final License license = new LicenseImpl();
+                    license.setNumber(number);
+                    return license;
+                }, "0", "2", "1", "2", "false"));
+        final PageSubscriber<License> subscriber = new PageSubscriber<>();
+        publisher.subscribe(subscriber);
+
+        subscriber.subscription.request(Long.MAX_VALUE);
+        assertTrue(subscriber.completed.await(10, TimeUnit.SECONDS));
+        assertTrue(subscriber.error instanceof IllegalStateException);
+        assertTrue(subscriber.error.getCause() instanceof ConversionException);
+        assertEquals(1, subscriber.items.size());
+        assertEquals("LC001-TEST", subscriber.items.poll().getNumber());
+    }
+
     @Test
     public void testUpdate() throws Exception {
         final License license = new LicenseImpl();
@@ -186,13 +314,75 @@ public class LicenseServiceTest extends BaseServiceTest {
         return LicenseServiceResource.class;
     }
 
+    /**
+     * Collects published items and terminal signals, demand is requested by the test.
+     */
+    private static class PageSubscriber<T> implements Subscriber<T> {
+
+        final BlockingQueue<T> items = new LinkedBlockingQueue<>();
+
+        final CountDownLatch completed = new CountDownLatch(1);
+
+        volatile Subscription subscription;
+
+        volatile Throwable error;
+
+        @Override
+        public void onSubscribe(final Subscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(final T item) {
+            items.add(item);
+        }
+
+        @Override
+        public void onError(final Throwable error) {
+            this.error = error;
+            completed.countDown();
+        }
+
+        @Override
+        public void onComplete() {
+            completed.countDown();
+        }
+
+    }
+
     @Path(REST_API_PATH + "/" + Constants.License.ENDPOINT_PATH)
     public static class LicenseServiceResource extends AbstractNLICServiceResource {
 
+        static final int TOTAL_PAGES = 3;
+
+        static final List<String> requestedPages = new CopyOnWriteArrayList<>();
+
+        @javax.ws.rs.core.Context
+        private UriInfo uriInfo;
+
         public LicenseServiceResource() {
             super("license");
         }
 
+        /**
+         * Serves the same mock page for every page number requested through the filter.
+         */
+        @Override
+        public Response list() {
+            final String filter = uriInfo.getQueryParameters().getFirst(Constants.FILTER);
+            if (filter == null) {
+                return super.list();
+            }
+            requestedPages.add(filter);
+            final int pageNumber = Integer.parseInt(filter.substring(filter.indexOf('=') + 1));
+            final Netlicensing netlicensing = JAXBUtils.readObject(TEST_CASE_BASE + "netlicensing-license-list.xml",
+                    Netlicensing.class);
+            netlicensing.getItems().setPagenumber(String.valueOf(pageNumber));
+            netlicensing.getItems().setTotalpages(String.valueOf(TOTAL_PAGES));
+            netlicensing.getItems().setHasnext(String.valueOf(pageNumber < TOTAL_PAGES - 1));
+            return Response.ok(netlicensing).build();
+        }
+
         @Override
         public Response create(final MultivaluedMap<String, String> formParams) {
             if (!formParams.containsKey(Constants.Licensee.LICENSEE_NUMBER)) {
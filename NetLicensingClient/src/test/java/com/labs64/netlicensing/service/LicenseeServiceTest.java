@@ -12,18 +12,35 @@
  */
 package com.labs64.netlicensing.service;
 
+import static org.hamcrest.CoreMatchers.isA;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.ws.rs.FormParam;
 import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
+import javax.ws.rs.core.Form;
 import javax.ws.rs.core.MultivaluedMap;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.UriInfo;
@@ -39,9 +56,15 @@ import com.labs64.netlicensing.domain.entity.impl.LicenseeImpl;
 import com.labs64.netlicensing.domain.vo.Composition;
 import com.labs64.netlicensing.domain.vo.Context;
 import com.labs64.netlicensing.domain.vo.Page;
+import com.labs64.netlicensing.domain.vo.SecurityMode;
 import com.labs64.netlicensing.domain.vo.ValidationParameters;
 import com.labs64.netlicensing.domain.vo.ValidationResult;
+import com.labs64.netlicensing.exception.CircuitBreakerOpenException;
+import com.labs64.netlicensing.exception.DeadlineExceededException;
 import com.labs64.netlicensing.exception.ServiceException;
+import com.labs64.netlicensing.provider.policy.CircuitBreakerPolicy;
+import com.labs64.netlicensing.provider.policy.HedgingPolicy;
+import com.labs64.netlicensing.provider.policy.RetryBudget;
 import com.labs64.netlicensing.schema.context.Netlicensing;
 import com.labs64.netlicensing.util.JAXBUtils;
 
@@ -176,6 +199,285 @@ public class LicenseeServiceTest extends BaseServiceTest {
                 .get(Constants.LicensingModel.Rental.EXPIRATION_WARNING_LEVEL).getValue());
     }
 
+    @Test
+    public void testValidateAsync() throws Exception {
+        final ValidationParameters validationParameters = new ValidationParameters();
+        validationParameters.setLicenseeName("Test Licensee");
+        validationParameters.setProductNumber(productNumber);
+
+        final List<CompletableFuture<ValidationResult>> futures = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            futures.add(AsyncLicenseeService.validate(context, licenseeNumber, validationParameters));
+        }
+        for (final CompletableFuture<ValidationResult> future : futures) {
+            final ValidationResult result = future.get();
+            assertNotNull(result.getProductModuleValidation("M001-TEST"));
+        }
+    }
+
+    @Test
+    public void testValidateAllAsync() throws Exception {
+        final ValidationParameters validationParameters = new ValidationParameters();
+        validationParameters.setLicenseeName("Test Licensee");
+        validationParameters.setProductNumber(productNumber);
+
+        final List<ServiceExecutor.Call<ValidationResult>> calls = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            calls.add(() -> LicenseeService.validate(context, licenseeNumber, validationParameters));
+        }
+
+        final ExecutorService executor = ServiceExecutor.isVirtualThreadSupported()
+                ? ServiceExecutor.newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(4);
+        try {
+            final Context bulkContext = createContext();
+            bulkContext.setObject(Executor.class, executor);
+            final List<CompletableFuture<ValidationResult>> futures = ServiceExecutor.supplyAllAsync(bulkContext,
+                    calls);
+            assertEquals(calls.size(), futures.size());
+            for (final CompletableFuture<ValidationResult> future : futures) {
+                assertNotNull(future.get().getProductModuleValidation("M001-TEST"));
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testValidateFallbackWhileCircuitBreakerOpen() throws Exception {
+        final ValidationParameters validationParameters = new ValidationParameters();
+        validationParameters.setLicenseeName("Test Licensee");
+        validationParameters.setProductNumber(productNumber);
+
+        final CircuitBreakerPolicy circuitBreakerPolicy = new CircuitBreakerPolicy();
+        final Context fallbackContext = createContext();
+        fallbackContext.setObject(CircuitBreakerPolicy.class, circuitBreakerPolicy);
+        fallbackContext.setObject(ValidationResultCache.class, new ValidationResultCache());
+        fallbackContext.setObject(ClientMetrics.class, new ClientMetrics());
+
+        final ValidationResult result = LicenseeService.validate(fallbackContext, licenseeNumber,
+                validationParameters);
+        circuitBreakerPolicy.getCircuitBreaker(fallbackContext.getBaseUrl()).forceOpen();
+
+        assertSame(result, LicenseeService.validate(fallbackContext, licenseeNumber, validationParameters));
+        assertEquals(1, ClientMetrics.getMetrics(fallbackContext).getValidationFallbacks());
+
+        // nothing cached for other licensee
+        thrown.expect(CircuitBreakerOpenException.class);
+        LicenseeService.validate(fallbackContext, "L002-TEST", validationParameters);
+    }
+
+    @Test
+    public void testValidationResultCacheKeyIncludesCredentials() {
+        final Form form = new Form().param(Constants.Product.PRODUCT_NUMBER, productNumber);
+        final String key = ValidationResultCache.key(createContext(), licenseeNumber, form);
+
+        assertEquals(key, ValidationResultCache.key(createContext(), licenseeNumber, form));
+        assertNotEquals(key, ValidationResultCache.key(createContext().setPassword("wrong"), licenseeNumber, form));
+        assertNotEquals(key, ValidationResultCache.key(
+                createContext().setSecurityMode(SecurityMode.APIKEY_IDENTIFICATION), licenseeNumber, form));
+        assertFalse(ValidationResultCache.key(createContext().setPassword("s3cret"), licenseeNumber, form)
+                .contains("s3cret"));
+    }
+
+    @Test
+    public void testValidationResultCacheExpiresResultWithoutTtl() {
+        final ValidationResult result = new ValidationResult();
+        result.setTtl(null);
+
+        final ValidationResultCache cache = new ValidationResultCache(10, 60000);
+        cache.put("key", result);
+        assertSame(result, cache.get("key"));
+
+        final ValidationResultCache expiredCache = new ValidationResultCache(10, 0);
+        expiredCache.put("key", result);
+        assertNull(expiredCache.get("key"));
+        assertEquals(0, expiredCache.size());
+    }
+
+    @Test
+    public void testValidateHedged() throws Exception {
+        final ValidationParameters validationParameters = new ValidationParameters();
+        validationParameters.setLicenseeName("Test Licensee");
+        validationParameters.setProductNumber(productNumber);
+
+        final HedgingPolicy hedgingPolicy = new HedgingPolicy().setDefaultDelayMillis(50)
+                .setBudget(new RetryBudget(1.0, 10));
+        final Context hedgingContext = createContext();
+        hedgingContext.setObject(HedgingPolicy.class, hedgingPolicy);
+        hedgingContext.setObject(ClientMetrics.class, new ClientMetrics());
+
+        LicenseeServiceResource.slowValidations.set(1);
+        final long start = System.nanoTime();
+        final ValidationResult result = LicenseeService.validate(hedgingContext, licenseeNumber,
+                validationParameters);
+        final long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertNotNull(result.getProductModuleValidation("M001-TEST"));
+        assertTrue(elapsedMillis < LicenseeServiceResource.SLOW_VALIDATION_MILLIS);
+        assertEquals(1, ClientMetrics.getMetrics(hedgingContext).getHedgedRequests());
+        assertEquals(1, hedgingPolicy.getLatencyHistogram().getCount());
+        assertTrue(hedgingPolicy.getLatencyHistogram().getPercentileMillis(0.5) >= 50);
+    }
+
+    @Test
+    public void testValidateNotHedgedWhileQueued() throws Exception {
+        final ValidationParameters validationParameters = new ValidationParameters();
+        validationParameters.setLicenseeName("Test Licensee");
+        validationParameters.setProductNumber(productNumber);
+
+        final HedgingPolicy hedgingPolicy = new HedgingPolicy().setDefaultDelayMillis(250)
+                .setBudget(new RetryBudget(1.0, 10));
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        final Context hedgingContext = createContext();
+        hedgingContext.setObject(HedgingPolicy.class, hedgingPolicy);
+        hedgingContext.setObject(Executor.class, executor);
+        hedgingContext.setObject(ClientMetrics.class, new ClientMetrics());
+        try {
+            // keeps the only thread of the executor busy well beyond the hedge delay
+            final CountDownLatch busy = new CountDownLatch(1);
+            executor.execute(() -> {
+                busy.countDown();
+                try {
+                    Thread.sleep(600);
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            busy.await();
+
+            LicenseeServiceResource.slowValidations.set(0);
+            assertNotNull(LicenseeService.validate(hedgingContext, licenseeNumber, validationParameters)
+                    .getProductModuleValidation("M001-TEST"));
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(0, ClientMetrics.getMetrics(hedgingContext).getHedgedRequests());
+        assertEquals(1, hedgingPolicy.getLatencyHistogram().getCount());
+        assertTrue(hedgingPolicy.getLatencyHistogram().getPercentileMillis(0.5) < 600);
+    }
+
+    @Test
+    public void testAsyncValidateHedgedOnSingleThreadExecutor() throws Exception {
+        final ValidationParameters validationParameters = new ValidationParameters();
+        validationParameters.setLicenseeName("Test Licensee");
+        validationParameters.setProductNumber(productNumber);
+
+        final HedgingPolicy hedgingPolicy = new HedgingPolicy().setDefaultDelayMillis(50)
+                .setBudget(new RetryBudget(1.0, 10));
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        final Context hedgingContext = createContext();
+        hedgingContext.setObject(HedgingPolicy.class, hedgingPolicy);
+        hedgingContext.setObject(Executor.class, executor);
+        try {
+            // the hedged requests must not wait for the only thread of the executor, which runs the validation
+            LicenseeServiceResource.slowValidations.set(1);
+            final ValidationResult result = AsyncLicenseeService.validate(hedgingContext, licenseeNumber,
+                    validationParameters).get(LicenseeServiceResource.SLOW_VALIDATION_MILLIS, TimeUnit.MILLISECONDS);
+            assertNotNull(result.getProductModuleValidation("M001-TEST"));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testValidateHedgedWithinDeadline() throws Exception {
+        final ValidationParameters validationParameters = new ValidationParameters();
+        validationParameters.setLicenseeName("Test Licensee");
+        validationParameters.setProductNumber(productNumber);
+
+        final HedgingPolicy hedgingPolicy = new HedgingPolicy().setDefaultDelayMillis(50)
+                .setBudget(new RetryBudget(1.0, 10));
+        final Context hedgingContext = createContext();
+        hedgingContext.setObject(HedgingPolicy.class, hedgingPolicy);
+        hedgingContext.setDeadline(System.currentTimeMillis() + 500);
+
+        LicenseeServiceResource.slowValidations.set(2);
+        final long start = System.nanoTime();
+        try {
+            LicenseeService.validate(hedgingContext, licenseeNumber, validationParameters);
+            fail("DeadlineExceededException expected");
+        } catch (final DeadlineExceededException e) {
+            assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)
+                    < LicenseeServiceResource.SLOW_VALIDATION_MILLIS);
+        } finally {
+            LicenseeServiceResource.slowValidations.set(0);
+        }
+    }
+
+    @Test
+    public void testValidateCoalesced() throws Exception {
+        final ValidationParameters validationParameters = new ValidationParameters();
+        validationParameters.setLicenseeName("Test Licensee");
+        validationParameters.setProductNumber(productNumber);
+
+        final Context coalescingContext = createContext().setRequestCoalescing(true);
+        coalescingContext.setObject(ClientMetrics.class, new ClientMetrics());
+
+        LicenseeServiceResource.slowValidations.set(1);
+        LicenseeServiceResource.validations.set(0);
+        final ExecutorService executor = Executors.newFixedThreadPool(10);
+        try {
+            final List<Future<ValidationResult>> futures = new ArrayList<>();
+            futures.add(executor.submit(
+                    () -> LicenseeService.validate(coalescingContext, licenseeNumber, validationParameters)));
+            // let the first call reach the service before the identical ones are started
+            Thread.sleep(200);
+            for (int i = 1; i < 10; i++) {
+                futures.add(executor.submit(
+                        () -> LicenseeService.validate(coalescingContext, licenseeNumber, validationParameters)));
+            }
+            final ValidationResult result = futures.get(0).get();
+            for (final Future<ValidationResult> future : futures) {
+                assertSame(result, future.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(1, LicenseeServiceResource.validations.get());
+        assertEquals(9, ClientMetrics.getMetrics(coalescingContext).getCoalescedCalls());
+    }
+
+    @Test(timeout = 5000)
+    public void testCoalescedCallReleasedOnError() throws Exception {
+        final SingleFlight singleFlight = new SingleFlight();
+        final ClientMetrics metrics = new ClientMetrics();
+        final CountDownLatch started = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final Future<Object> first = executor.submit(() -> singleFlight.execute("key", Long.MAX_VALUE, () -> {
+                started.countDown();
+                // fails once the identical call has joined
+                while (metrics.getCoalescedCalls() == 0) {
+                    Thread.yield();
+                }
+                throw new StackOverflowError();
+            }, metrics));
+            started.await();
+
+            try {
+                singleFlight.execute("key", Long.MAX_VALUE, () -> null, metrics);
+                fail("StackOverflowError expected");
+            } catch (final StackOverflowError e) {
+                // the outcome of the call in flight
+            }
+            thrown.expect(ExecutionException.class);
+            thrown.expectCause(isA(StackOverflowError.class));
+            first.get();
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testDeleteAsyncFailure() throws Exception {
+        final CompletableFuture<Void> future = AsyncLicenseeService.delete(context, "L001-NONE", false);
+
+        thrown.expect(ExecutionException.class);
+        thrown.expectCause(isA(ServiceException.class));
+        future.get();
+    }
+
     @Test
     public void testTransfer() throws Exception {
         final String sourceLicenseeNumber = "L002-TEST";
@@ -205,6 +507,14 @@ public class LicenseeServiceTest extends BaseServiceTest {
     @Path(REST_API_PATH + "/" + Constants.Licensee.ENDPOINT_PATH)
     public static class LicenseeServiceResource extends AbstractNLICServiceResource {
 
+        static final long SLOW_VALIDATION_MILLIS = 2000;
+
+        /** Number of following validations answered after {@link #SLOW_VALIDATION_MILLIS} */
+        static final AtomicInteger slowValidations = new AtomicInteger();
+
+        /** Number of validation requests received */
+        static final AtomicInteger validations = new AtomicInteger();
+
         public LicenseeServiceResource() {
             super("licensee");
         }
@@ -248,6 +558,14 @@ public class LicenseeServiceTest extends BaseServiceTest {
             if (!"Test Licensee".equals(licenseeName)) {
                 return unexpectedValueErrorResponse("licenseeName");
             }
+            validations.incrementAndGet();
+            if (slowValidations.getAndDecrement() > 0) {
+                try {
+                    Thread.sleep(SLOW_VALIDATION_MILLIS);
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
 
             final Netlicensing netlicensing = JAXBUtils.readObject(TEST_CASE_BASE
                     + "netlicensing-licensee-validate.xml", Netlicensing.class);
@@ -12,17 +12,85 @@
  */
 package com.labs64.netlicensing.service;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import javax.ws.rs.GET;
 import javax.ws.rs.HttpMethod;
+import javax.ws.rs.POST;
 import javax.ws.rs.Path;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.Response;
 
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.builder.ReflectionToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+import org.glassfish.grizzly.http.server.HttpServer;
+import org.glassfish.jersey.grizzly2.httpserver.GrizzlyHttpServerFactory;
+import org.glassfish.jersey.server.ResourceConfig;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
+import com.labs64.netlicensing.domain.EntityFactory;
+import com.labs64.netlicensing.domain.entity.Country;
+import com.labs64.netlicensing.domain.entity.License;
+import com.labs64.netlicensing.domain.entity.LicenseTemplate;
+import com.labs64.netlicensing.domain.entity.Licensee;
+import com.labs64.netlicensing.domain.entity.PaymentMethod;
+import com.labs64.netlicensing.domain.entity.Product;
+import com.labs64.netlicensing.domain.entity.ProductModule;
+import com.labs64.netlicensing.domain.entity.Token;
+import com.labs64.netlicensing.domain.entity.Transaction;
 import com.labs64.netlicensing.domain.vo.Context;
+import com.labs64.netlicensing.domain.vo.LicenseTypeProperties;
+import com.labs64.netlicensing.domain.vo.LicensingModelProperties;
+import com.labs64.netlicensing.domain.vo.Page;
+import com.labs64.netlicensing.domain.vo.RestProviderType;
+import com.labs64.netlicensing.domain.vo.ValidationResult;
+import com.labs64.netlicensing.exception.BulkheadFullException;
+import com.labs64.netlicensing.exception.CircuitBreakerOpenException;
+import com.labs64.netlicensing.exception.DeadlineExceededException;
+import com.labs64.netlicensing.exception.RateLimitExceededException;
 import com.labs64.netlicensing.exception.RestException;
+import com.labs64.netlicensing.provider.ConnectionPoolSettings;
+import com.labs64.netlicensing.provider.ConnectionPoolStats;
+import com.labs64.netlicensing.provider.DefaultConfiguration;
+import com.labs64.netlicensing.provider.RestProvider;
+import com.labs64.netlicensing.provider.RestProviderJersey;
+import com.labs64.netlicensing.provider.Timeouts;
+import com.labs64.netlicensing.provider.policy.Bulkhead;
+import com.labs64.netlicensing.provider.policy.BulkheadPolicy;
+import com.labs64.netlicensing.provider.policy.CircuitBreaker;
+import com.labs64.netlicensing.provider.policy.CircuitBreakerPolicy;
+import com.labs64.netlicensing.provider.policy.RateLimiter;
+import com.labs64.netlicensing.provider.policy.RateLimiterPolicy;
+import com.labs64.netlicensing.provider.policy.RetryBudget;
+import com.labs64.netlicensing.provider.policy.RetryPolicy;
+import com.labs64.netlicensing.schema.NetlicensingJsonWriter;
+import com.labs64.netlicensing.schema.context.Info;
+import com.labs64.netlicensing.schema.context.Netlicensing;
 import com.labs64.netlicensing.schema.context.ObjectFactory;
+import com.labs64.netlicensing.util.JAXBUtils;
 
 /**
  * Common integration tests for {@link NetLicensingService}.
@@ -31,6 +99,8 @@ public class NetLicensingServiceTest extends BaseServiceTest {
 
     // *** NLIC Tests ***
 
+    private static final int SLOW_RESPONSE_MILLIS = 2000;
+
     private static Context context;
 
     @BeforeClass
@@ -48,6 +118,636 @@ public class NetLicensingServiceTest extends BaseServiceTest {
         NetLicensingService.getInstance().request(context, HttpMethod.GET, "unsupported-status-code", null, null);
     }
 
+    @Test
+    public void testProviderReuse() throws Exception {
+        final RestProviderRegistry registry = new RestProviderRegistry();
+        final RestProvider provider = registry.getProvider(context);
+
+        assertSame(provider, registry.getProvider(createContext()));
+        assertNotSame(provider, registry.getProvider(createContext().setPassword("other")));
+        assertNotSame(provider, registry.getProvider(createContext().setBaseUrl(BASE_URL_PROD)));
+        assertNotSame(registry.getProvider(createContext().setRestProviderType(RestProviderType.JERSEY)),
+                registry.getProvider(createContext().setRestProviderType(RestProviderType.URL_CONNECTION)));
+    }
+
+    @Test(expected = RestException.class)
+    public void testMissingSecurityMode() throws Exception {
+        final Context noSecurityContext = new Context().setBaseUrl(BASE_URL);
+        NetLicensingService.getInstance().request(noSecurityContext, HttpMethod.GET, "unsupported-status-code", null,
+                null);
+    }
+
+    @Test
+    public void testPooledConnector() throws Exception {
+        final ConnectionPoolSettings poolSettings = new ConnectionPoolSettings(10, 5, 60000, 10000);
+        final Context pooledContext = createContext().setRestProviderType(RestProviderType.JERSEY);
+        pooledContext.setObject(RestProvider.Configuration.class,
+                new DefaultConfiguration().setConnectionPoolSettings(poolSettings));
+
+        for (int i = 0; i < 3; i++) {
+            assertNotNull(NetLicensingService.getInstance().request(pooledContext, HttpMethod.GET, "ping", null, null));
+        }
+
+        final ConnectionPoolStats stats = RestProviderJersey.getConnectionPoolStats(poolSettings);
+        assertNotNull(stats);
+        assertEquals(0, stats.getLeased());
+        assertEquals(1, stats.getAvailable());
+        assertEquals(10, stats.getMax());
+    }
+
+    @Test
+    public void testConfigurationDefaults() throws Exception {
+        // configuration implemented before the pool settings and timeouts were added
+        final RestProvider.Configuration configuration = new RestProvider.Configuration() {
+
+            @Override
+            public String getUserAgent() {
+                return "NetLicensing/Java test";
+            }
+
+            @Override
+            public boolean isLoggingEnabled() {
+                return false;
+            }
+        };
+        assertNull(configuration.getConnectionPoolSettings());
+        assertEquals(Timeouts.INFINITE, configuration.getConnectTimeout());
+        assertEquals(Timeouts.INFINITE, configuration.getReadTimeout());
+        assertEquals(Timeouts.INFINITE, configuration.getCallTimeout());
+
+        final Context configuredContext = createContext();
+        configuredContext.setObject(RestProvider.Configuration.class, configuration);
+        assertNotNull(NetLicensingService.getInstance().request(configuredContext, HttpMethod.GET, "ping", null,
+                null));
+    }
+
+    @Test(expected = RestException.class, timeout = SLOW_RESPONSE_MILLIS)
+    public void testReadTimeout() throws Exception {
+        final Context timeoutContext = createContext().setReadTimeout(200);
+        NetLicensingService.getInstance().request(timeoutContext, HttpMethod.GET, "slow", null, null);
+    }
+
+    @Test(expected = DeadlineExceededException.class, timeout = SLOW_RESPONSE_MILLIS)
+    public void testCallTimeout() throws Exception {
+        final Context timeoutContext = createContext();
+        timeoutContext.setObject(RestProvider.Configuration.class, new DefaultConfiguration().setCallTimeout(200));
+        NetLicensingService.getInstance().request(timeoutContext, HttpMethod.GET, "slow", null, null);
+    }
+
+    @Test(expected = DeadlineExceededException.class, timeout = SLOW_RESPONSE_MILLIS)
+    public void testDeadlineShrinksTimeouts() throws Exception {
+        final Context deadlineContext = createContext().setReadTimeout(60000);
+        deadlineContext.setDeadline(System.currentTimeMillis() + 200);
+        NetLicensingService.getInstance().request(deadlineContext, HttpMethod.GET, "slow", null, null);
+    }
+
+    @Test(expected = DeadlineExceededException.class)
+    public void testDeadlinePassed() throws Exception {
+        final Context deadlineContext = createContext();
+        deadlineContext.setDeadline(System.currentTimeMillis() - 1);
+        NetLicensingService.getInstance().request(deadlineContext, HttpMethod.GET, "ping", null, null);
+    }
+
+    @Test
+    public void testTimeoutsLimitTo() {
+        final Timeouts timeouts = new Timeouts(1000, Timeouts.INFINITE);
+        final Timeouts finite = new Timeouts(1000, 2000);
+        assertSame(finite, finite.limitTo(5000));
+        final Timeouts limited = timeouts.limitTo(300);
+        assertEquals(300, limited.getConnectTimeout());
+        assertEquals(300, limited.getReadTimeout());
+        assertEquals(1000, timeouts.limitTo(5000).getConnectTimeout());
+        assertEquals(5000, timeouts.limitTo(5000).getReadTimeout());
+    }
+
+    @Test
+    public void testRetryIdempotentCall() throws Exception {
+        final Context retryContext = createRetryContext(new RetryPolicy().setBaseDelayMillis(1));
+        NLICResource.failures.set(2);
+
+        assertNotNull(NetLicensingService.getInstance().request(retryContext, HttpMethod.GET, "flaky", null, null));
+
+        final ClientMetrics metrics = ClientMetrics.getMetrics(retryContext);
+        assertEquals(1, metrics.getCalls());
+        assertEquals(3, metrics.getAttempts());
+        assertEquals(2, metrics.getRetries());
+        assertEquals(0, metrics.getFailures());
+    }
+
+    @Test
+    public void testNoRetryOfNonIdempotentCall() throws Exception {
+        final Context retryContext = createRetryContext(new RetryPolicy().setBaseDelayMillis(1));
+        NLICResource.failures.set(1);
+
+        try {
+            NetLicensingService.getInstance().request(retryContext, HttpMethod.POST, "flaky", null, null);
+            fail("RestException expected");
+        } catch (final RestException e) {
+            final ClientMetrics metrics = ClientMetrics.getMetrics(retryContext);
+            assertEquals(1, metrics.getAttempts());
+            assertEquals(0, metrics.getRetries());
+            assertEquals(1, metrics.getFailures());
+        }
+    }
+
+    @Test
+    public void testRetryBudgetExhausted() throws Exception {
+        final Context retryContext = createRetryContext(
+                new RetryPolicy().setBaseDelayMillis(1).setBudget(new RetryBudget(0, 0)));
+        NLICResource.failures.set(1);
+
+        try {
+            NetLicensingService.getInstance().request(retryContext, HttpMethod.GET, "flaky", null, null);
+            fail("RestException expected");
+        } catch (final RestException e) {
+            final ClientMetrics metrics = ClientMetrics.getMetrics(retryContext);
+            assertEquals(1, metrics.getAttempts());
+            assertEquals(1, metrics.getRetriesRejected());
+        }
+    }
+
+    @Test
+    public void testRetryBudgetReservePerSecond() {
+        long second;
+        boolean[] acquired;
+        do {
+            second = System.currentTimeMillis() / 1000;
+            final RetryBudget budget = new RetryBudget(0, 2);
+            acquired = new boolean[] { budget.tryAcquireRetry(), budget.tryAcquireRetry(), budget.tryAcquireRetry() };
+        } while (second != System.currentTimeMillis() / 1000); // the reserve is renewed every second
+        assertTrue(acquired[0]);
+        assertTrue(acquired[1]);
+        assertFalse(acquired[2]);
+    }
+
+    @Test
+    public void testRetryDelay() {
+        final RetryPolicy retryPolicy = new RetryPolicy().setBaseDelayMillis(100).setMaxDelayMillis(1000)
+                .setMaxRetryAfterMillis(5000);
+        for (int retry = 1; retry <= 10; retry++) {
+            final long delay = retryPolicy.getDelayMillis(retry, -1);
+            assertTrue(delay >= 0);
+            assertTrue(delay <= Math.min(1000, 100L << (retry - 1)));
+        }
+        assertTrue(retryPolicy.getDelayMillis(1, 3000) >= 3000);
+        assertTrue(retryPolicy.getDelayMillis(1, 6000) < 0);
+
+        assertEquals(120000, RetryPolicy.parseRetryAfter("120"));
+        assertEquals(0, RetryPolicy.parseRetryAfter("Thu, 01 Jan 1970 00:00:00 GMT"));
+        assertEquals(-1, RetryPolicy.parseRetryAfter("soon"));
+        assertEquals(-1, RetryPolicy.parseRetryAfter(null));
+    }
+
+    @Test
+    public void testCircuitBreaker() throws Exception {
+        final CircuitBreakerPolicy policy = new CircuitBreakerPolicy().setSlidingWindowSize(4)
+                .setMinimumNumberOfCalls(4).setFailureRateThreshold(0.5).setOpenDurationMillis(200)
+                .setPermittedCallsInHalfOpenState(1);
+        final Context breakerContext = createContext();
+        breakerContext.setObject(CircuitBreakerPolicy.class, policy);
+        breakerContext.setObject(ClientMetrics.class, new ClientMetrics());
+        final CircuitBreaker circuitBreaker = policy.getCircuitBreaker(breakerContext.getBaseUrl());
+
+        NLICResource.failures.set(2);
+        for (int i = 0; i < 4; i++) {
+            try {
+                NetLicensingService.getInstance().request(breakerContext, HttpMethod.GET, "flaky", null, null);
+            } catch (final RestException e) {
+                // two of four calls fail
+            }
+        }
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+
+        try {
+            NetLicensingService.getInstance().request(breakerContext, HttpMethod.GET, "ping", null, null);
+            fail("CircuitBreakerOpenException expected");
+        } catch (final CircuitBreakerOpenException e) {
+            assertEquals(4, ClientMetrics.getMetrics(breakerContext).getAttempts());
+            assertEquals(1, ClientMetrics.getMetrics(breakerContext).getCircuitBreakerRejections());
+        }
+
+        Thread.sleep(250);
+        assertNotNull(NetLicensingService.getInstance().request(breakerContext, HttpMethod.GET, "ping", null, null));
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    public void testCircuitBreakerPermitNotTakenForUnsentCall() throws Exception {
+        final CircuitBreakerPolicy policy = new CircuitBreakerPolicy().setSlidingWindowSize(2)
+                .setMinimumNumberOfCalls(2).setOpenDurationMillis(0).setPermittedCallsInHalfOpenState(1);
+        final CircuitBreaker circuitBreaker = policy.getCircuitBreaker(BASE_URL);
+        circuitBreaker.onFailure();
+        circuitBreaker.onFailure();
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+
+        final Context deadlineContext = createContext();
+        deadlineContext.setObject(CircuitBreakerPolicy.class, policy);
+        deadlineContext.setDeadline(System.currentTimeMillis() - 1);
+        try {
+            NetLicensingService.getInstance().request(deadlineContext, HttpMethod.GET, "ping", null, null);
+            fail("DeadlineExceededException expected");
+        } catch (final DeadlineExceededException e) {
+            // the request is not sent
+        }
+
+        final Context breakerContext = createContext();
+        breakerContext.setObject(CircuitBreakerPolicy.class, policy);
+        assertNotNull(NetLicensingService.getInstance().request(breakerContext, HttpMethod.GET, "ping", null, null));
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    public void testCircuitBreakerReopensOnTrialFailure() {
+        final CircuitBreaker circuitBreaker = new CircuitBreakerPolicy().setSlidingWindowSize(2)
+                .setMinimumNumberOfCalls(2).setOpenDurationMillis(0).getCircuitBreaker(BASE_URL);
+        circuitBreaker.onSuccess();
+        circuitBreaker.onFailure();
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+
+        assertTrue(circuitBreaker.tryAcquirePermission());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+        circuitBreaker.onFailure();
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+    }
+
+    @Test
+    public void testRateLimiterTryAcquire() throws Exception {
+        final RateLimiterPolicy policy = new RateLimiterPolicy().setPermitsPerSecond(2)
+                .setMode(RateLimiterPolicy.Mode.TRY_ACQUIRE);
+        final Context limitedContext = createRateLimitedContext(policy, "V001");
+        NetLicensingService.getInstance().request(limitedContext, HttpMethod.GET, "ping", null, null);
+        NetLicensingService.getInstance().request(limitedContext, HttpMethod.GET, "ping", null, null);
+        try {
+            NetLicensingService.getInstance().request(limitedContext, HttpMethod.GET, "ping", null, null);
+            fail("RateLimitExceededException expected");
+        } catch (final RateLimitExceededException e) {
+            assertTrue(e.getWaitMillis() > 0);
+            assertEquals(2, ClientMetrics.getMetrics(limitedContext).getAttempts());
+            assertEquals(1, ClientMetrics.getMetrics(limitedContext).getRateLimitRejections());
+        }
+
+        // other vendors and endpoints have their own limits
+        assertNotNull(NetLicensingService.getInstance().request(createRateLimitedContext(policy, "V002"),
+                HttpMethod.GET, "ping", null, null));
+        assertNotNull(NetLicensingService.getInstance().request(limitedContext, HttpMethod.GET, "flaky", null, null));
+    }
+
+    @Test
+    public void testRateLimiterBlocking() throws Exception {
+        final Context limitedContext = createRateLimitedContext(new RateLimiterPolicy().setPermitsPerSecond(10),
+                "V001");
+        final long start = System.nanoTime();
+        for (int i = 0; i < 12; i++) {
+            NetLicensingService.getInstance().request(limitedContext, HttpMethod.GET, "ping", null, null);
+        }
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 150);
+        assertEquals(12, ClientMetrics.getMetrics(limitedContext).getAttempts());
+        assertEquals(0, ClientMetrics.getMetrics(limitedContext).getRateLimitRejections());
+        assertTrue(ClientMetrics.getMetrics(limitedContext).getRateLimitWaits() >= 1);
+    }
+
+    @Test
+    public void testRateLimiterAsync() throws Exception {
+        final Context limitedContext = createRateLimitedContext(
+                new RateLimiterPolicy().setPermitsPerSecond(5).setMode(RateLimiterPolicy.Mode.ASYNC), "V001");
+        final List<CompletableFuture<Object>> futures = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            futures.add(ServiceExecutor.supplyAsync(limitedContext, () -> NetLicensingService.getInstance()
+                    .request(limitedContext, HttpMethod.GET, "ping", null, null)));
+        }
+        for (final CompletableFuture<Object> future : futures) {
+            assertNotNull(future.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(7, ClientMetrics.getMetrics(limitedContext).getAttempts());
+        assertTrue(ClientMetrics.getMetrics(limitedContext).getRateLimitRejections() >= 2);
+    }
+
+    @Test
+    public void testRateLimiterAdaptsToThrottling() throws Exception {
+        final RateLimiterPolicy policy = new RateLimiterPolicy().setPermitsPerSecond(8);
+        final Context limitedContext = createRateLimitedContext(policy, "V001");
+        try {
+            NetLicensingService.getInstance().request(limitedContext, HttpMethod.GET, "throttled", null, null);
+            fail("RestException expected");
+        } catch (final RestException e) {
+            assertEquals(1, ClientMetrics.getMetrics(limitedContext).getThrottledResponses());
+        }
+        final RateLimiter rateLimiter = policy.getRateLimiter("V001", "throttled");
+        assertEquals(4, rateLimiter.getRate(), 0.001);
+        assertTrue(rateLimiter.getWaitMillis() > 100);
+        assertFalse(rateLimiter.tryAcquire());
+
+        rateLimiter.onAccepted();
+        assertEquals(4.4, rateLimiter.getRate(), 0.001);
+    }
+
+    @Test
+    public void testRateLimiterEndpoint() {
+        assertEquals("validate", RateLimiterPolicy.getEndpoint("licensee/L001/validate"));
+        assertEquals("product", RateLimiterPolicy.getEndpoint("product/P001"));
+        assertEquals("product", RateLimiterPolicy.getEndpoint("product"));
+        assertEquals(5, new RateLimiterPolicy().setPermitsPerSecond("validate", 5).getPermitsPerSecond("validate"),
+                0.001);
+    }
+
+    @Test
+    public void testBulkheadFull() throws Exception {
+        final BulkheadPolicy policy = new BulkheadPolicy().setMaxConcurrentCalls(Bulkhead.Lane.MANAGEMENT, 1)
+                .setMaxQueuedCalls(Bulkhead.Lane.MANAGEMENT, 0);
+        final Context bulkheadContext = createContext();
+        bulkheadContext.setObject(BulkheadPolicy.class, policy);
+        bulkheadContext.setObject(ClientMetrics.class, new ClientMetrics());
+        final Bulkhead bulkhead = policy.getBulkhead(bulkheadContext.getBaseUrl());
+
+        assertTrue(bulkhead.acquire(Bulkhead.Lane.MANAGEMENT, 0, TimeUnit.MILLISECONDS));
+        try {
+            NetLicensingService.getInstance().request(bulkheadContext, HttpMethod.GET, "ping", null, null);
+            fail("BulkheadFullException expected");
+        } catch (final BulkheadFullException e) {
+            assertEquals(0, ClientMetrics.getMetrics(bulkheadContext).getAttempts());
+            assertEquals(1, ClientMetrics.getMetrics(bulkheadContext).getBulkheadRejections());
+        } finally {
+            bulkhead.release(Bulkhead.Lane.MANAGEMENT);
+        }
+
+        assertNotNull(NetLicensingService.getInstance().request(bulkheadContext, HttpMethod.GET, "ping", null, null));
+        assertEquals(0, bulkhead.getInFlight(Bulkhead.Lane.MANAGEMENT));
+        assertEquals(2, bulkhead.getWaitTimes(Bulkhead.Lane.MANAGEMENT).getCount());
+    }
+
+    @Test
+    public void testBulkheadValidationPriority() throws Exception {
+        final Bulkhead bulkhead = new BulkheadPolicy().setMaxConcurrentCalls(1).getBulkhead(BASE_URL);
+        assertTrue(bulkhead.acquire(Bulkhead.Lane.MANAGEMENT, 0, TimeUnit.MILLISECONDS));
+
+        final Thread management = new Thread(() -> acquireAndHold(bulkhead, Bulkhead.Lane.MANAGEMENT));
+        management.start();
+        awaitQueueDepth(bulkhead, Bulkhead.Lane.MANAGEMENT, 1);
+        final Thread validation = new Thread(() -> acquireAndHold(bulkhead, Bulkhead.Lane.VALIDATION));
+        validation.start();
+        awaitQueueDepth(bulkhead, Bulkhead.Lane.VALIDATION, 1);
+
+        // the queued validation is admitted first, although the management call has waited longer
+        bulkhead.release(Bulkhead.Lane.MANAGEMENT);
+        validation.join(5000);
+        assertEquals(0, bulkhead.getQueueDepth(Bulkhead.Lane.VALIDATION));
+        assertEquals(1, bulkhead.getQueueDepth(Bulkhead.Lane.MANAGEMENT));
+        assertEquals(1, bulkhead.getInFlight(Bulkhead.Lane.VALIDATION));
+
+        bulkhead.release(Bulkhead.Lane.VALIDATION);
+        management.join(5000);
+        assertEquals(0, bulkhead.getQueueDepth(Bulkhead.Lane.MANAGEMENT));
+        assertEquals(1, bulkhead.getInFlight(Bulkhead.Lane.MANAGEMENT));
+        assertTrue(bulkhead.getWaitTimes(Bulkhead.Lane.MANAGEMENT).getPercentileMillis(1) > 0);
+    }
+
+    private static void acquireAndHold(final Bulkhead bulkhead, final Bulkhead.Lane lane) {
+        try {
+            assertTrue(bulkhead.acquire(lane, 5, TimeUnit.SECONDS));
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void awaitQueueDepth(final Bulkhead bulkhead, final Bulkhead.Lane lane, final int depth)
+            throws InterruptedException {
+        for (int i = 0; (i < 500) && (bulkhead.getQueueDepth(lane) != depth); i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(depth, bulkhead.getQueueDepth(lane));
+    }
+
+    @Test
+    public void testFailover() throws Exception {
+        final GatewayResource down = new GatewayResource(Response.Status.SERVICE_UNAVAILABLE, 0);
+        final HttpServer downServer = startGateway(9996, down);
+        try {
+            final NetLicensingService service = new NetLicensingService();
+            final Context failoverContext = createContext().setBaseUrls(getGatewayUrl(9996), BASE_URL);
+            final BulkheadPolicy bulkheadPolicy = new BulkheadPolicy();
+            failoverContext.setObject(BulkheadPolicy.class, bulkheadPolicy);
+            failoverContext.setObject(ClientMetrics.class, new ClientMetrics());
+            assertEquals(2, failoverContext.getBaseUrls().size());
+
+            assertNotNull(service.request(failoverContext, HttpMethod.GET, "ping", null, null));
+            final ClientMetrics metrics = ClientMetrics.getMetrics(failoverContext);
+            assertEquals(2, metrics.getAttempts());
+            assertEquals(1, metrics.getFailovers());
+            assertEquals(0, metrics.getFailures());
+            // each request is sent within the bulkhead of its own base URL
+            assertEquals(1, bulkheadPolicy.getBulkhead(getGatewayUrl(9996)).getWaitTimes(Bulkhead.Lane.MANAGEMENT)
+                    .getCount());
+            assertEquals(1, bulkheadPolicy.getBulkhead(BASE_URL).getWaitTimes(Bulkhead.Lane.MANAGEMENT).getCount());
+
+            // the failed gateway is avoided until the probe interval has elapsed
+            assertNotNull(service.request(failoverContext, HttpMethod.GET, "ping", null, null));
+            assertEquals(3, metrics.getAttempts());
+            assertEquals(1, down.requests.get());
+        } finally {
+            downServer.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testBaseUrls() {
+        final Context baseUrlsContext = createContext().setBaseUrls(BASE_URL, BASE_URL_PROD);
+        assertEquals(BASE_URL, baseUrlsContext.getBaseUrl());
+        assertEquals(Arrays.asList(BASE_URL, BASE_URL_PROD), baseUrlsContext.getBaseUrls());
+
+        // a base URL set afterwards replaces the base URLs, even if it is the first of them
+        assertEquals(Collections.singletonList(BASE_URL), baseUrlsContext.setBaseUrl(BASE_URL).getBaseUrls());
+        assertEquals(Collections.singletonList(BASE_URL_PROD),
+                createContext().setBaseUrls(BASE_URL_PROD + "/v2", BASE_URL).setBaseUrl(BASE_URL_PROD).getBaseUrls());
+    }
+
+    @Test
+    public void testLatencyAwareRouting() throws Exception {
+        final GatewayResource slow = new GatewayResource(Response.Status.OK, 300);
+        final HttpServer slowServer = startGateway(9997, slow);
+        try {
+            final NetLicensingService service = new NetLicensingService();
+            final Context routingContext = createContext().setBaseUrls(getGatewayUrl(9997), BASE_URL);
+            for (int i = 0; i < 8; i++) {
+                assertNotNull(service.request(routingContext, HttpMethod.GET, "ping", null, null));
+            }
+            // each endpoint is probed, then the faster one is preferred
+            assertTrue(slow.requests.get() >= 1);
+            assertTrue(slow.requests.get() <= 2);
+            assertTrue(service.getEndpointRouter().getStats(getGatewayUrl(9997)).getLatencyMillis() >= 300);
+            assertEquals(0, service.getEndpointRouter().getStats(BASE_URL).getErrorRate(), 0);
+
+            // a base URL set afterwards replaces the base URLs
+            assertEquals(1, routingContext.setBaseUrl(BASE_URL).getBaseUrls().size());
+        } finally {
+            slowServer.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testStreamedResponsesMatchUnmarshalled() throws Exception {
+        final EntityFactory entityFactory = new EntityFactory();
+        final File[] fixtures = new File(getClass().getClassLoader().getResource(TEST_CASE_BASE).toURI()).listFiles();
+        assertTrue(fixtures.length > 0);
+        for (final File fixture : fixtures) {
+            final Netlicensing unmarshalled = JAXBUtils.readObject(TEST_CASE_BASE + fixture.getName(),
+                    Netlicensing.class);
+            final Netlicensing streamed;
+            try (final InputStream in = new FileInputStream(fixture)) {
+                streamed = entityFactory.read(in);
+            }
+            final Netlicensing lazilyStreamed;
+            try (final InputStream in = new FileInputStream(fixture)) {
+                lazilyStreamed = entityFactory.read(in, true);
+            }
+            assertEquals(unmarshalled.getId(), streamed.getId());
+            assertEquals(unmarshalled.getTtl(), streamed.getTtl());
+            for (final Class<?> entityClass : STREAMED_ENTITY_CLASSES) {
+                final String message = fixture.getName() + " as " + entityClass.getSimpleName();
+                assertEquals(message, describeEntity(entityFactory, unmarshalled, entityClass),
+                        describeEntity(entityFactory, streamed, entityClass));
+                assertEquals(message, describePage(entityFactory, unmarshalled, entityClass),
+                        describePage(entityFactory, streamed, entityClass));
+                assertEquals(message, describeEntity(entityFactory, unmarshalled, entityClass),
+                        describeEntity(entityFactory, lazilyStreamed, entityClass));
+                assertEquals(message, describePage(entityFactory, unmarshalled, entityClass, true),
+                        describePage(entityFactory, lazilyStreamed, entityClass, true));
+            }
+        }
+    }
+
+    @Test
+    public void testJsonResponsesMatchXml() throws Exception {
+        final EntityFactory entityFactory = new EntityFactory();
+        final File[] fixtures = new File(getClass().getClassLoader().getResource(TEST_CASE_BASE).toURI()).listFiles();
+        assertTrue(fixtures.length > 0);
+        for (final File fixture : fixtures) {
+            final Netlicensing unmarshalled = JAXBUtils.readObject(TEST_CASE_BASE + fixture.getName(),
+                    Netlicensing.class);
+            final ByteArrayOutputStream json = new ByteArrayOutputStream();
+            NetlicensingJsonWriter.write(unmarshalled, json);
+            final Netlicensing fromXml;
+            try (final InputStream in = new FileInputStream(fixture)) {
+                fromXml = entityFactory.read(in);
+            }
+            final Netlicensing fromJson = entityFactory.read(new ByteArrayInputStream(json.toByteArray()));
+            assertEquals(fromXml.getId(), fromJson.getId());
+            assertEquals(fromXml.getTtl(), fromJson.getTtl());
+            assertEquals(describeInfos(fromXml), describeInfos(fromJson));
+            for (final Class<?> entityClass : STREAMED_ENTITY_CLASSES) {
+                final String message = fixture.getName() + " as " + entityClass.getSimpleName();
+                assertEquals(message, describeEntity(entityFactory, fromXml, entityClass),
+                        describeEntity(entityFactory, fromJson, entityClass));
+                assertEquals(message, describePage(entityFactory, fromXml, entityClass),
+                        describePage(entityFactory, fromJson, entityClass));
+            }
+        }
+    }
+
+    @Test
+    public void testJsonResponseWithEscapesAndSingleElements() throws Exception {
+        // long enough to cross the read buffer boundaries, also within multi-byte characters
+        final String description = StringUtils.repeat("ab\u00e4\ud83d\ude00", 2000);
+        final String json = "{\"infos\":{\"info\":{\"id\":\"Info\",\"type\":\"INFO\",\"value\":\"a\\u00e4\\\"\"}},"
+                + "\"items\":{\"item\":{\"type\":\"Product\",\"unknown\":[{\"x\":[1,true,null]}],"
+                + "\"property\":[{\"name\":\"number\",\"value\":\"P\\n1\"},{\"name\":\"active\",\"value\":true},"
+                + "{\"name\":\"name\",\"value\":\"\\/\u00e4\ud83d\ude00\"},"
+                + "{\"name\":\"description\",\"value\":\"" + description + "\"}]},"
+                + "\"pagenumber\":0,\"hasnext\":false},\"id\":null}";
+        final EntityFactory entityFactory = new EntityFactory();
+        final Netlicensing netlicensing = entityFactory.read(new ByteArrayInputStream(json.getBytes("UTF-8")));
+
+        assertEquals("a\u00e4\"", netlicensing.getInfos().getInfo().get(0).getValue());
+        final Product product = entityFactory.create(netlicensing, Product.class);
+        assertEquals("P\n1", product.getNumber());
+        assertTrue(product.getActive());
+        assertEquals("/\u00e4\ud83d\ude00", product.getName());
+        assertEquals(description, product.getDescription());
+        assertEquals("0", netlicensing.getItems().getPagenumber());
+    }
+
+    private static final Class<?>[] STREAMED_ENTITY_CLASSES = { Country.class, License.class, LicenseTemplate.class,
+            Licensee.class, PaymentMethod.class, Product.class, ProductModule.class, Token.class, Transaction.class,
+            LicenseTypeProperties.class, LicensingModelProperties.class, ValidationResult.class };
+
+    private static String describeEntity(final EntityFactory entityFactory, final Netlicensing netlicensing,
+            final Class<?> entityClass) {
+        try {
+            return describe(entityFactory.create(netlicensing, entityClass));
+        } catch (final Exception e) {
+            return e.getClass().getName() + ": " + e.getMessage();
+        }
+    }
+
+    private static String describePage(final EntityFactory entityFactory, final Netlicensing netlicensing,
+            final Class<?> entityClass) {
+        return describePage(entityFactory, netlicensing, entityClass, false);
+    }
+
+    private static String describePage(final EntityFactory entityFactory, final Netlicensing netlicensing,
+            final Class<?> entityClass, final boolean lazyConversion) {
+        try {
+            final Page<?> page = entityFactory.createPage(netlicensing, entityClass, lazyConversion);
+            final StringBuilder description = new StringBuilder(page.toString());
+            description.append(' ').append(page.getTotalItems()).append(' ').append(page.hasNext());
+            for (final Object entity : page.getContent()) {
+                description.append('\n').append(describe(entity));
+                if (entity instanceof Product) {
+                    description.append(((Product) entity).getProductModules());
+                } else if (entity instanceof ProductModule) {
+                    description.append(((ProductModule) entity).getLicenseTemplates());
+                } else if (entity instanceof Licensee) {
+                    description.append(((Licensee) entity).getProduct());
+                }
+            }
+            return description.toString();
+        } catch (final Exception e) {
+            return e.getClass().getName() + ": " + e.getMessage();
+        }
+    }
+
+    private static String describeInfos(final Netlicensing netlicensing) {
+        if (netlicensing.getInfos() == null) {
+            return null;
+        }
+        final StringBuilder description = new StringBuilder();
+        for (final Info info : netlicensing.getInfos().getInfo()) {
+            description.append(info.getId()).append(' ').append(info.getType()).append(' ').append(info.getValue())
+                    .append('\n');
+        }
+        return description.toString();
+    }
+
+    private static String describe(final Object entity) throws Exception {
+        if ((entity != null) && (entity.getClass().getMethod("toString").getDeclaringClass() == Object.class)) {
+            return ReflectionToStringBuilder.toString(entity, ToStringStyle.SHORT_PREFIX_STYLE);
+        }
+        return String.valueOf(entity);
+    }
+
+    private static HttpServer startGateway(final int port, final GatewayResource resource) {
+        return GrizzlyHttpServerFactory.createHttpServer(URI.create("http://localhost:" + port + "/"),
+                new ResourceConfig().registerInstances(resource));
+    }
+
+    private static String getGatewayUrl(final int port) {
+        return "http://localhost:" + port + REST_API_PATH;
+    }
+
+    private static Context createRateLimitedContext(final RateLimiterPolicy policy, final String vendorNumber) {
+        final Context limitedContext = createContext();
+        limitedContext.setVendorNumber(vendorNumber);
+        limitedContext.setObject(RateLimiterPolicy.class, policy);
+        limitedContext.setObject(ClientMetrics.class, new ClientMetrics());
+        return limitedContext;
+    }
+
+    private static Context createRetryContext(final RetryPolicy retryPolicy) {
+        final Context retryContext = createContext();
+        retryContext.setObject(RetryPolicy.class, retryPolicy);
+        retryContext.setObject(ClientMetrics.class, new ClientMetrics());
+        return retryContext;
+    }
+
     // *** NLIC test mock resource ***
 
     @Override
@@ -55,11 +755,78 @@ public class NetLicensingServiceTest extends BaseServiceTest {
         return NLICResource.class;
     }
 
+    /**
+     * Additional service endpoint, e.g. a regional gateway, served by its own embedded server.
+     */
+    @Path(REST_API_PATH)
+    public static class GatewayResource {
+
+        final AtomicInteger requests = new AtomicInteger();
+
+        private final Response.Status status;
+
+        private final long delayMillis;
+
+        private final ObjectFactory objectFactory = new ObjectFactory();
+
+        GatewayResource(final Response.Status status, final long delayMillis) {
+            this.status = status;
+            this.delayMillis = delayMillis;
+        }
+
+        @Path("ping")
+        @GET
+        public Response ping() throws InterruptedException {
+            requests.incrementAndGet();
+            Thread.sleep(delayMillis);
+            return Response.status(status).entity(objectFactory.createNetlicensing()).build();
+        }
+
+    }
+
     @Path(REST_API_PATH)
     public static class NLICResource {
 
+        /** Number of requests to "flaky" that still fail */
+        static final AtomicInteger failures = new AtomicInteger();
+
         private final ObjectFactory objectFactory = new ObjectFactory();
 
+        @Path("ping")
+        @GET
+        public Response ping() {
+            return Response.ok(objectFactory.createNetlicensing()).build();
+        }
+
+        @Path("flaky")
+        @GET
+        public Response flaky() {
+            if (failures.getAndDecrement() > 0) {
+                return Response.status(Response.Status.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "0")
+                        .build();
+            }
+            return Response.ok(objectFactory.createNetlicensing()).build();
+        }
+
+        @Path("flaky")
+        @POST
+        public Response flakyPost() {
+            return flaky();
+        }
+
+        @Path("throttled")
+        @GET
+        public Response throttled() {
+            return Response.status(429).header(HttpHeaders.RETRY_AFTER, "1").build();
+        }
+
+        @Path("slow")
+        @GET
+        public Response slow() throws InterruptedException {
+            Thread.sleep(SLOW_RESPONSE_MILLIS);
+            return Response.ok(objectFactory.createNetlicensing()).build();
+        }
+
         @Path("unsupported-status-code")
         @GET
         public Response getUnsupportedStatusCode() {
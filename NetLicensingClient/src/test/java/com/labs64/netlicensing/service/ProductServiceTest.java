@@ -15,10 +15,17 @@ package com.labs64.netlicensing.service;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import javax.ws.rs.Path;
 import javax.ws.rs.core.MultivaluedMap;
@@ -34,7 +41,9 @@ import com.labs64.netlicensing.domain.Constants;
 import com.labs64.netlicensing.domain.entity.Product;
 import com.labs64.netlicensing.domain.entity.impl.ProductImpl;
 import com.labs64.netlicensing.domain.vo.Context;
+import com.labs64.netlicensing.domain.vo.LazyPage;
 import com.labs64.netlicensing.domain.vo.Page;
+import com.labs64.netlicensing.domain.vo.WireFormat;
 import com.labs64.netlicensing.exception.ServiceException;
 
 /**
@@ -126,6 +135,59 @@ public class ProductServiceTest extends BaseServiceTest {
         assertEquals("v2.0", products.getContent().get(2).getVersion());
     }
 
+    @Test
+    public void testListConvertsEachProductOnce() throws Exception {
+        for (final WireFormat wireFormat : WireFormat.values()) {
+            for (final boolean lazyPageConversion : new boolean[] { false, true }) {
+                assertConvertsEachProductOnce(ProductService.list(createContext().setWireFormat(wireFormat)
+                        .setLazyPageConversion(lazyPageConversion), null), lazyPageConversion);
+            }
+        }
+    }
+
+    private static void assertConvertsEachProductOnce(final Page<Product> products, final boolean lazy) {
+        assertEquals(lazy, products instanceof LazyPage);
+        assertEquals(3, products.getContent().size());
+        final Product secondProduct = products.getContent().get(1);
+        assertEquals("Test Product 2", secondProduct.getName());
+        assertSame(secondProduct, products.getContent().get(1));
+
+        int index = 0;
+        for (final Product product : products) {
+            assertSame(products.getContent().get(index++), product);
+        }
+        assertEquals(3, index);
+    }
+
+    @Test
+    public void testConcurrentConversion() throws Exception {
+        final String expectedProduct = ProductService.get(context, "P014-TEST").toString();
+        final String expectedProducts = ProductService.list(context, null).getContent().toString();
+
+        final int threads = 8;
+        final CountDownLatch start = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            final List<Future<Void>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int j = 0; j < 25; j++) {
+                        assertEquals(expectedProduct, ProductService.get(context, "P014-TEST").toString());
+                        assertEquals(expectedProducts, ProductService.list(context, null).getContent().toString());
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (final Future<Void> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
     @Test
     public void testUpdate() throws Exception {
         final Product product = new ProductImpl();
@@ -155,6 +217,22 @@ public class ProductServiceTest extends BaseServiceTest {
         ProductService.delete(context, "P001-NONE", false);
     }
 
+    @Test
+    public void testJsonWireFormat() throws Exception {
+        final Context jsonContext = createContext().setWireFormat(WireFormat.JSON);
+        final int jsonResponses = JsonMessageBodyWriter.responses.get();
+
+        assertEquals(ProductService.get(context, "P014-TEST").toString(),
+                ProductService.get(jsonContext, "P014-TEST").toString());
+        assertEquals(ProductService.list(context, null).getContent().toString(),
+                ProductService.list(jsonContext, null).getContent().toString());
+        assertEquals(2, JsonMessageBodyWriter.responses.get() - jsonResponses);
+
+        thrown.expect(ServiceException.class);
+        thrown.expectMessage("NotFoundException: Requested product does not exist");
+        ProductService.delete(jsonContext, "P001-NONE", false);
+    }
+
     // *** NLIC test mock resource ***
 
     @Override
@@ -15,8 +15,11 @@ package com.labs64.netlicensing.service;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
+import java.io.ByteArrayInputStream;
 import java.math.BigDecimal;
+import java.util.Arrays;
 
 import javax.ws.rs.GET;
 import javax.ws.rs.Path;
@@ -26,9 +29,13 @@ import org.junit.BeforeClass;
 import org.junit.Test;
 
 import com.labs64.netlicensing.domain.Constants;
+import com.labs64.netlicensing.domain.EntityFactory;
 import com.labs64.netlicensing.domain.entity.Country;
 import com.labs64.netlicensing.domain.vo.Context;
+import com.labs64.netlicensing.domain.vo.LazyPage;
+import com.labs64.netlicensing.domain.vo.LicenseTypeProperties;
 import com.labs64.netlicensing.domain.vo.Page;
+import com.labs64.netlicensing.exception.ConversionException;
 import com.labs64.netlicensing.schema.context.Netlicensing;
 import com.labs64.netlicensing.util.JAXBUtils;
 
@@ -69,6 +76,44 @@ public class UtilityServiceTest extends BaseServiceTest {
         assertEquals("TIMEVOLUME", licenseTypes.getContent().get(1));
     }
 
+    @Test
+    public void testPageConversionError() throws Exception {
+        final Netlicensing netlicensing = JAXBUtils.readObject(TEST_CASE_BASE + "netlicensing-licenseTypes-list.xml",
+                Netlicensing.class);
+        // resolves to the license type entity, but is rejected by its converter
+        netlicensing.getItems().getItem().get(1).setType("LicenseTypeProperties");
+        final EntityFactory entityFactory = new EntityFactory();
+        final byte[] xml = JAXBUtils.xmlEntityToString(netlicensing).getBytes("UTF-8");
+
+        // converted up front by default, as read from the response stream or unmarshalled
+        for (final Netlicensing response : Arrays.asList(netlicensing,
+                entityFactory.read(new ByteArrayInputStream(xml)))) {
+            try {
+                entityFactory.createPage(response, LicenseTypeProperties.class);
+                fail("ConversionException expected");
+            } catch (final ConversionException e) {
+                assertTrue(e.getMessage().contains("LicenseTypeProperties"));
+            }
+        }
+
+        final Page<LicenseTypeProperties> licenseTypes = entityFactory.createPage(
+                entityFactory.read(new ByteArrayInputStream(xml), true), LicenseTypeProperties.class);
+
+        assertEquals("FEATURE", licenseTypes.getContent().get(0).getName());
+        try {
+            licenseTypes.getContent().get(1);
+            fail("IllegalStateException expected");
+        } catch (final IllegalStateException e) {
+            assertTrue(e.getCause() instanceof ConversionException);
+        }
+        try {
+            LazyPage.convertAll(licenseTypes);
+            fail("ConversionException expected");
+        } catch (final ConversionException e) {
+            assertTrue(e.getMessage().contains("LicenseTypeProperties"));
+        }
+    }
+
     @Test
     public void testListCountries() throws Exception {
         final Page<Country> countries = UtilityService.listCountries(context, null);
@@ -81,6 +126,21 @@ public class UtilityServiceTest extends BaseServiceTest {
         assertEquals(true, countries.getContent().get(1).getIsEu());
     }
 
+    @Test
+    public void testWarmUp() throws Exception {
+        final Context warmUpContext = createContext();
+        warmUpContext.setObject(ClientMetrics.class, new ClientMetrics());
+        final WarmUpReport report = UtilityService.warmUp(warmUpContext);
+
+        assertNotNull(report);
+        assertEquals(1, ClientMetrics.getMetrics(warmUpContext).getCalls());
+        assertTrue(report.getTotalMillis() >= report.getDurationMillis(WarmUpReport.Phase.PROBE));
+        assertTrue(report.toString().contains("PROBE="));
+
+        new NetLicensingService().warmUp(warmUpContext, 3);
+        assertEquals(4, ClientMetrics.getMetrics(warmUpContext).getCalls());
+    }
+
     // *** NLIC test mock resource ***
 
     @Override